@@ -1,13 +1,15 @@
 package com.ecommerce.backend;
 
 import com.ecommerce.backend.modules.auth.jwt.JwtProps;
+import com.ecommerce.backend.modules.inventory.config.InventoryProps;
+import com.ecommerce.backend.modules.order.config.OrderProps;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-@EnableConfigurationProperties({JwtProps.class})
+@EnableConfigurationProperties({JwtProps.class, InventoryProps.class, OrderProps.class})
 @EnableScheduling
 public class BackendApplication {
     public static void main(String[] args) {
@@ -27,6 +27,7 @@ public class CorsConfig {
         configuration.addAllowedHeader("Access-Control-Request-Method");
         configuration.addAllowedHeader("Access-Control-Request-Headers");
         configuration.addAllowedHeader("X-Requested-With");
+        configuration.addAllowedHeader("Idempotency-Key");
 
         configuration.addExposedHeader("Authorization");
         configuration.addExposedHeader("Link");
@@ -22,11 +22,13 @@ public class RabbitConfig {
     public static final String INVENTORY_EVENTS_QUEUE = "inventory.events.queue";
     public static final String USER_REGISTRATION_NOTIFICATIONS_QUEUE = "user.registration.notifications.queue";
     public static final String CART_ABANDONED_NOTIFICATIONS_QUEUE = "cart.abandoned.notifications.queue";
+    public static final String ANALYTICS_EVENTS_QUEUE = "analytics.events.queue";
 
     public static final String ORDER_NOTIFICATIONS_DLQ = ORDER_NOTIFICATIONS_QUEUE + ".dlq";
     public static final String INVENTORY_EVENTS_DLQ = INVENTORY_EVENTS_QUEUE + ".dlq";
     public static final String USER_REGISTRATION_NOTIFICATIONS_DLQ = USER_REGISTRATION_NOTIFICATIONS_QUEUE + ".dlq";
     public static final String CART_ABANDONED_NOTIFICATIONS_DLQ = CART_ABANDONED_NOTIFICATIONS_QUEUE + ".dlq";
+    public static final String ANALYTICS_EVENTS_DLQ = ANALYTICS_EVENTS_QUEUE + ".dlq";
 
     @Bean
     public TopicExchange orderEventsExchange() {
@@ -100,6 +102,19 @@ public class RabbitConfig {
         return new Queue(CART_ABANDONED_NOTIFICATIONS_DLQ);
     }
 
+    @Bean
+    public Queue analyticsEventsQueue() {
+        return QueueBuilder.durable(ANALYTICS_EVENTS_QUEUE)
+                .withArgument("x-dead-letter-exchange", DEAD_LETTER_EXCHANGE)
+                .withArgument("x-dead-letter-routing-key", ANALYTICS_EVENTS_DLQ)
+                .build();
+    }
+
+    @Bean
+    public Queue analyticsEventsDlq() {
+        return new Queue(ANALYTICS_EVENTS_DLQ);
+    }
+
     @Bean
     public Binding inventoryBinding() {
         return BindingBuilder.bind(inventoryEventsQueue()).to(orderEventsExchange()).with("order.#");
@@ -110,6 +125,11 @@ public class RabbitConfig {
         return BindingBuilder.bind(orderNotificationsQueue()).to(orderEventsExchange()).with("order.#");
     }
 
+    @Bean
+    public Binding analyticsBinding() {
+        return BindingBuilder.bind(analyticsEventsQueue()).to(orderEventsExchange()).with("order.#");
+    }
+
     @Bean
     public Binding userRegistrationBinding() {
         return BindingBuilder.bind(userRegistrationNotificationsQueue()).to(userEventsExchange()).with("user.registered");
@@ -140,6 +160,11 @@ public class RabbitConfig {
         return BindingBuilder.bind(cartAbandonedNotificationsDlq()).to(deadLetterExchange()).with(CART_ABANDONED_NOTIFICATIONS_DLQ);
     }
 
+    @Bean
+    public Binding analyticsDlqBinding() {
+        return BindingBuilder.bind(analyticsEventsDlq()).to(deadLetterExchange()).with(ANALYTICS_EVENTS_DLQ);
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter(ObjectMapper objectMapper) {
         return new Jackson2JsonMessageConverter(objectMapper);
@@ -73,6 +73,10 @@ public class SecurityConfig {
                                 .requestMatchers(HttpMethod.GET, "/api/categories", "/api/products",
                                         "/api/products/**").permitAll()
                                 .requestMatchers(HttpMethod.GET, "/api/products/*/reviews").permitAll()
+                                .requestMatchers(HttpMethod.POST, "/api/inventory/check-availability",
+                                        "/api/inventory/availability").permitAll()
+                                .requestMatchers(HttpMethod.GET, "/api/inventory/product/*/available").permitAll()
+                                .requestMatchers("/api/guest-cart", "/api/guest-cart/**").permitAll()
 
                                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
 
@@ -0,0 +1,27 @@
+package com.ecommerce.backend.modules.analytics.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "analytics")
+@Component
+@Data
+public class AnalyticsProps {
+    private Rollup rollup = new Rollup();
+
+    @Data
+    public static class Rollup {
+        /**
+         * How long sales stay in memory before they are added to {@code sales_rollup}; a crash loses at most this much.
+         */
+        private long flushIntervalMs = 10000;
+        private int minuteRetentionDays = 7;
+        private int hourRetentionDays = 90;
+        private String purgeCron = "0 15 4 * * *";
+        /**
+         * Upper bound of the buckets one revenue series request may span.
+         */
+        private int maxSeriesPoints = 2000;
+    }
+}
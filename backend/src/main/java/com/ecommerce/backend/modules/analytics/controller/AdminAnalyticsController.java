@@ -0,0 +1,63 @@
+package com.ecommerce.backend.modules.analytics.controller;
+
+import com.ecommerce.backend.modules.analytics.dto.SalesPointDto;
+import com.ecommerce.backend.modules.analytics.dto.TopProductDto;
+import com.ecommerce.backend.modules.analytics.entity.SalesGranularity;
+import com.ecommerce.backend.modules.analytics.service.SalesAnalyticsService;
+import com.ecommerce.backend.shared.exception.ValidationException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/analytics")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Slf4j
+public class AdminAnalyticsController {
+
+    private static final int MAX_TOP_PRODUCTS = 100;
+
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    @GetMapping("/top-products")
+    public ResponseEntity<List<TopProductDto>> getTopProducts(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        if (from.isAfter(to)) {
+            throw new ValidationException("Range start is after its end");
+        }
+        if (limit < 1 || limit > MAX_TOP_PRODUCTS) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_TOP_PRODUCTS);
+        }
+        log.info("Admin request to get top {} products from {} to {}. Category: {}", limit, from, to, categoryId);
+        return ResponseEntity.ok(salesAnalyticsService.getTopProducts(from, to, categoryId, limit));
+    }
+
+    @GetMapping("/revenue")
+    public ResponseEntity<List<SalesPointDto>> getRevenueSeries(
+            @RequestParam(defaultValue = "HOUR") SalesGranularity granularity,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Long categoryId
+    ) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Range start must be before its end");
+        }
+        log.info("Admin request to get {} revenue from {} to {}. Category: {}", granularity, from, to, categoryId);
+        return ResponseEntity.ok(salesAnalyticsService.getRevenueSeries(granularity, from, to, categoryId));
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.backend.modules.analytics.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesPointDto implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private LocalDateTime bucketStart;
+    private long quantity;
+    private BigDecimal revenue;
+}
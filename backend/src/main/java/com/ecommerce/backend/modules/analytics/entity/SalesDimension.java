@@ -0,0 +1,10 @@
+package com.ecommerce.backend.modules.analytics.entity;
+
+/**
+ * What a {@code sales_rollup} row is keyed by. TOTAL rows cover all sales and always have dimension id 0.
+ */
+public enum SalesDimension {
+    PRODUCT,
+    CATEGORY,
+    TOTAL
+}
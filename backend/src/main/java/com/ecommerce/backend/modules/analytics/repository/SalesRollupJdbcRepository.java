@@ -0,0 +1,143 @@
+package com.ecommerce.backend.modules.analytics.repository;
+
+import com.ecommerce.backend.modules.analytics.dto.SalesPointDto;
+import com.ecommerce.backend.modules.analytics.dto.TopProductDto;
+import com.ecommerce.backend.modules.analytics.entity.SalesDimension;
+import com.ecommerce.backend.modules.analytics.entity.SalesGranularity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Repository
+@RequiredArgsConstructor
+public class SalesRollupJdbcRepository {
+
+    private static final String ADD_SQL = """
+            INSERT INTO sales_rollup (granularity, dimension, dimension_id, bucket_start, quantity, revenue)
+            VALUES (?, ?, ?, ?, ?, ?)
+            ON CONFLICT (granularity, dimension, dimension_id, bucket_start) DO UPDATE
+            SET quantity = sales_rollup.quantity + EXCLUDED.quantity,
+                revenue = sales_rollup.revenue + EXCLUDED.revenue,
+                updated_at = CURRENT_TIMESTAMP
+            """;
+
+    private static final String TOP_PRODUCTS_SQL = """
+            SELECT r.dimension_id, p.name, SUM(r.quantity) AS quantity, SUM(r.revenue) AS revenue
+            FROM sales_rollup r
+            LEFT JOIN products p ON p.id = r.dimension_id
+            WHERE r.granularity = 'DAY' AND r.dimension = 'PRODUCT' AND r.bucket_start >= ? AND r.bucket_start < ?%s
+            GROUP BY r.dimension_id, p.name
+            ORDER BY revenue DESC, r.dimension_id
+            LIMIT ?
+            """;
+
+    private static final String SERIES_SQL = """
+            SELECT bucket_start, quantity, revenue
+            FROM sales_rollup
+            WHERE granularity = ? AND dimension = ? AND dimension_id = ? AND bucket_start >= ? AND bucket_start < ?
+            ORDER BY bucket_start
+            """;
+
+    private static final String PURGE_SQL = "DELETE FROM sales_rollup WHERE granularity = ? AND bucket_start < ?";
+
+    private static final String FIND_PRODUCT_CATEGORIES_SQL = "SELECT id, category_id FROM products WHERE id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds the quantities and revenues to their rows, creating missing ones. Rows are written in key order so
+     * that concurrent flushes lock them in the same order.
+     */
+    public void add(List<Rollup> rollups) {
+        if (rollups.isEmpty()) {
+            return;
+        }
+        List<Object[]> batchArgs = rollups.stream()
+                .sorted(Rollup.KEY_ORDER)
+                .map(rollup -> new Object[]{
+                        rollup.granularity().name(),
+                        rollup.dimension().name(),
+                        rollup.dimensionId(),
+                        Timestamp.valueOf(rollup.bucketStart()),
+                        rollup.quantity(),
+                        rollup.revenue()
+                })
+                .toList();
+        jdbcTemplate.batchUpdate(ADD_SQL, batchArgs);
+    }
+
+    /**
+     * @param categoryId only products of this category, or all products if {@code null}
+     */
+    public List<TopProductDto> findTopProducts(LocalDateTime from, LocalDateTime to, Long categoryId, int limit) {
+        List<Object> args = new ArrayList<>(List.of(Timestamp.valueOf(from), Timestamp.valueOf(to)));
+        if (categoryId != null) {
+            args.add(categoryId);
+        }
+        args.add(limit);
+        return jdbcTemplate.query(TOP_PRODUCTS_SQL.formatted(categoryId != null ? " AND p.category_id = ?" : ""),
+                (rs, rowNum) -> TopProductDto.builder()
+                        .productId(rs.getLong("dimension_id"))
+                        .productName(rs.getString("name"))
+                        .quantity(rs.getLong("quantity"))
+                        .revenue(rs.getBigDecimal("revenue"))
+                        .build(),
+                args.toArray());
+    }
+
+    /**
+     * @return non-empty buckets only, oldest first
+     */
+    public List<SalesPointDto> findSeries(SalesGranularity granularity, SalesDimension dimension, long dimensionId,
+                                          LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(SERIES_SQL,
+                (rs, rowNum) -> SalesPointDto.builder()
+                        .bucketStart(rs.getTimestamp("bucket_start").toLocalDateTime())
+                        .quantity(rs.getLong("quantity"))
+                        .revenue(rs.getBigDecimal("revenue"))
+                        .build(),
+                granularity.name(), dimension.name(), dimensionId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    public int purge(SalesGranularity granularity, LocalDateTime before) {
+        return jdbcTemplate.update(PURGE_SQL, granularity.name(), Timestamp.valueOf(before));
+    }
+
+    /**
+     * @return category id per product; deleted products are missing from the map
+     */
+    public Map<Long, Long> findProductCategories(Collection<Long> productIds) {
+        Map<Long, Long> categories = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return categories;
+        }
+        jdbcTemplate.query(
+                FIND_PRODUCT_CATEGORIES_SQL.formatted(String.join(", ", Collections.nCopies(productIds.size(), "?"))),
+                rs -> {
+                    categories.put(rs.getLong("id"), rs.getLong("category_id"));
+                },
+                productIds.toArray());
+        return categories;
+    }
+
+    public record Rollup(SalesGranularity granularity, SalesDimension dimension, long dimensionId,
+                         LocalDateTime bucketStart, long quantity, BigDecimal revenue) {
+
+        static final Comparator<Rollup> KEY_ORDER = Comparator
+                .comparing(Rollup::granularity)
+                .thenComparing(Rollup::dimension)
+                .thenComparingLong(Rollup::dimensionId)
+                .thenComparing(Rollup::bucketStart);
+    }
+}
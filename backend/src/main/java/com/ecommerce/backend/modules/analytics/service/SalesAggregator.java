@@ -0,0 +1,134 @@
+package com.ecommerce.backend.modules.analytics.service;
+
+import com.ecommerce.backend.modules.analytics.entity.SalesDimension;
+import com.ecommerce.backend.modules.analytics.entity.SalesGranularity;
+import com.ecommerce.backend.modules.analytics.repository.SalesRollupJdbcRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Sums sales in memory per minute and per product, category and in total, and periodically adds the sums to the
+ * minute, hour and day rows of {@code sales_rollup}. Every instance flushes its own sums; the rows are additive,
+ * so instances consuming the same queue never overwrite each other.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesAggregator {
+
+    private static final SalesDimension[] DIMENSIONS = SalesDimension.values();
+
+    private final SalesRollupJdbcRepository salesRollupJdbcRepository;
+
+    /**
+     * Products do not change category in practice, so a product's category is looked up once.
+     */
+    private final Map<Long, Long> productCategories = new ConcurrentHashMap<>();
+
+    private Map<LocalDateTime, SalesCounters> pending = new HashMap<>();
+
+    /**
+     * Adds the lines of an order to the minute it was placed in.
+     *
+     * @param sign 1 for a placed order, -1 for a cancelled one
+     */
+    public void record(LocalDateTime orderCreatedAt, List<Line> lines, int sign) {
+        Set<Long> unknownProducts = lines.stream()
+                .map(Line::productId)
+                .filter(productId -> !productCategories.containsKey(productId))
+                .collect(Collectors.toSet());
+        if (!unknownProducts.isEmpty()) {
+            productCategories.putAll(salesRollupJdbcRepository.findProductCategories(unknownProducts));
+        }
+
+        LocalDateTime minute = SalesGranularity.MINUTE.bucketStart(orderCreatedAt);
+        synchronized (this) {
+            SalesCounters counters = pending.computeIfAbsent(minute, key -> new SalesCounters());
+            for (Line line : lines) {
+                long quantity = (long) sign * line.quantity();
+                long revenueCents = sign * line.unitPrice().multiply(BigDecimal.valueOf(line.quantity()))
+                        .setScale(2, RoundingMode.HALF_UP)
+                        .unscaledValue()
+                        .longValueExact();
+                counters.add(key(SalesDimension.PRODUCT, line.productId()), quantity, revenueCents);
+                Long categoryId = productCategories.get(line.productId());
+                if (categoryId != null) {
+                    counters.add(key(SalesDimension.CATEGORY, categoryId), quantity, revenueCents);
+                }
+                counters.add(key(SalesDimension.TOTAL, 0), quantity, revenueCents);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.rollup.flush-interval-ms:10000}")
+    @PreDestroy
+    public void flush() {
+        Map<LocalDateTime, SalesCounters> drained;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            drained = pending;
+            pending = new HashMap<>();
+        }
+
+        try {
+            List<SalesRollupJdbcRepository.Rollup> rollups = toRollups(drained);
+            salesRollupJdbcRepository.add(rollups);
+            log.debug("Flushed {} sales rollups from {} minutes", rollups.size(), drained.size());
+        } catch (Exception e) {
+            log.error("Failed to flush sales rollups, keeping them for the next flush. Error: {}", e.getMessage());
+            synchronized (this) {
+                drained.forEach((minute, counters) ->
+                        pending.computeIfAbsent(minute, key -> new SalesCounters()).addAll(counters));
+            }
+        }
+    }
+
+    private List<SalesRollupJdbcRepository.Rollup> toRollups(Map<LocalDateTime, SalesCounters> minutes) {
+        // Minutes of the same hour or day add up to one row
+        Map<RollupKey, long[]> sums = new HashMap<>();
+        minutes.forEach((minute, counters) -> counters.forEach((key, quantity, revenueCents) -> {
+            for (SalesGranularity granularity : SalesGranularity.values()) {
+                long[] sum = sums.computeIfAbsent(
+                        new RollupKey(granularity, granularity.bucketStart(minute), key), rollupKey -> new long[2]);
+                sum[0] += quantity;
+                sum[1] += revenueCents;
+            }
+        }));
+
+        List<SalesRollupJdbcRepository.Rollup> rollups = new ArrayList<>(sums.size());
+        sums.forEach((rollupKey, sum) -> rollups.add(new SalesRollupJdbcRepository.Rollup(
+                rollupKey.granularity(),
+                DIMENSIONS[(int) (rollupKey.key() & 3)],
+                rollupKey.key() >>> 2,
+                rollupKey.bucketStart(),
+                sum[0],
+                BigDecimal.valueOf(sum[1], 2))));
+        return rollups;
+    }
+
+    private long key(SalesDimension dimension, long id) {
+        return id << 2 | dimension.ordinal();
+    }
+
+    public record Line(Long productId, int quantity, BigDecimal unitPrice) {
+    }
+
+    private record RollupKey(SalesGranularity granularity, LocalDateTime bucketStart, long key) {
+    }
+}
@@ -0,0 +1,84 @@
+package com.ecommerce.backend.modules.analytics.service;
+
+import com.ecommerce.backend.modules.analytics.config.AnalyticsProps;
+import com.ecommerce.backend.modules.analytics.dto.SalesPointDto;
+import com.ecommerce.backend.modules.analytics.dto.TopProductDto;
+import com.ecommerce.backend.modules.analytics.entity.SalesDimension;
+import com.ecommerce.backend.modules.analytics.entity.SalesGranularity;
+import com.ecommerce.backend.modules.analytics.repository.SalesRollupJdbcRepository;
+import com.ecommerce.backend.shared.exception.ValidationException;
+import com.ecommerce.backend.shared.scheduling.ScheduledJobLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Serves sales dashboards from {@code sales_rollup} instead of grouping {@code order_items}. Figures lag behind
+ * the orders by up to the flush interval of {@link SalesAggregator}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesAnalyticsService {
+
+    private static final String PURGE_JOB_NAME = "sales-rollup-purge";
+
+    private final SalesRollupJdbcRepository salesRollupJdbcRepository;
+    private final AnalyticsProps analyticsProps;
+    private final ScheduledJobLock scheduledJobLock;
+
+    /**
+     * @param from inclusive first day
+     * @param to   inclusive last day
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<TopProductDto> getTopProducts(LocalDate from, LocalDate to, Long categoryId, int limit) {
+        log.info("Fetching top {} products from {} to {}. Category: {}", limit, from, to, categoryId);
+        return salesRollupJdbcRepository.findTopProducts(from.atStartOfDay(), to.plusDays(1).atStartOfDay(), categoryId, limit);
+    }
+
+    /**
+     * @param from       inclusive start, rounded down to its bucket
+     * @param to         exclusive end
+     * @param categoryId revenue of this category, or of all sales if {@code null}
+     */
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public List<SalesPointDto> getRevenueSeries(SalesGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                                Long categoryId) {
+        LocalDateTime start = granularity.bucketStart(from);
+        long points = Duration.between(start, to).dividedBy(granularity.bucketLength());
+        if (points > analyticsProps.getRollup().getMaxSeriesPoints()) {
+            throw new ValidationException("Range spans " + points + " " + granularity + " buckets, at most "
+                    + analyticsProps.getRollup().getMaxSeriesPoints() + " are allowed");
+        }
+        log.info("Fetching {} revenue series from {} to {}. Category: {}", granularity, start, to, categoryId);
+        return categoryId != null
+                ? salesRollupJdbcRepository.findSeries(granularity, SalesDimension.CATEGORY, categoryId, start, to)
+                : salesRollupJdbcRepository.findSeries(granularity, SalesDimension.TOTAL, 0, start, to);
+    }
+
+    /**
+     * Drops minute and hour rows past their retention; day rows are kept.
+     */
+    @Scheduled(cron = "${analytics.rollup.purge-cron:0 15 4 * * *}")
+    public void purgeExpiredRollups() {
+        scheduledJobLock.runLocked(PURGE_JOB_NAME, Duration.ofMinutes(30), () -> {
+            LocalDateTime now = LocalDateTime.now();
+            int minutes = salesRollupJdbcRepository.purge(SalesGranularity.MINUTE,
+                    now.minusDays(analyticsProps.getRollup().getMinuteRetentionDays()));
+            int hours = salesRollupJdbcRepository.purge(SalesGranularity.HOUR,
+                    now.minusDays(analyticsProps.getRollup().getHourRetentionDays()));
+            log.info("Purged {} minute and {} hour sales rollups", minutes, hours);
+        });
+    }
+}
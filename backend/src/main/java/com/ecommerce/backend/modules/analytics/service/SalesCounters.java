@@ -0,0 +1,89 @@
+package com.ecommerce.backend.modules.analytics.service;
+
+import java.util.Arrays;
+
+/**
+ * Quantity and revenue in cents per non-negative long key, in open-addressed parallel arrays so that adding a
+ * sale neither boxes the key nor allocates an entry. Not thread-safe.
+ */
+final class SalesCounters {
+
+    private static final long EMPTY = -1;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private long[] quantities;
+    private long[] revenueCents;
+    private int size;
+
+    SalesCounters() {
+        allocate(64);
+    }
+
+    void add(long key, long quantity, long revenue) {
+        int slot = slot(key);
+        if (keys[slot] == EMPTY) {
+            keys[slot] = key;
+            size++;
+        }
+        quantities[slot] += quantity;
+        revenueCents[slot] += revenue;
+        if (size > keys.length * LOAD_FACTOR) {
+            grow();
+        }
+    }
+
+    void addAll(SalesCounters other) {
+        other.forEach(this::add);
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(Visitor visitor) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                visitor.visit(keys[i], quantities[i], revenueCents[i]);
+            }
+        }
+    }
+
+    private int slot(long key) {
+        int mask = keys.length - 1;
+        int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldQuantities = quantities;
+        long[] oldRevenueCents = revenueCents;
+        allocate(oldKeys.length * 2);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                quantities[slot] = oldQuantities[i];
+                revenueCents[slot] = oldRevenueCents[i];
+                size++;
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        quantities = new long[capacity];
+        revenueCents = new long[capacity];
+    }
+
+    @FunctionalInterface
+    interface Visitor {
+        void visit(long key, long quantity, long revenueCents);
+    }
+}
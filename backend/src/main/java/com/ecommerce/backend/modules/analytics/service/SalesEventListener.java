@@ -0,0 +1,91 @@
+package com.ecommerce.backend.modules.analytics.service;
+
+import com.ecommerce.backend.config.RabbitConfig;
+import com.ecommerce.backend.modules.order.dto.OrderEventDto;
+import com.ecommerce.backend.modules.order.entity.Order;
+import com.ecommerce.backend.modules.order.entity.OrderStatus;
+import com.ecommerce.backend.shared.events.OrderCreatedEvent;
+import com.ecommerce.backend.shared.events.OrderStatusChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Recover;
+import org.springframework.retry.annotation.Retryable;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Feeds placed and cancelled orders into the {@link SalesAggregator}. A cancellation takes the order's lines out
+ * of the minute the order was placed in, so every bucket shows the net sales of the orders placed in it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SalesEventListener {
+
+    private static final int PROCESSED_EVENT_IDS_CAPACITY = 100000;
+
+    private final SalesAggregator salesAggregator;
+    private final ObjectMapper objectMapper;
+    private final Set<String> processedEventIds = Collections.synchronizedSet(Collections.newSetFromMap(
+            new LinkedHashMap<>() {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > PROCESSED_EVENT_IDS_CAPACITY;
+                }
+            }));
+
+    @RabbitListener(queues = RabbitConfig.ANALYTICS_EVENTS_QUEUE)
+    @Retryable(retryFor = {Exception.class}, maxAttempts = 3, backoff = @Backoff(delay = 2000, multiplier = 2))
+    public void handleOrderEvent(@Payload String eventJson) throws JsonProcessingException {
+        JsonNode rootNode = objectMapper.readTree(eventJson);
+        String eventType = rootNode.get("eventType").asText();
+        String eventId = rootNode.get("eventId").asText();
+        if (processedEventIds.contains(eventId)) {
+            log.warn("Sales event {} already processed. Skipping.", eventId);
+            return;
+        }
+
+        if (eventType.equals(OrderCreatedEvent.class.getSimpleName())) {
+            OrderCreatedEvent event = objectMapper.readValue(eventJson, OrderCreatedEvent.class);
+            Order order = event.getOrder();
+            salesAggregator.record(
+                    order.getCreatedAt() != null ? order.getCreatedAt() : event.getTimestamp(),
+                    order.getItems().stream()
+                            .map(item -> new SalesAggregator.Line(item.getProductId(), item.getQuantity(), item.getPriceAtTime()))
+                            .toList(),
+                    1);
+        } else if (eventType.equals(OrderStatusChangedEvent.class.getSimpleName())) {
+            OrderStatusChangedEvent event = objectMapper.readValue(eventJson, OrderStatusChangedEvent.class);
+            OrderEventDto order = event.getOrder();
+            if (order.getStatus() != OrderStatus.CANCELLED || event.getOldStatus() == OrderStatus.CANCELLED) {
+                return;
+            }
+            salesAggregator.record(
+                    order.getCreatedAt() != null ? order.getCreatedAt() : event.getTimestamp(),
+                    order.getItems().stream()
+                            .map(item -> new SalesAggregator.Line(item.getProductId(), item.getQuantity(), item.getPriceAtTime()))
+                            .toList(),
+                    -1);
+        } else {
+            return;
+        }
+        processedEventIds.add(eventId);
+    }
+
+    @Recover
+    public void recover(Exception e, String eventJson) {
+        log.error("All retries failed for sales event. Moving to DLQ. Error: {}, Event: {}", e.getMessage(), eventJson);
+        throw new AmqpRejectAndDontRequeueException("Sales event processing failed permanently.", e);
+    }
+}
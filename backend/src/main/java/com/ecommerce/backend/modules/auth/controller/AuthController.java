@@ -1,7 +1,10 @@
 package com.ecommerce.backend.modules.auth.controller;
 
 import com.ecommerce.backend.modules.auth.service.AuthService;
+import com.ecommerce.backend.modules.cart.config.CartProps;
+import com.ecommerce.backend.modules.cart.service.CartService;
 import com.ecommerce.backend.shared.dto.*;
+import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -13,6 +16,7 @@ import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.WebUtils;
 
 import java.util.Map;
 
@@ -24,6 +28,8 @@ import java.util.Map;
 public class AuthController {
 
     private final AuthService authService;
+    private final CartService cartService;
+    private final CartProps cartProps;
 
     @Value("${app.cookie.secure}")
     private boolean isCookieSecure;
@@ -39,7 +45,8 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<LoginResponse> login(@Valid @RequestBody LoginRequest request,
+                                               HttpServletRequest httpRequest) {
         log.info("Logging user with email: {}", request.getEmail());
         AuthResponseWrapper<LoginResponse> wrapper = authService.login(request);
         ResponseCookie cookie = ResponseCookie.from("refreshToken", wrapper.getRefreshToken())
@@ -49,10 +56,40 @@ public class AuthController {
                 .maxAge(60 * 60 * 24 * 7)
                 .build();
 
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, cookie.toString());
+        if (mergeGuestCart(wrapper.getResponse().getUser().getId(), httpRequest)) {
+            ResponseCookie guestCartCookie = ResponseCookie.from(cartProps.getGuest().getCookieName(), "")
+                    .httpOnly(true)
+                    .secure(isCookieSecure)
+                    .sameSite("Lax")
+                    .path("/")
+                    .maxAge(0)
+                    .build();
+            response.header(HttpHeaders.SET_COOKIE, guestCartCookie.toString());
+        }
+
         log.info("User logged in successfully with email: {}", request.getEmail());
-        return ResponseEntity.ok()
-                .header(HttpHeaders.SET_COOKIE, cookie.toString())
-                .body(wrapper.getResponse());
+        return response.body(wrapper.getResponse());
+    }
+
+    /**
+     * A failed merge does not fail the login; the guest cart and its cookie are kept for the next login.
+     *
+     * @return {@code true} if a guest cart was merged and its cookie can be dropped
+     */
+    private boolean mergeGuestCart(Long userId, HttpServletRequest httpRequest) {
+        Cookie guestCart = WebUtils.getCookie(httpRequest, cartProps.getGuest().getCookieName());
+        if (guestCart == null) {
+            return false;
+        }
+        try {
+            cartService.mergeGuestCart(userId, guestCart.getValue());
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to merge guest cart into cart of user with id: {}. Error: {}", userId, e.getMessage());
+            return false;
+        }
     }
 
     @PostMapping("/refresh")
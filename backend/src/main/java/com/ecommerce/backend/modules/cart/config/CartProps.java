@@ -0,0 +1,62 @@
+package com.ecommerce.backend.modules.cart.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "cart")
+@Component
+@Data
+public class CartProps {
+    /**
+     * DATABASE reads and writes carts in Postgres on every request.
+     * REDIS keeps the live cart in a Redis hash per user and writes changes behind to Postgres, which stays the
+     * copy checkout and abandoned cart detection read. Line ids in cart responses are then product ids.
+     */
+    private Storage storage = Storage.DATABASE;
+    private Redis redis = new Redis();
+    private Guest guest = new Guest();
+    private Abandoned abandoned = new Abandoned();
+
+    @Data
+    public static class Redis {
+        private long ttlDays = 30;
+        /**
+         * Changes of one cart within an interval reach Postgres as one write.
+         */
+        private long writeBehindIntervalMs = 1000;
+        private int writeBehindBatchSize = 500;
+    }
+
+    /**
+     * Carts of visitors who are not logged in. They live only in Redis and are merged into the user's cart at login.
+     */
+    @Data
+    public static class Guest {
+        private String cookieName = "guestCart";
+        private long ttlDays = 7;
+        private int maxItems = 100;
+    }
+
+    @Data
+    public static class Abandoned {
+        /**
+         * A cart with items and no change for this long is reported once as abandoned.
+         */
+        private int afterHours = 24;
+        /**
+         * Carts scanned per transaction.
+         */
+        private int chunkSize = 1000;
+        /**
+         * Empty carts without a change for this long are deleted; the next cart access creates a new one.
+         */
+        private int purgeEmptyAfterDays = 90;
+        private String cron = "0 0 * * * *";
+    }
+
+    public enum Storage {
+        DATABASE,
+        REDIS
+    }
+}
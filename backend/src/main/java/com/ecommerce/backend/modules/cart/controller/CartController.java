@@ -1,5 +1,7 @@
 package com.ecommerce.backend.modules.cart.controller;
 
+import com.ecommerce.backend.modules.cart.dto.CartBatchRequest;
+import com.ecommerce.backend.modules.cart.dto.CartDeltaDto;
 import com.ecommerce.backend.modules.cart.dto.CartItemDto;
 import com.ecommerce.backend.modules.cart.dto.CartResponseDto;
 import com.ecommerce.backend.modules.cart.dto.UpdateCartItemDto;
@@ -36,6 +38,15 @@ public class CartController {
         return ResponseEntity.ok(cart);
     }
 
+    @PostMapping(value = "/items", params = "view=delta")
+    public ResponseEntity<CartDeltaDto> addItemDelta(
+            @Valid @RequestBody CartItemDto dto,
+            HttpServletRequest req
+    ) {
+        Long userId = getUserId(req);
+        return ResponseEntity.ok(cartService.addItemToCartDelta(userId, dto));
+    }
+
     @PutMapping("/items/{itemId}")
     public ResponseEntity<CartResponseDto> updateItem (
             @PathVariable Long itemId,
@@ -47,6 +58,16 @@ public class CartController {
         return ResponseEntity.ok(cart);
     }
 
+    @PutMapping(value = "/items/{itemId}", params = "view=delta")
+    public ResponseEntity<CartDeltaDto> updateItemDelta(
+            @PathVariable Long itemId,
+            @Valid @RequestBody UpdateCartItemDto dto,
+            HttpServletRequest req
+    ) {
+        Long userId = getUserId(req);
+        return ResponseEntity.ok(cartService.updateCartItemDelta(userId, itemId, dto));
+    }
+
     @DeleteMapping("/items/{itemId}")
     public ResponseEntity<CartResponseDto> deleteItem (
             @PathVariable Long itemId,
@@ -57,6 +78,24 @@ public class CartController {
         return ResponseEntity.ok(cart);
     }
 
+    @DeleteMapping(value = "/items/{itemId}", params = "view=delta")
+    public ResponseEntity<CartDeltaDto> deleteItemDelta(
+            @PathVariable Long itemId,
+            HttpServletRequest req
+    ) {
+        Long userId = getUserId(req);
+        return ResponseEntity.ok(cartService.removeItemFromCartDelta(userId, itemId));
+    }
+
+    @PostMapping("/batch")
+    public ResponseEntity<CartResponseDto> applyBatch(
+            @Valid @RequestBody CartBatchRequest request,
+            HttpServletRequest req
+    ) {
+        Long userId = getUserId(req);
+        return ResponseEntity.ok(cartService.applyBatch(userId, request));
+    }
+
     @DeleteMapping
     public ResponseEntity<Void> clearCart(HttpServletRequest req) {
         Long userId = getUserId(req);
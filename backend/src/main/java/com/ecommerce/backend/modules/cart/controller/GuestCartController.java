@@ -0,0 +1,101 @@
+package com.ecommerce.backend.modules.cart.controller;
+
+import com.ecommerce.backend.modules.cart.config.CartProps;
+import com.ecommerce.backend.modules.cart.dto.CartItemDto;
+import com.ecommerce.backend.modules.cart.dto.CartResponseDto;
+import com.ecommerce.backend.modules.cart.dto.UpdateCartItemDto;
+import com.ecommerce.backend.modules.cart.service.CartService;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.WebUtils;
+
+import java.time.Duration;
+
+/**
+ * Cart of a visitor who is not logged in, identified by the guest cart cookie. The cookie is issued with the
+ * first added item; line ids are product ids.
+ */
+@RestController
+@RequestMapping("api/guest-cart")
+@RequiredArgsConstructor
+public class GuestCartController {
+
+    private final CartService cartService;
+    private final CartProps cartProps;
+
+    @Value("${app.cookie.secure}")
+    private boolean isCookieSecure;
+
+    @GetMapping
+    public ResponseEntity<CartResponseDto> getCart(HttpServletRequest req) {
+        CartResponseDto cart = cartService.getGuestCart(getToken(req));
+        return ResponseEntity.ok(cart);
+    }
+
+    @PostMapping("/items")
+    public ResponseEntity<CartResponseDto> addItem(
+            @Valid @RequestBody CartItemDto dto,
+            HttpServletRequest req
+    ) {
+        String token = cartService.resolveGuestCartToken(getToken(req));
+        CartResponseDto cart = cartService.addItemToGuestCart(token, dto);
+        ResponseCookie cookie = ResponseCookie.from(cartProps.getGuest().getCookieName(), token)
+                .httpOnly(true)
+                .secure(isCookieSecure)
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(Duration.ofDays(cartProps.getGuest().getTtlDays()))
+                .build();
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                .body(cart);
+    }
+
+    @PutMapping("/items/{productId}")
+    public ResponseEntity<CartResponseDto> updateItem(
+            @PathVariable Long productId,
+            @Valid @RequestBody UpdateCartItemDto dto,
+            HttpServletRequest req
+    ) {
+        CartResponseDto cart = cartService.updateGuestCartItem(getToken(req), productId, dto);
+        return ResponseEntity.ok(cart);
+    }
+
+    @DeleteMapping("/items/{productId}")
+    public ResponseEntity<CartResponseDto> deleteItem(
+            @PathVariable Long productId,
+            HttpServletRequest req
+    ) {
+        CartResponseDto cart = cartService.removeGuestCartItem(getToken(req), productId);
+        return ResponseEntity.ok(cart);
+    }
+
+    @DeleteMapping
+    public ResponseEntity<Void> clearCart(HttpServletRequest req) {
+        cartService.clearGuestCart(getToken(req));
+        ResponseCookie cookie = ResponseCookie.from(cartProps.getGuest().getCookieName(), "")
+                .httpOnly(true)
+                .secure(isCookieSecure)
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(0)
+                .build();
+
+        return ResponseEntity.noContent()
+                .header(HttpHeaders.SET_COOKIE, cookie.toString())
+                .build();
+    }
+
+    private String getToken(HttpServletRequest req) {
+        Cookie cookie = WebUtils.getCookie(req, cartProps.getGuest().getCookieName());
+        return cookie != null ? cookie.getValue() : null;
+    }
+}
@@ -0,0 +1,44 @@
+package com.ecommerce.backend.modules.cart.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Cart changes applied in order, all or none. {@code ADD} takes {@code productId} and {@code quantity},
+ * {@code UPDATE} takes {@code itemId} and {@code quantity}, {@code REMOVE} takes {@code itemId}.
+ */
+@Data
+public class CartBatchRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotEmpty(message = "Operations cannot be empty")
+    @Size(max = 200, message = "No more than 200 cart operations can be applied at once")
+    private List<@NotNull @Valid Operation> operations;
+
+    @Data
+    public static class Operation implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        @NotNull(message = "Operation type is required")
+        private Type type;
+        private Long productId;
+        private Long itemId;
+        @Min(value = 1, message = "Quantity must be greater than 0")
+        private Integer quantity;
+    }
+
+    public enum Type {
+        ADD,
+        UPDATE,
+        REMOVE
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.backend.modules.cart.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Response of a cart change that carries only the changed line and the new cart total. A changed line fills
+ * {@code item}; a removed line fills {@code removedItemId} instead.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CartDeltaDto implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+    private CartItemResponseDto item;
+    private Long removedItemId;
+    private BigDecimal totalAmount;
+}
@@ -7,6 +7,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+
 @Entity
 @Table(name = "cart_items")
 @Data
@@ -28,4 +30,10 @@ public class CartItem {
 
     @Column(name = "quantity", nullable = false)
     private Integer quantity;
+
+    /**
+     * Product price when the item was last added, used to detect price changes at checkout.
+     */
+    @Column(name = "price_snapshot", precision = 10, scale = 2)
+    private BigDecimal priceSnapshot;
 }
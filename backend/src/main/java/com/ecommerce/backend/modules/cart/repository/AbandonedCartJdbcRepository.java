@@ -0,0 +1,101 @@
+package com.ecommerce.backend.modules.cart.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Scans carts in {@code (updated_at, id)} order from a watermark kept in {@code scheduled_job_watermarks}, so
+ * that every run only reads the carts that went idle since the previous one.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AbandonedCartJdbcRepository {
+
+    private static final String FIND_WATERMARK_SQL =
+            "SELECT watermark_at, watermark_id FROM scheduled_job_watermarks WHERE job_name = ?";
+
+    private static final String SAVE_WATERMARK_SQL = """
+            INSERT INTO scheduled_job_watermarks (job_name, watermark_at, watermark_id, updated_at)
+            VALUES (?, ?, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (job_name) DO UPDATE
+            SET watermark_at = EXCLUDED.watermark_at,
+                watermark_id = EXCLUDED.watermark_id,
+                updated_at = CURRENT_TIMESTAMP
+            """;
+
+    // Empty carts come back too, with no items, so that the watermark moves past them
+    private static final String FIND_IDLE_SQL = """
+            SELECT c.id, c.user_id, u.email, c.updated_at,
+                   (SELECT COUNT(*) FROM cart_items ci WHERE ci.cart_id = c.id) AS item_count
+            FROM carts c
+            JOIN users u ON u.id = c.user_id
+            WHERE (c.updated_at, c.id) > (?, ?) AND c.updated_at <= ?
+            ORDER BY c.updated_at, c.id
+            LIMIT ?
+            """;
+
+    // Skips carts whose rows are locked, such as by a concurrent first add
+    private static final String PURGE_EMPTY_SQL = """
+            DELETE FROM carts
+            WHERE id IN (
+                SELECT c.id
+                FROM carts c
+                WHERE c.updated_at < ?
+                  AND NOT EXISTS (SELECT 1 FROM cart_items ci WHERE ci.cart_id = c.id)
+                ORDER BY c.updated_at, c.id
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public Optional<Watermark> findWatermark(String jobName) {
+        return jdbcTemplate.query(FIND_WATERMARK_SQL,
+                        (rs, rowNum) -> new Watermark(rs.getTimestamp("watermark_at").toLocalDateTime(),
+                                rs.getLong("watermark_id")),
+                        jobName)
+                .stream().findFirst();
+    }
+
+    public void saveWatermark(String jobName, Watermark watermark) {
+        jdbcTemplate.update(SAVE_WATERMARK_SQL, jobName, Timestamp.valueOf(watermark.at()), watermark.id());
+    }
+
+    /**
+     * @param until inclusive upper bound of the last change
+     * @return carts after the watermark that did not change since {@code until}, oldest change first
+     */
+    public List<IdleCart> findIdleCarts(Watermark after, LocalDateTime until, int limit) {
+        return jdbcTemplate.query(FIND_IDLE_SQL,
+                (rs, rowNum) -> new IdleCart(
+                        rs.getLong("id"),
+                        rs.getLong("user_id"),
+                        rs.getString("email"),
+                        rs.getTimestamp("updated_at").toLocalDateTime(),
+                        rs.getInt("item_count")),
+                Timestamp.valueOf(after.at()), after.id(), Timestamp.valueOf(until), limit);
+    }
+
+    /**
+     * @return number of carts deleted, which is less than {@code limit} once none are left
+     */
+    public int purgeEmpty(LocalDateTime idleBefore, int limit) {
+        return jdbcTemplate.update(PURGE_EMPTY_SQL, Timestamp.valueOf(idleBefore), limit);
+    }
+
+    /**
+     * Exclusive lower bound of the next scan in {@code (updated_at, id)} order.
+     */
+    public record Watermark(LocalDateTime at, long id) {
+    }
+
+    public record IdleCart(Long id, Long userId, String userEmail, LocalDateTime updatedAt, int itemCount) {
+    }
+}
@@ -0,0 +1,257 @@
+package com.ecommerce.backend.modules.cart.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class CartJdbcRepository {
+
+    private static final String CREATE_MISSING_SQL = """
+            INSERT INTO carts (user_id)
+            SELECT id FROM users WHERE id = ?
+            ON CONFLICT (user_id) DO NOTHING
+            """;
+
+    private static final String LOCK_SQL = "SELECT id, user_id FROM carts WHERE user_id IN (%s) ORDER BY id FOR UPDATE";
+
+    private static final String DELETE_ITEMS_SQL = "DELETE FROM cart_items WHERE cart_id IN (%s)";
+
+    // Lines of products deleted in the meantime are dropped instead of failing the batch
+    private static final String INSERT_ITEM_SQL = """
+            INSERT INTO cart_items (cart_id, product_id, quantity, price_snapshot)
+            SELECT ?, ?, ?, ?
+            WHERE EXISTS (SELECT 1 FROM products WHERE id = ?)
+            """;
+
+    private static final String TOUCH_SQL = "UPDATE carts SET updated_at = CURRENT_TIMESTAMP WHERE id IN (%s)";
+
+    private static final String TOUCH_CART_SQL = "UPDATE carts SET updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+
+    // The outer query sees the table as it was before the change, so the changed line is left out of the rest
+    private static final String LINE_CHANGE_SQL = """
+            SELECT line.id, line.product_id, line.quantity, p.name, p.image_url, p.price,
+                   (SELECT COALESCE(SUM(ci.quantity * op.price), 0)
+                    FROM cart_items ci
+                    JOIN products op ON op.id = ci.product_id
+                    WHERE ci.cart_id = line.cart_id AND ci.id <> line.id) AS rest_total
+            FROM line
+            JOIN products p ON p.id = line.product_id
+            """;
+
+    private static final String TOUCH_LINE_CART_SQL = """
+            , touched AS (
+                UPDATE carts SET updated_at = CURRENT_TIMESTAMP WHERE id IN (SELECT cart_id FROM line)
+            )
+            """;
+
+    private static final String UPSERT_ITEM_SQL = """
+            WITH line AS (
+                INSERT INTO cart_items (cart_id, product_id, quantity, price_snapshot)
+                SELECT id, ?, ?, ?
+                FROM carts
+                WHERE user_id = ?
+                ON CONFLICT (cart_id, product_id) DO UPDATE
+                SET quantity = cart_items.quantity + EXCLUDED.quantity,
+                    price_snapshot = EXCLUDED.price_snapshot
+                RETURNING id, cart_id, product_id, quantity
+            )
+            """ + TOUCH_LINE_CART_SQL + LINE_CHANGE_SQL;
+
+    private static final String UPDATE_QUANTITY_SQL = """
+            WITH line AS (
+                UPDATE cart_items ci
+                SET quantity = ?
+                FROM carts c
+                WHERE ci.id = ? AND c.id = ci.cart_id AND c.user_id = ?
+                RETURNING ci.id, ci.cart_id, ci.product_id, ci.quantity
+            )
+            """ + TOUCH_LINE_CART_SQL + LINE_CHANGE_SQL;
+
+    private static final String DELETE_ITEM_SQL = """
+            WITH line AS (
+                DELETE FROM cart_items ci
+                USING carts c
+                WHERE ci.id = ? AND c.id = ci.cart_id AND c.user_id = ?
+                RETURNING ci.id, ci.cart_id, ci.product_id, ci.quantity
+            )
+            """ + TOUCH_LINE_CART_SQL + LINE_CHANGE_SQL;
+
+    private static final String FIND_ITEMS_SQL = "SELECT id, product_id, quantity FROM cart_items WHERE cart_id = ?";
+
+    private static final String DELETE_PRODUCTS_SQL = "DELETE FROM cart_items WHERE cart_id = ? AND product_id IN (%s)";
+
+    // A line without a new price snapshot keeps its old one
+    private static final String SAVE_ITEM_SQL = """
+            INSERT INTO cart_items (cart_id, product_id, quantity, price_snapshot)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (cart_id, product_id) DO UPDATE
+            SET quantity = EXCLUDED.quantity,
+                price_snapshot = COALESCE(EXCLUDED.price_snapshot, cart_items.price_snapshot)
+            """;
+
+    private static final String ADD_ITEM_SQL = """
+            INSERT INTO cart_items (cart_id, product_id, quantity, price_snapshot)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (cart_id, product_id) DO UPDATE
+            SET quantity = cart_items.quantity + EXCLUDED.quantity,
+                price_snapshot = EXCLUDED.price_snapshot
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Creates the cart of the user unless it exists. Waits for a concurrent insert of the same cart to finish.
+     */
+    public void createCart(Long userId) {
+        jdbcTemplate.update(CREATE_MISSING_SQL, userId);
+    }
+
+    /**
+     * Creates the missing carts of the users and locks all of them in id order, so that writers of the same carts
+     * run one after another.
+     *
+     * @return cart id per user
+     */
+    public Map<Long, Long> lockCarts(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        jdbcTemplate.batchUpdate(CREATE_MISSING_SQL, userIds.stream()
+                .map(userId -> new Object[]{userId})
+                .toList());
+
+        Map<Long, Long> cartIds = new HashMap<>();
+        jdbcTemplate.query(LOCK_SQL.formatted(placeholders(userIds.size())),
+                rs -> {
+                    cartIds.put(rs.getLong("user_id"), rs.getLong("id"));
+                },
+                userIds.toArray());
+        return cartIds;
+    }
+
+    /**
+     * Replaces all items of the given carts and marks them as active now.
+     */
+    public void replaceItems(Map<Long, List<Line>> linesByCartId) {
+        if (linesByCartId.isEmpty()) {
+            return;
+        }
+        Object[] cartIds = linesByCartId.keySet().toArray();
+        jdbcTemplate.update(DELETE_ITEMS_SQL.formatted(placeholders(cartIds.length)), cartIds);
+
+        List<Object[]> batchArgs = new ArrayList<>();
+        linesByCartId.forEach((cartId, lines) -> lines.forEach(line -> batchArgs.add(new Object[]{
+                cartId, line.productId(), line.quantity(), line.priceSnapshot(), line.productId()
+        })));
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ITEM_SQL, batchArgs);
+        }
+        jdbcTemplate.update(TOUCH_SQL.formatted(placeholders(cartIds.length)), cartIds);
+    }
+
+    public List<Item> findItems(Long cartId) {
+        return jdbcTemplate.query(FIND_ITEMS_SQL,
+                (rs, rowNum) -> new Item(rs.getLong("id"), rs.getLong("product_id"), rs.getInt("quantity")),
+                cartId);
+    }
+
+    /**
+     * Sets the quantities of the given lines of the cart, creating the lines that do not exist, and removes the
+     * lines of the removed products. Lines without a price snapshot keep the one they have. Marks the cart as
+     * active now.
+     */
+    public void saveItems(Long cartId, List<Line> lines, Collection<Long> removedProductIds) {
+        if (!removedProductIds.isEmpty()) {
+            List<Object> args = new ArrayList<>();
+            args.add(cartId);
+            args.addAll(removedProductIds);
+            jdbcTemplate.update(DELETE_PRODUCTS_SQL.formatted(placeholders(removedProductIds.size())), args.toArray());
+        }
+        if (!lines.isEmpty()) {
+            jdbcTemplate.batchUpdate(SAVE_ITEM_SQL, lines.stream()
+                    .map(line -> new Object[]{cartId, line.productId(), line.quantity(), line.priceSnapshot()})
+                    .toList());
+        }
+        jdbcTemplate.update(TOUCH_CART_SQL, cartId);
+    }
+
+    /**
+     * Adds the quantities to the lines of the cart in one batch, creating the lines that do not exist, and marks
+     * the cart as active now.
+     */
+    public void addItems(Long cartId, List<Line> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(ADD_ITEM_SQL, lines.stream()
+                .map(line -> new Object[]{cartId, line.productId(), line.quantity(), line.priceSnapshot()})
+                .toList());
+        jdbcTemplate.update(TOUCH_CART_SQL, cartId);
+    }
+
+    /**
+     * Adds the quantity to the user's line of the product, creating the line if there is none, and marks the cart
+     * as active, in one statement.
+     *
+     * @return the line after the change, or empty if the user has no cart yet
+     */
+    public Optional<LineChange> upsertItem(Long userId, Long productId, int quantity, BigDecimal priceSnapshot) {
+        return jdbcTemplate.query(UPSERT_ITEM_SQL, lineChangeMapper(), productId, quantity, priceSnapshot, userId)
+                .stream().findFirst();
+    }
+
+    /**
+     * @return the line after the change, or empty if the user has no such line
+     */
+    public Optional<LineChange> updateQuantity(Long userId, Long itemId, int quantity) {
+        return jdbcTemplate.query(UPDATE_QUANTITY_SQL, lineChangeMapper(), quantity, itemId, userId)
+                .stream().findFirst();
+    }
+
+    /**
+     * @return the removed line, or empty if the user has no such line
+     */
+    public Optional<LineChange> deleteItem(Long userId, Long itemId) {
+        return jdbcTemplate.query(DELETE_ITEM_SQL, lineChangeMapper(), itemId, userId).stream().findFirst();
+    }
+
+    private RowMapper<LineChange> lineChangeMapper() {
+        return (rs, rowNum) -> new LineChange(
+                rs.getLong("id"),
+                rs.getLong("product_id"),
+                rs.getInt("quantity"),
+                rs.getString("name"),
+                rs.getString("image_url"),
+                rs.getBigDecimal("price"),
+                rs.getBigDecimal("rest_total"));
+    }
+
+    private String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    public record Line(Long productId, int quantity, BigDecimal priceSnapshot) {
+    }
+
+    public record Item(Long id, Long productId, int quantity) {
+    }
+
+    /**
+     * A changed cart line with its product, and the total of the other lines of its cart at current prices.
+     */
+    public record LineChange(Long id, Long productId, int quantity, String productName, String imageUrl,
+                             BigDecimal price, BigDecimal restTotal) {
+    }
+}
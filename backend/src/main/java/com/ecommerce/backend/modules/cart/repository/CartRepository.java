@@ -6,8 +6,6 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -18,7 +16,4 @@ public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUserIdWithItems(@Param("userId") Long userId);
 
     boolean existsByUserId(Long userId);
-
-    @Query("SELECT c FROM Cart c JOIN FETCH c.user WHERE c.updated_at BETWEEN :startTime AND :endTime AND c.items IS NOT EMPTY")
-    List<Cart> findAbandonedCarts(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
 }
\ No newline at end of file
@@ -1,48 +1,116 @@
 package com.ecommerce.backend.modules.cart.service;
 
 import com.ecommerce.backend.config.RabbitConfig;
-import com.ecommerce.backend.modules.cart.entity.Cart;
-import com.ecommerce.backend.modules.cart.repository.CartRepository;
+import com.ecommerce.backend.modules.cart.config.CartProps;
+import com.ecommerce.backend.modules.cart.repository.AbandonedCartJdbcRepository;
 import com.ecommerce.backend.shared.events.CartAbandonedEvent;
 import com.ecommerce.backend.shared.outbox.EventPublisher;
+import com.ecommerce.backend.shared.scheduling.ScheduledJobLock;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Reports carts that have items and no change for {@code cart.abandoned.after-hours}, once per period of
+ * inactivity: the scan resumes from a watermark, and a cart that changes again moves past it. Each chunk is
+ * read, published to the outbox and checkpointed in one transaction, so memory use does not depend on the
+ * number of carts. Empty carts idle for {@code cart.abandoned.purge-empty-after-days} are deleted in the same pass.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AbandonedCartService {
 
-    private final CartRepository cartRepository;
+    private static final String JOB_NAME = "abandoned-carts";
+
+    /**
+     * Without a watermark the scan starts as far back as one run of the former hourly window looked.
+     */
+    private static final Duration INITIAL_LOOKBACK = Duration.ofHours(1);
+
+    private final AbandonedCartJdbcRepository abandonedCartJdbcRepository;
     private final EventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final ScheduledJobLock scheduledJobLock;
+    private final CartProps cartProps;
+
+    private TransactionTemplate transactionTemplate;
 
-    @Scheduled(cron = "0 0 * * * *")
-    @Transactional
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${cart.abandoned.cron:0 0 * * * *}")
     public void findAndNotifyAbandonedCarts() {
-        log.info("Running scheduled findAndNotifyAbandonedCarts...");
-        LocalDateTime endTime = LocalDateTime.now().minusHours(24);
-        LocalDateTime startTime = endTime.minusHours(1);
+        scheduledJobLock.runLocked(JOB_NAME, Duration.ofHours(1), () -> {
+            log.info("Running scheduled findAndNotifyAbandonedCarts...");
+            CartProps.Abandoned props = cartProps.getAbandoned();
+            LocalDateTime now = LocalDateTime.now();
+            int chunkSize = props.getChunkSize();
 
-        List<Cart> abandonedCarts = cartRepository.findAbandonedCarts(startTime, endTime);
+            LocalDateTime idleSince = now.minusHours(props.getAfterHours());
+            long notified = 0;
+            Chunk chunk;
+            do {
+                chunk = transactionTemplate.execute(status -> notifyChunk(idleSince, chunkSize));
+                notified += chunk.notified();
+            } while (chunk.scanned() == chunkSize);
+            log.info("Notified {} abandoned carts without changes since {}", notified, idleSince);
 
-        if (abandonedCarts.isEmpty()) {
-            log.info("No abandoned carts found in the last hour");
-            return;
-        }
+            LocalDateTime purgeBefore = now.minusDays(props.getPurgeEmptyAfterDays());
+            long purged = 0;
+            int batch;
+            do {
+                batch = abandonedCartJdbcRepository.purgeEmpty(purgeBefore, chunkSize);
+                purged += batch;
+            } while (batch == chunkSize);
+            log.info("Purged {} empty carts without changes since {}", purged, purgeBefore);
+        });
+    }
+
+    /**
+     * Publishes the abandoned carts of the next chunk after the watermark and moves the watermark past it.
+     */
+    Chunk notifyChunk(LocalDateTime idleSince, int chunkSize) {
+        AbandonedCartJdbcRepository.Watermark watermark = abandonedCartJdbcRepository.findWatermark(JOB_NAME)
+                .orElseGet(() -> new AbandonedCartJdbcRepository.Watermark(idleSince.minus(INITIAL_LOOKBACK), 0));
+        List<AbandonedCartJdbcRepository.IdleCart> carts =
+                abandonedCartJdbcRepository.findIdleCarts(watermark, idleSince, chunkSize);
+
+        List<CartAbandonedEvent> events = carts.stream()
+                .filter(cart -> cart.itemCount() > 0)
+                .map(cart -> new CartAbandonedEvent(cart.id(), cart.userId(), cart.userEmail(), cart.itemCount(),
+                        cart.updatedAt()))
+                .toList();
+        eventPublisher.publishAll(events, RabbitConfig.CART_EVENTS_EXCHANGE, "cart.abandoned");
 
-        log.info("Found {} abandoned carts", abandonedCarts.size());
-        for (Cart cart : abandonedCarts) {
-            CartAbandonedEvent event = new  CartAbandonedEvent(cart);
-            eventPublisher.publish(event, RabbitConfig.CART_EVENTS_EXCHANGE, "cart.abandoned");
-            log.debug("Sending CART_ABANDONED event for cart with id: {}", cart.getId());
+        AbandonedCartJdbcRepository.Watermark next;
+        if (carts.size() == chunkSize) {
+            AbandonedCartJdbcRepository.IdleCart last = carts.get(carts.size() - 1);
+            next = new AbandonedCartJdbcRepository.Watermark(last.updatedAt(), last.id());
+        } else if (watermark.at().isBefore(idleSince)) {
+            // Everything up to idleSince has been read
+            next = new AbandonedCartJdbcRepository.Watermark(idleSince, Long.MAX_VALUE);
+        } else {
+            next = watermark;
         }
-        log.info("Finished scheduled findAndNotifyAbandonedCarts...");
+        abandonedCartJdbcRepository.saveWatermark(JOB_NAME, next);
+        return new Chunk(carts.size(), events.size());
+    }
+
+    /**
+     * @param scanned carts read, which is less than the chunk size once the scan caught up
+     * @param notified carts reported as abandoned
+     */
+    record Chunk(int scanned, int notified) {
     }
 }
@@ -1,28 +1,42 @@
 package com.ecommerce.backend.modules.cart.service;
 
+import com.ecommerce.backend.modules.cart.config.CartProps;
+import com.ecommerce.backend.modules.cart.dto.CartBatchRequest;
+import com.ecommerce.backend.modules.cart.dto.CartDeltaDto;
 import com.ecommerce.backend.modules.cart.dto.CartItemDto;
 import com.ecommerce.backend.modules.cart.dto.CartItemResponseDto;
 import com.ecommerce.backend.modules.cart.dto.CartResponseDto;
 import com.ecommerce.backend.modules.cart.dto.UpdateCartItemDto;
 import com.ecommerce.backend.modules.cart.entity.Cart;
 import com.ecommerce.backend.modules.cart.entity.CartItem;
-import com.ecommerce.backend.modules.cart.repository.CartItemsRepository;
+import com.ecommerce.backend.modules.cart.repository.CartJdbcRepository;
 import com.ecommerce.backend.modules.cart.repository.CartRepository;
+import com.ecommerce.backend.modules.product.dto.ProductResponse;
 import com.ecommerce.backend.modules.product.entity.Product;
 import com.ecommerce.backend.modules.product.repository.ProductRepository;
-import com.ecommerce.backend.modules.user.entity.User;
-import com.ecommerce.backend.modules.user.repository.UserRepository;
+import com.ecommerce.backend.modules.product.service.ProductService;
 import com.ecommerce.backend.shared.exception.BusinessException;
 import com.ecommerce.backend.shared.exception.ResourceNotFoundException;
+import com.ecommerce.backend.shared.exception.ValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -32,12 +46,19 @@ public class CartService {
 
     private final CartRepository cartRepository;
     private final ProductRepository productRepository;
-    private final UserRepository userRepository;
-    private final CartItemsRepository cartItemsRepository;
+    private final ProductService productService;
+    private final CartJdbcRepository cartJdbcRepository;
+    private final RedisCartStore redisCartStore;
+    private final GuestCartStore guestCartStore;
+    private final CartWriteBehindService cartWriteBehindService;
+    private final CartProps cartProps;
 
     @Transactional
     public CartResponseDto getUserCart(Long userId) {
         log.info("Fetching cart for user with id: {}", userId);
+        if (isRedisStorage()) {
+            return mapToCartResponseDto(redisCartStore.get(userId));
+        }
         Cart cart = cartRepository.findByUserIdWithItems(userId)
                 .orElseGet(() -> createEmptyCart(userId));
 
@@ -48,60 +69,326 @@ public class CartService {
     @Transactional
     public CartResponseDto addItemToCart(Long userId, CartItemDto cartItemDto) {
         log.info("Attempting to add item to cart for user with id: {}. Item: {}", userId, cartItemDto);
-        if (cartItemDto.getProductId() == null) {
-            log.error("Cannot add item with null id for user with id: {}", userId);
-            throw new BusinessException("Product ID must not be null", "PRODUCT_ID_NULL");
+        if (isRedisStorage()) {
+            ProductResponse product = getAvailableCachedProduct(cartItemDto);
+            int quantity = redisCartStore.add(userId, product.getId(), cartItemDto.getQuantity(), product.getPrice());
+            log.info("Successfully added item to cart for user with id: {}. Quantity: {}", userId, quantity);
+            return mapToCartResponseDto(redisCartStore.get(userId));
         }
 
-        Cart cart = getOrCreateCart(userId);
-        Product product = getProduct(cartItemDto.getProductId());
-
-        validateProductAvailability(product);
-
-        Optional<CartItem> existingItem = cartItemsRepository.findByCartIdAndProductId(cart.getId(), product.getId());
-
-        if (existingItem.isPresent()) {
-            CartItem cartItem = existingItem.get();
-            log.info("Updating quantity for existing item {} in cart for user {}", cartItem.getId(), userId);
-            cartItem.setQuantity(cartItem.getQuantity() + cartItemDto.getQuantity());
-        } else {
-            log.info("Adding new item to cart for user {}", userId);
-            CartItem newItem = new CartItem();
-            newItem.setCart(cart);
-            newItem.setProduct(product);
-            newItem.setQuantity(cartItemDto.getQuantity());
+        Product product = getAvailableProduct(cartItemDto);
+        upsertItem(userId, product, cartItemDto.getQuantity());
+        log.info("Successfully added item to cart for user with id: {}", userId);
+        return mapToCartResponseDto(cartRepository.findByUserIdWithItems(userId).orElseThrow());
+    }
 
-            cart.getItems().add(newItem);
+    /**
+     * Same as {@link #addItemToCart}, but responds with the changed line and the new total only.
+     */
+    @Transactional
+    public CartDeltaDto addItemToCartDelta(Long userId, CartItemDto cartItemDto) {
+        log.info("Attempting to add item to cart for user with id: {}. Item: {}", userId, cartItemDto);
+        if (isRedisStorage()) {
+            ProductResponse product = getAvailableCachedProduct(cartItemDto);
+            int quantity = redisCartStore.add(userId, product.getId(), cartItemDto.getQuantity(), product.getPrice());
+            log.info("Successfully added item to cart for user with id: {}. Quantity: {}", userId, quantity);
+            return mapToCartDeltaDto(mapToCartResponseDto(redisCartStore.get(userId)), product.getId());
         }
-        cartRepository.save(cart);
-        log.info("Successfully added item to cart for user with id: {}", userId);
-        return mapToCartResponseDto(cart);
+
+        Product product = getAvailableProduct(cartItemDto);
+        CartJdbcRepository.LineChange line = upsertItem(userId, product, cartItemDto.getQuantity());
+        log.info("Successfully added item to cart for user with id: {}. Quantity: {}", userId, line.quantity());
+        return mapToCartDeltaDto(line);
     }
 
     @Transactional
     public CartResponseDto updateCartItem(Long userId, Long itemId, UpdateCartItemDto dto) {
         log.info("Updating item with id: {} in cart for user with id: {}", itemId, userId);
-        CartItem cartItem = cartItemsRepository.findByIdAndCartUserId(itemId, userId)
-                .orElseThrow(() -> new ResourceNotFoundException("CartItem is not found"));
-        cartItem.setQuantity(dto.getQuantity());
-        cartItemsRepository.save(cartItem);
+        if (isRedisStorage()) {
+            updateRedisItem(userId, itemId, dto);
+            return mapToCartResponseDto(redisCartStore.get(userId));
+        }
+        updateItem(userId, itemId, dto);
+        return mapToCartResponseDto(cartRepository.findByUserIdWithItems(userId).orElseThrow());
+    }
 
-        Cart cart = cartRepository.findByUserIdWithItems(userId).orElseThrow();
-        log.info("Successfully updated item in cart for user with id: {}", userId);
-        return mapToCartResponseDto(cart);
+    /**
+     * Same as {@link #updateCartItem}, but responds with the changed line and the new total only.
+     */
+    @Transactional
+    public CartDeltaDto updateCartItemDelta(Long userId, Long itemId, UpdateCartItemDto dto) {
+        log.info("Updating item with id: {} in cart for user with id: {}", itemId, userId);
+        if (isRedisStorage()) {
+            updateRedisItem(userId, itemId, dto);
+            return mapToCartDeltaDto(mapToCartResponseDto(redisCartStore.get(userId)), itemId);
+        }
+        return mapToCartDeltaDto(updateItem(userId, itemId, dto));
     }
 
     @Transactional
     public CartResponseDto removeItemFromCart(Long userId, Long itemId) {
         log.info("Removing item with id: {} from cart for user with id: {}", itemId, userId);
-        CartItem cartItem = cartItemsRepository.findByIdAndCartUserId(itemId, userId)
-                .orElseThrow(() -> new ResourceNotFoundException("Элемент корзины не найден"));
+        if (isRedisStorage()) {
+            removeRedisItem(userId, itemId);
+            return mapToCartResponseDto(redisCartStore.get(userId));
+        }
+        removeItem(userId, itemId);
+        return mapToCartResponseDto(cartRepository.findByUserIdWithItems(userId).orElseThrow());
+    }
+
+    /**
+     * Same as {@link #removeItemFromCart}, but responds with the removed line id and the new total only.
+     */
+    @Transactional
+    public CartDeltaDto removeItemFromCartDelta(Long userId, Long itemId) {
+        log.info("Removing item with id: {} from cart for user with id: {}", itemId, userId);
+        if (isRedisStorage()) {
+            removeRedisItem(userId, itemId);
+            return new CartDeltaDto(null, itemId, mapToCartResponseDto(redisCartStore.get(userId)).getTotalAmount());
+        }
+        CartJdbcRepository.LineChange line = removeItem(userId, itemId);
+        return new CartDeltaDto(null, line.id(), line.restTotal());
+    }
+
+    /**
+     * Applies the operations in order within one transaction and responds with the resulting cart. The products of
+     * all additions are loaded and checked up front, and the database cart is written with one batch, so the cost
+     * does not grow with a query per operation.
+     */
+    @Transactional
+    public CartResponseDto applyBatch(Long userId, CartBatchRequest request) {
+        log.info("Applying {} cart operations for user with id: {}", request.getOperations().size(), userId);
+        validateOperations(request.getOperations());
+        Map<Long, BigDecimal> prices = getAvailablePrices(request.getOperations().stream()
+                .filter(operation -> operation.getType() == CartBatchRequest.Type.ADD)
+                .map(CartBatchRequest.Operation::getProductId)
+                .collect(Collectors.toSet()));
+
+        if (isRedisStorage()) {
+            List<RedisCartStore.Change> changes = request.getOperations().stream()
+                    .map(operation -> operation.getType() == CartBatchRequest.Type.ADD
+                            ? new RedisCartStore.Change(operation.getType(), operation.getProductId(),
+                                    operation.getQuantity(), prices.get(operation.getProductId()))
+                            : new RedisCartStore.Change(operation.getType(), operation.getItemId(),
+                                    operation.getQuantity(), null))
+                    .toList();
+            if (!redisCartStore.apply(userId, changes)) {
+                throw new ResourceNotFoundException("CartItem is not found");
+            }
+            log.info("Successfully applied cart operations for user with id: {}", userId);
+            return mapToCartResponseDto(redisCartStore.get(userId));
+        }
+
+        Long cartId = cartJdbcRepository.lockCarts(List.of(userId)).get(userId);
+        if (cartId == null) {
+            throw new ResourceNotFoundException("User is not found");
+        }
+        Map<Long, Long> productIdsByItemId = new HashMap<>();
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (CartJdbcRepository.Item item : cartJdbcRepository.findItems(cartId)) {
+            productIdsByItemId.put(item.id(), item.productId());
+            quantities.put(item.productId(), item.quantity());
+        }
+
+        Set<Long> changedProductIds = new LinkedHashSet<>();
+        for (CartBatchRequest.Operation operation : request.getOperations()) {
+            Long productId = operation.getType() == CartBatchRequest.Type.ADD
+                    ? operation.getProductId()
+                    : productIdsByItemId.get(operation.getItemId());
+            switch (operation.getType()) {
+                case ADD -> quantities.merge(productId, operation.getQuantity(), Integer::sum);
+                case UPDATE -> {
+                    if (productId == null || quantities.replace(productId, operation.getQuantity()) == null) {
+                        throw new ResourceNotFoundException("CartItem is not found");
+                    }
+                }
+                case REMOVE -> {
+                    if (productId == null || quantities.remove(productId) == null) {
+                        throw new ResourceNotFoundException("CartItem is not found");
+                    }
+                }
+            }
+            changedProductIds.add(productId);
+        }
+
+        List<CartJdbcRepository.Line> lines = new ArrayList<>();
+        List<Long> removedProductIds = new ArrayList<>();
+        for (Long productId : changedProductIds) {
+            Integer quantity = quantities.get(productId);
+            if (quantity == null) {
+                removedProductIds.add(productId);
+            } else {
+                lines.add(new CartJdbcRepository.Line(productId, quantity, prices.get(productId)));
+            }
+        }
+        cartJdbcRepository.saveItems(cartId, lines, removedProductIds);
+
+        log.info("Successfully applied cart operations for user with id: {}", userId);
+        return mapToCartResponseDto(cartRepository.findByUserIdWithItems(userId).orElseThrow());
+    }
+
+    private void validateOperations(List<CartBatchRequest.Operation> operations) {
+        for (CartBatchRequest.Operation operation : operations) {
+            boolean valid = switch (operation.getType()) {
+                case ADD -> operation.getProductId() != null && operation.getQuantity() != null;
+                case UPDATE -> operation.getItemId() != null && operation.getQuantity() != null;
+                case REMOVE -> operation.getItemId() != null;
+            };
+            if (!valid) {
+                throw new ValidationException("Invalid " + operation.getType() + " cart operation: " + operation);
+            }
+        }
+    }
+
+    /**
+     * Loads the products in one query, or from the product details cache for Redis carts, and checks all of them
+     * at once.
+     *
+     * @return price of each product
+     */
+    private Map<Long, BigDecimal> getAvailablePrices(Set<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, BigDecimal> prices = new HashMap<>();
+        List<Long> unavailable = new ArrayList<>();
+        if (isRedisStorage()) {
+            getCachedProducts(productIds).values().forEach(product -> {
+                prices.put(product.getId(), product.getPrice());
+                if (!Boolean.TRUE.equals(product.getAvailable())) {
+                    unavailable.add(product.getId());
+                }
+            });
+        } else {
+            productRepository.findAllById(productIds).forEach(product -> {
+                prices.put(product.getId(), product.getPrice());
+                if (!product.getAvailable()) {
+                    unavailable.add(product.getId());
+                }
+            });
+        }
+        if (prices.size() < productIds.size()) {
+            log.error("Products not found: {}", productIds.stream().filter(id -> !prices.containsKey(id)).toList());
+            throw new ResourceNotFoundException("Product is not found");
+        }
+        if (!unavailable.isEmpty()) {
+            unavailable.sort(Comparator.naturalOrder());
+            log.warn("Products {} are not available for order", unavailable);
+            throw new BusinessException("Products " + unavailable + " are not available for order", "PRODUCT_NOT_AVAILABLE");
+        }
+        return prices;
+    }
+
+    /**
+     * Products of Redis and guest carts are read through the product details cache, which product changes refresh,
+     * so their mutations only query Postgres for entries that expired.
+     *
+     * @return the cached products, without the ones that no longer exist
+     */
+    private Map<Long, ProductResponse> getCachedProducts(Collection<Long> productIds) {
+        Map<Long, ProductResponse> products = new HashMap<>();
+        for (Long productId : productIds) {
+            try {
+                products.put(productId, productService.getProductById(productId));
+            } catch (ResourceNotFoundException e) {
+                log.debug("Product {} of a cart no longer exists", productId);
+            }
+        }
+        return products;
+    }
+
+    private ProductResponse getAvailableCachedProduct(CartItemDto cartItemDto) {
+        if (cartItemDto.getProductId() == null) {
+            log.error("Cannot add item with null product id");
+            throw new BusinessException("Product ID must not be null", "PRODUCT_ID_NULL");
+        }
 
-        cartItemsRepository.delete(cartItem);
+        ProductResponse product = getCachedProducts(List.of(cartItemDto.getProductId())).get(cartItemDto.getProductId());
+        if (product == null) {
+            log.error("Product not found with id {}", cartItemDto.getProductId());
+            throw new ResourceNotFoundException("Product is not found");
+        }
+        if (!Boolean.TRUE.equals(product.getAvailable())) {
+            log.warn("Product {} is not available for order", product.getId());
+            throw new BusinessException("Product is not available for order", "PRODUCT_NOT_AVAILABLE");
+        }
+        return product;
+    }
+
+    private Product getAvailableProduct(CartItemDto cartItemDto) {
+        if (cartItemDto.getProductId() == null) {
+            log.error("Cannot add item with null product id");
+            throw new BusinessException("Product ID must not be null", "PRODUCT_ID_NULL");
+        }
 
-        Cart cart = cartRepository.findByUserIdWithItems(userId).orElseThrow();
+        Product product = getProduct(cartItemDto.getProductId());
+        validateProductAvailability(product);
+        return product;
+    }
+
+    /**
+     * The unique line per cart and product makes concurrent adds of the same product add up instead of
+     * inserting two lines. A missing cart is created through JDBC too: a cart entity created here would stay in
+     * the persistence context with an empty item list and hide the new line from later reads in the transaction.
+     */
+    private CartJdbcRepository.LineChange upsertItem(Long userId, Product product, int quantity) {
+        return cartJdbcRepository.upsertItem(userId, product.getId(), quantity, product.getPrice())
+                .orElseGet(() -> {
+                    if (cartJdbcRepository.lockCarts(List.of(userId)).isEmpty()) {
+                        throw new ResourceNotFoundException("User is not found");
+                    }
+                    return cartJdbcRepository.upsertItem(userId, product.getId(), quantity, product.getPrice())
+                            .orElseThrow();
+                });
+    }
+
+    private CartJdbcRepository.LineChange updateItem(Long userId, Long itemId, UpdateCartItemDto dto) {
+        CartJdbcRepository.LineChange line = cartJdbcRepository.updateQuantity(userId, itemId, dto.getQuantity())
+                .orElseThrow(() -> new ResourceNotFoundException("CartItem is not found"));
+        log.info("Successfully updated item in cart for user with id: {}", userId);
+        return line;
+    }
+
+    private void updateRedisItem(Long userId, Long itemId, UpdateCartItemDto dto) {
+        if (!redisCartStore.setQuantity(userId, itemId, dto.getQuantity())) {
+            throw new ResourceNotFoundException("CartItem is not found");
+        }
+        log.info("Successfully updated item in cart for user with id: {}", userId);
+    }
+
+    private CartJdbcRepository.LineChange removeItem(Long userId, Long itemId) {
+        CartJdbcRepository.LineChange line = cartJdbcRepository.deleteItem(userId, itemId)
+                .orElseThrow(() -> new ResourceNotFoundException("Элемент корзины не найден"));
         log.info("Successfully removed item from cart for user with id: {}", userId);
-        return mapToCartResponseDto(cart);
+        return line;
+    }
+
+    private void removeRedisItem(Long userId, Long itemId) {
+        if (!redisCartStore.remove(userId, itemId)) {
+            throw new ResourceNotFoundException("CartItem is not found");
+        }
+        log.info("Successfully removed item from cart for user with id: {}", userId);
+    }
+
+    private CartDeltaDto mapToCartDeltaDto(CartJdbcRepository.LineChange line) {
+        CartItemResponseDto dto = new CartItemResponseDto();
+        dto.setId(line.id());
+        dto.setProductId(line.productId());
+        dto.setProductName(line.productName());
+        dto.setQuantity(line.quantity());
+        dto.setImageUrl(line.imageUrl());
+        dto.setPrice(line.price());
+
+        return new CartDeltaDto(dto, null,
+                line.restTotal().add(line.price().multiply(BigDecimal.valueOf(line.quantity()))));
+    }
+
+    private CartDeltaDto mapToCartDeltaDto(CartResponseDto cart, Long itemId) {
+        CartItemResponseDto item = cart.getItems().stream()
+                .filter(line -> line.getId().equals(itemId))
+                .findFirst()
+                .orElse(null);
+        return new CartDeltaDto(item, null, cart.getTotalAmount());
     }
 
     private CartResponseDto mapToCartResponseDto(Cart cart) {
@@ -114,6 +401,33 @@ public class CartService {
         return cartResponseDto;
     }
 
+    /**
+     * Line ids of Redis carts are the product ids.
+     */
+    private CartResponseDto mapToCartResponseDto(RedisCartStore.Snapshot snapshot) {
+        Map<Long, ProductResponse> products = getCachedProducts(snapshot.quantities().keySet());
+        List<CartItemResponseDto> itemDtos = snapshot.quantities().entrySet().stream()
+                .filter(entry -> products.containsKey(entry.getKey()))
+                .sorted(Map.Entry.comparingByKey())
+                .map(entry -> {
+                    ProductResponse product = products.get(entry.getKey());
+                    CartItemResponseDto dto = new CartItemResponseDto();
+                    dto.setId(product.getId());
+                    dto.setProductId(product.getId());
+                    dto.setProductName(product.getName());
+                    dto.setQuantity(entry.getValue());
+                    dto.setImageUrl(product.getImageUrl());
+                    dto.setPrice(product.getPrice());
+                    return dto;
+                })
+                .toList();
+
+        CartResponseDto cartResponseDto = new CartResponseDto();
+        cartResponseDto.setItems(itemDtos);
+        cartResponseDto.setTotalAmount(calculateTotalAmount(itemDtos));
+        return cartResponseDto;
+    }
+
     private CartItemResponseDto mapToCartItemResponseDto(CartItem cartItem) {
         CartItemResponseDto dto = new CartItemResponseDto();
         dto.setId(cartItem.getId());
@@ -135,26 +449,155 @@ public class CartService {
     @Transactional
     public void clearCart(Long userId) {
         log.info("Clearing cart for user with id: {}", userId);
+        if (isRedisStorage()) {
+            // Only once the cleared database copy is committed, so a rollback keeps the cart. A reload in between
+            // reads the database copy, whose row syncCart has locked until then
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        redisCartStore.delete(userId);
+                    }
+                });
+            } else {
+                redisCartStore.delete(userId);
+            }
+            cartRepository.findByUserId(userId).ifPresent(cart -> {
+                cart.getItems().clear();
+                cart.setUpdated_at(LocalDateTime.now());
+            });
+            log.info("Successfully cleared cart for user with id: {}", userId);
+            return;
+        }
         Cart cart = cartRepository.findByUserId(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Cart is not found"));
         cart.getItems().clear();
+        // Clearing only changes the items, which would not make the cart itself dirty
+        cart.setUpdated_at(LocalDateTime.now());
         cartRepository.save(cart);
         log.info("Successfully cleared cart for user with id: {}", userId);
     }
 
-    private Cart getOrCreateCart(Long userId) {
-        return cartRepository.findByUserId(userId)
-                .orElseGet(() -> createEmptyCart(userId));
+    /**
+     * Brings the database copy of the user's cart up to date within the current transaction, for readers that
+     * cannot wait for the write-behind such as checkout. Does nothing unless carts are stored in Redis.
+     */
+    @Transactional
+    public void syncCart(Long userId) {
+        if (isRedisStorage()) {
+            cartWriteBehindService.write(List.of(userId));
+        }
+    }
+
+    /**
+     * @return the token if the guest cart store could have issued it, a new token otherwise
+     */
+    public String resolveGuestCartToken(String token) {
+        return guestCartStore.isValidToken(token) ? token : guestCartStore.newToken();
+    }
+
+    /**
+     * Line ids of guest carts are the product ids.
+     */
+    public CartResponseDto getGuestCart(String token) {
+        Map<Long, Integer> quantities = guestCartStore.isValidToken(token) ? guestCartStore.get(token) : Map.of();
+        return mapToCartResponseDto(new RedisCartStore.Snapshot(quantities, Map.of()));
+    }
+
+    public CartResponseDto addItemToGuestCart(String token, CartItemDto cartItemDto) {
+        log.info("Attempting to add item to guest cart. Item: {}", cartItemDto);
+        ProductResponse product = getAvailableCachedProduct(cartItemDto);
+
+        int quantity = guestCartStore.add(token, product.getId(), cartItemDto.getQuantity());
+        if (quantity < 0) {
+            log.warn("Guest cart is full, product {} was not added", product.getId());
+            throw new BusinessException("Guest cart cannot hold more than " + cartProps.getGuest().getMaxItems()
+                    + " products", "GUEST_CART_FULL");
+        }
+        log.info("Successfully added item to guest cart. Quantity: {}", quantity);
+        return getGuestCart(token);
+    }
+
+    public CartResponseDto updateGuestCartItem(String token, Long productId, UpdateCartItemDto dto) {
+        if (!guestCartStore.isValidToken(token) || !guestCartStore.setQuantity(token, productId, dto.getQuantity())) {
+            throw new ResourceNotFoundException("CartItem is not found");
+        }
+        return getGuestCart(token);
+    }
+
+    public CartResponseDto removeGuestCartItem(String token, Long productId) {
+        if (!guestCartStore.isValidToken(token) || !guestCartStore.remove(token, productId)) {
+            throw new ResourceNotFoundException("CartItem is not found");
+        }
+        return getGuestCart(token);
     }
 
+    public void clearGuestCart(String token) {
+        if (guestCartStore.isValidToken(token)) {
+            guestCartStore.delete(token);
+        }
+    }
+
+    /**
+     * Adds the guest cart to the user's cart with one batched write and drops the guest cart once that commits.
+     * Products that are gone or no longer available are left out.
+     */
+    @Transactional
+    public void mergeGuestCart(Long userId, String token) {
+        if (!guestCartStore.isValidToken(token)) {
+            return;
+        }
+        Map<Long, Integer> quantities = guestCartStore.get(token);
+        if (quantities.isEmpty()) {
+            return;
+        }
+        List<Product> products = productRepository.findAllById(quantities.keySet()).stream()
+                .filter(Product::getAvailable)
+                .toList();
+        log.info("Merging {} of {} guest cart products into cart of user with id: {}",
+                products.size(), quantities.size(), userId);
+
+        if (!products.isEmpty() && isRedisStorage()) {
+            redisCartStore.apply(userId, products.stream()
+                    .map(product -> new RedisCartStore.Change(CartBatchRequest.Type.ADD, product.getId(),
+                            quantities.get(product.getId()), product.getPrice()))
+                    .toList());
+        } else if (!products.isEmpty()) {
+            Long cartId = cartJdbcRepository.lockCarts(List.of(userId)).get(userId);
+            if (cartId == null) {
+                throw new ResourceNotFoundException("User is not found");
+            }
+            cartJdbcRepository.addItems(cartId, products.stream()
+                    .map(product -> new CartJdbcRepository.Line(product.getId(), quantities.get(product.getId()),
+                            product.getPrice()))
+                    .toList());
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    guestCartStore.delete(token);
+                }
+            });
+        } else {
+            guestCartStore.delete(token);
+        }
+    }
+
+    private boolean isRedisStorage() {
+        return cartProps.getStorage() == CartProps.Storage.REDIS;
+    }
+
+    /**
+     * Created through JDBC, so that concurrent first reads of the same user share one cart instead of failing on
+     * the unique user id.
+     */
     protected Cart createEmptyCart(Long userId) {
         log.info("Creating an empty cart for user {}", userId);
-        User user = userRepository.findById(userId)
+        cartJdbcRepository.createCart(userId);
+        Cart savedCart = cartRepository.findByUserIdWithItems(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User is not found"));
-
-        Cart cart = new Cart();
-        cart.setUser(user);
-        Cart savedCart = cartRepository.save(cart);
         log.info("Successfully created an empty cart for user {}", userId);
         return savedCart;
     }
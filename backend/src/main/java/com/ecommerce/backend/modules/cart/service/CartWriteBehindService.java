@@ -0,0 +1,104 @@
+package com.ecommerce.backend.modules.cart.service;
+
+import com.ecommerce.backend.modules.cart.config.CartProps;
+import com.ecommerce.backend.modules.cart.repository.CartJdbcRepository;
+import com.ecommerce.backend.shared.scheduling.ScheduledJobLock;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Copies carts that changed in Redis to {@code carts}/{@code cart_items}. All changes of a cart since its last
+ * write become one replacement of its items, and the carts of a batch are written in one transaction. A batch
+ * stays claimed in Redis until its transaction commits, so no change is lost when the write fails or the
+ * process dies.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CartWriteBehindService {
+
+    private static final String JOB_NAME = "cart-write-behind";
+
+    private final RedisCartStore redisCartStore;
+    private final CartJdbcRepository cartJdbcRepository;
+    private final ScheduledJobLock scheduledJobLock;
+    private final PlatformTransactionManager transactionManager;
+    private final CartProps cartProps;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${cart.redis.write-behind-interval-ms:1000}")
+    public void flushDirtyCarts() {
+        if (cartProps.getStorage() != CartProps.Storage.REDIS || redisCartStore.dirtyCount() == 0) {
+            return;
+        }
+        scheduledJobLock.runLocked(JOB_NAME, Duration.ofMinutes(1), () -> {
+            // Runs do not overlap, so anything still claimed is left from a run that did not complete
+            long requeued = redisCartStore.requeueClaimed();
+            if (requeued > 0) {
+                log.warn("Requeued {} carts claimed by an incomplete write-behind run", requeued);
+            }
+
+            int batchSize = cartProps.getRedis().getWriteBehindBatchSize();
+            Set<Long> userIds;
+            do {
+                userIds = redisCartStore.claimDirty(batchSize);
+                if (userIds.isEmpty()) {
+                    return;
+                }
+                Set<Long> batch = userIds;
+                try {
+                    transactionTemplate.executeWithoutResult(status -> write(batch));
+                    log.debug("Wrote {} carts behind to the database", batch.size());
+                } catch (Exception e) {
+                    log.error("Failed to write {} carts behind, retrying them next run. Error: {}", batch.size(), e.getMessage());
+                    redisCartStore.requeueClaimed();
+                    return;
+                }
+                redisCartStore.completeClaimed(batch);
+            } while (userIds.size() == batchSize);
+        });
+    }
+
+    /**
+     * Writes the current Redis carts of the users to the database. The carts are read only after their rows are
+     * locked, so a later writer always writes a later state. Carts no longer in Redis are skipped.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void write(Collection<Long> userIds) {
+        Map<Long, Long> cartIds = cartJdbcRepository.lockCarts(userIds);
+        Map<Long, List<CartJdbcRepository.Line>> linesByCartId = new HashMap<>();
+        for (Long userId : userIds) {
+            RedisCartStore.Snapshot snapshot = redisCartStore.peek(userId);
+            Long cartId = cartIds.get(userId);
+            if (snapshot == null || cartId == null) {
+                continue;
+            }
+            List<CartJdbcRepository.Line> lines = new ArrayList<>(snapshot.quantities().size());
+            snapshot.quantities().forEach((productId, quantity) ->
+                    lines.add(new CartJdbcRepository.Line(productId, quantity, snapshot.priceSnapshots().get(productId))));
+            linesByCartId.put(cartId, lines);
+        }
+        cartJdbcRepository.replaceItems(linesByCartId);
+    }
+}
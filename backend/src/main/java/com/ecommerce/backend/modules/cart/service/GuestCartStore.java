@@ -0,0 +1,117 @@
+package com.ecommerce.backend.modules.cart.service;
+
+import com.ecommerce.backend.modules.cart.config.CartProps;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Carts of visitors who are not logged in: a Redis hash of product id to quantity per opaque token, kept only
+ * in Redis and dropped by TTL when the visitor does not come back. Every change refreshes the TTL.
+ */
+@Component
+@RequiredArgsConstructor
+public class GuestCartStore {
+
+    private static final String KEY_PREFIX = "cart:guest:";
+    private static final int TOKEN_BYTES = 32;
+    private static final Pattern TOKEN_PATTERN = Pattern.compile("[A-Za-z0-9_-]{43}");
+
+    private static final RedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 0 and redis.call('HLEN', KEYS[1]) >= tonumber(ARGV[4]) then
+                return -1
+            end
+            local quantity = redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2])
+            redis.call('EXPIRE', KEYS[1], ARGV[3])
+            return quantity
+            """, Long.class);
+
+    private static final RedisScript<Long> SET_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 0 then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            redis.call('EXPIRE', KEYS[1], ARGV[3])
+            return 1
+            """, Long.class);
+
+    private final SecureRandom random = new SecureRandom();
+    private final RedisTemplate<String, String> redisTemplate;
+    private final CartProps cartProps;
+
+    public String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    /**
+     * Tells tokens this store could have issued from anything else a client sends, so that no other key is read.
+     */
+    public boolean isValidToken(String token) {
+        return token != null && TOKEN_PATTERN.matcher(token).matches();
+    }
+
+    /**
+     * @return quantity per product id, empty if the cart does not exist or expired
+     */
+    public Map<Long, Integer> get(String token) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        redisTemplate.opsForHash().entries(key(token)).forEach((productId, quantity) ->
+                quantities.put(Long.valueOf((String) productId), Integer.valueOf((String) quantity)));
+        return quantities;
+    }
+
+    /**
+     * @return the new quantity of the product, or {@code -1} if the cart already holds the maximum number of
+     * products
+     */
+    public int add(String token, Long productId, int quantity) {
+        Long result = redisTemplate.execute(ADD_SCRIPT, List.of(key(token)),
+                String.valueOf(productId), String.valueOf(quantity), ttlSeconds(),
+                String.valueOf(cartProps.getGuest().getMaxItems()));
+        if (result == null) {
+            throw new IllegalStateException("Guest cart script returned no result");
+        }
+        return result.intValue();
+    }
+
+    /**
+     * @return {@code false} if the product is not in the cart
+     */
+    public boolean setQuantity(String token, Long productId, int quantity) {
+        Long result = redisTemplate.execute(SET_SCRIPT, List.of(key(token)),
+                String.valueOf(productId), String.valueOf(quantity), ttlSeconds());
+        return result != null && result == 1;
+    }
+
+    /**
+     * @return {@code false} if the product is not in the cart
+     */
+    public boolean remove(String token, Long productId) {
+        Long removed = redisTemplate.opsForHash().delete(key(token), String.valueOf(productId));
+        return removed != null && removed > 0;
+    }
+
+    public void delete(String token) {
+        redisTemplate.delete(key(token));
+    }
+
+    private String ttlSeconds() {
+        return String.valueOf(Duration.ofDays(cartProps.getGuest().getTtlDays()).toSeconds());
+    }
+
+    private String key(String token) {
+        return KEY_PREFIX + token;
+    }
+}
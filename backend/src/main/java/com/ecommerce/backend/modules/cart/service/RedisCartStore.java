@@ -0,0 +1,338 @@
+package com.ecommerce.backend.modules.cart.service;
+
+import com.ecommerce.backend.modules.cart.config.CartProps;
+import com.ecommerce.backend.modules.cart.dto.CartBatchRequest;
+import com.ecommerce.backend.modules.cart.entity.CartItem;
+import com.ecommerce.backend.modules.cart.repository.CartRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Live carts of the REDIS cart storage: a hash of product id to quantity per user, a hash of the price snapshots
+ * next to it, and a set of users whose cart changed since the last write-behind. Every mutation is one script
+ * call that changes the cart, refreshes its TTL and marks it dirty.
+ * <p>
+ * A cart is loaded from Postgres the first time it is touched; the {@value #LOADED_FIELD} field tells a loaded
+ * empty cart from one that is not in Redis.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RedisCartStore {
+
+    private static final String KEY_PREFIX = "cart:";
+    private static final String PRICES_SUFFIX = ":prices";
+    private static final String DIRTY_KEY = "cart:dirty";
+    private static final String CLAIMED_KEY = "cart:dirty:claimed";
+    private static final String LOADED_FIELD = "_";
+    private static final long NOT_LOADED = -1;
+
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], '_', 0)
+            for i = 2, #ARGV, 3 do
+                redis.call('HSET', KEYS[1], ARGV[i], ARGV[i + 1])
+                redis.call('HSET', KEYS[2], ARGV[i], ARGV[i + 2])
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            redis.call('EXPIRE', KEYS[2], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return -1
+            end
+            local quantity = redis.call('HINCRBY', KEYS[1], ARGV[1], ARGV[2])
+            redis.call('HSET', KEYS[2], ARGV[1], ARGV[3])
+            redis.call('EXPIRE', KEYS[1], ARGV[4])
+            redis.call('EXPIRE', KEYS[2], ARGV[4])
+            redis.call('SADD', KEYS[3], ARGV[5])
+            return quantity
+            """, Long.class);
+
+    private static final RedisScript<Long> SET_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return -1
+            end
+            if redis.call('HEXISTS', KEYS[1], ARGV[1]) == 0 then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], ARGV[1], ARGV[2])
+            redis.call('EXPIRE', KEYS[1], ARGV[3])
+            redis.call('EXPIRE', KEYS[2], ARGV[3])
+            redis.call('SADD', KEYS[3], ARGV[4])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> REMOVE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return -1
+            end
+            if redis.call('HDEL', KEYS[1], ARGV[1]) == 0 then
+                return 0
+            end
+            redis.call('HDEL', KEYS[2], ARGV[1])
+            redis.call('EXPIRE', KEYS[1], ARGV[2])
+            redis.call('EXPIRE', KEYS[2], ARGV[2])
+            redis.call('SADD', KEYS[3], ARGV[3])
+            return 1
+            """, Long.class);
+
+    // Replies with the claimed user ids joined by commas. A cart changed while its claim is being written is
+    // marked dirty again, since it left the dirty set
+    private static final RedisScript<String> CLAIM_SCRIPT = new DefaultRedisScript<>("""
+            local userIds = redis.call('SPOP', KEYS[1], ARGV[1])
+            if #userIds > 0 then
+                redis.call('SADD', KEYS[2], unpack(userIds))
+            end
+            return table.concat(userIds, ',')
+            """, String.class);
+
+    private static final RedisScript<Long> REQUEUE_SCRIPT = new DefaultRedisScript<>("""
+            local userIds = redis.call('SMEMBERS', KEYS[2])
+            if #userIds > 0 then
+                redis.call('SADD', KEYS[1], unpack(userIds))
+                redis.call('DEL', KEYS[2])
+            end
+            return #userIds
+            """, Long.class);
+
+    // Checks every change against the cart as the earlier changes leave it before applying any of them
+    private static final RedisScript<Long> BATCH_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 0 then
+                return -1
+            end
+            local present = {}
+            for i = 3, #ARGV, 4 do
+                local field = ARGV[i + 1]
+                if present[field] == nil then
+                    present[field] = redis.call('HEXISTS', KEYS[1], field) == 1
+                end
+                if ARGV[i] == 'ADD' then
+                    present[field] = true
+                elseif not present[field] then
+                    return 0
+                elseif ARGV[i] == 'REMOVE' then
+                    present[field] = false
+                end
+            end
+            for i = 3, #ARGV, 4 do
+                local field = ARGV[i + 1]
+                if ARGV[i] == 'ADD' then
+                    redis.call('HINCRBY', KEYS[1], field, ARGV[i + 2])
+                    redis.call('HSET', KEYS[2], field, ARGV[i + 3])
+                elseif ARGV[i] == 'UPDATE' then
+                    redis.call('HSET', KEYS[1], field, ARGV[i + 2])
+                else
+                    redis.call('HDEL', KEYS[1], field)
+                    redis.call('HDEL', KEYS[2], field)
+                end
+            end
+            redis.call('EXPIRE', KEYS[1], ARGV[1])
+            redis.call('EXPIRE', KEYS[2], ARGV[1])
+            redis.call('SADD', KEYS[3], ARGV[2])
+            return 1
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final CartRepository cartRepository;
+    private final CartProps cartProps;
+
+    /**
+     * @return the cart, loaded from Postgres first if it is not in Redis
+     */
+    public Snapshot get(Long userId) {
+        Snapshot snapshot = peek(userId);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        load(userId);
+        snapshot = peek(userId);
+        return snapshot != null ? snapshot : new Snapshot(Map.of(), Map.of());
+    }
+
+    /**
+     * @return the cart, or {@code null} if it is not in Redis
+     */
+    public Snapshot peek(Long userId) {
+        Map<Object, Object> quantities = redisTemplate.opsForHash().entries(quantitiesKey(userId));
+        if (quantities.isEmpty()) {
+            return null;
+        }
+        Map<Object, Object> prices = redisTemplate.opsForHash().entries(pricesKey(userId));
+        Map<Long, Integer> items = new HashMap<>();
+        Map<Long, BigDecimal> priceSnapshots = new HashMap<>();
+        quantities.forEach((field, quantity) -> {
+            if (!LOADED_FIELD.equals(field)) {
+                Long productId = Long.valueOf((String) field);
+                items.put(productId, Integer.valueOf((String) quantity));
+                Object price = prices.get(field);
+                if (price != null) {
+                    priceSnapshots.put(productId, new BigDecimal((String) price));
+                }
+            }
+        });
+        return new Snapshot(items, priceSnapshots);
+    }
+
+    /**
+     * @return the new quantity of the product
+     */
+    public int add(Long userId, Long productId, int quantity, BigDecimal price) {
+        return (int) execute(ADD_SCRIPT, userId,
+                String.valueOf(productId), String.valueOf(quantity), price.toPlainString(), ttlSeconds(), String.valueOf(userId));
+    }
+
+    /**
+     * @return {@code false} if the product is not in the cart
+     */
+    public boolean setQuantity(Long userId, Long productId, int quantity) {
+        return execute(SET_SCRIPT, userId,
+                String.valueOf(productId), String.valueOf(quantity), ttlSeconds(), String.valueOf(userId)) == 1;
+    }
+
+    /**
+     * @return {@code false} if the product is not in the cart
+     */
+    public boolean remove(Long userId, Long productId) {
+        return execute(REMOVE_SCRIPT, userId, String.valueOf(productId), ttlSeconds(), String.valueOf(userId)) == 1;
+    }
+
+    /**
+     * Applies the changes in order in one script call, or none of them if one updates or removes a product that is
+     * not in the cart at that point.
+     *
+     * @return {@code false} if the changes were rejected
+     */
+    public boolean apply(Long userId, List<Change> changes) {
+        List<String> args = new ArrayList<>();
+        args.add(ttlSeconds());
+        args.add(String.valueOf(userId));
+        for (Change change : changes) {
+            args.add(change.type().name());
+            args.add(String.valueOf(change.productId()));
+            args.add(change.quantity() != null ? String.valueOf(change.quantity()) : "");
+            args.add(change.price() != null ? change.price().toPlainString() : "");
+        }
+        return execute(BATCH_SCRIPT, userId, args.toArray(String[]::new)) == 1;
+    }
+
+    /**
+     * Drops the cart from Redis; the next access loads it from Postgres again.
+     */
+    public void delete(Long userId) {
+        redisTemplate.delete(List.of(quantitiesKey(userId), pricesKey(userId)));
+    }
+
+    /**
+     * @return carts waiting to be written, including ones claimed by a write that did not complete
+     */
+    public long dirtyCount() {
+        Long dirty = redisTemplate.opsForSet().size(DIRTY_KEY);
+        Long claimed = redisTemplate.opsForSet().size(CLAIMED_KEY);
+        return (dirty != null ? dirty : 0) + (claimed != null ? claimed : 0);
+    }
+
+    /**
+     * Moves up to {@code count} dirty carts to the claimed set, where they stay until {@link #completeClaimed}
+     * or {@link #requeueClaimed}.
+     */
+    public Set<Long> claimDirty(int count) {
+        String userIds = redisTemplate.execute(CLAIM_SCRIPT, List.of(DIRTY_KEY, CLAIMED_KEY), String.valueOf(count));
+        if (userIds == null || userIds.isEmpty()) {
+            return Set.of();
+        }
+        return Arrays.stream(userIds.split(",")).map(Long::valueOf).collect(Collectors.toSet());
+    }
+
+    /**
+     * Drops the claims of carts whose write committed.
+     */
+    public void completeClaimed(Collection<Long> userIds) {
+        if (!userIds.isEmpty()) {
+            redisTemplate.opsForSet().remove(CLAIMED_KEY, userIds.stream().map(String::valueOf).toArray());
+        }
+    }
+
+    /**
+     * Marks every claimed cart dirty again, such as after a failed write.
+     *
+     * @return number of carts requeued
+     */
+    public long requeueClaimed() {
+        Long requeued = redisTemplate.execute(REQUEUE_SCRIPT, List.of(DIRTY_KEY, CLAIMED_KEY));
+        return requeued != null ? requeued : 0;
+    }
+
+    private long execute(RedisScript<Long> script, Long userId, String... args) {
+        List<String> keys = List.of(quantitiesKey(userId), pricesKey(userId), DIRTY_KEY);
+        Long result = redisTemplate.execute(script, keys, (Object[]) args);
+        if (result != null && result == NOT_LOADED) {
+            load(userId);
+            result = redisTemplate.execute(script, keys, (Object[]) args);
+        }
+        if (result == null || result == NOT_LOADED) {
+            throw new IllegalStateException("Cart of user " + userId + " could not be loaded into Redis");
+        }
+        return result;
+    }
+
+    private void load(Long userId) {
+        List<String> args = new ArrayList<>();
+        args.add(ttlSeconds());
+        cartRepository.findByUserIdWithItems(userId).ifPresent(cart -> {
+            for (CartItem item : cart.getItems()) {
+                BigDecimal price = item.getPriceSnapshot() != null ? item.getPriceSnapshot() : item.getProduct().getPrice();
+                args.add(String.valueOf(item.getProduct().getId()));
+                args.add(String.valueOf(item.getQuantity()));
+                args.add(price.toPlainString());
+            }
+        });
+        redisTemplate.execute(LOAD_SCRIPT, List.of(quantitiesKey(userId), pricesKey(userId)), args.toArray());
+        log.debug("Loaded cart of user {} into Redis with {} items", userId, (args.size() - 1) / 3);
+    }
+
+    private String ttlSeconds() {
+        return String.valueOf(Duration.ofDays(cartProps.getRedis().getTtlDays()).toSeconds());
+    }
+
+    private String quantitiesKey(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+
+    private String pricesKey(Long userId) {
+        return KEY_PREFIX + userId + PRICES_SUFFIX;
+    }
+
+    /**
+     * @param quantity quantity to add or set, {@code null} for {@code REMOVE}
+     * @param price    price snapshot, only for {@code ADD}
+     */
+    public record Change(CartBatchRequest.Type type, Long productId, Integer quantity, BigDecimal price) {
+    }
+
+    /**
+     * @param quantities     quantity per product id
+     * @param priceSnapshots price per product id when it was last added
+     */
+    public record Snapshot(Map<Long, Integer> quantities, Map<Long, BigDecimal> priceSnapshots) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.ecommerce.backend.modules.inventory.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "inventory")
+@Component
+@Data
+public class InventoryProps {
+    private History history = new History();
+    private FlashSale flashSale = new FlashSale();
+    private Slots slots = new Slots();
+    private ReservationExpiry reservationExpiry = new ReservationExpiry();
+    private AvailabilityCache availabilityCache = new AvailabilityCache();
+    private Bulk bulk = new Bulk();
+
+    @Data
+    public static class History {
+        /**
+         * STAGED writes audit rows to a staging table inside the business transaction (no loss on crash),
+         * BUFFERED keeps them in memory after commit (rows pending flush are lost if the process dies).
+         */
+        private HistoryWriteMode mode = HistoryWriteMode.STAGED;
+        private long flushIntervalMs = 500;
+        private int batchSize = 500;
+        private int bufferCapacity = 10000;
+        private int premakeMonths = 3;
+        /**
+         * Monthly partitions older than this are detached, exported to {@link #archiveDir} and dropped.
+         */
+        private int retentionMonths = 24;
+        private String archiveDir = "archive/inventory-history";
+        private String partitionCron = "0 30 3 * * *";
+    }
+
+    @Data
+    public static class FlashSale {
+        private long reconcileIntervalMs = 1000;
+        private int reconcileBatchSize = 500;
+        /**
+         * How often the local set of products in flash sale mode is reloaded, which bounds how long another
+         * instance keeps reserving a product through the old mode after a switch.
+         */
+        private long refreshIntervalMs = 1000;
+    }
+
+    @Data
+    public static class Slots {
+        private long refreshIntervalMs = 10000;
+        private long rebalanceIntervalMs = 30000;
+    }
+
+    @Data
+    public static class ReservationExpiry {
+        /**
+         * How long stock stays reserved for an order that is still PENDING before the order is cancelled.
+         */
+        private long ttlMs = 1800000;
+        private long tickMs = 1000;
+        private int wheelSize = 64;
+        private int wheelLevels = 2;
+        /**
+         * Deadlines due within this window are loaded into the timing wheel; later ones stay in the database only.
+         */
+        private long lookaheadMs = 600000;
+        private long loadIntervalMs = 60000;
+        private long sweepIntervalMs = 60000;
+        private int batchSize = 200;
+    }
+
+    @Data
+    public static class AvailabilityCache {
+        /**
+         * Upper bound on how long an entry is served without an update; changes published by stock mutations
+         * normally replace it much sooner.
+         */
+        private long localTtlMs = 5000;
+        private long redisTtlMs = 60000;
+    }
+
+    @Data
+    public static class Bulk {
+        /**
+         * Lines applied per transaction by bulk adjustments; results are streamed back after each chunk.
+         */
+        private int chunkSize = 1000;
+    }
+
+    public enum HistoryWriteMode {
+        STAGED,
+        BUFFERED
+    }
+}
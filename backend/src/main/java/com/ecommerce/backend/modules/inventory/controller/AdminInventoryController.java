@@ -3,16 +3,25 @@ package com.ecommerce.backend.modules.inventory.controller;
 import com.ecommerce.backend.modules.inventory.dto.InventoryDto;
 import com.ecommerce.backend.modules.inventory.dto.InventoryHistoryPage;
 import com.ecommerce.backend.modules.inventory.dto.InventoryPage;
+import com.ecommerce.backend.modules.inventory.dto.InventorySlotCountRequest;
 import com.ecommerce.backend.modules.inventory.dto.InventoryUpdateRequest;
+import com.ecommerce.backend.modules.inventory.service.FlashSaleStockService;
+import com.ecommerce.backend.modules.inventory.service.InventoryBulkAdjustmentService;
 import com.ecommerce.backend.modules.inventory.service.InventoryService;
+import com.ecommerce.backend.modules.inventory.service.InventorySlotService;
+import com.ecommerce.backend.shared.pagination.CursorPageRequest;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.security.Principal;
 
@@ -24,6 +33,9 @@ import java.security.Principal;
 public class AdminInventoryController {
 
     private final InventoryService inventoryService;
+    private final FlashSaleStockService flashSaleStockService;
+    private final InventorySlotService inventorySlotService;
+    private final InventoryBulkAdjustmentService inventoryBulkAdjustmentService;
 
     @GetMapping
     public ResponseEntity<InventoryPage> getAllInventory(
@@ -37,6 +49,18 @@ public class AdminInventoryController {
         return ResponseEntity.ok(inventoryPage);
     }
 
+    @GetMapping(params = "cursor")
+    public ResponseEntity<InventoryPage> getAllInventoryAfter(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean approximateTotal
+    ) {
+        log.info("Admin request to get all inventory. Cursor: {}, Size: {}", cursor, size);
+        InventoryPage inventoryPage = inventoryService.getAllInventory(new CursorPageRequest(cursor, size, approximateTotal));
+        log.info("Admin successfully fetched all inventory. Has next: {}", inventoryPage.getPage().getHasNext());
+        return ResponseEntity.ok(inventoryPage);
+    }
+
     @GetMapping("/{productId}")
     public ResponseEntity<InventoryDto> getProductInventory(
             @PathVariable("productId") Long productId
@@ -71,4 +95,75 @@ public class AdminInventoryController {
         log.info("Admin successfully fetched inventory history for product with id: {}. Total elements: {}", productId, historyPage.getPage().getTotalElements());
         return ResponseEntity.ok(historyPage);
     }
+
+    @GetMapping(value = "/{productId}/history", params = "cursor")
+    public ResponseEntity<InventoryHistoryPage> getInventoryHistoryAfter(
+            @PathVariable Long productId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean approximateTotal
+    ) {
+        log.info("Admin request to get inventory history for product with id: {}. Cursor: {}, Size: {}", productId, cursor, size);
+        InventoryHistoryPage historyPage = inventoryService.getInventoryHistory(
+                productId, new CursorPageRequest(cursor, size, approximateTotal));
+        log.info("Admin successfully fetched inventory history for product with id: {}. Has next: {}", productId, historyPage.getPage().getHasNext());
+        return ResponseEntity.ok(historyPage);
+    }
+
+    @PostMapping("/{productId}/flash-sale")
+    public ResponseEntity<InventoryDto> enableFlashSale(
+            @PathVariable("productId") Long productId,
+            Principal principal
+    ) {
+        log.info("Admin request to enable flash sale for product with id: {}", productId);
+        flashSaleStockService.enableFlashSale(productId, principal.getName());
+        InventoryDto inventoryDto = inventoryService.getProductInventory(productId);
+        log.info("Admin successfully enabled flash sale for product with id: {}", productId);
+        return ResponseEntity.ok(inventoryDto);
+    }
+
+    @DeleteMapping("/{productId}/flash-sale")
+    public ResponseEntity<InventoryDto> disableFlashSale(
+            @PathVariable("productId") Long productId,
+            Principal principal
+    ) {
+        log.info("Admin request to disable flash sale for product with id: {}", productId);
+        flashSaleStockService.disableFlashSale(productId, principal.getName());
+        InventoryDto inventoryDto = inventoryService.getProductInventory(productId);
+        log.info("Admin successfully disabled flash sale for product with id: {}. Inventory: {}", productId, inventoryDto);
+        return ResponseEntity.ok(inventoryDto);
+    }
+
+    @PutMapping("/{productId}/slots")
+    public ResponseEntity<InventoryDto> updateSlotCount(
+            @PathVariable("productId") Long productId,
+            @Valid @RequestBody InventorySlotCountRequest req,
+            Principal principal
+    ) {
+        log.info("Admin request to set stock slot count for product with id: {}. Slot count: {}", productId, req.getSlotCount());
+        inventorySlotService.updateSlotCount(productId, req.getSlotCount(), principal.getName());
+        InventoryDto inventoryDto = inventoryService.getProductInventory(productId);
+        log.info("Admin successfully set stock slot count for product with id: {}. Inventory: {}", productId, inventoryDto);
+        return ResponseEntity.ok(inventoryDto);
+    }
+
+    @PostMapping(value = "/bulk", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> bulkAdjust(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            HttpServletRequest request,
+            Principal principal
+    ) {
+        InventoryBulkAdjustmentService.Format format = MediaType.parseMediaType(contentType)
+                .isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? InventoryBulkAdjustmentService.Format.NDJSON
+                : InventoryBulkAdjustmentService.Format.CSV;
+        String username = principal.getName();
+        log.info("Admin request to apply bulk inventory adjustments. Format: {}", format);
+        StreamingResponseBody body = output -> inventoryBulkAdjustmentService.applyAdjustments(
+                request.getInputStream(), format, username, output);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
 }
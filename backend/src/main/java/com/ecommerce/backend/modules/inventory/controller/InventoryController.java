@@ -1,6 +1,7 @@
 package com.ecommerce.backend.modules.inventory.controller;
 
 import com.ecommerce.backend.modules.inventory.dto.CartItemAvailabilityCheck;
+import com.ecommerce.backend.modules.inventory.dto.ItemAvailabilityDto;
 import com.ecommerce.backend.modules.inventory.service.InventoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +28,16 @@ public class InventoryController {
         return ResponseEntity.ok(available);
     }
 
+    @PostMapping("/availability")
+    public ResponseEntity<List<ItemAvailabilityDto>> getItemsAvailability(
+            @RequestBody List<CartItemAvailabilityCheck> items
+    ) {
+        log.info("Request to check availability per item: {}", items);
+        List<ItemAvailabilityDto> availability = inventoryService.getItemsAvailability(items);
+        log.info("Availability per item: {}", availability);
+        return ResponseEntity.ok(availability);
+    }
+
     @GetMapping("product/{productId}/available")
     public ResponseEntity<Boolean> isProductAvailable(
             @PathVariable("productId") Long productId,
@@ -0,0 +1,30 @@
+package com.ecommerce.backend.modules.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventoryAdjustmentLine implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long productId;
+    private Mode mode;
+    private Integer quantity;
+
+    public enum Mode {
+        /**
+         * Sets available stock to the quantity.
+         */
+        ABSOLUTE,
+        /**
+         * Adds the quantity, which may be negative, to available stock.
+         */
+        DELTA
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.backend.modules.inventory.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InventoryAdjustmentResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long line;
+    private Long productId;
+    private Status status;
+    private String code;
+    private String message;
+    private Integer availableBefore;
+    private Integer availableAfter;
+
+    public enum Status {
+        APPLIED,
+        REJECTED,
+        INVALID
+    }
+}
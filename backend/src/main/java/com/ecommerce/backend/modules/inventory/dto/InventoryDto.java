@@ -20,4 +20,6 @@ public class InventoryDto implements Serializable {
     private Integer availableQuantity;
     private Integer reservedQuantity;
     private Integer totalQuantity;
+    private Boolean flashSale;
+    private Integer slotCount;
 }
@@ -0,0 +1,23 @@
+package com.ecommerce.backend.modules.inventory.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InventorySlotCountRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull(message = "Slot count should not be empty")
+    @Min(value = 1, message = "Slot count should be at least 1")
+    @Max(value = 64, message = "Slot count should not exceed 64")
+    private Integer slotCount;
+}
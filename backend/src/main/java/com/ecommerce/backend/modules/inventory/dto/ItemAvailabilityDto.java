@@ -0,0 +1,21 @@
+package com.ecommerce.backend.modules.inventory.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemAvailabilityDto implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long productId;
+    private Integer quantity;
+    private Boolean available;
+}
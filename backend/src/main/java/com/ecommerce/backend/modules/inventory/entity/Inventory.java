@@ -6,6 +6,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Formula;
 
 import java.time.LocalDateTime;
 
@@ -27,6 +28,20 @@ public class Inventory {
     @Column(name = "reserved_quantity")
     private Integer reservedQuantity;
 
+    @Column(name = "flash_sale", nullable = false)
+    @Builder.Default
+    private Boolean flashSale = false;
+
+    @Column(name = "slot_count", nullable = false)
+    @Builder.Default
+    private Integer slotCount = 1;
+
+    @Formula("(SELECT COALESCE(SUM(s.available_quantity), 0) FROM inventory_slots s WHERE s.product_id = product_id)")
+    private Integer slotAvailableQuantity;
+
+    @Formula("(SELECT COALESCE(SUM(s.reserved_quantity), 0) FROM inventory_slots s WHERE s.product_id = product_id)")
+    private Integer slotReservedQuantity;
+
     @Column(name = "created_at", nullable = false)
     @CreationTimestamp
     private LocalDateTime createdAt;
@@ -34,4 +49,15 @@ public class Inventory {
     @Column(name = "updated_at")
     @CreationTimestamp
     private LocalDateTime updatedAt;
+
+    /**
+     * Stock of the product including its slot rows when the stock is sharded.
+     */
+    public int getTotalAvailableQuantity() {
+        return availableQuantity + (slotAvailableQuantity != null ? slotAvailableQuantity : 0);
+    }
+
+    public int getTotalReservedQuantity() {
+        return (reservedQuantity != null ? reservedQuantity : 0) + (slotReservedQuantity != null ? slotReservedQuantity : 0);
+    }
 }
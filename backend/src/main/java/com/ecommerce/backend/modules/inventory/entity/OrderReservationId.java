@@ -0,0 +1,18 @@
+package com.ecommerce.backend.modules.inventory.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderReservationId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private Long orderId;
+    private Long productId;
+}
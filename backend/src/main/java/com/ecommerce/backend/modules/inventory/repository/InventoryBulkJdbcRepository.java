@@ -0,0 +1,108 @@
+package com.ecommerce.backend.modules.inventory.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Set-based stock adjustments: the net adjustment of every product in a chunk is batch-inserted into a
+ * session-local staging table and merged into {@code inventory} with a single statement.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventoryBulkJdbcRepository {
+
+    private static final String CREATE_STAGING_SQL = """
+            CREATE TEMP TABLE IF NOT EXISTS inventory_bulk_adjustments (
+                product_id BIGINT PRIMARY KEY,
+                absolute_quantity INTEGER,
+                delta INTEGER NOT NULL
+            ) ON COMMIT DELETE ROWS
+            """;
+
+    private static final String INSERT_STAGING_SQL = """
+            INSERT INTO inventory_bulk_adjustments (product_id, absolute_quantity, delta)
+            VALUES (?, ?, ?)
+            """;
+
+    private static final String MERGE_SQL = """
+            WITH locked AS (
+                SELECT i.product_id, i.available_quantity, COALESCE(i.reserved_quantity, 0) AS reserved_quantity
+                FROM inventory i
+                JOIN inventory_bulk_adjustments a ON a.product_id = i.product_id
+                WHERE i.flash_sale = FALSE AND i.slot_count = 1
+                ORDER BY i.product_id
+                FOR UPDATE OF i
+            ),
+            updated AS (
+                UPDATE inventory i
+                SET available_quantity = COALESCE(a.absolute_quantity, l.available_quantity) + a.delta,
+                    updated_at = CURRENT_TIMESTAMP
+                FROM inventory_bulk_adjustments a
+                JOIN locked l ON l.product_id = a.product_id
+                WHERE i.product_id = a.product_id
+                  AND COALESCE(a.absolute_quantity, l.available_quantity) + a.delta >= 0
+                RETURNING i.product_id
+            )
+            SELECT a.product_id,
+                   l.available_quantity AS available_before,
+                   l.reserved_quantity,
+                   u.product_id IS NOT NULL AS applied,
+                   i.product_id IS NOT NULL AS found,
+                   COALESCE(i.flash_sale, FALSE) AS flash_sale,
+                   COALESCE(i.slot_count, 1) AS slot_count
+            FROM inventory_bulk_adjustments a
+            LEFT JOIN locked l ON l.product_id = a.product_id
+            LEFT JOIN updated u ON u.product_id = a.product_id
+            LEFT JOIN inventory i ON i.product_id = a.product_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Applies the net adjustments of one chunk. Products in flash sale mode or sharded into slots are not
+     * touched; the caller handles them. Must run inside a transaction, which also clears the staging table.
+     *
+     * @return outcome per product, keyed and ordered by product id
+     */
+    public Map<Long, MergeResult> merge(Map<Long, NetAdjustment> adjustments) {
+        jdbcTemplate.execute(CREATE_STAGING_SQL);
+
+        List<Object[]> batchArgs = new ArrayList<>(adjustments.size());
+        new TreeMap<>(adjustments).forEach((productId, adjustment) ->
+                batchArgs.add(new Object[]{productId, adjustment.absoluteQuantity(), adjustment.delta()}));
+        jdbcTemplate.batchUpdate(INSERT_STAGING_SQL, batchArgs);
+
+        Map<Long, MergeResult> results = new TreeMap<>();
+        jdbcTemplate.query(MERGE_SQL, rs -> {
+            int availableBefore = rs.getInt("available_before");
+            boolean locked = !rs.wasNull();
+            results.put(rs.getLong("product_id"), new MergeResult(
+                    locked ? availableBefore : null,
+                    rs.getInt("reserved_quantity"),
+                    rs.getBoolean("applied"),
+                    rs.getBoolean("found"),
+                    rs.getBoolean("flash_sale"),
+                    rs.getInt("slot_count")));
+        });
+        return results;
+    }
+
+    /**
+     * Net effect of a product's lines in a chunk: the last absolute quantity, if any, plus the deltas after it.
+     */
+    public record NetAdjustment(Integer absoluteQuantity, int delta) {
+    }
+
+    /**
+     * @param availableBefore available stock before the merge, or {@code null} if the row was not merged
+     */
+    public record MergeResult(Integer availableBefore, int reservedQuantity, boolean applied, boolean found,
+                              boolean flashSale, int slotCount) {
+    }
+}
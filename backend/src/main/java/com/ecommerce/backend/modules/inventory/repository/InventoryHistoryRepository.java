@@ -4,8 +4,11 @@ import com.ecommerce.backend.modules.inventory.entity.InventoryHistory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -14,5 +17,15 @@ public interface InventoryHistoryRepository extends JpaRepository<InventoryHisto
 
     Page<InventoryHistory>  findByProductIdOrderByCreatedAtDesc(Long productId, Pageable pageable);
 
-    List<InventoryHistory> findByOrderId(Long orderId);
+    List<InventoryHistory> findByProductIdOrderByCreatedAtDescIdDesc(Long productId, Pageable pageable);
+
+    @Query("SELECT h FROM InventoryHistory h WHERE h.productId = :productId " +
+            "AND (h.createdAt < :createdAt OR (h.createdAt = :createdAt AND h.id < :id)) " +
+            "ORDER BY h.createdAt DESC, h.id DESC")
+    List<InventoryHistory> findByProductIdAfter(
+            @Param("productId") Long productId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
 }
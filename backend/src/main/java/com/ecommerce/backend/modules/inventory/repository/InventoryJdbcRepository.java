@@ -0,0 +1,251 @@
+package com.ecommerce.backend.modules.inventory.repository;
+
+import com.ecommerce.backend.modules.inventory.entity.Inventory;
+import com.ecommerce.backend.modules.inventory.entity.OrderReservation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+@Repository
+@RequiredArgsConstructor
+public class InventoryJdbcRepository {
+
+    private static final String RESERVE_SQL = """
+            UPDATE inventory
+            SET available_quantity = available_quantity - ?,
+                reserved_quantity = COALESCE(reserved_quantity, 0) + ?,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE product_id = ? AND available_quantity >= ? AND flash_sale = FALSE
+            """;
+
+    private static final String APPLY_RESERVED_SQL = """
+            UPDATE inventory
+            SET available_quantity = available_quantity - ?,
+                reserved_quantity = COALESCE(reserved_quantity, 0) + ?,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE product_id = ?
+            """;
+
+    private static final String CONFIRM_SQL = """
+            UPDATE inventory
+            SET reserved_quantity = COALESCE(reserved_quantity, 0) - ?,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE product_id = ?
+            """;
+
+    private static final String RELEASE_SQL = """
+            UPDATE inventory
+            SET available_quantity = available_quantity + ?,
+                reserved_quantity = COALESCE(reserved_quantity, 0) - ?,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE product_id = ?
+            """;
+
+    private static final String INSERT_RESERVATION_SQL = """
+            INSERT INTO order_reservations (order_id, product_id, quantity, status, reconciled)
+            VALUES (?, ?, ?, 'RESERVED', ?)
+            """;
+
+    private static final String TRANSITION_RESERVATIONS_SQL = """
+            UPDATE order_reservations
+            SET status = ?, updated_at = CURRENT_TIMESTAMP
+            WHERE order_id = ? AND status = ?
+            RETURNING product_id, quantity
+            """;
+
+    private static final String TRANSITION_ORDERS_RESERVATIONS_SQL = """
+            UPDATE order_reservations
+            SET status = ?, updated_at = CURRENT_TIMESTAMP
+            WHERE status = ? AND order_id IN (%s)
+            RETURNING order_id, product_id, quantity, created_at
+            """;
+
+    private static final String CLAIM_UNRECONCILED_SQL = """
+            UPDATE order_reservations r
+            SET reconciled = TRUE
+            FROM (
+                SELECT order_id, product_id
+                FROM order_reservations
+                WHERE reconciled = FALSE AND (CAST(? AS BIGINT) IS NULL OR product_id = ?)
+                ORDER BY created_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ) claimed
+            WHERE r.order_id = claimed.order_id AND r.product_id = claimed.product_id
+            RETURNING r.order_id, r.product_id, r.quantity, r.created_at
+            """;
+
+    private static final String FIND_FOR_UPDATE_SQL = """
+            SELECT product_id, available_quantity, reserved_quantity, flash_sale, slot_count
+            FROM inventory
+            WHERE product_id = ?
+            FOR UPDATE
+            """;
+
+    private static final String SET_FLASH_SALE_SQL = """
+            UPDATE inventory
+            SET flash_sale = ?, updated_at = CURRENT_TIMESTAMP
+            WHERE product_id = ?
+            """;
+
+    private static final String FLASH_SALE_PRODUCTS_SQL = "SELECT product_id FROM inventory WHERE flash_sale = TRUE";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserves all lines in one JDBC batch of conditional updates. Rows are touched in product id order,
+     * so concurrent reservations lock them in the same sequence and cannot deadlock each other.
+     *
+     * @return ids of the products whose row was not updated (missing inventory or not enough stock)
+     */
+    public List<Long> reserve(Map<Long, Integer> productQuantities) {
+        Map<Long, Integer> orderedQuantities = new TreeMap<>(productQuantities);
+
+        List<Long> productIds = new ArrayList<>(orderedQuantities.size());
+        List<Object[]> batchArgs = new ArrayList<>(orderedQuantities.size());
+        orderedQuantities.forEach((productId, quantity) -> {
+            productIds.add(productId);
+            batchArgs.add(new Object[]{quantity, quantity, productId, quantity});
+        });
+
+        int[] updateCounts = jdbcTemplate.batchUpdate(RESERVE_SQL, batchArgs);
+
+        List<Long> failedProductIds = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) {
+                failedProductIds.add(productIds.get(i));
+            }
+        }
+        return failedProductIds;
+    }
+
+    public void confirm(Map<Long, Integer> productQuantities) {
+        List<Object[]> batchArgs = new ArrayList<>(productQuantities.size());
+        new TreeMap<>(productQuantities).forEach((productId, quantity) ->
+                batchArgs.add(new Object[]{quantity, productId}));
+        jdbcTemplate.batchUpdate(CONFIRM_SQL, batchArgs);
+    }
+
+    public void release(Map<Long, Integer> productQuantities) {
+        List<Object[]> batchArgs = new ArrayList<>(productQuantities.size());
+        new TreeMap<>(productQuantities).forEach((productId, quantity) ->
+                batchArgs.add(new Object[]{quantity, quantity, productId}));
+        jdbcTemplate.batchUpdate(RELEASE_SQL, batchArgs);
+    }
+
+    /**
+     * Applies reservations that were already admitted elsewhere (flash sale stock in Redis), without a stock check.
+     */
+    public void applyReserved(Map<Long, Integer> productQuantities) {
+        List<Object[]> batchArgs = new ArrayList<>(productQuantities.size());
+        new TreeMap<>(productQuantities).forEach((productId, quantity) ->
+                batchArgs.add(new Object[]{quantity, quantity, productId}));
+        jdbcTemplate.batchUpdate(APPLY_RESERVED_SQL, batchArgs);
+    }
+
+    public void insertReservations(Long orderId, Map<Long, Integer> productQuantities, boolean reconciled) {
+        List<Object[]> batchArgs = new ArrayList<>(productQuantities.size());
+        new TreeMap<>(productQuantities).forEach((productId, quantity) ->
+                batchArgs.add(new Object[]{orderId, productId, quantity, reconciled}));
+        jdbcTemplate.batchUpdate(INSERT_RESERVATION_SQL, batchArgs);
+    }
+
+    /**
+     * Moves every reservation line of the order from one state to another in a single statement.
+     * Lines already in a different state are left alone, which makes repeated confirm/cancel calls no-ops.
+     *
+     * @return quantities of the lines that were transitioned, keyed and ordered by product id
+     */
+    public Map<Long, Integer> transitionReservations(Long orderId,
+                                                     OrderReservation.Status from,
+                                                     OrderReservation.Status to) {
+        Map<Long, Integer> transitioned = new TreeMap<>();
+        jdbcTemplate.query(TRANSITION_RESERVATIONS_SQL,
+                rs -> {
+                    transitioned.put(rs.getLong("product_id"), rs.getInt("quantity"));
+                },
+                to.name(), orderId, from.name());
+        return transitioned;
+    }
+
+    /**
+     * Bulk variant of {@link #transitionReservations(Long, OrderReservation.Status, OrderReservation.Status)}
+     * for several orders in one statement.
+     *
+     * @return the transitioned lines, ordered by order id and product id
+     */
+    public List<OrderReservation> transitionReservations(Collection<Long> orderIds,
+                                                         OrderReservation.Status from,
+                                                         OrderReservation.Status to) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        List<Object> args = new ArrayList<>(orderIds.size() + 2);
+        args.add(to.name());
+        args.add(from.name());
+        args.addAll(orderIds);
+
+        List<OrderReservation> transitioned = jdbcTemplate.query(
+                TRANSITION_ORDERS_RESERVATIONS_SQL.formatted(String.join(", ", Collections.nCopies(orderIds.size(), "?"))),
+                (rs, rowNum) -> OrderReservation.builder()
+                        .orderId(rs.getLong("order_id"))
+                        .productId(rs.getLong("product_id"))
+                        .quantity(rs.getInt("quantity"))
+                        .status(to)
+                        .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                        .build(),
+                args.toArray());
+        transitioned.sort(Comparator.comparing(OrderReservation::getOrderId)
+                .thenComparing(OrderReservation::getProductId));
+        return transitioned;
+    }
+
+    /**
+     * Marks up to {@code limit} unreconciled reservation lines as reconciled and returns them, oldest first.
+     * Rows locked by a concurrent claim are skipped.
+     *
+     * @param productId restricts the claim to one product, or {@code null} for all products
+     */
+    public List<OrderReservation> claimUnreconciledReservations(Long productId, int limit) {
+        List<OrderReservation> claimed = jdbcTemplate.query(CLAIM_UNRECONCILED_SQL,
+                (rs, rowNum) -> OrderReservation.builder()
+                        .orderId(rs.getLong("order_id"))
+                        .productId(rs.getLong("product_id"))
+                        .quantity(rs.getInt("quantity"))
+                        .status(OrderReservation.Status.RESERVED)
+                        .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                        .build(),
+                productId, productId, limit);
+        claimed.sort(Comparator.comparing(OrderReservation::getCreatedAt));
+        return claimed;
+    }
+
+    public Optional<Inventory> findForUpdate(Long productId) {
+        return jdbcTemplate.query(FIND_FOR_UPDATE_SQL,
+                (rs, rowNum) -> Inventory.builder()
+                        .productId(rs.getLong("product_id"))
+                        .availableQuantity(rs.getInt("available_quantity"))
+                        .reservedQuantity(rs.getInt("reserved_quantity"))
+                        .flashSale(rs.getBoolean("flash_sale"))
+                        .slotCount(rs.getInt("slot_count"))
+                        .build(),
+                productId).stream().findFirst();
+    }
+
+    public void setFlashSale(Long productId, boolean flashSale) {
+        jdbcTemplate.update(SET_FLASH_SALE_SQL, flashSale, productId);
+    }
+
+    public List<Long> findFlashSaleProducts() {
+        return jdbcTemplate.queryForList(FLASH_SALE_PRODUCTS_SQL, Long.class);
+    }
+}
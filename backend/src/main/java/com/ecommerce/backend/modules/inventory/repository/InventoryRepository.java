@@ -2,6 +2,7 @@ package com.ecommerce.backend.modules.inventory.repository;
 
 import com.ecommerce.backend.modules.inventory.entity.Inventory;
 import io.lettuce.core.dynamic.annotation.Param;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
@@ -20,4 +21,6 @@ public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     List<Inventory> findAllByProductIds(@Param("productIds") List<Long> productIds);
 
     boolean existsByProductId(Long productId);
+
+    List<Inventory> findByProductIdGreaterThanOrderByProductIdAsc(Long productId, Pageable pageable);
 }
@@ -0,0 +1,326 @@
+package com.ecommerce.backend.modules.inventory.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stock of a sharded product is split across {@code slot_count} rows of {@code inventory_slots}, so concurrent
+ * reservations of the same product mostly lock different rows. The product's {@code inventory} row keeps the
+ * reserved total and any stock not yet spread across the slots.
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventorySlotJdbcRepository {
+
+    private static final String RESERVE_SLOT_SQL = """
+            UPDATE inventory_slots
+            SET available_quantity = available_quantity - ?,
+                reserved_quantity = reserved_quantity + ?,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE product_id = ? AND slot = ? AND available_quantity >= ?
+            """;
+
+    private static final String ADJUST_SLOT_SQL = """
+            UPDATE inventory_slots
+            SET available_quantity = available_quantity + ?,
+                reserved_quantity = reserved_quantity + ?,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE product_id = ? AND slot = ?
+            """;
+
+    private static final String TAKE_FROM_MAIN_SQL = """
+            UPDATE inventory
+            SET available_quantity = available_quantity - ?,
+                reserved_quantity = COALESCE(reserved_quantity, 0) + ?,
+                updated_at = CURRENT_TIMESTAMP
+            WHERE product_id = ?
+            """;
+
+    private static final String LOCK_MAIN_SQL = """
+            SELECT available_quantity, COALESCE(reserved_quantity, 0) AS reserved_quantity, flash_sale, slot_count
+            FROM inventory
+            WHERE product_id = ?
+            FOR UPDATE
+            """;
+
+    private static final String LOCK_SLOTS_SQL = """
+            SELECT slot, available_quantity, reserved_quantity
+            FROM inventory_slots
+            WHERE product_id = ?
+            ORDER BY slot
+            FOR UPDATE
+            """;
+
+    private static final String UPDATE_MAIN_SQL = """
+            UPDATE inventory
+            SET available_quantity = ?, reserved_quantity = ?, slot_count = ?, updated_at = CURRENT_TIMESTAMP
+            WHERE product_id = ?
+            """;
+
+    private static final String DELETE_SLOTS_SQL = "DELETE FROM inventory_slots WHERE product_id = ?";
+
+    private static final String INSERT_SLOT_SQL = """
+            INSERT INTO inventory_slots (product_id, slot, available_quantity, reserved_quantity)
+            VALUES (?, ?, ?, 0)
+            """;
+
+    private static final String SHARDED_PRODUCTS_SQL = "SELECT product_id, slot_count FROM inventory WHERE slot_count > 1";
+
+    private static final String SLOT_COUNTS_SQL =
+            "SELECT product_id, slot_count FROM inventory WHERE slot_count > 1 AND product_id IN (%s)";
+
+    private static final String UNBALANCED_PRODUCTS_SQL = """
+            SELECT i.product_id, i.slot_count
+            FROM inventory i
+            LEFT JOIN inventory_slots s ON s.product_id = i.product_id
+            WHERE i.slot_count > 1
+            GROUP BY i.product_id, i.slot_count, i.available_quantity
+            HAVING COUNT(s.slot) <> i.slot_count
+                OR i.available_quantity > 0
+                OR MIN(s.available_quantity) * 2 < MAX(s.available_quantity)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reserves every line, in product id order, from one randomly chosen slot of its product. When that slot
+     * lacks stock, the product is swept before moving on to the next one, so its inventory row and slots are
+     * never locked after the rows of a higher product id and concurrent reservations cannot deadlock.
+     *
+     * @return ids of the products that have no inventory, are in flash sale mode or lack stock in total
+     */
+    public List<Long> reserve(Map<Long, Integer> productQuantities, Map<Long, Integer> slotCounts) {
+        List<Long> failedProductIds = new ArrayList<>();
+        new TreeMap<>(productQuantities).forEach((productId, quantity) -> {
+            int updated = jdbcTemplate.update(RESERVE_SLOT_SQL,
+                    quantity, quantity, productId, randomSlot(slotCounts.get(productId)), quantity);
+            if (updated == 0 && !reserveSweeping(productId, quantity)) {
+                failedProductIds.add(productId);
+            }
+        });
+        return failedProductIds;
+    }
+
+    /**
+     * Locks the product's inventory row and all of its slots and reserves the quantity from whichever of them
+     * still hold stock. Used when the single-row attempt failed.
+     *
+     * @return {@code false} if the product has no inventory, is in flash sale mode or lacks stock in total
+     */
+    private boolean reserveSweeping(Long productId, int quantity) {
+        List<int[]> main = jdbcTemplate.query(LOCK_MAIN_SQL,
+                (rs, rowNum) -> new int[]{
+                        rs.getInt("available_quantity"),
+                        rs.getInt("reserved_quantity"),
+                        rs.getBoolean("flash_sale") ? 1 : 0
+                },
+                productId);
+        if (main.isEmpty() || main.get(0)[2] == 1) {
+            return false;
+        }
+
+        List<int[]> slots = lockSlots(productId);
+        int total = Math.max(main.get(0)[0], 0) + slots.stream().mapToInt(slot -> slot[1]).sum();
+        if (total < quantity) {
+            return false;
+        }
+
+        int remaining = quantity;
+        int fromMain = Math.min(Math.max(main.get(0)[0], 0), remaining);
+        if (fromMain > 0) {
+            jdbcTemplate.update(TAKE_FROM_MAIN_SQL, fromMain, fromMain, productId);
+            remaining -= fromMain;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>();
+        for (int[] slot : slots) {
+            if (remaining == 0) {
+                break;
+            }
+            int taken = Math.min(slot[1], remaining);
+            if (taken > 0) {
+                batchArgs.add(new Object[]{-taken, taken, productId, slot[0]});
+                remaining -= taken;
+            }
+        }
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(ADJUST_SLOT_SQL, batchArgs);
+        }
+        return true;
+    }
+
+    /**
+     * Confirms reserved quantities on one random slot of each product.
+     *
+     * @return ids of the products that turned out to have no slot rows; the caller applies them to the inventory row
+     */
+    public List<Long> confirm(Map<Long, Integer> productQuantities, Map<Long, Integer> slotCounts) {
+        return adjustRandomSlots(productQuantities, slotCounts, false);
+    }
+
+    /**
+     * Returns reserved quantities to stock on one random slot of each product.
+     *
+     * @return ids of the products that turned out to have no slot rows; the caller applies them to the inventory row
+     */
+    public List<Long> release(Map<Long, Integer> productQuantities, Map<Long, Integer> slotCounts) {
+        return adjustRandomSlots(productQuantities, slotCounts, true);
+    }
+
+    /**
+     * Re-spreads the product's available stock evenly over {@code slotCount} slots and moves the reserved total
+     * to the inventory row. With {@code slotCount} of 1 the slots are removed and all stock is kept on the row.
+     *
+     * @param slotCount      new number of slots, or {@code null} to keep the current one
+     * @param totalAvailable new available stock, or {@code null} to keep the current total
+     * @return {@code false} if the product has no inventory
+     */
+    public boolean redistribute(Long productId, Integer slotCount, Integer totalAvailable) {
+        List<int[]> main = lockMain(productId);
+        if (main.isEmpty()) {
+            return false;
+        }
+        int targetSlotCount = slotCount != null ? slotCount : main.get(0)[2];
+
+        List<int[]> slots = lockSlots(productId);
+        int available = totalAvailable != null
+                ? totalAvailable
+                : main.get(0)[0] + slots.stream().mapToInt(slot -> slot[1]).sum();
+        int reserved = main.get(0)[1] + slots.stream().mapToInt(slot -> slot[2]).sum();
+
+        spread(productId, targetSlotCount, available, reserved);
+        return true;
+    }
+
+    /**
+     * Locks the product's rows and sets its total available stock to {@code absoluteQuantity} (or keeps the
+     * current total if {@code null}) plus {@code delta}, spread evenly over its current slots. Nothing is
+     * changed if the result would be negative.
+     *
+     * @return available stock before and after the adjustment and the reserved total,
+     * or {@code null} if the product has no inventory
+     */
+    public int[] adjustAvailable(Long productId, Integer absoluteQuantity, int delta) {
+        List<int[]> main = lockMain(productId);
+        if (main.isEmpty()) {
+            return null;
+        }
+
+        List<int[]> slots = lockSlots(productId);
+        int available = main.get(0)[0] + slots.stream().mapToInt(slot -> slot[1]).sum();
+        int reserved = main.get(0)[1] + slots.stream().mapToInt(slot -> slot[2]).sum();
+        int adjusted = (absoluteQuantity != null ? absoluteQuantity : available) + delta;
+        if (adjusted >= 0) {
+            spread(productId, main.get(0)[2], adjusted, reserved);
+        }
+        return new int[]{available, adjusted, reserved};
+    }
+
+    public Map<Long, Integer> findShardedProducts() {
+        Map<Long, Integer> slotCounts = new HashMap<>();
+        jdbcTemplate.query(SHARDED_PRODUCTS_SQL, rs -> {
+            slotCounts.put(rs.getLong("product_id"), rs.getInt("slot_count"));
+        });
+        return slotCounts;
+    }
+
+    /**
+     * @return slot counts of the given products that are sharded; unsharded products are left out
+     */
+    public Map<Long, Integer> findSlotCounts(Collection<Long> productIds) {
+        Map<Long, Integer> slotCounts = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return slotCounts;
+        }
+        jdbcTemplate.query(SLOT_COUNTS_SQL.formatted(String.join(", ", Collections.nCopies(productIds.size(), "?"))),
+                rs -> {
+                    slotCounts.put(rs.getLong("product_id"), rs.getInt("slot_count"));
+                },
+                productIds.toArray());
+        return slotCounts;
+    }
+
+    public Map<Long, Integer> findUnbalancedProducts() {
+        Map<Long, Integer> slotCounts = new TreeMap<>();
+        jdbcTemplate.query(UNBALANCED_PRODUCTS_SQL, rs -> {
+            slotCounts.put(rs.getLong("product_id"), rs.getInt("slot_count"));
+        });
+        return slotCounts;
+    }
+
+    private List<Long> adjustRandomSlots(Map<Long, Integer> productQuantities, Map<Long, Integer> slotCounts,
+                                         boolean returnToStock) {
+        Map<Long, Integer> orderedQuantities = new TreeMap<>(productQuantities);
+        List<Long> productIds = new ArrayList<>(orderedQuantities.size());
+        List<Object[]> batchArgs = new ArrayList<>(orderedQuantities.size());
+        orderedQuantities.forEach((productId, quantity) -> {
+            productIds.add(productId);
+            batchArgs.add(new Object[]{
+                    returnToStock ? quantity : 0,
+                    -quantity,
+                    productId,
+                    randomSlot(slotCounts.get(productId))
+            });
+        });
+
+        int[] updateCounts = jdbcTemplate.batchUpdate(ADJUST_SLOT_SQL, batchArgs);
+
+        List<Long> missingProductIds = new ArrayList<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) {
+                missingProductIds.add(productIds.get(i));
+            }
+        }
+        return missingProductIds;
+    }
+
+    private List<int[]> lockMain(Long productId) {
+        return jdbcTemplate.query(LOCK_MAIN_SQL,
+                (rs, rowNum) -> new int[]{
+                        rs.getInt("available_quantity"),
+                        rs.getInt("reserved_quantity"),
+                        rs.getInt("slot_count")
+                },
+                productId);
+    }
+
+    private void spread(Long productId, int slotCount, int available, int reserved) {
+        jdbcTemplate.update(DELETE_SLOTS_SQL, productId);
+        if (slotCount <= 1) {
+            jdbcTemplate.update(UPDATE_MAIN_SQL, available, reserved, 1, productId);
+            return;
+        }
+
+        List<Object[]> batchArgs = new ArrayList<>(slotCount);
+        for (int slot = 0; slot < slotCount; slot++) {
+            int share = available / slotCount + (slot < available % slotCount ? 1 : 0);
+            batchArgs.add(new Object[]{productId, slot, share});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SLOT_SQL, batchArgs);
+        jdbcTemplate.update(UPDATE_MAIN_SQL, 0, reserved, slotCount, productId);
+    }
+
+    private List<int[]> lockSlots(Long productId) {
+        return jdbcTemplate.query(LOCK_SLOTS_SQL,
+                (rs, rowNum) -> new int[]{
+                        rs.getInt("slot"),
+                        rs.getInt("available_quantity"),
+                        rs.getInt("reserved_quantity")
+                },
+                productId);
+    }
+
+    private int randomSlot(Integer slotCount) {
+        return ThreadLocalRandom.current().nextInt(slotCount != null && slotCount > 0 ? slotCount : 1);
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.backend.modules.inventory.repository;
+
+import com.ecommerce.backend.modules.inventory.entity.OrderReservation;
+import com.ecommerce.backend.modules.inventory.entity.OrderReservationId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OrderReservationRepository extends JpaRepository<OrderReservation, OrderReservationId> {
+    List<OrderReservation> findByOrderId(Long orderId);
+
+    boolean existsByOrderId(Long orderId);
+}
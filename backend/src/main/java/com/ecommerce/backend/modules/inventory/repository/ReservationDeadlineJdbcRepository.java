@@ -0,0 +1,116 @@
+package com.ecommerce.backend.modules.inventory.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Durable store of reservation deadlines. Every query is a range or key lookup on
+ * {@code idx_reservation_deadlines_expires_at} or the primary key, so the cost does not grow with the number
+ * of outstanding deadlines.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ReservationDeadlineJdbcRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO reservation_deadlines (order_id, expires_at)
+            VALUES (?, CURRENT_TIMESTAMP + ? * INTERVAL '1 millisecond')
+            ON CONFLICT (order_id) DO NOTHING
+            RETURNING expires_at
+            """;
+
+    private static final String DELETE_SQL = "DELETE FROM reservation_deadlines WHERE order_id IN (%s)";
+
+    private static final String FIND_DUE_SQL = """
+            SELECT order_id, expires_at
+            FROM reservation_deadlines
+            WHERE (expires_at, order_id) > (?, ?) AND expires_at < ?
+            ORDER BY expires_at, order_id
+            LIMIT ?
+            """;
+
+    private static final String CLAIM_SQL = """
+            DELETE FROM reservation_deadlines
+            WHERE order_id IN (
+                SELECT order_id FROM reservation_deadlines
+                WHERE order_id IN (%s) AND expires_at <= CURRENT_TIMESTAMP
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING order_id
+            """;
+
+    private static final String CLAIM_OVERDUE_SQL = """
+            DELETE FROM reservation_deadlines
+            WHERE order_id IN (
+                SELECT order_id FROM reservation_deadlines
+                WHERE expires_at <= CURRENT_TIMESTAMP
+                ORDER BY expires_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING order_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return the deadline of the order, or {@code null} if the order already had one
+     */
+    public Timestamp insert(Long orderId, long ttlMs) {
+        List<Timestamp> inserted = jdbcTemplate.query(INSERT_SQL,
+                (rs, rowNum) -> rs.getTimestamp("expires_at"),
+                orderId, ttlMs);
+        return inserted.isEmpty() ? null : inserted.get(0);
+    }
+
+    public void delete(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(DELETE_SQL.formatted(placeholders(orderIds.size())), orderIds.toArray());
+    }
+
+    /**
+     * Keyset page of deadlines that fall before {@code until}, starting after ({@code afterExpiresAt}, {@code afterOrderId}).
+     */
+    public List<Deadline> findDue(Timestamp afterExpiresAt, long afterOrderId, Timestamp until, int limit) {
+        return jdbcTemplate.query(FIND_DUE_SQL,
+                (rs, rowNum) -> new Deadline(rs.getLong("order_id"), rs.getTimestamp("expires_at")),
+                afterExpiresAt, afterOrderId, until, limit);
+    }
+
+    /**
+     * Deletes the deadlines of the given orders that have passed. Rows claimed by a concurrent transaction are
+     * skipped, so each deadline is handed to exactly one caller.
+     *
+     * @return ids of the claimed orders
+     */
+    public List<Long> claim(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(CLAIM_SQL.formatted(placeholders(orderIds.size())),
+                (rs, rowNum) -> rs.getLong("order_id"),
+                orderIds.toArray());
+    }
+
+    /**
+     * Claims up to {@code limit} passed deadlines, oldest first.
+     */
+    public List<Long> claimOverdue(int limit) {
+        return jdbcTemplate.query(CLAIM_OVERDUE_SQL, (rs, rowNum) -> rs.getLong("order_id"), limit);
+    }
+
+    private String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    public record Deadline(Long orderId, Timestamp expiresAt) {
+    }
+}
@@ -0,0 +1,327 @@
+package com.ecommerce.backend.modules.inventory.service;
+
+import com.ecommerce.backend.modules.inventory.config.InventoryProps;
+import com.ecommerce.backend.modules.inventory.entity.Inventory;
+import com.ecommerce.backend.modules.inventory.entity.InventoryHistory;
+import com.ecommerce.backend.modules.inventory.entity.OrderReservation;
+import com.ecommerce.backend.modules.inventory.repository.InventoryJdbcRepository;
+import com.ecommerce.backend.modules.inventory.repository.InventoryRepository;
+import com.ecommerce.backend.shared.exception.BusinessException;
+import com.ecommerce.backend.shared.exception.InsufficientStockException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Flash sale stock mode. While a product is in this mode its available stock lives in Redis and reservations
+ * are admitted by an atomic Lua decrement instead of a row lock on {@code inventory}. Admitted lines are stored
+ * in {@code order_reservations} as unreconciled and applied to the inventory row and history in batches, so the
+ * row mirrors Redis with a small lag. Releases are applied to both Redis and the inventory row.
+ * <p>
+ * Products in this mode are cached locally, so reservations of other products never call Redis.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FlashSaleStockService {
+
+    private static final String FLASH_SALE_USER = "flash-sale";
+
+    // Replies with the 1-based indexes of the admitted keys joined by commas, or with the negated index of the
+    // first key that lacks stock
+    private static final RedisScript<String> RESERVE_SCRIPT = new DefaultRedisScript<>("""
+            local admitted = {}
+            for i, key in ipairs(KEYS) do
+                local stock = redis.call('GET', key)
+                if stock then
+                    if tonumber(stock) < tonumber(ARGV[i]) then
+                        return tostring(-i)
+                    end
+                    table.insert(admitted, i)
+                end
+            end
+            for _, i in ipairs(admitted) do
+                redis.call('DECRBY', KEYS[i], ARGV[i])
+            end
+            return table.concat(admitted, ',')
+            """, String.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            for i, key in ipairs(KEYS) do
+                if redis.call('EXISTS', key) == 1 then
+                    redis.call('INCRBY', key, ARGV[i])
+                end
+            end
+            return 0
+            """, Long.class);
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final InventoryRepository inventoryRepository;
+    private final InventoryHistoryWriter inventoryHistoryWriter;
+    private final InventoryProps inventoryProps;
+    private final StockAvailabilityCache stockAvailabilityCache;
+
+    private final Set<Long> flashSaleProducts = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Admits the order lines of products that are in flash sale mode. Must run inside the reservation
+     * transaction: if it rolls back, the decremented stock is returned to Redis.
+     *
+     * @return the lines that were admitted from Redis; the caller reserves the rest in Postgres
+     */
+    public Map<Long, Integer> reserve(Map<Long, Integer> productQuantities) {
+        List<Long> productIds = new TreeMap<>(productQuantities).keySet().stream()
+                .filter(flashSaleProducts::contains)
+                .toList();
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+
+        List<String> keys = productIds.stream().map(this::stockKey).toList();
+        Object[] quantities = productIds.stream().map(id -> String.valueOf(productQuantities.get(id))).toArray();
+
+        String result = redisTemplate.execute(RESERVE_SCRIPT, keys, quantities);
+        if (result == null || result.isEmpty()) {
+            return Map.of();
+        }
+
+        if (result.startsWith("-")) {
+            Long productId = productIds.get(-Integer.parseInt(result) - 1);
+            log.error("Insufficient flash sale stock for product {}", productId);
+            String stock = redisTemplate.opsForValue().get(stockKey(productId));
+            throw new InsufficientStockException(Map.of(productId, productQuantities.get(productId)),
+                    stock == null ? Map.of() : Map.of(productId, Integer.parseInt(stock)));
+        }
+
+        Map<Long, Integer> admitted = new TreeMap<>();
+        for (String index : result.split(",")) {
+            Long productId = productIds.get(Integer.parseInt(index) - 1);
+            admitted.put(productId, productQuantities.get(productId));
+        }
+
+        if (!admitted.isEmpty()) {
+            log.info("Admitted flash sale lines {}", admitted);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        log.warn("Reservation rolled back, returning flash sale stock {}", admitted);
+                        returnStock(admitted);
+                    }
+                }
+            });
+        }
+        return admitted;
+    }
+
+    /**
+     * Returns released quantities of products in flash sale mode to Redis once the surrounding transaction commits.
+     * A product switched out of the mode in between is ignored by the script.
+     */
+    public void release(Map<Long, Integer> productQuantities) {
+        Map<Long, Integer> flashSaleQuantities = new HashMap<>(productQuantities);
+        flashSaleQuantities.keySet().retainAll(flashSaleProducts);
+        if (flashSaleQuantities.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    returnStock(flashSaleQuantities);
+                }
+            });
+        } else {
+            returnStock(flashSaleQuantities);
+        }
+    }
+
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public void enableFlashSale(Long productId, String username) {
+        log.info("Enabling flash sale for product {} by {}", productId, username);
+        Inventory inventory = lockInventory(productId);
+        if (inventory.getFlashSale()) {
+            throw new BusinessException("Flash sale is already enabled for product " + productId, "FLASH_SALE_ALREADY_ENABLED");
+        }
+        if (inventory.getSlotCount() > 1) {
+            throw new BusinessException("Stock of product " + productId + " is sharded into slots", "SHARDED_STOCK");
+        }
+
+        reconcileProduct(productId);
+        Inventory current = lockInventory(productId);
+
+        String key = stockKey(productId);
+        redisTemplate.opsForValue().set(key, String.valueOf(current.getAvailableQuantity()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    flashSaleProducts.add(productId);
+                } else {
+                    redisTemplate.delete(key);
+                }
+            }
+        });
+
+        inventoryJdbcRepository.setFlashSale(productId, true);
+        log.info("Flash sale enabled for product {} with stock {}", productId, current.getAvailableQuantity());
+    }
+
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public void disableFlashSale(Long productId, String username) {
+        log.info("Disabling flash sale for product {} by {}", productId, username);
+        Inventory inventory = lockInventory(productId);
+        if (!inventory.getFlashSale()) {
+            throw new BusinessException("Flash sale is not enabled for product " + productId, "FLASH_SALE_NOT_ENABLED");
+        }
+
+        String key = stockKey(productId);
+        String remaining = redisTemplate.opsForValue().getAndDelete(key);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    flashSaleProducts.remove(productId);
+                } else if (remaining != null) {
+                    redisTemplate.opsForValue().setIfAbsent(key, remaining);
+                }
+            }
+        });
+
+        inventoryJdbcRepository.setFlashSale(productId, false);
+        reconcileProduct(productId);
+
+        Inventory current = lockInventory(productId);
+        if (remaining != null && Integer.parseInt(remaining) != current.getAvailableQuantity()) {
+            log.warn("Flash sale stock for product {} differs after reconciliation. Redis: {}, inventory: {}",
+                    productId, remaining, current.getAvailableQuantity());
+        }
+        log.info("Flash sale disabled for product {}. Remaining stock: {}", productId, current.getAvailableQuantity());
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.flash-sale.refresh-interval-ms:1000}")
+    public void refreshFlashSaleProducts() {
+        List<Long> current = inventoryJdbcRepository.findFlashSaleProducts();
+        flashSaleProducts.retainAll(current);
+        flashSaleProducts.addAll(current);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.flash-sale.reconcile-interval-ms:1000}")
+    @Transactional
+    public void reconcile() {
+        List<OrderReservation> reservations = inventoryJdbcRepository.claimUnreconciledReservations(
+                null, inventoryProps.getFlashSale().getReconcileBatchSize());
+        if (reservations.isEmpty()) {
+            return;
+        }
+
+        log.info("Reconciling {} flash sale reservation lines", reservations.size());
+        applyReservations(reservations);
+    }
+
+    private void reconcileProduct(Long productId) {
+        List<OrderReservation> reservations;
+        do {
+            reservations = inventoryJdbcRepository.claimUnreconciledReservations(
+                    productId, inventoryProps.getFlashSale().getReconcileBatchSize());
+            applyReservations(reservations);
+        } while (!reservations.isEmpty());
+    }
+
+    private void applyReservations(List<OrderReservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Integer> totals = reservations.stream()
+                .collect(Collectors.groupingBy(OrderReservation::getProductId, TreeMap::new,
+                        Collectors.summingInt(OrderReservation::getQuantity)));
+        inventoryJdbcRepository.applyReserved(totals);
+
+        Map<Long, Inventory> inventories = inventoryRepository.findAllByProductIds(new ArrayList<>(totals.keySet())).stream()
+                .collect(Collectors.toMap(Inventory::getProductId, Function.identity()));
+
+        Map<Long, int[]> running = new HashMap<>();
+        totals.forEach((productId, total) -> {
+            Inventory inventory = inventories.get(productId);
+            if (inventory != null) {
+                running.put(productId, new int[]{
+                        inventory.getAvailableQuantity() + total,
+                        inventory.getReservedQuantity() - total
+                });
+            }
+        });
+
+        List<InventoryHistory> historyRecords = new ArrayList<>(reservations.size());
+        for (OrderReservation reservation : reservations) {
+            int[] state = running.get(reservation.getProductId());
+            if (state == null) {
+                continue;
+            }
+            historyRecords.add(InventoryHistory.builder()
+                    .productId(reservation.getProductId())
+                    .changeType(InventoryHistory.ChangeType.RESERVE)
+                    .quantity(reservation.getQuantity())
+                    .availableBefore(state[0])
+                    .availableAfter(state[0] - reservation.getQuantity())
+                    .reservedBefore(state[1])
+                    .reservedAfter(state[1] + reservation.getQuantity())
+                    .orderId(reservation.getOrderId())
+                    .createdBy(FLASH_SALE_USER)
+                    .createdAt(reservation.getCreatedAt())
+                    .build());
+            state[0] -= reservation.getQuantity();
+            state[1] += reservation.getQuantity();
+        }
+        inventoryHistoryWriter.write(historyRecords);
+
+        Map<Long, Integer> available = new TreeMap<>();
+        running.forEach((productId, state) -> available.put(productId, state[0]));
+        stockAvailabilityCache.publish(available);
+    }
+
+    private Inventory lockInventory(Long productId) {
+        return inventoryJdbcRepository.findForUpdate(productId)
+                .orElseThrow(() -> {
+                    log.error("Inventory not found for product {} when switching flash sale mode", productId);
+                    return new BusinessException("No data for product  " + productId, "INVENTORY_NOT_FOUND");
+                });
+    }
+
+    private void returnStock(Map<Long, Integer> productQuantities) {
+        Map<Long, Integer> ordered = new LinkedHashMap<>(new TreeMap<>(productQuantities));
+        List<String> keys = ordered.keySet().stream().map(this::stockKey).toList();
+        Object[] quantities = ordered.values().stream().map(String::valueOf).toArray();
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, keys, quantities);
+        } catch (Exception e) {
+            log.error("Failed to return flash sale stock {}. Error: {}", productQuantities, e.getMessage());
+        }
+    }
+
+    private String stockKey(Long productId) {
+        return "{flash_sale}:stock:" + productId;
+    }
+}
@@ -0,0 +1,296 @@
+package com.ecommerce.backend.modules.inventory.service;
+
+import com.ecommerce.backend.modules.inventory.config.InventoryProps;
+import com.ecommerce.backend.modules.inventory.dto.InventoryAdjustmentLine;
+import com.ecommerce.backend.modules.inventory.dto.InventoryAdjustmentResult;
+import com.ecommerce.backend.modules.inventory.entity.InventoryHistory;
+import com.ecommerce.backend.modules.inventory.repository.InventoryBulkJdbcRepository;
+import com.ecommerce.backend.modules.inventory.repository.InventorySlotJdbcRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Applies streamed stock adjustments (CSV or NDJSON, one adjustment per line) in chunks. Each chunk is one
+ * transaction: the net adjustment per product is merged set-based, history is written in one batch, and a
+ * result per input line is streamed back as NDJSON once the chunk commits.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryBulkAdjustmentService {
+
+    private final InventoryBulkJdbcRepository inventoryBulkJdbcRepository;
+    private final InventorySlotJdbcRepository inventorySlotJdbcRepository;
+    private final InventoryHistoryWriter inventoryHistoryWriter;
+    private final StockAvailabilityCache stockAvailabilityCache;
+    private final PlatformTransactionManager transactionManager;
+    private final InventoryProps inventoryProps;
+    private final ObjectMapper objectMapper;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    public void applyAdjustments(InputStream input, Format format, String username, OutputStream report) throws IOException {
+        log.info("Applying bulk inventory adjustments in {} format by {}", format, username);
+        int chunkSize = inventoryProps.getBulk().getChunkSize();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Writer writer = new OutputStreamWriter(report, StandardCharsets.UTF_8);
+
+        List<NumberedLine> chunk = new ArrayList<>(chunkSize);
+        List<InventoryAdjustmentResult> results = new ArrayList<>();
+        long lineNumber = 0;
+        long reported = 0;
+        long applied = 0;
+        String raw;
+        while ((raw = reader.readLine()) != null) {
+            lineNumber++;
+            if (raw.isBlank() || (lineNumber == 1 && format == Format.CSV && isCsvHeader(raw))) {
+                continue;
+            }
+
+            try {
+                chunk.add(new NumberedLine(lineNumber, parse(raw, format)));
+            } catch (IllegalArgumentException | JsonProcessingException e) {
+                results.add(InventoryAdjustmentResult.builder()
+                        .line(lineNumber)
+                        .status(InventoryAdjustmentResult.Status.INVALID)
+                        .code("INVALID_LINE")
+                        .message(e.getMessage())
+                        .build());
+            }
+
+            if (chunk.size() == chunkSize) {
+                results.addAll(applyChunk(chunk, username));
+                chunk.clear();
+            }
+            if (results.size() >= chunkSize) {
+                reported += results.size();
+                applied += writeResults(writer, results);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            results.addAll(applyChunk(chunk, username));
+        }
+        reported += results.size();
+        applied += writeResults(writer, results);
+
+        log.info("Bulk inventory adjustments by {} finished. Applied lines: {}, failed lines: {}",
+                username, applied, reported - applied);
+    }
+
+    private List<InventoryAdjustmentResult> applyChunk(List<NumberedLine> chunk, String username) {
+        try {
+            return transactionTemplate.execute(status -> mergeChunk(chunk, username));
+        } catch (PessimisticLockingFailureException e) {
+            log.warn("Bulk inventory chunk hit a lock conflict, retrying once. Error: {}", e.getMessage());
+            try {
+                return transactionTemplate.execute(status -> mergeChunk(chunk, username));
+            } catch (Exception retryError) {
+                return rejectChunk(chunk, retryError);
+            }
+        } catch (Exception e) {
+            return rejectChunk(chunk, e);
+        }
+    }
+
+    private List<InventoryAdjustmentResult> mergeChunk(List<NumberedLine> chunk, String username) {
+        Map<Long, List<NumberedLine>> linesByProduct = chunk.stream()
+                .collect(Collectors.groupingBy(line -> line.adjustment().getProductId(), TreeMap::new, Collectors.toList()));
+        Map<Long, InventoryBulkJdbcRepository.NetAdjustment> netAdjustments = new TreeMap<>();
+        linesByProduct.forEach((productId, lines) -> netAdjustments.put(productId, netAdjustment(lines)));
+
+        Map<Long, InventoryBulkJdbcRepository.MergeResult> merged = inventoryBulkJdbcRepository.merge(netAdjustments);
+
+        List<InventoryAdjustmentResult> results = new ArrayList<>(chunk.size());
+        List<InventoryHistory> historyRecords = new ArrayList<>();
+        Map<Long, Integer> availableQuantities = new TreeMap<>();
+        linesByProduct.forEach((productId, lines) -> {
+            InventoryBulkJdbcRepository.MergeResult result = merged.get(productId);
+            if (result == null || !result.found()) {
+                lines.forEach(line -> results.add(rejected(line, "INVENTORY_NOT_FOUND", "No data for product " + productId)));
+                return;
+            }
+            if (result.flashSale()) {
+                lines.forEach(line -> results.add(rejected(line, "FLASH_SALE_ACTIVE",
+                        "Stock of product " + productId + " is managed by an active flash sale")));
+                return;
+            }
+
+            int availableBefore;
+            int reserved;
+            boolean applied;
+            if (result.availableBefore() != null) {
+                availableBefore = result.availableBefore();
+                reserved = result.reservedQuantity();
+                applied = result.applied();
+            } else {
+                InventoryBulkJdbcRepository.NetAdjustment net = netAdjustments.get(productId);
+                int[] adjusted = inventorySlotJdbcRepository.adjustAvailable(productId, net.absoluteQuantity(), net.delta());
+                if (adjusted == null) {
+                    lines.forEach(line -> results.add(rejected(line, "INVENTORY_NOT_FOUND", "No data for product " + productId)));
+                    return;
+                }
+                availableBefore = adjusted[0];
+                reserved = adjusted[2];
+                applied = adjusted[1] >= 0;
+            }
+
+            if (!applied) {
+                lines.forEach(line -> results.add(rejected(line, "INSUFFICIENT_STOCK",
+                        "Adjustments would make available stock of product " + productId + " negative")));
+                return;
+            }
+
+            int running = availableBefore;
+            for (NumberedLine line : lines) {
+                InventoryAdjustmentLine adjustment = line.adjustment();
+                int after = adjustment.getMode() == InventoryAdjustmentLine.Mode.ABSOLUTE
+                        ? adjustment.getQuantity()
+                        : running + adjustment.getQuantity();
+                results.add(InventoryAdjustmentResult.builder()
+                        .line(line.number())
+                        .productId(productId)
+                        .status(InventoryAdjustmentResult.Status.APPLIED)
+                        .availableBefore(running)
+                        .availableAfter(after)
+                        .build());
+                if (after != running) {
+                    historyRecords.add(InventoryHistory.builder()
+                            .productId(productId)
+                            .changeType(after > running
+                                    ? InventoryHistory.ChangeType.ADD_STOCK
+                                    : InventoryHistory.ChangeType.REMOVE_STOCK)
+                            .quantity(Math.abs(after - running))
+                            .availableBefore(running)
+                            .availableAfter(after)
+                            .reservedBefore(reserved)
+                            .reservedAfter(reserved)
+                            .createdBy(username)
+                            .build());
+                }
+                running = after;
+            }
+            availableQuantities.put(productId, running);
+        });
+
+        inventoryHistoryWriter.write(historyRecords);
+        stockAvailabilityCache.publish(availableQuantities);
+        return results;
+    }
+
+    private InventoryBulkJdbcRepository.NetAdjustment netAdjustment(List<NumberedLine> lines) {
+        Integer absoluteQuantity = null;
+        int delta = 0;
+        for (NumberedLine line : lines) {
+            if (line.adjustment().getMode() == InventoryAdjustmentLine.Mode.ABSOLUTE) {
+                absoluteQuantity = line.adjustment().getQuantity();
+                delta = 0;
+            } else {
+                delta += line.adjustment().getQuantity();
+            }
+        }
+        return new InventoryBulkJdbcRepository.NetAdjustment(absoluteQuantity, delta);
+    }
+
+    private InventoryAdjustmentLine parse(String raw, Format format) throws JsonProcessingException {
+        InventoryAdjustmentLine adjustment;
+        if (format == Format.NDJSON) {
+            adjustment = objectMapper.readValue(raw, InventoryAdjustmentLine.class);
+        } else {
+            String[] fields = raw.split(",", -1);
+            if (fields.length != 3) {
+                throw new IllegalArgumentException("Expected product_id,mode,quantity");
+            }
+            adjustment = new InventoryAdjustmentLine(
+                    Long.parseLong(fields[0].trim()),
+                    InventoryAdjustmentLine.Mode.valueOf(fields[1].trim().toUpperCase()),
+                    Integer.parseInt(fields[2].trim()));
+        }
+
+        if (adjustment.getProductId() == null || adjustment.getMode() == null || adjustment.getQuantity() == null) {
+            throw new IllegalArgumentException("Product id, mode and quantity should not be empty");
+        }
+        if (adjustment.getMode() == InventoryAdjustmentLine.Mode.ABSOLUTE && adjustment.getQuantity() < 0) {
+            throw new IllegalArgumentException("Quantity should not be negative");
+        }
+        return adjustment;
+    }
+
+    private boolean isCsvHeader(String raw) {
+        String first = raw.split(",", 2)[0].trim();
+        return !first.isEmpty() && !Character.isDigit(first.charAt(0));
+    }
+
+    private List<InventoryAdjustmentResult> rejectChunk(List<NumberedLine> chunk, Exception e) {
+        log.error("Failed to apply bulk inventory chunk of {} lines. Error: {}", chunk.size(), e.getMessage());
+        return chunk.stream()
+                .map(line -> rejected(line, "CHUNK_FAILED", "Chunk could not be applied"))
+                .collect(Collectors.toList());
+    }
+
+    private InventoryAdjustmentResult rejected(NumberedLine line, String code, String message) {
+        return InventoryAdjustmentResult.builder()
+                .line(line.number())
+                .productId(line.adjustment().getProductId())
+                .status(InventoryAdjustmentResult.Status.REJECTED)
+                .code(code)
+                .message(message)
+                .build();
+    }
+
+    /**
+     * Writes and clears the buffered results in line order.
+     *
+     * @return number of applied lines among them
+     */
+    private long writeResults(Writer writer, List<InventoryAdjustmentResult> results) throws IOException {
+        long applied = 0;
+        results.sort(Comparator.comparing(InventoryAdjustmentResult::getLine));
+        for (InventoryAdjustmentResult result : results) {
+            if (result.getStatus() == InventoryAdjustmentResult.Status.APPLIED) {
+                applied++;
+            }
+            writer.write(objectMapper.writeValueAsString(result));
+            writer.write('\n');
+        }
+        writer.flush();
+        results.clear();
+        return applied;
+    }
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private record NumberedLine(long number, InventoryAdjustmentLine adjustment) {
+    }
+}
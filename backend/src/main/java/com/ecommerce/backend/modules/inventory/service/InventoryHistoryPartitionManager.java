@@ -0,0 +1,172 @@
+package com.ecommerce.backend.modules.inventory.service;
+
+import com.ecommerce.backend.modules.inventory.config.InventoryProps;
+import com.ecommerce.backend.shared.scheduling.ScheduledJobLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Maintains the monthly partitions of {@code inventory_history}: creates upcoming months ahead of time and
+ * moves months older than the retention window out of the database into gzipped CSV files.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryHistoryPartitionManager {
+
+    private static final String JOB_NAME = "inventory-history-partitions";
+    private static final int EXPORT_FETCH_SIZE = 5000;
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern PARTITION_NAME = Pattern.compile("inventory_history_(\\d{4})_(\\d{2})");
+
+    private static final List<String> COLUMNS = List.of(
+            "id", "product_id", "change_type", "quantity", "available_before", "available_after",
+            "reserved_before", "reserved_after", "order_id", "created_by", "created_at");
+
+    private static final String LIST_PARTITIONS_SQL = """
+            SELECT relname, relispartition
+            FROM pg_class
+            WHERE relkind = 'r' AND relname ~ '^inventory_history_[0-9]{4}_[0-9]{2}$'
+            ORDER BY relname
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final InventoryProps inventoryProps;
+    private final ScheduledJobLock scheduledJobLock;
+
+    @Scheduled(cron = "${inventory.history.partition-cron:0 30 3 * * *}")
+    public void maintainPartitions() {
+        scheduledJobLock.runLocked(JOB_NAME, Duration.ofHours(1), () -> {
+            createUpcomingPartitions();
+            archiveExpiredPartitions();
+        });
+    }
+
+    public void createUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= inventoryProps.getHistory().getPremakeMonths(); i++) {
+            YearMonth month = current.plusMonths(i);
+            String partition = partitionName(month);
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS %s PARTITION OF inventory_history FOR VALUES FROM ('%s') TO ('%s')"
+                        .formatted(partition, month.atDay(1), month.plusMonths(1).atDay(1)));
+            } catch (Exception e) {
+                log.error("Failed to create inventory history partition {}. Error: {}", partition, e.getMessage());
+            }
+        }
+    }
+
+    public void archiveExpiredPartitions() {
+        YearMonth cutoff = YearMonth.now().minusMonths(inventoryProps.getHistory().getRetentionMonths());
+        List<PartitionInfo> partitions = jdbcTemplate.query(LIST_PARTITIONS_SQL,
+                (rs, rowNum) -> new PartitionInfo(rs.getString("relname"), rs.getBoolean("relispartition")));
+
+        for (PartitionInfo partition : partitions) {
+            Matcher matcher = PARTITION_NAME.matcher(partition.name());
+            if (!matcher.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+            if (!month.isBefore(cutoff)) {
+                continue;
+            }
+
+            try {
+                if (partition.attached()) {
+                    jdbcTemplate.execute("ALTER TABLE inventory_history DETACH PARTITION " + partition.name());
+                    log.info("Detached inventory history partition {}", partition.name());
+                }
+                Path archive = exportPartition(partition.name());
+                jdbcTemplate.execute("DROP TABLE " + partition.name());
+                log.info("Archived inventory history partition {} to {}", partition.name(), archive);
+            } catch (Exception e) {
+                log.error("Failed to archive inventory history partition {}. Error: {}", partition.name(), e.getMessage());
+            }
+        }
+    }
+
+    private Path exportPartition(String partition) throws IOException {
+        Path directory = Paths.get(inventoryProps.getHistory().getArchiveDir());
+        Files.createDirectories(directory);
+        Path target = directory.resolve(partition + ".csv.gz");
+        Path temp = directory.resolve(partition + ".csv.gz.part");
+
+        JdbcTemplate streamingTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        streamingTemplate.setFetchSize(EXPORT_FETCH_SIZE);
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+            readOnlyTransaction.executeWithoutResult(status -> streamingTemplate.query(
+                    "SELECT " + String.join(", ", COLUMNS) + " FROM " + partition + " ORDER BY id",
+                    rs -> {
+                        writeCsvRow(writer, rs);
+                    }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    private void writeCsvRow(Writer writer, ResultSet rs) throws SQLException {
+        try {
+            for (int i = 1; i <= COLUMNS.size(); i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object value = rs.getObject(i);
+                if (value != null) {
+                    writer.write(escapeCsv(value.toString()));
+                }
+            }
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String escapeCsv(String value) {
+        if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+
+    private String partitionName(YearMonth month) {
+        return "inventory_history_" + month.format(PARTITION_SUFFIX);
+    }
+
+    private record PartitionInfo(String name, boolean attached) {
+    }
+}
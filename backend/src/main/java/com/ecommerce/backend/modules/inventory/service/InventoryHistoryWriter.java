@@ -0,0 +1,243 @@
+package com.ecommerce.backend.modules.inventory.service;
+
+import com.ecommerce.backend.modules.inventory.config.InventoryProps;
+import com.ecommerce.backend.modules.inventory.entity.InventoryHistory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Takes inventory audit rows off the business transaction path. Rows are either staged in
+ * {@code inventory_history_staging} as part of the caller's transaction (STAGED) or buffered in memory
+ * once the caller commits (BUFFERED); a scheduled flush moves them into {@code inventory_history} in batches.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryHistoryWriter {
+
+    private static final String COLUMNS = "product_id, change_type, quantity, available_before, available_after, "
+            + "reserved_before, reserved_after, order_id, created_by, created_at";
+
+    private static final String INSERT_HISTORY_SQL =
+            "INSERT INTO inventory_history (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_STAGING_SQL =
+            "INSERT INTO inventory_history_staging (" + COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String DRAIN_STAGING_SQL = """
+            WITH moved AS (
+                DELETE FROM inventory_history_staging
+                WHERE id IN (
+                    SELECT id FROM inventory_history_staging
+                    ORDER BY id
+                    LIMIT ?
+                    FOR UPDATE SKIP LOCKED
+                )
+                RETURNING id, %1$s
+            )
+            INSERT INTO inventory_history (%1$s)
+            SELECT %1$s FROM moved ORDER BY id
+            """.formatted(COLUMNS);
+
+    private static final String STAGING_BACKLOG_SQL =
+            "SELECT COUNT(*) AS pending, MIN(created_at) AS oldest FROM inventory_history_staging";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final InventoryProps inventoryProps;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicLong stagedPending = new AtomicLong();
+    private final AtomicReference<LocalDateTime> stagedOldest = new AtomicReference<>();
+
+    private TransactionTemplate flushTransaction;
+    private BlockingQueue<InventoryHistory> buffer;
+    private Counter overflowCounter;
+
+    @PostConstruct
+    void init() {
+        InventoryProps.History props = inventoryProps.getHistory();
+        flushTransaction = new TransactionTemplate(transactionManager);
+        flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        buffer = new ArrayBlockingQueue<>(props.getBufferCapacity());
+
+        Gauge.builder("inventory.history.flush.lag", this, InventoryHistoryWriter::flushLagSeconds)
+                .description("Age of the oldest inventory history row not yet flushed")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("inventory.history.pending", this, InventoryHistoryWriter::pendingRows)
+                .description("Inventory history rows waiting to be flushed")
+                .register(meterRegistry);
+        overflowCounter = Counter.builder("inventory.history.buffer.overflow")
+                .description("Inventory history rows written synchronously because the buffer was full")
+                .register(meterRegistry);
+
+        log.info("Inventory history writer started in {} mode", props.getMode());
+    }
+
+    public void write(List<InventoryHistory> records) {
+        if (records.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        records.forEach(record -> {
+            if (record.getCreatedAt() == null) {
+                record.setCreatedAt(now);
+            }
+        });
+
+        if (inventoryProps.getHistory().getMode() == InventoryProps.HistoryWriteMode.STAGED) {
+            jdbcTemplate.batchUpdate(INSERT_STAGING_SQL, toBatchArgs(records));
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(records);
+                }
+            });
+        } else {
+            enqueue(records);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.history.flush-interval-ms:500}")
+    public void flush() {
+        if (inventoryProps.getHistory().getMode() == InventoryProps.HistoryWriteMode.STAGED) {
+            drainStaging();
+        } else {
+            drainBuffer();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (buffer != null && !buffer.isEmpty()) {
+            log.info("Flushing {} buffered inventory history rows before shutdown", buffer.size());
+            drainBuffer();
+        }
+    }
+
+    private void drainStaging() {
+        int batchSize = inventoryProps.getHistory().getBatchSize();
+        try {
+            int moved;
+            do {
+                moved = flushTransaction.execute(status -> jdbcTemplate.update(DRAIN_STAGING_SQL, batchSize));
+                if (moved > 0) {
+                    log.debug("Moved {} staged inventory history rows", moved);
+                }
+            } while (moved >= batchSize);
+
+            Map<String, Object> backlog = jdbcTemplate.queryForMap(STAGING_BACKLOG_SQL);
+            stagedPending.set(((Number) backlog.get("pending")).longValue());
+            Timestamp oldest = (Timestamp) backlog.get("oldest");
+            stagedOldest.set(oldest != null ? oldest.toLocalDateTime() : null);
+        } catch (Exception e) {
+            log.error("Failed to flush staged inventory history. Error: {}", e.getMessage());
+        }
+    }
+
+    private void drainBuffer() {
+        int batchSize = inventoryProps.getHistory().getBatchSize();
+        List<InventoryHistory> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            try {
+                insertHistory(batch);
+            } catch (Exception e) {
+                log.error("Failed to flush {} inventory history rows, returning them to the buffer. Error: {}",
+                        batch.size(), e.getMessage());
+                batch.forEach(record -> {
+                    if (!buffer.offer(record)) {
+                        log.error("Dropping inventory history row for product {}: buffer is full", record.getProductId());
+                    }
+                });
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    private void enqueue(List<InventoryHistory> records) {
+        List<InventoryHistory> overflow = new ArrayList<>();
+        for (InventoryHistory record : records) {
+            if (!buffer.offer(record)) {
+                overflow.add(record);
+            }
+        }
+
+        if (!overflow.isEmpty()) {
+            log.warn("Inventory history buffer is full, writing {} rows synchronously", overflow.size());
+            overflowCounter.increment(overflow.size());
+            insertHistory(overflow);
+        }
+    }
+
+    private void insertHistory(List<InventoryHistory> records) {
+        flushTransaction.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_HISTORY_SQL, toBatchArgs(records)));
+    }
+
+    private List<Object[]> toBatchArgs(List<InventoryHistory> records) {
+        List<Object[]> batchArgs = new ArrayList<>(records.size());
+        for (InventoryHistory record : records) {
+            batchArgs.add(new Object[]{
+                    record.getProductId(),
+                    record.getChangeType().name(),
+                    record.getQuantity(),
+                    record.getAvailableBefore(),
+                    record.getAvailableAfter(),
+                    record.getReservedBefore(),
+                    record.getReservedAfter(),
+                    record.getOrderId(),
+                    record.getCreatedBy(),
+                    Timestamp.valueOf(record.getCreatedAt())
+            });
+        }
+        return batchArgs;
+    }
+
+    private double flushLagSeconds() {
+        LocalDateTime oldest;
+        if (inventoryProps.getHistory().getMode() == InventoryProps.HistoryWriteMode.STAGED) {
+            oldest = stagedOldest.get();
+        } else {
+            InventoryHistory head = buffer.peek();
+            oldest = head != null ? head.getCreatedAt() : null;
+        }
+        return oldest != null ? Duration.between(oldest, LocalDateTime.now()).toMillis() / 1000.0 : 0;
+    }
+
+    private double pendingRows() {
+        return inventoryProps.getHistory().getMode() == InventoryProps.HistoryWriteMode.STAGED
+                ? stagedPending.get()
+                : buffer.size();
+    }
+}
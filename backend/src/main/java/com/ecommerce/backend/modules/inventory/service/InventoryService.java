@@ -3,13 +3,22 @@ package com.ecommerce.backend.modules.inventory.service;
 import com.ecommerce.backend.modules.inventory.dto.*;
 import com.ecommerce.backend.modules.inventory.entity.Inventory;
 import com.ecommerce.backend.modules.inventory.entity.InventoryHistory;
+import com.ecommerce.backend.modules.inventory.entity.OrderReservation;
 import com.ecommerce.backend.modules.inventory.repository.InventoryHistoryRepository;
+import com.ecommerce.backend.modules.inventory.repository.InventoryJdbcRepository;
 import com.ecommerce.backend.modules.inventory.repository.InventoryRepository;
+import com.ecommerce.backend.modules.inventory.repository.InventorySlotJdbcRepository;
+import com.ecommerce.backend.modules.inventory.repository.OrderReservationRepository;
 import com.ecommerce.backend.modules.product.entity.Product;
 import com.ecommerce.backend.modules.product.repository.ProductRepository;
 import com.ecommerce.backend.shared.dto.PageInfo;
 import com.ecommerce.backend.shared.exception.BusinessException;
+import com.ecommerce.backend.shared.exception.InsufficientStockException;
 import com.ecommerce.backend.shared.exception.ResourceNotFoundException;
+import com.ecommerce.backend.shared.pagination.ApproximateCounter;
+import com.ecommerce.backend.shared.pagination.CursorPage;
+import com.ecommerce.backend.shared.pagination.CursorPageRequest;
+import com.ecommerce.backend.shared.pagination.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -18,9 +27,12 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,7 +42,16 @@ public class InventoryService {
 
     private final InventoryRepository inventoryRepository;
     private final InventoryHistoryRepository inventoryHistoryRepository;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final OrderReservationRepository orderReservationRepository;
+    private final InventoryHistoryWriter inventoryHistoryWriter;
+    private final FlashSaleStockService flashSaleStockService;
+    private final InventorySlotService inventorySlotService;
+    private final InventorySlotJdbcRepository inventorySlotJdbcRepository;
+    private final ReservationDeadlineTracker reservationDeadlineTracker;
+    private final StockAvailabilityCache stockAvailabilityCache;
     private final ProductRepository productRepository;
+    private final ApproximateCounter approximateCounter;
 
     @Transactional(readOnly = true)
     @PreAuthorize("hasRole('ADMIN')")
@@ -56,22 +77,7 @@ public class InventoryService {
         log.info("Fetching all inventory with pageable: {}", pageable);
         Page<Inventory> inventoryPage = inventoryRepository.findAll(pageable);
 
-        List<Long> productIds = inventoryPage.getContent().stream()
-                .map(Inventory::getProductId)
-                .collect(Collectors.toList());
-
-        Map<Long, String> productNames = new HashMap<>();
-        if (!productIds.isEmpty()) {
-            productRepository.findAllById(productIds).forEach(product ->
-                    productNames.put(product.getId(), product.getName()));
-        }
-
-        List<InventoryDto> inventoryDtos = inventoryPage.getContent().stream()
-                .map(inventory -> mapToDto(
-                        inventory,
-                        productNames.getOrDefault(inventory.getProductId(), "Unknown product")
-                ))
-                .collect(Collectors.toList());
+        List<InventoryDto> inventoryDtos = mapToDtos(inventoryPage.getContent());
 
         PageInfo page = PageInfo.builder()
                 .page(pageable.getPageNumber())
@@ -86,6 +92,25 @@ public class InventoryService {
                 .build();
     }
 
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public InventoryPage getAllInventory(CursorPageRequest request) {
+        log.info("Fetching all inventory after cursor: {}", request.getCursor());
+        PageCursor after = request.after();
+        List<Inventory> inventories = inventoryRepository.findByProductIdGreaterThanOrderByProductIdAsc(
+                after != null ? after.getLong(0) : 0L, request.fetchLimit());
+        Long total = request.isApproximateTotal()
+                ? approximateCounter.estimate("SELECT 1 FROM inventory")
+                : null;
+
+        CursorPage<Inventory> page = CursorPage.of(
+                inventories, request, inventory -> PageCursor.encode(inventory.getProductId()), total);
+        return InventoryPage.builder()
+                .content(mapToDtos(page.getContent()))
+                .page(page.getPage())
+                .build();
+    }
+
     @Transactional
     @PreAuthorize("hasRole('ADMIN')")
     public InventoryDto updateInventory(Long productId, InventoryUpdateRequest request, String username) {
@@ -103,12 +128,29 @@ public class InventoryService {
                         .reservedQuantity(0)
                         .build());
 
-        int currentAvailable = inventory.getAvailableQuantity();
-        inventory.setAvailableQuantity(request.getQuantity());
+        if (Boolean.TRUE.equals(inventory.getFlashSale())) {
+            log.error("Inventory update rejected for product {}: flash sale is active", productId);
+            throw new BusinessException("Stock of product " + productId + " is managed by an active flash sale", "FLASH_SALE_ACTIVE");
+        }
 
-        Inventory savedInventory = inventoryRepository.save(inventory);
+        int currentAvailable = inventory.getTotalAvailableQuantity();
+        Inventory savedInventory;
+        if (inventory.getSlotCount() > 1) {
+            inventorySlotJdbcRepository.redistribute(productId, null, request.getQuantity());
+            savedInventory = Inventory.builder()
+                    .productId(productId)
+                    .availableQuantity(0)
+                    .reservedQuantity(inventory.getTotalReservedQuantity())
+                    .slotCount(inventory.getSlotCount())
+                    .slotAvailableQuantity(request.getQuantity())
+                    .slotReservedQuantity(0)
+                    .build();
+        } else {
+            inventory.setAvailableQuantity(request.getQuantity());
+            savedInventory = inventoryRepository.save(inventory);
+        }
 
-        createHistoryRecord(
+        inventoryHistoryWriter.write(List.of(buildHistoryRecord(
                 productId,
                 request.getQuantity() > currentAvailable
                         ? InventoryHistory.ChangeType.ADD_STOCK
@@ -116,12 +158,13 @@ public class InventoryService {
                 Math.abs(request.getQuantity() - currentAvailable),
                 currentAvailable,
                 request.getQuantity(),
-                inventory.getReservedQuantity(),
-                inventory.getReservedQuantity(),
+                inventory.getTotalReservedQuantity(),
+                inventory.getTotalReservedQuantity(),
                 null,
                 username
-        );
+        )));
 
+        stockAvailabilityCache.publish(Map.of(productId, request.getQuantity()));
         log.info("Successfully updated inventory for product with id: {}", productId);
         return mapToDto(savedInventory, product.getName());
     }
@@ -158,21 +201,40 @@ public class InventoryService {
     }
 
     @Transactional(readOnly = true)
-    public boolean checkAvailability(List<CartItemAvailabilityCheck> items) {
-        log.info("Checking availability for items: {}", items);
-        List<Long> productIds = items.stream()
-                .map(CartItemAvailabilityCheck::getProductId)
-                .collect(Collectors.toList());
-
-        List<Inventory> inventories = inventoryRepository.findAllByProductIds(productIds);
+    @PreAuthorize("hasRole('ADMIN')")
+    public InventoryHistoryPage getInventoryHistory(Long productId, CursorPageRequest request) {
+        log.info("Fetching inventory history for product with id: {} after cursor: {}", productId, request.getCursor());
+        String productName = productRepository.findById(productId)
+                .map(Product::getName)
+                .orElseThrow(() -> {
+                    log.error("Product not found with id: {} when fetching inventory history", productId);
+                    return ResourceNotFoundException.product(productId);
+                });
 
-        Map<Long, Inventory> mapInventories = inventories.stream()
-                .collect(Collectors.toMap(Inventory::getProductId, inventory -> inventory));
+        PageCursor after = request.after();
+        List<InventoryHistory> history = after != null
+                ? inventoryHistoryRepository.findByProductIdAfter(
+                        productId, after.getDateTime(0), after.getLong(1), request.fetchLimit())
+                : inventoryHistoryRepository.findByProductIdOrderByCreatedAtDescIdDesc(productId, request.fetchLimit());
+        Long total = request.isApproximateTotal()
+                ? approximateCounter.estimate("SELECT 1 FROM inventory_history WHERE product_id = ?", productId)
+                : null;
+
+        CursorPage<InventoryHistory> page = CursorPage.of(
+                history, request, record -> PageCursor.encode(record.getCreatedAt(), record.getId()), total);
+        return InventoryHistoryPage.builder()
+                .content(page.getContent().stream()
+                        .map(record -> mapToHistoryDto(record, productName))
+                        .collect(Collectors.toList()))
+                .page(page.getPage())
+                .build();
+    }
 
-        for (CartItemAvailabilityCheck item : items) {
-            Inventory inventory = mapInventories.get(item.getProductId());
-            if (inventory == null || inventory.getAvailableQuantity() < item.getQuantity()) {
-                log.warn("Item not available: {}. Required: {}, Available: {}", item.getProductId(), item.getQuantity(), inventory != null ? inventory.getAvailableQuantity() : "N/A");
+    public boolean checkAvailability(List<CartItemAvailabilityCheck> items) {
+        log.info("Checking availability for items: {}", items);
+        for (ItemAvailabilityDto item : getItemsAvailability(items)) {
+            if (!item.getAvailable()) {
+                log.warn("Item not available: {}. Required: {}", item.getProductId(), item.getQuantity());
                 return false;
             }
         }
@@ -181,12 +243,25 @@ public class InventoryService {
         return true;
     }
 
-    @Transactional(readOnly = true)
+    public List<ItemAvailabilityDto> getItemsAvailability(List<CartItemAvailabilityCheck> items) {
+        log.info("Checking availability per item: {}", items);
+        Map<Long, Integer> available = stockAvailabilityCache.getAvailable(items.stream()
+                .map(CartItemAvailabilityCheck::getProductId)
+                .collect(Collectors.toList()));
+
+        return items.stream()
+                .map(item -> ItemAvailabilityDto.builder()
+                        .productId(item.getProductId())
+                        .quantity(item.getQuantity())
+                        .available(available.getOrDefault(item.getProductId(), 0) >= item.getQuantity())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
     public boolean isProductAvailable(Long productId, Integer quantity) {
         log.info("Checking availability for product {} with quantity {}", productId, quantity);
-        boolean isAvailable = inventoryRepository.findById(productId)
-                .map(inventory -> inventory.getAvailableQuantity() >= quantity)
-                .orElse(false);
+        boolean isAvailable = stockAvailabilityCache.getAvailable(List.of(productId))
+                .getOrDefault(productId, 0) >= quantity;
         log.info("Product {} availability: {}", productId, isAvailable);
         return isAvailable;
     }
@@ -194,138 +269,221 @@ public class InventoryService {
     @Transactional
     public void reserveProduct(Long orderId, Map<Long, Integer> productQuantities, String username) {
         log.info("Reserving products for order id: {}. Products: {}", orderId, productQuantities);
-        for (Map.Entry<Long, Integer> entry : productQuantities.entrySet()) {
-            Long productId = entry.getKey();
-            Integer quantity = entry.getValue();
-
-            log.debug("Reserving {} units of product {}", quantity, productId);
-            Inventory inventory = inventoryRepository.findByProductId(productId)
-                    .orElseThrow(() -> {
-                        log.error("Inventory not found for product {} during reservation", productId);
-                        return new BusinessException("No data for product  " + productId, "INVENTORY_NOT_FOUND");
-                    });
-
-            if (inventory.getAvailableQuantity() < quantity) {
-                log.error("Insufficient stock for product {} during reservation. Required: {}, Available: {}", productId, quantity, inventory.getAvailableQuantity());
-                throw new BusinessException(
-                        "Out of stock",
-                        "INSUFFICIENT_STOCK"
-                );
+        if (orderReservationRepository.existsByOrderId(orderId)) {
+            log.warn("Reservation for order {} already exists, skipping", orderId);
+            return;
+        }
+
+        Map<Long, Integer> flashSaleQuantities = flashSaleStockService.reserve(productQuantities);
+        Map<Long, Integer> regularQuantities = new HashMap<>(productQuantities);
+        regularQuantities.keySet().removeAll(flashSaleQuantities.keySet());
+
+        Map<Long, Integer> slotCounts = new HashMap<>(inventorySlotService.slotCounts(regularQuantities.keySet()));
+        Map<Long, Integer> rowQuantities = new HashMap<>(regularQuantities);
+        rowQuantities.keySet().removeAll(slotCounts.keySet());
+        Map<Long, Integer> slotQuantities = new HashMap<>(regularQuantities);
+        slotQuantities.keySet().retainAll(slotCounts.keySet());
+
+        // Rows of products without slots are always locked before any slot rows, each group in product id order
+        List<Long> failedProductIds = new ArrayList<>();
+        if (!rowQuantities.isEmpty()) {
+            failedProductIds.addAll(inventoryJdbcRepository.reserve(rowQuantities));
+        }
+        if (!failedProductIds.isEmpty()) {
+            // Products sharded since the last refresh of slot counts keep their stock in slots
+            inventorySlotJdbcRepository.findSlotCounts(failedProductIds).forEach((productId, slotCount) -> {
+                failedProductIds.remove(productId);
+                slotCounts.put(productId, slotCount);
+                slotQuantities.put(productId, regularQuantities.get(productId));
+            });
+        }
+        if (!slotQuantities.isEmpty()) {
+            failedProductIds.addAll(inventorySlotJdbcRepository.reserve(slotQuantities, slotCounts));
+        }
+
+        if (!failedProductIds.isEmpty()) {
+            Map<Long, Integer> availableQuantities = inventoryRepository.findAllByProductIds(failedProductIds).stream()
+                    .collect(Collectors.toMap(Inventory::getProductId, Inventory::getTotalAvailableQuantity));
+            List<Long> missingProductIds = failedProductIds.stream()
+                    .filter(productId -> !availableQuantities.containsKey(productId))
+                    .toList();
+
+            if (!missingProductIds.isEmpty()) {
+                log.error("Inventory not found for products {} during reservation of order {}", missingProductIds, orderId);
+                throw new BusinessException("No data for products " + missingProductIds, "INVENTORY_NOT_FOUND");
             }
 
-            int availableBefore = inventory.getAvailableQuantity();
-            int reservedBefore = inventory.getReservedQuantity();
+            log.error("Insufficient stock for products {} during reservation of order {}", failedProductIds, orderId);
+            Map<Long, Integer> shortQuantities = new HashMap<>(regularQuantities);
+            shortQuantities.keySet().retainAll(failedProductIds);
+            throw new InsufficientStockException(shortQuantities, availableQuantities);
+        }
 
-            inventory.setAvailableQuantity(availableBefore - quantity);
-            inventory.setReservedQuantity(reservedBefore + quantity);
+        if (!flashSaleQuantities.isEmpty()) {
+            inventoryJdbcRepository.insertReservations(orderId, flashSaleQuantities, false);
+        }
+        reservationDeadlineTracker.register(orderId);
+        if (regularQuantities.isEmpty()) {
+            return;
+        }
+        inventoryJdbcRepository.insertReservations(orderId, regularQuantities, true);
 
-            inventoryRepository.save(inventory);
+        List<Inventory> reservedInventories = inventoryRepository.findAllByProductIds(new ArrayList<>(regularQuantities.keySet()));
+        List<InventoryHistory> historyRecords = new ArrayList<>(regularQuantities.size());
+        for (Inventory inventory : reservedInventories) {
+            Integer quantity = regularQuantities.get(inventory.getProductId());
 
-            createHistoryRecord(
-                    productId,
+            historyRecords.add(buildHistoryRecord(
+                    inventory.getProductId(),
                     InventoryHistory.ChangeType.RESERVE,
                     quantity,
-                    availableBefore,
-                    inventory.getAvailableQuantity(),
-                    reservedBefore,
-                    inventory.getReservedQuantity(),
+                    inventory.getTotalAvailableQuantity() + quantity,
+                    inventory.getTotalAvailableQuantity(),
+                    inventory.getTotalReservedQuantity() - quantity,
+                    inventory.getTotalReservedQuantity(),
                     orderId,
                     username
-            );
+            ));
         }
+        inventoryHistoryWriter.write(historyRecords);
+        publishAvailability(reservedInventories);
     }
 
     @Transactional
     public void confirmReservation(Long orderId, String username) {
         log.info("Confirming reservation for order id: {}", orderId);
-        List<InventoryHistory> historyRecords = inventoryHistoryRepository.findByOrderId(orderId);
+        Map<Long, Integer> productQuantities = inventoryJdbcRepository.transitionReservations(
+                orderId, OrderReservation.Status.RESERVED, OrderReservation.Status.CONFIRMED);
 
-        Map<Long, Integer> productQuantities = new HashMap<>();
-
-        for (InventoryHistory history : historyRecords) {
-            if (history.getChangeType() == InventoryHistory.ChangeType.RESERVE) {
-                productQuantities.put(
-                        history.getProductId(),
-                        history.getQuantity()
-                );
-            }
+        if (productQuantities.isEmpty()) {
+            log.warn("No active reservation found for order {} to confirm", orderId);
+            return;
+        }
+        reservationDeadlineTracker.remove(List.of(orderId));
+
+        Map<Long, Integer> rowQuantities = new TreeMap<>(productQuantities);
+        Map<Long, Integer> slotCounts = inventorySlotService.slotCounts(productQuantities.keySet());
+        if (!slotCounts.isEmpty()) {
+            rowQuantities.keySet().removeAll(slotCounts.keySet());
+            inventorySlotJdbcRepository.confirm(slotQuantities(productQuantities, slotCounts), slotCounts)
+                    .forEach(productId -> rowQuantities.put(productId, productQuantities.get(productId)));
+        }
+        if (!rowQuantities.isEmpty()) {
+            inventoryJdbcRepository.confirm(rowQuantities);
         }
 
-        for (Map.Entry<Long, Integer> entry : productQuantities.entrySet()) {
-            Long productId = entry.getKey();
-            Integer quantity = entry.getValue();
-
-            Inventory inventory = inventoryRepository.findByProductId(productId)
-                    .orElseThrow(() -> new BusinessException(
-                            "No data for product  " + productId,
-                            "INVENTORY_NOT_FOUND")
-                    );
-
-            int reservedBefore = inventory.getReservedQuantity();
-
-            inventory.setReservedQuantity(reservedBefore - quantity);
-            inventoryRepository.save(inventory);
+        List<Inventory> inventories = inventoryRepository.findAllByProductIds(new ArrayList<>(productQuantities.keySet()));
+        List<InventoryHistory> historyRecords = new ArrayList<>(productQuantities.size());
+        for (Inventory inventory : inventories) {
+            Integer quantity = productQuantities.get(inventory.getProductId());
 
-            createHistoryRecord(
-                    productId,
+            historyRecords.add(buildHistoryRecord(
+                    inventory.getProductId(),
                     InventoryHistory.ChangeType.CONFIRM_RESERVE,
                     quantity,
-                    inventory.getAvailableQuantity(),
-                    inventory.getAvailableQuantity(),
-                    reservedBefore,
-                    inventory.getReservedQuantity(),
+                    inventory.getTotalAvailableQuantity(),
+                    inventory.getTotalAvailableQuantity(),
+                    inventory.getTotalReservedQuantity() + quantity,
+                    inventory.getTotalReservedQuantity(),
                     orderId,
                     username
-            );
+            ));
         }
+        inventoryHistoryWriter.write(historyRecords);
+        log.info("Successfully confirmed reservation for order id: {}", orderId);
     }
 
     @Transactional
     public void cancelReservation(Long orderId, String username) {
         log.info("Cancelling reservation for order id: {}", orderId);
-        List<InventoryHistory> historyRecords = inventoryHistoryRepository.findByOrderId(orderId);
-
-        Map<Long, Integer> productQuantities = new HashMap<>();
+        Map<Long, Integer> productQuantities = inventoryJdbcRepository.transitionReservations(
+                orderId, OrderReservation.Status.RESERVED, OrderReservation.Status.RELEASED);
 
-        for (InventoryHistory history : historyRecords) {
-            if (history.getChangeType() == InventoryHistory.ChangeType.RESERVE) {
-                productQuantities.put(
-                        history.getProductId(),
-                        history.getQuantity()
-                );
-            }
+        if (productQuantities.isEmpty()) {
+            log.warn("No active reservation found for order {} to cancel", orderId);
+            return;
         }
+        reservationDeadlineTracker.remove(List.of(orderId));
+        releaseStock(productQuantities);
 
-        for (Map.Entry<Long, Integer> entry : productQuantities.entrySet()) {
-            Long productId = entry.getKey();
-            Integer quantity = entry.getValue();
+        List<Inventory> inventories = inventoryRepository.findAllByProductIds(new ArrayList<>(productQuantities.keySet()));
+        List<InventoryHistory> historyRecords = new ArrayList<>(productQuantities.size());
+        for (Inventory inventory : inventories) {
+            Integer quantity = productQuantities.get(inventory.getProductId());
 
-            Inventory inventory = inventoryRepository.findByProductId(productId)
-                    .orElseThrow(() -> new BusinessException(
-                            "No data for product  " + productId,
-                            "INVENTORY_NOT_FOUND"
-                    ));
-
-            int availableBefore = inventory.getAvailableQuantity();
-            int reservedBefore = inventory.getReservedQuantity();
+            historyRecords.add(buildHistoryRecord(
+                    inventory.getProductId(),
+                    InventoryHistory.ChangeType.RELEASE_RESERVE,
+                    quantity,
+                    inventory.getTotalAvailableQuantity() - quantity,
+                    inventory.getTotalAvailableQuantity(),
+                    inventory.getTotalReservedQuantity() + quantity,
+                    inventory.getTotalReservedQuantity(),
+                    orderId,
+                    username
+            ));
+        }
+        inventoryHistoryWriter.write(historyRecords);
+        publishAvailability(inventories);
+        log.info("Successfully cancelled reservation for order id: {}", orderId);
+    }
 
-            inventory.setAvailableQuantity(availableBefore + quantity);
-            inventory.setReservedQuantity(reservedBefore - quantity);
+    /**
+     * Releases the reservations of several orders at once, with one stock update per product for the whole batch.
+     */
+    @Transactional
+    public void cancelReservations(Collection<Long> orderIds, String username) {
+        if (orderIds.isEmpty()) {
+            return;
+        }
+        log.info("Cancelling reservations for {} orders", orderIds.size());
+        List<OrderReservation> reservations = inventoryJdbcRepository.transitionReservations(
+                orderIds, OrderReservation.Status.RESERVED, OrderReservation.Status.RELEASED);
+        reservationDeadlineTracker.remove(orderIds);
+
+        if (reservations.isEmpty()) {
+            log.warn("No active reservations found for orders {} to cancel", orderIds);
+            return;
+        }
 
-            inventoryRepository.save(inventory);
+        Map<Long, Integer> productQuantities = reservations.stream()
+                .collect(Collectors.groupingBy(OrderReservation::getProductId, TreeMap::new,
+                        Collectors.summingInt(OrderReservation::getQuantity)));
+        releaseStock(productQuantities);
+
+        List<Inventory> inventories = inventoryRepository.findAllByProductIds(new ArrayList<>(productQuantities.keySet()));
+        Map<Long, int[]> running = new HashMap<>();
+        for (Inventory inventory : inventories) {
+            Integer total = productQuantities.get(inventory.getProductId());
+            running.put(inventory.getProductId(), new int[]{
+                    inventory.getTotalAvailableQuantity() - total,
+                    inventory.getTotalReservedQuantity() + total
+            });
+        }
 
-            createHistoryRecord(
-                    productId,
+        List<InventoryHistory> historyRecords = new ArrayList<>(reservations.size());
+        for (OrderReservation reservation : reservations) {
+            int[] state = running.get(reservation.getProductId());
+            if (state == null) {
+                continue;
+            }
+            historyRecords.add(buildHistoryRecord(
+                    reservation.getProductId(),
                     InventoryHistory.ChangeType.RELEASE_RESERVE,
-                    quantity,
-                    availableBefore,
-                    inventory.getAvailableQuantity(),
-                    reservedBefore,
-                    inventory.getReservedQuantity(),
-                    orderId,
+                    reservation.getQuantity(),
+                    state[0],
+                    state[0] + reservation.getQuantity(),
+                    state[1],
+                    state[1] - reservation.getQuantity(),
+                    reservation.getOrderId(),
                     username
-            );
+            ));
+            state[0] += reservation.getQuantity();
+            state[1] -= reservation.getQuantity();
         }
+        inventoryHistoryWriter.write(historyRecords);
+        publishAvailability(inventories);
+        log.info("Successfully cancelled reservations of {} lines for {} orders", reservations.size(), orderIds.size());
     }
 
     @Transactional
@@ -343,9 +501,10 @@ public class InventoryService {
                 .build();
 
         Inventory savedInventory = inventoryRepository.save(inventory);
+        stockAvailabilityCache.publish(Map.of(product.getId(), initQuantity));
 
         if (initQuantity > 0) {
-            createHistoryRecord(
+            inventoryHistoryWriter.write(List.of(buildHistoryRecord(
                     product.getId(),
                     InventoryHistory.ChangeType.ADD_STOCK,
                     initQuantity,
@@ -355,7 +514,7 @@ public class InventoryService {
                     0,
                     null,
                     username
-            );
+            )));
         }
 
         return savedInventory;
@@ -383,13 +542,34 @@ public class InventoryService {
         return inventory;
     }
 
+    private List<InventoryDto> mapToDtos(List<Inventory> inventories) {
+        List<Long> productIds = inventories.stream()
+                .map(Inventory::getProductId)
+                .collect(Collectors.toList());
+
+        Map<Long, String> productNames = new HashMap<>();
+        if (!productIds.isEmpty()) {
+            productRepository.findAllById(productIds).forEach(product ->
+                    productNames.put(product.getId(), product.getName()));
+        }
+
+        return inventories.stream()
+                .map(inventory -> mapToDto(
+                        inventory,
+                        productNames.getOrDefault(inventory.getProductId(), "Unknown product")
+                ))
+                .collect(Collectors.toList());
+    }
+
     private  InventoryDto mapToDto(Inventory inventory, String productName) {
         return InventoryDto.builder()
                 .productId(inventory.getProductId())
                 .productName(productName)
-                .availableQuantity(inventory.getAvailableQuantity())
-                .reservedQuantity(inventory.getReservedQuantity())
-                .totalQuantity(inventory.getReservedQuantity() +  inventory.getAvailableQuantity())
+                .availableQuantity(inventory.getTotalAvailableQuantity())
+                .reservedQuantity(inventory.getTotalReservedQuantity())
+                .totalQuantity(inventory.getTotalReservedQuantity() +  inventory.getTotalAvailableQuantity())
+                .flashSale(inventory.getFlashSale())
+                .slotCount(inventory.getSlotCount())
                 .build();
     }
 
@@ -410,7 +590,32 @@ public class InventoryService {
                 .build();
     }
 
-    private void createHistoryRecord(
+    private void publishAvailability(List<Inventory> inventories) {
+        stockAvailabilityCache.publish(inventories.stream()
+                .collect(Collectors.toMap(Inventory::getProductId, Inventory::getTotalAvailableQuantity)));
+    }
+
+    private void releaseStock(Map<Long, Integer> productQuantities) {
+        Map<Long, Integer> rowQuantities = new TreeMap<>(productQuantities);
+        Map<Long, Integer> slotCounts = inventorySlotService.slotCounts(productQuantities.keySet());
+        if (!slotCounts.isEmpty()) {
+            rowQuantities.keySet().removeAll(slotCounts.keySet());
+            inventorySlotJdbcRepository.release(slotQuantities(productQuantities, slotCounts), slotCounts)
+                    .forEach(productId -> rowQuantities.put(productId, productQuantities.get(productId)));
+        }
+        if (!rowQuantities.isEmpty()) {
+            inventoryJdbcRepository.release(rowQuantities);
+        }
+        flashSaleStockService.release(productQuantities);
+    }
+
+    private Map<Long, Integer> slotQuantities(Map<Long, Integer> productQuantities, Map<Long, Integer> slotCounts) {
+        Map<Long, Integer> slotQuantities = new TreeMap<>(productQuantities);
+        slotQuantities.keySet().retainAll(slotCounts.keySet());
+        return slotQuantities;
+    }
+
+    private InventoryHistory buildHistoryRecord(
             Long productId,
             InventoryHistory.ChangeType changeType,
             Integer quantity,
@@ -421,7 +626,7 @@ public class InventoryService {
             Long orderId,
             String username
     ) {
-        InventoryHistory inventoryHistory = InventoryHistory.builder()
+        return InventoryHistory.builder()
                 .productId(productId)
                 .changeType(changeType)
                 .quantity(quantity)
@@ -432,8 +637,5 @@ public class InventoryService {
                 .orderId(orderId)
                 .createdBy(username)
                 .build();
-
-        inventoryHistoryRepository.save(inventoryHistory);
-        log.info("Inventory History Record created with id: {}", inventoryHistory.getId());
     }
 }
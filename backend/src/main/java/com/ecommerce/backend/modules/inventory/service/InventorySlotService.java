@@ -0,0 +1,106 @@
+package com.ecommerce.backend.modules.inventory.service;
+
+import com.ecommerce.backend.modules.inventory.entity.Inventory;
+import com.ecommerce.backend.modules.inventory.repository.InventoryJdbcRepository;
+import com.ecommerce.backend.modules.inventory.repository.InventorySlotJdbcRepository;
+import com.ecommerce.backend.shared.exception.BusinessException;
+import com.ecommerce.backend.shared.scheduling.ScheduledJobLock;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Manages products whose stock is sharded across slot rows and keeps a local view of their slot counts,
+ * so the reservation path can pick a slot without reading the inventory row first. A stale view is safe:
+ * a reservation that misses its slot sweeps the product's rows, and one that misses on the inventory row of a
+ * product sharded since the last refresh is retried on its slots.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventorySlotService {
+
+    private static final String REBALANCE_JOB = "inventory-slot-rebalance";
+
+    private final InventorySlotJdbcRepository inventorySlotJdbcRepository;
+    private final InventoryJdbcRepository inventoryJdbcRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ScheduledJobLock scheduledJobLock;
+
+    private final Map<Long, Integer> slotCounts = new ConcurrentHashMap<>();
+
+    /**
+     * @return slot counts of the given products that are sharded; unsharded products are left out
+     */
+    public Map<Long, Integer> slotCounts(Collection<Long> productIds) {
+        Map<Long, Integer> result = new HashMap<>();
+        for (Long productId : productIds) {
+            Integer slotCount = slotCounts.get(productId);
+            if (slotCount != null && slotCount > 1) {
+                result.put(productId, slotCount);
+            }
+        }
+        return result;
+    }
+
+    @Transactional
+    @PreAuthorize("hasRole('ADMIN')")
+    public void updateSlotCount(Long productId, int slotCount, String username) {
+        log.info("Setting slot count of product {} to {} by {}", productId, slotCount, username);
+        Inventory inventory = inventoryJdbcRepository.findForUpdate(productId)
+                .orElseThrow(() -> {
+                    log.error("Inventory not found for product {} when setting slot count", productId);
+                    return new BusinessException("No data for product  " + productId, "INVENTORY_NOT_FOUND");
+                });
+        if (inventory.getFlashSale()) {
+            throw new BusinessException("Stock of product " + productId + " is managed by an active flash sale", "FLASH_SALE_ACTIVE");
+        }
+
+        inventorySlotJdbcRepository.redistribute(productId, slotCount, null);
+        if (slotCount > 1) {
+            slotCounts.put(productId, slotCount);
+        } else {
+            slotCounts.remove(productId);
+        }
+        log.info("Slot count of product {} set to {}", productId, slotCount);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.slots.refresh-interval-ms:10000}")
+    public void refreshSlotCounts() {
+        Map<Long, Integer> current = inventorySlotJdbcRepository.findShardedProducts();
+        slotCounts.keySet().retainAll(current.keySet());
+        slotCounts.putAll(current);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.slots.rebalance-interval-ms:30000}")
+    public void rebalance() {
+        scheduledJobLock.runLocked(REBALANCE_JOB, Duration.ofMinutes(5), () -> {
+            Map<Long, Integer> unbalanced = inventorySlotJdbcRepository.findUnbalancedProducts();
+            if (unbalanced.isEmpty()) {
+                return;
+            }
+
+            log.info("Rebalancing stock slots of {} products", unbalanced.size());
+            TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+            unbalanced.keySet().forEach(productId -> {
+                try {
+                    transactionTemplate.executeWithoutResult(status ->
+                            inventorySlotJdbcRepository.redistribute(productId, null, null));
+                } catch (Exception e) {
+                    log.error("Failed to rebalance stock slots of product {}. Error: {}", productId, e.getMessage());
+                }
+            });
+        });
+    }
+}
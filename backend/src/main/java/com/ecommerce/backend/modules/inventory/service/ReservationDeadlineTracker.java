@@ -0,0 +1,135 @@
+package com.ecommerce.backend.modules.inventory.service;
+
+import com.ecommerce.backend.modules.inventory.config.InventoryProps;
+import com.ecommerce.backend.modules.inventory.repository.ReservationDeadlineJdbcRepository;
+import com.ecommerce.backend.shared.scheduling.HierarchicalTimingWheel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Keeps the deadlines of active reservations. Every deadline is stored in {@code reservation_deadlines};
+ * the ones due within the lookahead window are also held in a hierarchical timing wheel, so finding what has
+ * expired never scans the table. Deadlines that the wheel misses (registered on another instance inside the
+ * loaded window, or overdue after a restart) are picked up by {@link ReservationExpiryService#sweepOverdue()}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationDeadlineTracker {
+
+    private final ReservationDeadlineJdbcRepository reservationDeadlineJdbcRepository;
+    private final InventoryProps inventoryProps;
+    private final MeterRegistry meterRegistry;
+
+    private HierarchicalTimingWheel<Long> wheel;
+    private long loadedUntil;
+
+    @PostConstruct
+    void init() {
+        InventoryProps.ReservationExpiry props = inventoryProps.getReservationExpiry();
+        long now = System.currentTimeMillis();
+        wheel = new HierarchicalTimingWheel<>(props.getTickMs(), props.getWheelSize(), props.getWheelLevels(), now);
+        loadedUntil = now;
+
+        Gauge.builder("inventory.reservation.deadlines.scheduled", this, ReservationDeadlineTracker::scheduledCount)
+                .description("Reservation deadlines held in the timing wheel")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Gives the order's reservation a deadline of now plus the configured TTL. Must run inside the reservation
+     * transaction; the deadline is added to the wheel once it commits.
+     */
+    public void register(Long orderId) {
+        Timestamp expiresAt = reservationDeadlineJdbcRepository.insert(orderId, inventoryProps.getReservationExpiry().getTtlMs());
+        if (expiresAt == null) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule(orderId, expiresAt.getTime());
+                }
+            });
+        } else {
+            schedule(orderId, expiresAt.getTime());
+        }
+    }
+
+    /**
+     * Drops the deadlines of orders whose reservation is no longer active. Their wheel entries stay until due
+     * and are ignored because there is nothing left to claim.
+     */
+    public void remove(Collection<Long> orderIds) {
+        reservationDeadlineJdbcRepository.delete(orderIds);
+    }
+
+    /**
+     * @return ids of the orders whose deadline passed since the previous call; they still have to be claimed
+     */
+    public synchronized List<Long> pollDue() {
+        List<Long> due = new ArrayList<>();
+        wheel.advance(System.currentTimeMillis(), due::add);
+        return due;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservation-expiry.load-interval-ms:60000}")
+    public void loadUpcoming() {
+        long from;
+        long until;
+        synchronized (this) {
+            until = Math.min(System.currentTimeMillis() + inventoryProps.getReservationExpiry().getLookaheadMs(), wheel.horizon());
+            if (until <= loadedUntil) {
+                return;
+            }
+            from = loadedUntil;
+            loadedUntil = until;
+        }
+
+        int batchSize = inventoryProps.getReservationExpiry().getBatchSize();
+        Timestamp afterExpiresAt = new Timestamp(from);
+        long afterOrderId = 0;
+        int loaded = 0;
+        List<ReservationDeadlineJdbcRepository.Deadline> page;
+        do {
+            page = reservationDeadlineJdbcRepository.findDue(afterExpiresAt, afterOrderId, new Timestamp(until), batchSize);
+            synchronized (this) {
+                page.forEach(deadline -> wheel.schedule(deadline.orderId(), deadline.expiresAt().getTime()));
+            }
+            if (!page.isEmpty()) {
+                ReservationDeadlineJdbcRepository.Deadline last = page.get(page.size() - 1);
+                afterExpiresAt = last.expiresAt();
+                afterOrderId = last.orderId();
+                loaded += page.size();
+            }
+        } while (page.size() == batchSize);
+
+        if (loaded > 0) {
+            log.info("Loaded {} reservation deadlines due before {}", loaded, new Timestamp(until));
+        }
+    }
+
+    private synchronized void schedule(Long orderId, long deadlineMs) {
+        if (deadlineMs < loadedUntil) {
+            wheel.schedule(orderId, deadlineMs);
+        }
+    }
+
+    private synchronized int scheduledCount() {
+        return wheel.size();
+    }
+}
@@ -0,0 +1,92 @@
+package com.ecommerce.backend.modules.inventory.service;
+
+import com.ecommerce.backend.modules.inventory.config.InventoryProps;
+import com.ecommerce.backend.modules.inventory.repository.ReservationDeadlineJdbcRepository;
+import com.ecommerce.backend.modules.order.service.OrderService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Cancels orders that stayed PENDING past their reservation deadline and returns their stock. Expired orders
+ * are handled in batches: the deadlines are claimed, the still pending orders are cancelled and all of their
+ * reservations are released in one transaction per batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReservationExpiryService {
+
+    private static final String EXPIRY_USER = "reservation-expiry";
+
+    private final ReservationDeadlineTracker reservationDeadlineTracker;
+    private final ReservationDeadlineJdbcRepository reservationDeadlineJdbcRepository;
+    private final OrderService orderService;
+    private final InventoryService inventoryService;
+    private final PlatformTransactionManager transactionManager;
+    private final InventoryProps inventoryProps;
+    private final MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+    private Counter expiredCounter;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        expiredCounter = Counter.builder("inventory.reservation.expired")
+                .description("Pending orders cancelled because their reservation expired")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservation-expiry.tick-ms:1000}")
+    public void expireDue() {
+        List<Long> due = reservationDeadlineTracker.pollDue();
+        int batchSize = inventoryProps.getReservationExpiry().getBatchSize();
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            expireBatch(() -> reservationDeadlineJdbcRepository.claim(batch));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservation-expiry.sweep-interval-ms:60000}")
+    public void sweepOverdue() {
+        int batchSize = inventoryProps.getReservationExpiry().getBatchSize();
+        int claimed;
+        do {
+            claimed = expireBatch(() -> reservationDeadlineJdbcRepository.claimOverdue(batchSize));
+        } while (claimed == batchSize);
+    }
+
+    /**
+     * @return number of deadlines claimed by the batch, or 0 if it failed and was rolled back
+     */
+    private int expireBatch(Supplier<List<Long>> claim) {
+        try {
+            Integer claimed = transactionTemplate.execute(status -> {
+                List<Long> orderIds = claim.get();
+                if (orderIds.isEmpty()) {
+                    return 0;
+                }
+
+                List<Long> cancelledOrderIds = orderService.expirePendingOrders(orderIds);
+                inventoryService.cancelReservations(cancelledOrderIds, EXPIRY_USER);
+                expiredCounter.increment(cancelledOrderIds.size());
+                log.info("Expired {} reservation deadlines, cancelled {} pending orders", orderIds.size(), cancelledOrderIds.size());
+                return orderIds.size();
+            });
+            return claimed != null ? claimed : 0;
+        } catch (Exception e) {
+            log.error("Failed to expire reservations. Error: {}", e.getMessage());
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.ecommerce.backend.modules.inventory.service;
+
+import com.ecommerce.backend.modules.inventory.config.InventoryProps;
+import com.ecommerce.backend.modules.inventory.entity.Inventory;
+import com.ecommerce.backend.modules.inventory.repository.InventoryRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-through cache of available stock per product: a short-lived local map in front of Redis in front of
+ * Postgres. Inventory mutations publish the new quantities after commit; they are written to Redis and
+ * broadcast on a pub/sub channel so every instance replaces its local entry. TTLs bound the staleness of
+ * entries that miss an update, and entry age and propagation lag are exported as metrics.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockAvailabilityCache {
+
+    private static final String CHANNEL = "inventory:availability";
+    private static final String KEY_PREFIX = "inventory:available:";
+
+    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisMessageListenerContainer redisMessageListenerContainer;
+    private final InventoryRepository inventoryRepository;
+    private final InventoryProps inventoryProps;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Long, CachedStock> localCache = new ConcurrentHashMap<>();
+
+    private Counter localHits;
+    private Counter redisHits;
+    private Counter databaseLoads;
+    private DistributionSummary entryAge;
+    private Timer propagationLag;
+
+    @PostConstruct
+    void init() {
+        redisMessageListenerContainer.addMessageListener(
+                (message, pattern) -> onChange(message.getBody()), new ChannelTopic(CHANNEL));
+
+        localHits = lookupCounter("local");
+        redisHits = lookupCounter("redis");
+        databaseLoads = lookupCounter("database");
+        entryAge = DistributionSummary.builder("inventory.availability.entry.age")
+                .description("Time since the served availability value was read from or written to the database")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        propagationLag = Timer.builder("inventory.availability.propagation")
+                .description("Delay between publishing an availability change and applying it on an instance")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return available stock of every requested product; products without inventory are reported with 0
+     */
+    public Map<Long, Integer> getAvailable(Collection<Long> productIds) {
+        long now = System.currentTimeMillis();
+        long localTtlMs = inventoryProps.getAvailabilityCache().getLocalTtlMs();
+        Map<Long, Integer> result = new HashMap<>();
+
+        List<Long> localMisses = new ArrayList<>();
+        for (Long productId : new LinkedHashSet<>(productIds)) {
+            CachedStock cached = localCache.get(productId);
+            if (cached != null && now - cached.cachedAt() < localTtlMs) {
+                result.put(productId, cached.available());
+                entryAge.record(now - cached.updatedAt());
+                localHits.increment();
+            } else {
+                localMisses.add(productId);
+            }
+        }
+        if (localMisses.isEmpty()) {
+            return result;
+        }
+
+        List<Long> redisMisses = new ArrayList<>();
+        List<String> values = readRedis(localMisses);
+        for (int i = 0; i < localMisses.size(); i++) {
+            Long productId = localMisses.get(i);
+            String value = values != null ? values.get(i) : null;
+            if (value == null) {
+                redisMisses.add(productId);
+                continue;
+            }
+            CachedStock cached = parse(value, now);
+            keepNewest(productId, cached);
+            result.put(productId, cached.available());
+            entryAge.record(now - cached.updatedAt());
+            redisHits.increment();
+        }
+        if (redisMisses.isEmpty()) {
+            return result;
+        }
+
+        Map<Long, Integer> loaded = new TreeMap<>();
+        redisMisses.forEach(productId -> loaded.put(productId, 0));
+        for (Inventory inventory : inventoryRepository.findAllByProductIds(redisMisses)) {
+            loaded.put(inventory.getProductId(), inventory.getTotalAvailableQuantity());
+        }
+        databaseLoads.increment(loaded.size());
+        result.putAll(loaded);
+        fill(loaded, now);
+        return result;
+    }
+
+    /**
+     * Publishes new available quantities once the surrounding transaction commits, or right away outside of one.
+     */
+    public void publish(Map<Long, Integer> availableQuantities) {
+        if (availableQuantities.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> snapshot = new TreeMap<>(availableQuantities);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(snapshot);
+                }
+            });
+        } else {
+            apply(snapshot);
+        }
+    }
+
+    private void apply(Map<Long, Integer> availableQuantities) {
+        long now = System.currentTimeMillis();
+        availableQuantities.forEach((productId, available) ->
+                keepNewest(productId, new CachedStock(available, now, now)));
+
+        Duration ttl = Duration.ofMillis(inventoryProps.getAvailabilityCache().getRedisTtlMs());
+        try {
+            availableQuantities.forEach((productId, available) ->
+                    redisTemplate.opsForValue().set(key(productId), format(available, now), ttl));
+            redisTemplate.convertAndSend(CHANNEL,
+                    objectMapper.writeValueAsString(new AvailabilityChange(now, availableQuantities)));
+        } catch (Exception e) {
+            log.warn("Failed to publish availability of products {}. Error: {}", availableQuantities.keySet(), e.getMessage());
+        }
+    }
+
+    private void onChange(byte[] body) {
+        try {
+            AvailabilityChange change = objectMapper.readValue(body, AvailabilityChange.class);
+            long now = System.currentTimeMillis();
+            propagationLag.record(Math.max(now - change.publishedAt(), 0), TimeUnit.MILLISECONDS);
+            change.available().forEach((productId, available) ->
+                    keepNewest(productId, new CachedStock(available, change.publishedAt(), now)));
+        } catch (Exception e) {
+            log.warn("Failed to apply availability change. Error: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Values read from the database go to Redis only if no newer value was published in the meantime.
+     */
+    private void fill(Map<Long, Integer> loaded, long readAt) {
+        loaded.forEach((productId, available) -> keepNewest(productId, new CachedStock(available, readAt, readAt)));
+        Duration ttl = Duration.ofMillis(inventoryProps.getAvailabilityCache().getRedisTtlMs());
+        try {
+            loaded.forEach((productId, available) ->
+                    redisTemplate.opsForValue().setIfAbsent(key(productId), format(available, readAt), ttl));
+        } catch (Exception e) {
+            log.warn("Failed to cache availability of products {}. Error: {}", loaded.keySet(), e.getMessage());
+        }
+    }
+
+    private List<String> readRedis(List<Long> productIds) {
+        try {
+            return redisTemplate.opsForValue().multiGet(productIds.stream().map(this::key).toList());
+        } catch (Exception e) {
+            log.warn("Failed to read availability of products {} from Redis. Error: {}", productIds, e.getMessage());
+            return null;
+        }
+    }
+
+    private void keepNewest(Long productId, CachedStock cached) {
+        localCache.merge(productId, cached, (current, candidate) ->
+                candidate.updatedAt() >= current.updatedAt() ? candidate : current);
+    }
+
+    private CachedStock parse(String value, long now) {
+        int separator = value.indexOf(':');
+        return new CachedStock(
+                Integer.parseInt(value.substring(0, separator)),
+                Long.parseLong(value.substring(separator + 1)),
+                now);
+    }
+
+    private String format(int available, long updatedAt) {
+        return available + ":" + updatedAt;
+    }
+
+    private String key(Long productId) {
+        return KEY_PREFIX + productId;
+    }
+
+    private Counter lookupCounter(String source) {
+        return Counter.builder("inventory.availability.lookups")
+                .description("Availability lookups by the layer that answered them")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    private record CachedStock(int available, long updatedAt, long cachedAt) {
+    }
+
+    record AvailabilityChange(long publishedAt, Map<Long, Integer> available) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.ecommerce.backend.modules.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@ConfigurationProperties(prefix = "order")
+@Component
+@Data
+public class OrderProps {
+    private Checkout checkout = new Checkout();
+    private Idempotency idempotency = new Idempotency();
+    private Export export = new Export();
+    private Bulk bulk = new Bulk();
+    private Archive archive = new Archive();
+
+    @Data
+    public static class Checkout {
+        /**
+         * SYNC reserves stock in the order transaction and rejects the order if any line is short.
+         * ASYNC saves the order as PENDING and leaves the reservation to the inventory event listener.
+         */
+        private ReservationMode reservationMode = ReservationMode.ASYNC;
+    }
+
+    @Data
+    public static class Export {
+        /**
+         * Rows the export cursor holds in memory at a time.
+         */
+        private int fetchSize = 500;
+    }
+
+    @Data
+    public static class Bulk {
+        /**
+         * Orders a bulk status update changes per transaction.
+         */
+        private int chunkSize = 500;
+    }
+
+    @Data
+    public static class Archive {
+        /**
+         * DELIVERED and CANCELLED orders created longer ago than this move to {@code orders_archive}.
+         */
+        private int afterDays = 365;
+        /**
+         * Orders archived per transaction.
+         */
+        private int batchSize = 1000;
+        private String cron = "0 0 4 * * *";
+    }
+
+    public enum ReservationMode {
+        SYNC,
+        ASYNC
+    }
+
+    @Data
+    public static class Idempotency {
+        /**
+         * How long the first request holds the key; duplicates arriving meanwhile wait for its response.
+         */
+        private long lockTtlMs = 30000;
+        private long waitTimeoutMs = 10000;
+        private long pollIntervalMs = 100;
+        /**
+         * How long a stored response is replayed. Redis keeps it for the same time, Postgres until the purge job.
+         */
+        private long retentionMs = 86400000;
+        private long purgeIntervalMs = 3600000;
+    }
+}
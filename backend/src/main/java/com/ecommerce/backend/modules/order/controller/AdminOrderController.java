@@ -1,20 +1,30 @@
 package com.ecommerce.backend.modules.order.controller;
 
+import com.ecommerce.backend.modules.order.dto.BulkOrderStatusUpdateRequest;
+import com.ecommerce.backend.modules.order.dto.BulkOrderStatusUpdateResult;
 import com.ecommerce.backend.modules.order.dto.OrderDto;
 import com.ecommerce.backend.modules.order.dto.OrderStatusUpdateRequest;
 import com.ecommerce.backend.modules.order.dto.OrdersPage;
 import com.ecommerce.backend.modules.order.entity.OrderStatus;
+import com.ecommerce.backend.modules.order.service.OrderExportService;
 import com.ecommerce.backend.modules.order.service.OrderService;
+import com.ecommerce.backend.shared.exception.ValidationException;
+import com.ecommerce.backend.shared.pagination.CursorPageRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.security.Principal;
+import java.time.LocalDate;
 
 @RestController
 @RequestMapping("api/admin/orders")
@@ -24,6 +34,7 @@ import java.security.Principal;
 public class AdminOrderController {
 
     private final OrderService orderService;
+    private final OrderExportService orderExportService;
 
     @GetMapping
     public ResponseEntity<OrdersPage> getAllOrders(
@@ -45,6 +56,52 @@ public class AdminOrderController {
         return ResponseEntity.ok(ordersPage);
     }
 
+    @GetMapping(params = "cursor")
+    public ResponseEntity<OrdersPage> getAllOrdersAfter(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(defaultValue = "false") boolean approximateTotal
+    ) {
+        log.info("Admin request to get all orders. Cursor: {}. Size: {}. Status: {}.", cursor, size, status);
+        CursorPageRequest request = new CursorPageRequest(cursor, size, approximateTotal);
+
+        OrdersPage ordersPage = status != null
+                ? orderService.getOrderByStatus(status, request)
+                : orderService.getAllOrders(request);
+        log.info("Admin successfully fetched orders. Status: {}. Has next: {}", status, ordersPage.getPage().getHasNext());
+        return ResponseEntity.ok(ordersPage);
+    }
+
+    @GetMapping(value = "/export", produces = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE, "application/gzip"})
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "false") boolean gzip
+    ) {
+        OrderExportService.Format exportFormat = switch (format.toLowerCase()) {
+            case "csv" -> OrderExportService.Format.CSV;
+            case "ndjson" -> OrderExportService.Format.NDJSON;
+            default -> throw new ValidationException("Unsupported export format: " + format);
+        };
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new ValidationException("Export range start is after its end");
+        }
+        log.info("Admin request to export orders. Format: {}. Status: {}. From: {}. To: {}.", exportFormat, status, from, to);
+        StreamingResponseBody body = output -> orderExportService.export(status, from, to, exportFormat, gzip, output);
+
+        String fileName = "orders." + format.toLowerCase() + (gzip ? ".gz" : "");
+        MediaType contentType = gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : exportFormat == OrderExportService.Format.CSV ? MediaType.parseMediaType("text/csv") : MediaType.APPLICATION_NDJSON;
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
     @PutMapping("/{orderId}")
     public ResponseEntity<OrderDto> updateOrderStatus(
             @PathVariable Long orderId,
@@ -56,4 +113,16 @@ public class AdminOrderController {
         log.info("Admin successfully updated status for order with id: {}. Result: {}", orderId, updatedOrder);
         return ResponseEntity.ok(updatedOrder);
     }
+
+    @PostMapping("/bulk-status")
+    public ResponseEntity<BulkOrderStatusUpdateResult> bulkUpdateOrderStatus(
+            @Valid @RequestBody BulkOrderStatusUpdateRequest request,
+            Principal principal
+    ) {
+        log.info("Admin request to update status of {} orders to {}", request.getOrderIds().size(), request.getStatus());
+        BulkOrderStatusUpdateResult result = orderService.bulkUpdateStatus(request, principal.getName());
+        log.info("Admin successfully updated status of {} orders to {}. Failed: {}",
+                result.getUpdated(), result.getStatus(), result.getFailed());
+        return ResponseEntity.ok(result);
+    }
 }
@@ -3,7 +3,9 @@ package com.ecommerce.backend.modules.order.controller;
 import com.ecommerce.backend.modules.order.dto.CreateOrderRequest;
 import com.ecommerce.backend.modules.order.dto.OrderDto;
 import com.ecommerce.backend.modules.order.dto.OrdersPage;
+import com.ecommerce.backend.modules.order.service.OrderIdempotencyService;
 import com.ecommerce.backend.modules.order.service.OrderService;
+import com.ecommerce.backend.shared.pagination.CursorPageRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,14 +26,18 @@ import java.security.Principal;
 public class OrderController {
 
     private final OrderService orderService;
+    private final OrderIdempotencyService orderIdempotencyService;
 
     @PostMapping
     public ResponseEntity<OrderDto> createOrder(
             @Valid @RequestBody CreateOrderRequest request,
+            @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
             Principal principal
     ) {
-        log.info("Request from user {} to create order: {}", principal.getName(), request);
-        OrderDto order = orderService.createOrder(principal.getName(), request);
+        log.info("Request from user {} to create order: {}. Idempotency key: {}", principal.getName(), request, idempotencyKey);
+        OrderDto order = idempotencyKey != null
+                ? orderIdempotencyService.createOrder(principal.getName(), idempotencyKey, request)
+                : orderService.createOrder(principal.getName(), request);
         log.info("Successfully created order with id {} for user {}", order.getId(), principal.getName());
         return new ResponseEntity<>(order, HttpStatus.CREATED);
     }
@@ -49,6 +55,19 @@ public class OrderController {
         return ResponseEntity.ok(orders);
     }
 
+    @GetMapping(params = "cursor")
+    public ResponseEntity<OrdersPage> getOrderHistoryAfter(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean approximateTotal,
+            Principal principal
+    ) {
+        log.info("Request from user {} to get order history. Cursor: {}, Size: {}", principal.getName(), cursor, size);
+        OrdersPage orders = orderService.getUserOrders(principal.getName(), new CursorPageRequest(cursor, size, approximateTotal));
+        log.info("Successfully fetched order history for user {}. Has next: {}", principal.getName(), orders.getPage().getHasNext());
+        return ResponseEntity.ok(orders);
+    }
+
     @GetMapping("/{orderId}")
     public ResponseEntity<OrderDto> getOrderDetails(
             @PathVariable("orderId") Long orderId,
@@ -0,0 +1,23 @@
+package com.ecommerce.backend.modules.order.dto;
+
+import com.ecommerce.backend.modules.order.entity.OrderStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+public class BulkOrderStatusUpdateRequest implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotEmpty(message = "Order ids cannot be empty")
+    @Size(max = 10000, message = "No more than 10000 orders can be updated at once")
+    private List<@NotNull Long> orderIds;
+
+    @NotNull(message = "Status cannot be empty")
+    private OrderStatus status;
+}
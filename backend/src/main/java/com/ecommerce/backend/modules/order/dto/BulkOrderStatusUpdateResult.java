@@ -0,0 +1,53 @@
+package com.ecommerce.backend.modules.order.dto;
+
+import com.ecommerce.backend.modules.order.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderStatusUpdateResult implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private OrderStatus status;
+    private int updated;
+    private int failed;
+    private List<Item> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private Long orderId;
+        private Outcome outcome;
+        /**
+         * Status of the order before the update, {@code null} if it was not found.
+         */
+        private OrderStatus previousStatus;
+    }
+
+    public enum Outcome {
+        UPDATED,
+        /**
+         * The order already had the requested status.
+         */
+        UNCHANGED,
+        NOT_FOUND,
+        INVALID_TRANSITION,
+        /**
+         * The order changed status between validation and update; retry it.
+         */
+        CONFLICT
+    }
+}
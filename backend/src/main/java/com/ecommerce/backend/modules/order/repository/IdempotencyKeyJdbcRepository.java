@@ -0,0 +1,51 @@
+package com.ecommerce.backend.modules.order.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyKeyJdbcRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO idempotency_keys (user_email, idempotency_key, request_hash, order_id, response)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (user_email, idempotency_key) DO NOTHING
+            """;
+
+    private static final String FIND_SQL = """
+            SELECT request_hash, response
+            FROM idempotency_keys
+            WHERE user_email = ? AND idempotency_key = ?
+            """;
+
+    private static final String DELETE_EXPIRED_SQL = """
+            DELETE FROM idempotency_keys
+            WHERE created_at < CURRENT_TIMESTAMP - ? * INTERVAL '1 millisecond'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @return {@code false} if the key is already stored, in which case nothing is written
+     */
+    public boolean insert(String userEmail, String idempotencyKey, String requestHash, Long orderId, String response) {
+        return jdbcTemplate.update(INSERT_SQL, userEmail, idempotencyKey, requestHash, orderId, response) > 0;
+    }
+
+    public Optional<StoredResponse> find(String userEmail, String idempotencyKey) {
+        return jdbcTemplate.query(FIND_SQL,
+                (rs, rowNum) -> new StoredResponse(rs.getString("request_hash"), rs.getString("response")),
+                userEmail, idempotencyKey).stream().findFirst();
+    }
+
+    public int deleteOlderThan(long retentionMs) {
+        return jdbcTemplate.update(DELETE_EXPIRED_SQL, retentionMs);
+    }
+
+    public record StoredResponse(String requestHash, String response) {
+    }
+}
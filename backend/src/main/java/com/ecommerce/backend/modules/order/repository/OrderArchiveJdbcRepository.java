@@ -0,0 +1,102 @@
+package com.ecommerce.backend.modules.order.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Moves finished orders from {@code orders} into the monthly partitions of {@code orders_archive}. Their
+ * {@code order_views} rows are deleted with them, so the read model only holds orders that are not archived.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderArchiveJdbcRepository {
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    // Orders with flash sale reservations not yet applied to inventory wait for a later run
+    private static final String FIND_COLD_SQL = """
+            SELECT o.id, o.created_at
+            FROM orders o
+            WHERE o.status IN ('DELIVERED', 'CANCELLED') AND o.created_at < ?
+              AND NOT EXISTS (SELECT 1 FROM order_reservations r WHERE r.order_id = o.id AND NOT r.reconciled)
+            ORDER BY o.created_at
+            LIMIT ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String ARCHIVE_SQL = """
+            INSERT INTO orders_archive (order_id, user_id, user_email, status, total_amount, shipping_street,
+                                        shipping_city, shipping_postal_code, comment, items, created_at, updated_at)
+            SELECT order_id, user_id, user_email, status, total_amount, shipping_street,
+                   shipping_city, shipping_postal_code, comment, items, created_at, updated_at
+            FROM order_views
+            WHERE order_id IN (%s)
+            RETURNING order_id
+            """;
+
+    private static final String DELETE_ITEMS_SQL = "DELETE FROM order_items WHERE order_id IN (%s)";
+
+    // Cascades to order_views and reservation_deadlines
+    private static final String DELETE_ORDERS_SQL = """
+            WITH deleted AS (
+                DELETE FROM orders WHERE id IN (%s) RETURNING id
+            )
+            DELETE FROM order_reservations WHERE order_id IN (SELECT id FROM deleted)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Locks the oldest DELIVERED or CANCELLED orders created before the cutoff, skipping orders locked by
+     * an update in progress.
+     */
+    public List<ColdOrder> lockColdOrders(LocalDateTime createdBefore, int limit) {
+        return jdbcTemplate.query(FIND_COLD_SQL,
+                (rs, rowNum) -> new ColdOrder(rs.getLong("id"), rs.getTimestamp("created_at").toLocalDateTime()),
+                Timestamp.valueOf(createdBefore), limit);
+    }
+
+    public void createPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS %s PARTITION OF orders_archive FOR VALUES FROM ('%s') TO ('%s')"
+                .formatted("orders_archive_" + month.format(PARTITION_SUFFIX), month.atDay(1), month.plusMonths(1).atDay(1)));
+    }
+
+    /**
+     * Copies the orders to the archive and deletes them with their items, views and stock reservations. Orders
+     * without a view are left in place.
+     *
+     * @return ids of the archived orders
+     */
+    public List<Long> archive(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        List<Long> archived = jdbcTemplate.query(ARCHIVE_SQL.formatted(placeholders(orderIds.size())),
+                (rs, rowNum) -> rs.getLong("order_id"),
+                orderIds.toArray());
+        if (archived.isEmpty()) {
+            return archived;
+        }
+
+        Object[] archivedIds = archived.toArray();
+        jdbcTemplate.update(DELETE_ITEMS_SQL.formatted(placeholders(archivedIds.length)), archivedIds);
+        jdbcTemplate.update(DELETE_ORDERS_SQL.formatted(placeholders(archivedIds.length)), archivedIds);
+        return archived;
+    }
+
+    private String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    public record ColdOrder(Long id, LocalDateTime createdAt) {
+    }
+}
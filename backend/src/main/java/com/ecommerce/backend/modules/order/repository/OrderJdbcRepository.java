@@ -0,0 +1,66 @@
+package com.ecommerce.backend.modules.order.repository;
+
+import com.ecommerce.backend.modules.order.entity.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class OrderJdbcRepository {
+
+    private static final String CANCEL_PENDING_SQL = """
+            UPDATE orders
+            SET status = 'CANCELLED', updated_at = CURRENT_TIMESTAMP
+            WHERE status = 'PENDING' AND id IN (%s)
+            RETURNING id
+            """;
+
+    private static final String TRANSITION_SQL = """
+            UPDATE orders
+            SET status = ?, updated_at = CURRENT_TIMESTAMP
+            WHERE status = ? AND id IN (%s)
+            RETURNING id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Cancels those of the given orders that are still PENDING in one statement.
+     *
+     * @return ids of the cancelled orders
+     */
+    public List<Long> cancelPending(Collection<Long> orderIds) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(
+                CANCEL_PENDING_SQL.formatted(String.join(", ", Collections.nCopies(orderIds.size(), "?"))),
+                (rs, rowNum) -> rs.getLong("id"),
+                orderIds.toArray());
+    }
+
+    /**
+     * Moves those of the given orders that are still in {@code from} to {@code to} in one statement.
+     *
+     * @return ids of the updated orders
+     */
+    public List<Long> transition(Collection<Long> orderIds, OrderStatus from, OrderStatus to) {
+        if (orderIds.isEmpty()) {
+            return List.of();
+        }
+        List<Object> args = new ArrayList<>(orderIds.size() + 2);
+        args.add(to.name());
+        args.add(from.name());
+        args.addAll(orderIds);
+        return jdbcTemplate.query(
+                TRANSITION_SQL.formatted(String.join(", ", Collections.nCopies(orderIds.size(), "?"))),
+                (rs, rowNum) -> rs.getLong("id"),
+                args.toArray());
+    }
+}
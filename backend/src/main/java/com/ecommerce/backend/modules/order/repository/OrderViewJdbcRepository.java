@@ -0,0 +1,256 @@
+package com.ecommerce.backend.modules.order.repository;
+
+import com.ecommerce.backend.modules.order.dto.OrderDto;
+import com.ecommerce.backend.modules.order.dto.OrderItemDto;
+import com.ecommerce.backend.modules.order.entity.OrderStatus;
+import com.ecommerce.backend.shared.dto.AddressDto;
+import com.ecommerce.backend.shared.exception.SystemException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Reads and writes {@code order_views}, the denormalized order read model. Every page is one indexed range
+ * scan on {@code order_id DESC}; no entities or lazy associations are involved.
+ * <p>
+ * Orders moved out by the archival job leave {@code order_views} and are read from {@code orders_archive}, which
+ * keeps the same columns and indexes. Pages, counts and the stream merge both tables; single orders are looked
+ * up in the archive separately, only when they are not in the read model.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderViewJdbcRepository {
+
+    private static final String COLUMNS = """
+            order_id, user_id, user_email, status, total_amount, shipping_street, shipping_city,
+            shipping_postal_code, comment, items, created_at, updated_at
+            """;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO order_views (order_id, user_id, user_email, status, total_amount, shipping_street,
+                                     shipping_city, shipping_postal_code, comment, items, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS JSONB), COALESCE(?, CURRENT_TIMESTAMP), CURRENT_TIMESTAMP)
+            ON CONFLICT (order_id) DO UPDATE
+            SET status = EXCLUDED.status,
+                total_amount = EXCLUDED.total_amount,
+                comment = EXCLUDED.comment,
+                items = EXCLUDED.items,
+                updated_at = CURRENT_TIMESTAMP
+            """;
+
+    private static final String FIND_BY_ID_SQL = "SELECT " + COLUMNS + " FROM order_views WHERE order_id = ?";
+
+    private static final String FIND_BY_ID_AND_USER_SQL =
+            "SELECT " + COLUMNS + " FROM order_views WHERE order_id = ? AND user_email = ?";
+
+    // Each table is cut to the rows the page can reach before the two are merged
+    private static final String PAGE_SQL = """
+            SELECT *
+            FROM ((SELECT %1$s FROM order_views WHERE %2$s ORDER BY order_id DESC LIMIT ?)
+                  UNION ALL
+                  (SELECT %1$s FROM orders_archive WHERE %2$s ORDER BY order_id DESC LIMIT ?)) merged
+            ORDER BY order_id DESC
+            LIMIT ? OFFSET ?
+            """;
+
+    private static final String FIND_BY_USER_SQL = PAGE_SQL.formatted(COLUMNS, "user_email = ? AND order_id < ?");
+    private static final String FIND_ALL_SQL = PAGE_SQL.formatted(COLUMNS, "order_id < ?");
+    private static final String FIND_BY_STATUS_SQL = PAGE_SQL.formatted(COLUMNS, "status = ? AND order_id < ?");
+
+    private static final String FIND_ARCHIVED_BY_ID_SQL = "SELECT " + COLUMNS + " FROM orders_archive WHERE order_id = ?";
+
+    private static final String FIND_ARCHIVED_BY_ID_AND_USER_SQL =
+            "SELECT " + COLUMNS + " FROM orders_archive WHERE order_id = ? AND user_email = ?";
+
+    private static final String COUNT_SQL = """
+            SELECT (SELECT COUNT(*) FROM order_views WHERE %1$s) + (SELECT COUNT(*) FROM orders_archive WHERE %1$s)
+            """;
+
+    private static final String COUNT_BY_USER_SQL = COUNT_SQL.formatted("user_email = ?");
+    private static final String COUNT_ALL_SQL = COUNT_SQL.formatted("TRUE");
+    private static final String COUNT_BY_STATUS_SQL = COUNT_SQL.formatted("status = ?");
+
+    private static final String STREAM_SQL = """
+            SELECT *
+            FROM (SELECT %1$s FROM order_views WHERE %2$s
+                  UNION ALL
+                  SELECT %1$s FROM orders_archive WHERE %2$s) merged
+            ORDER BY order_id
+            """;
+
+    private static final TypeReference<List<OrderItemDto>> ITEMS_TYPE = new TypeReference<>() {
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Inserts the views of new orders and refreshes the mutable fields of existing ones.
+     */
+    public void upsert(Collection<OrderDto> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        List<Object[]> batchArgs = orders.stream()
+                .map(order -> new Object[]{
+                        order.getId(),
+                        order.getUserId(),
+                        order.getUserEmail(),
+                        order.getOrderStatus().name(),
+                        order.getTotalAmount(),
+                        order.getAddress().getShippingStreet(),
+                        order.getAddress().getShippingCity(),
+                        order.getAddress().getShippingPostalCode(),
+                        order.getComment(),
+                        writeItems(order.getItems()),
+                        order.getCreatedAt() != null ? Timestamp.valueOf(order.getCreatedAt()) : null
+                })
+                .toList();
+        jdbcTemplate.batchUpdate(UPSERT_SQL, batchArgs);
+    }
+
+    public Optional<OrderDto> findById(Long orderId) {
+        return jdbcTemplate.query(FIND_BY_ID_SQL, rowMapper(), orderId).stream().findFirst();
+    }
+
+    public Optional<OrderDto> findByIdAndUserEmail(Long orderId, String userEmail) {
+        return jdbcTemplate.query(FIND_BY_ID_AND_USER_SQL, rowMapper(), orderId, userEmail).stream().findFirst();
+    }
+
+    public Optional<OrderDto> findArchivedById(Long orderId) {
+        return jdbcTemplate.query(FIND_ARCHIVED_BY_ID_SQL, rowMapper(), orderId).stream().findFirst();
+    }
+
+    public Optional<OrderDto> findArchivedByIdAndUserEmail(Long orderId, String userEmail) {
+        return jdbcTemplate.query(FIND_ARCHIVED_BY_ID_AND_USER_SQL, rowMapper(), orderId, userEmail).stream().findFirst();
+    }
+
+    /**
+     * @param beforeOrderId exclusive upper bound of the order ids, {@link Long#MAX_VALUE} for the newest orders
+     */
+    public List<OrderDto> findByUserEmail(String userEmail, Long beforeOrderId, int limit, long offset) {
+        return findPage(FIND_BY_USER_SQL, List.of(userEmail, beforeOrderId), limit, offset);
+    }
+
+    /**
+     * @param status        only orders in this status, or all orders if {@code null}
+     * @param beforeOrderId exclusive upper bound of the order ids, {@link Long#MAX_VALUE} for the newest orders
+     */
+    public List<OrderDto> findAll(OrderStatus status, Long beforeOrderId, int limit, long offset) {
+        if (status == null) {
+            return findPage(FIND_ALL_SQL, List.of(beforeOrderId), limit, offset);
+        }
+        return findPage(FIND_BY_STATUS_SQL, List.of(status.name(), beforeOrderId), limit, offset);
+    }
+
+    public long countByUserEmail(String userEmail) {
+        return jdbcTemplate.queryForObject(COUNT_BY_USER_SQL, Long.class, userEmail, userEmail);
+    }
+
+    public long count(OrderStatus status) {
+        if (status == null) {
+            return jdbcTemplate.queryForObject(COUNT_ALL_SQL, Long.class);
+        }
+        return jdbcTemplate.queryForObject(COUNT_BY_STATUS_SQL, Long.class, status.name(), status.name());
+    }
+
+    /**
+     * Passes every matching order to the consumer as it is read, through a forward-only cursor that holds at most
+     * {@code fetchSize} rows. Postgres only uses a cursor inside a transaction, so the caller must open one.
+     *
+     * @param status only orders in this status, or all orders if {@code null}
+     * @param from   inclusive lower bound of the creation time, or {@code null}
+     * @param to     exclusive upper bound of the creation time, or {@code null}
+     */
+    public void stream(OrderStatus status, LocalDateTime from, LocalDateTime to, int fetchSize, Consumer<OrderDto> consumer) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (status != null) {
+            conditions.add("status = ?");
+            args.add(status.name());
+        }
+        if (from != null) {
+            conditions.add("created_at >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            conditions.add("created_at < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        String sql = STREAM_SQL.formatted(COLUMNS, conditions.isEmpty() ? "TRUE" : String.join(" AND ", conditions));
+        // The conditions are repeated for the archive
+        args.addAll(List.copyOf(args));
+
+        RowMapper<OrderDto> rowMapper = rowMapper();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(rowMapper.mapRow(rs, rs.getRow())));
+    }
+
+    private List<OrderDto> findPage(String sql, List<Object> conditionArgs, int limit, long offset) {
+        long reachable = limit + offset;
+        List<Object> args = new ArrayList<>(conditionArgs);
+        args.add(reachable);
+        args.addAll(conditionArgs);
+        args.add(reachable);
+        args.add(limit);
+        args.add(offset);
+        return jdbcTemplate.query(sql, rowMapper(), args.toArray());
+    }
+
+    private RowMapper<OrderDto> rowMapper() {
+        return (rs, rowNum) -> OrderDto.builder()
+                .id(rs.getLong("order_id"))
+                .userId(rs.getLong("user_id"))
+                .userEmail(rs.getString("user_email"))
+                .orderStatus(OrderStatus.valueOf(rs.getString("status")))
+                .totalAmount(rs.getBigDecimal("total_amount"))
+                .address(AddressDto.builder()
+                        .shippingStreet(rs.getString("shipping_street"))
+                        .shippingCity(rs.getString("shipping_city"))
+                        .shippingPostalCode(rs.getString("shipping_postal_code"))
+                        .build())
+                .comment(rs.getString("comment"))
+                .items(readItems(rs.getString("items")))
+                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                .updatedAt(rs.getTimestamp("updated_at").toLocalDateTime())
+                .build();
+    }
+
+    private String writeItems(List<OrderItemDto> items) {
+        try {
+            return objectMapper.writeValueAsString(items);
+        } catch (JsonProcessingException e) {
+            throw new SystemException("Failed to write order view items", e);
+        }
+    }
+
+    private List<OrderItemDto> readItems(String items) {
+        try {
+            return objectMapper.readValue(items, ITEMS_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new SystemException("Failed to read order view items", e);
+        }
+    }
+}
@@ -1,20 +1,20 @@
 package com.ecommerce.backend.modules.order.repository;
 
 import com.ecommerce.backend.modules.order.entity.Order;
-import com.ecommerce.backend.modules.order.entity.OrderStatus;
 import com.ecommerce.backend.modules.user.entity.User;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface OrdersRepository extends JpaRepository<Order, Long> {
-    Page<Order> findByUser(User user, Pageable pageable);
-
     Optional<Order> findByIdAndUser(Long id, User user);
 
-    Page<Order> findByStatus(OrderStatus status, Pageable pageable);
+    @Query("SELECT DISTINCT o FROM Order o JOIN FETCH o.user LEFT JOIN FETCH o.items WHERE o.id IN :ids")
+    List<Order> findAllWithItemsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,91 @@
+package com.ecommerce.backend.modules.order.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Repository
+@RequiredArgsConstructor
+public class UserOrderStatsJdbcRepository {
+
+    private static final String RECORD_ORDER_SQL = """
+            INSERT INTO user_order_stats (user_id, order_count, total_spent, last_order_at)
+            VALUES (?, 1, ?, CURRENT_TIMESTAMP)
+            ON CONFLICT (user_id) DO UPDATE
+            SET order_count = user_order_stats.order_count + 1,
+                total_spent = user_order_stats.total_spent + EXCLUDED.total_spent,
+                last_order_at = EXCLUDED.last_order_at,
+                updated_at = CURRENT_TIMESTAMP
+            """;
+
+    private static final String RECORD_CANCELLATION_SQL = """
+            UPDATE user_order_stats
+            SET total_spent = GREATEST(total_spent - ?, 0),
+                updated_at = CURRENT_TIMESTAMP
+            WHERE user_id = ?
+            """;
+
+    private static final String FIND_BY_USER_IDS_SQL = """
+            SELECT user_id, order_count, total_spent, last_order_at
+            FROM user_order_stats
+            WHERE user_id IN (%s)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void recordOrder(Long userId, BigDecimal totalAmount) {
+        jdbcTemplate.update(RECORD_ORDER_SQL, userId, totalAmount);
+    }
+
+    /**
+     * Takes cancelled orders out of the spend of their users. The order count keeps them. Rows are updated in
+     * user id order, so concurrent batches with overlapping users cannot deadlock each other.
+     *
+     * @param cancelledAmounts amount of the cancelled orders per user
+     */
+    public void recordCancellations(Map<Long, BigDecimal> cancelledAmounts) {
+        if (cancelledAmounts.isEmpty()) {
+            return;
+        }
+        List<Object[]> batchArgs = new TreeMap<>(cancelledAmounts).entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                .toList();
+        jdbcTemplate.batchUpdate(RECORD_CANCELLATION_SQL, batchArgs);
+    }
+
+    /**
+     * @return stats per user; users without orders are missing from the map
+     */
+    public Map<Long, UserOrderStats> findByUserIds(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+        return jdbcTemplate.query(
+                        FIND_BY_USER_IDS_SQL.formatted(String.join(", ", Collections.nCopies(userIds.size(), "?"))),
+                        (rs, rowNum) -> {
+                            Timestamp lastOrderAt = rs.getTimestamp("last_order_at");
+                            return new UserOrderStats(
+                                    rs.getLong("user_id"),
+                                    rs.getInt("order_count"),
+                                    rs.getBigDecimal("total_spent"),
+                                    lastOrderAt != null ? lastOrderAt.toLocalDateTime() : null);
+                        },
+                        userIds.toArray())
+                .stream()
+                .collect(Collectors.toMap(UserOrderStats::userId, Function.identity()));
+    }
+
+    public record UserOrderStats(Long userId, int orderCount, BigDecimal totalSpent, LocalDateTime lastOrderAt) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.ecommerce.backend.modules.order.service;
+
+import com.ecommerce.backend.modules.cart.entity.Cart;
+import com.ecommerce.backend.modules.cart.entity.CartItem;
+import com.ecommerce.backend.modules.product.entity.Product;
+import com.ecommerce.backend.modules.product.repository.ProductRepository;
+import com.ecommerce.backend.shared.exception.BusinessException;
+import com.ecommerce.backend.shared.exception.ResourceNotFoundException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Prices a cart for checkout in one pass over its items. Products come with the cart when it was loaded with
+ * {@code findByUserIdWithItems}; any that were not are loaded with one batched query.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CheckoutPricingService {
+
+    private final ProductRepository productRepository;
+    private final MeterRegistry meterRegistry;
+
+    private Counter priceDrifts;
+
+    @PostConstruct
+    void init() {
+        priceDrifts = Counter.builder("checkout.price.drift")
+                .description("Cart items whose price changed between adding them to the cart and checkout")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws BusinessException if a product is unavailable
+     */
+    public Quote price(Cart cart) {
+        Map<Long, Product> products = loadProducts(cart.getItems());
+
+        List<Line> lines = new ArrayList<>(cart.getItems().size());
+        List<PriceDrift> drifts = new ArrayList<>();
+        BigDecimal total = BigDecimal.ZERO;
+        for (CartItem item : cart.getItems()) {
+            Product product = products.get(item.getProduct().getId());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found with id: " + item.getProduct().getId());
+            }
+            if (!product.getAvailable()) {
+                throw new BusinessException("Product unavailable " + product.getName(), "PRODUCT_UNAVAILABLE");
+            }
+
+            BigDecimal lineTotal = product.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
+            lines.add(new Line(product, item.getQuantity(), product.getPrice(), lineTotal));
+            total = total.add(lineTotal);
+
+            if (item.getPriceSnapshot() != null && item.getPriceSnapshot().compareTo(product.getPrice()) != 0) {
+                drifts.add(new PriceDrift(product.getId(), item.getPriceSnapshot(), product.getPrice()));
+            }
+        }
+
+        if (!drifts.isEmpty()) {
+            priceDrifts.increment(drifts.size());
+            log.warn("Prices changed since items were added to cart {}: {}", cart.getId(), drifts);
+        }
+        return new Quote(lines, total, drifts);
+    }
+
+    private Map<Long, Product> loadProducts(List<CartItem> items) {
+        Map<Long, Product> products = new HashMap<>();
+        items.stream()
+                .map(CartItem::getProduct)
+                .filter(Hibernate::isInitialized)
+                .forEach(product -> products.put(product.getId(), product));
+
+        Set<Long> missing = items.stream()
+                .map(item -> item.getProduct().getId())
+                .filter(productId -> !products.containsKey(productId))
+                .collect(Collectors.toSet());
+        if (!missing.isEmpty()) {
+            productRepository.findAllById(missing).forEach(product -> products.put(product.getId(), product));
+        }
+        return products;
+    }
+
+    public record Quote(List<Line> lines, BigDecimal total, List<PriceDrift> priceDrifts) {
+    }
+
+    public record Line(Product product, int quantity, BigDecimal unitPrice, BigDecimal lineTotal) {
+    }
+
+    public record PriceDrift(Long productId, BigDecimal cartPrice, BigDecimal currentPrice) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.backend.modules.order.service;
+
+import com.ecommerce.backend.modules.order.config.OrderProps;
+import com.ecommerce.backend.modules.order.repository.OrderArchiveJdbcRepository;
+import com.ecommerce.backend.shared.scheduling.ScheduledJobLock;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Moves DELIVERED and CANCELLED orders older than {@code order.archive.after-days} out of the hot order tables
+ * into the monthly partitions of {@code orders_archive}, a batch per transaction. Their {@code order_views} rows
+ * go with them; the order reads fall back to the archive, so customers, admins and the export see archived orders
+ * as before.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderArchiveService {
+
+    private static final String JOB_NAME = "order-archive";
+
+    private final OrderArchiveJdbcRepository orderArchiveJdbcRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ScheduledJobLock scheduledJobLock;
+    private final OrderProps orderProps;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${order.archive.cron:0 0 4 * * *}")
+    public void archiveColdOrders() {
+        scheduledJobLock.runLocked(JOB_NAME, Duration.ofHours(1), () -> {
+            LocalDateTime cutoff = LocalDateTime.now().minusDays(orderProps.getArchive().getAfterDays());
+            int batchSize = orderProps.getArchive().getBatchSize();
+            long archived = 0;
+            int batch;
+            do {
+                batch = transactionTemplate.execute(status -> archiveBatch(cutoff, batchSize));
+                archived += batch;
+            } while (batch == batchSize);
+            log.info("Archived {} orders created before {}", archived, cutoff);
+        });
+    }
+
+    /**
+     * @return number of orders archived, which is less than {@code batchSize} once none are left
+     */
+    int archiveBatch(LocalDateTime cutoff, int batchSize) {
+        List<OrderArchiveJdbcRepository.ColdOrder> coldOrders = orderArchiveJdbcRepository.lockColdOrders(cutoff, batchSize);
+        if (coldOrders.isEmpty()) {
+            return 0;
+        }
+
+        coldOrders.stream()
+                .map(order -> YearMonth.from(order.createdAt()))
+                .distinct()
+                .forEach(orderArchiveJdbcRepository::createPartition);
+
+        List<Long> archived = orderArchiveJdbcRepository.archive(
+                coldOrders.stream().map(OrderArchiveJdbcRepository.ColdOrder::id).toList());
+        if (archived.size() < coldOrders.size()) {
+            log.warn("{} of {} cold orders have no view and were not archived", coldOrders.size() - archived.size(), coldOrders.size());
+        }
+        return archived.size();
+    }
+}
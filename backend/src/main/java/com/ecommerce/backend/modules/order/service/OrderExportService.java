@@ -0,0 +1,135 @@
+package com.ecommerce.backend.modules.order.service;
+
+import com.ecommerce.backend.modules.order.config.OrderProps;
+import com.ecommerce.backend.modules.order.dto.OrderDto;
+import com.ecommerce.backend.modules.order.dto.OrderItemDto;
+import com.ecommerce.backend.modules.order.entity.OrderStatus;
+import com.ecommerce.backend.modules.order.repository.OrderViewJdbcRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams orders with their items from the order read model straight to the response. Rows come through a
+ * JDBC cursor and are written as they arrive, so memory use does not depend on the size of the export.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderExportService {
+
+    private static final String CSV_HEADER = "order_id,created_at,status,user_email,total_amount,shipping_street,"
+            + "shipping_city,shipping_postal_code,product_id,product_name,quantity,price_at_time\n";
+
+    private final OrderViewJdbcRepository orderViewJdbcRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final OrderProps orderProps;
+    private final ObjectMapper objectMapper;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * @param from inclusive first day of the creation date, or {@code null}
+     * @param to   inclusive last day of the creation date, or {@code null}
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public void export(OrderStatus status, LocalDate from, LocalDate to, Format format, boolean gzip,
+                       OutputStream output) throws IOException {
+        log.info("Exporting orders in {} format. Status: {}. From: {}. To: {}. Gzip: {}", format, status, from, to, gzip);
+        OutputStream target = gzip ? new GZIPOutputStream(output) : output;
+        Writer writer = new OutputStreamWriter(target, StandardCharsets.UTF_8);
+        if (format == Format.CSV) {
+            writer.write(CSV_HEADER);
+        }
+
+        AtomicLong exported = new AtomicLong();
+        try {
+            transactionTemplate.executeWithoutResult(transactionStatus -> orderViewJdbcRepository.stream(
+                    status,
+                    from != null ? from.atStartOfDay() : null,
+                    to != null ? to.plusDays(1).atStartOfDay() : null,
+                    orderProps.getExport().getFetchSize(),
+                    order -> {
+                        try {
+                            write(writer, order, format);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        exported.incrementAndGet();
+                    }));
+        } catch (UncheckedIOException e) {
+            log.warn("Order export aborted after {} orders. Error: {}", exported.get(), e.getMessage());
+            throw e.getCause();
+        }
+
+        writer.flush();
+        if (target instanceof GZIPOutputStream gzipOutput) {
+            gzipOutput.finish();
+        }
+        log.info("Exported {} orders", exported.get());
+    }
+
+    private void write(Writer writer, OrderDto order, Format format) throws IOException {
+        if (format == Format.NDJSON) {
+            writer.write(objectMapper.writeValueAsString(order));
+            writer.write('\n');
+            return;
+        }
+
+        String orderColumns = String.join(",",
+                String.valueOf(order.getId()),
+                String.valueOf(order.getCreatedAt()),
+                order.getOrderStatus().name(),
+                csv(order.getUserEmail()),
+                order.getTotalAmount().toPlainString(),
+                csv(order.getAddress().getShippingStreet()),
+                csv(order.getAddress().getShippingCity()),
+                csv(order.getAddress().getShippingPostalCode()));
+        for (OrderItemDto item : order.getItems()) {
+            writer.write(orderColumns);
+            writer.write(',');
+            writer.write(String.join(",",
+                    String.valueOf(item.getProductId()),
+                    csv(item.getProductName()),
+                    String.valueOf(item.getQuantity()),
+                    item.getPriceAtTime().toPlainString()));
+            writer.write('\n');
+        }
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+}
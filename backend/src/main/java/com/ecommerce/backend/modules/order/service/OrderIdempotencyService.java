@@ -0,0 +1,247 @@
+package com.ecommerce.backend.modules.order.service;
+
+import com.ecommerce.backend.modules.order.config.OrderProps;
+import com.ecommerce.backend.modules.order.dto.CreateOrderRequest;
+import com.ecommerce.backend.modules.order.dto.OrderDto;
+import com.ecommerce.backend.modules.order.repository.IdempotencyKeyJdbcRepository;
+import com.ecommerce.backend.shared.exception.BusinessException;
+import com.ecommerce.backend.shared.exception.ConflictException;
+import com.ecommerce.backend.shared.exception.SystemException;
+import com.ecommerce.backend.shared.exception.ValidationException;
+import com.ecommerce.backend.shared.scheduling.ScheduledJobLock;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deduplicates order creation by the client's {@code Idempotency-Key}. The response of the first request is
+ * stored in Postgres in the same transaction as the order, which makes a second order for the key impossible,
+ * and cached in Redis for fast replays. A Redis lock makes concurrent duplicates wait for the first request
+ * instead of running the checkout again; without Redis they still end up replaying the stored response.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrderIdempotencyService {
+
+    private static final String KEY_PREFIX = "idempotency:order:";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final RedisScript<Long> UNLOCK_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('get', KEYS[1]) == ARGV[1] then
+                return redis.call('del', KEYS[1])
+            end
+            return 0
+            """, Long.class);
+
+    private final OrderService orderService;
+    private final IdempotencyKeyJdbcRepository idempotencyKeyJdbcRepository;
+    private final RedisTemplate<String, String> redisTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final ScheduledJobLock scheduledJobLock;
+    private final OrderProps orderProps;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private TransactionTemplate transactionTemplate;
+    private Counter replays;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        replays = Counter.builder("order.idempotency.replays")
+                .description("Order creation requests answered with the stored response of an earlier request")
+                .register(meterRegistry);
+    }
+
+    public OrderDto createOrder(String userEmail, String idempotencyKey, CreateOrderRequest request) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ValidationException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        log.info("Creating order for user: {} with idempotency key: {}", userEmail, idempotencyKey);
+        String scope = userEmail + ":" + idempotencyKey;
+        String requestHash = hash(request);
+        OrderProps.Idempotency props = orderProps.getIdempotency();
+        long deadline = System.currentTimeMillis() + props.getWaitTimeoutMs();
+
+        while (true) {
+            String cached = readCache(scope);
+            if (cached != null) {
+                return replay(idempotencyKey, requestHash, parseStored(cached));
+            }
+
+            String token = UUID.randomUUID().toString();
+            Boolean locked = tryLock(scope, token, props.getLockTtlMs());
+            if (!Boolean.FALSE.equals(locked)) {
+                try {
+                    return createOnce(userEmail, idempotencyKey, scope, requestHash, request);
+                } finally {
+                    if (locked != null) {
+                        unlock(scope, token);
+                    }
+                }
+            }
+
+            if (System.currentTimeMillis() >= deadline) {
+                log.warn("Gave up waiting for in-flight order request of user: {} with idempotency key: {}", userEmail, idempotencyKey);
+                throw new ConflictException("A request with this Idempotency-Key is still being processed",
+                        "IDEMPOTENCY_KEY_IN_PROGRESS");
+            }
+            sleep(props.getPollIntervalMs());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${order.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        scheduledJobLock.runLocked("order-idempotency-purge", Duration.ofMinutes(10), () -> {
+            int deleted = idempotencyKeyJdbcRepository.deleteOlderThan(orderProps.getIdempotency().getRetentionMs());
+            if (deleted > 0) {
+                log.info("Purged {} expired idempotency keys", deleted);
+            }
+        });
+    }
+
+    private OrderDto createOnce(String userEmail, String idempotencyKey, String scope, String requestHash,
+                                CreateOrderRequest request) {
+        IdempotencyKeyJdbcRepository.StoredResponse existing =
+                idempotencyKeyJdbcRepository.find(userEmail, idempotencyKey).orElse(null);
+        if (existing != null) {
+            writeCache(scope, existing);
+            return replay(idempotencyKey, requestHash, existing);
+        }
+
+        IdempotencyKeyJdbcRepository.StoredResponse[] stored = new IdempotencyKeyJdbcRepository.StoredResponse[1];
+        OrderDto created = transactionTemplate.execute(status -> {
+            OrderDto order = orderService.createOrder(userEmail, request);
+            stored[0] = new IdempotencyKeyJdbcRepository.StoredResponse(requestHash, toJson(order));
+            if (!idempotencyKeyJdbcRepository.insert(userEmail, idempotencyKey, requestHash, order.getId(), stored[0].response())) {
+                status.setRollbackOnly();
+                return null;
+            }
+            return order;
+        });
+
+        if (created == null) {
+            log.info("Idempotency key: {} of user: {} was stored concurrently, discarding duplicate order", idempotencyKey, userEmail);
+            IdempotencyKeyJdbcRepository.StoredResponse winner = idempotencyKeyJdbcRepository.find(userEmail, idempotencyKey)
+                    .orElseThrow(() -> new SystemException("Idempotency key disappeared while creating order"));
+            writeCache(scope, winner);
+            return replay(idempotencyKey, requestHash, winner);
+        }
+        writeCache(scope, stored[0]);
+        return created;
+    }
+
+    private OrderDto replay(String idempotencyKey, String requestHash, IdempotencyKeyJdbcRepository.StoredResponse stored) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new BusinessException("Idempotency-Key was already used for a different request", "IDEMPOTENCY_KEY_REUSED");
+        }
+        replays.increment();
+        log.info("Replaying stored order response for idempotency key: {}", idempotencyKey);
+        try {
+            return objectMapper.readValue(stored.response(), OrderDto.class);
+        } catch (JsonProcessingException e) {
+            throw new SystemException("Failed to read stored order response", e);
+        }
+    }
+
+    /**
+     * @return whether the lock was taken, or {@code null} if Redis is unavailable
+     */
+    private Boolean tryLock(String scope, String token, long ttlMs) {
+        try {
+            return redisTemplate.opsForValue().setIfAbsent(lockKey(scope), token, Duration.ofMillis(ttlMs));
+        } catch (Exception e) {
+            log.warn("Failed to lock idempotency key in Redis, relying on Postgres only. Error: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void unlock(String scope, String token) {
+        try {
+            redisTemplate.execute(UNLOCK_SCRIPT, List.of(lockKey(scope)), token);
+        } catch (Exception e) {
+            log.warn("Failed to unlock idempotency key in Redis. Error: {}", e.getMessage());
+        }
+    }
+
+    private String readCache(String scope) {
+        try {
+            return redisTemplate.opsForValue().get(responseKey(scope));
+        } catch (Exception e) {
+            log.warn("Failed to read stored order response from Redis. Error: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeCache(String scope, IdempotencyKeyJdbcRepository.StoredResponse stored) {
+        try {
+            redisTemplate.opsForValue().set(responseKey(scope), objectMapper.writeValueAsString(stored),
+                    Duration.ofMillis(orderProps.getIdempotency().getRetentionMs()));
+        } catch (Exception e) {
+            log.warn("Failed to cache stored order response in Redis. Error: {}", e.getMessage());
+        }
+    }
+
+    private IdempotencyKeyJdbcRepository.StoredResponse parseStored(String value) {
+        try {
+            return objectMapper.readValue(value, IdempotencyKeyJdbcRepository.StoredResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new SystemException("Failed to read stored order response", e);
+        }
+    }
+
+    private String toJson(OrderDto order) {
+        try {
+            return objectMapper.writeValueAsString(order);
+        } catch (JsonProcessingException e) {
+            throw new SystemException("Failed to store order response", e);
+        }
+    }
+
+    private String hash(CreateOrderRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new SystemException("Failed to fingerprint order request", e);
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("A request with this Idempotency-Key is still being processed",
+                    "IDEMPOTENCY_KEY_IN_PROGRESS");
+        }
+    }
+
+    private String lockKey(String scope) {
+        return KEY_PREFIX + scope + ":lock";
+    }
+
+    private String responseKey(String scope) {
+        return KEY_PREFIX + scope;
+    }
+}
@@ -7,15 +7,18 @@ import com.ecommerce.backend.modules.cart.repository.CartRepository;
 import com.ecommerce.backend.modules.cart.service.CartService;
 import com.ecommerce.backend.modules.inventory.dto.InventoryUpdateRequest;
 import com.ecommerce.backend.modules.inventory.service.InventoryService;
+import com.ecommerce.backend.modules.order.config.OrderProps;
 import com.ecommerce.backend.modules.order.dto.*;
 import com.ecommerce.backend.modules.order.entity.Order;
 import com.ecommerce.backend.modules.order.entity.OrderItem;
 import com.ecommerce.backend.modules.order.entity.OrderStatus;
+import com.ecommerce.backend.modules.order.repository.OrderJdbcRepository;
+import com.ecommerce.backend.modules.order.repository.OrderViewJdbcRepository;
 import com.ecommerce.backend.modules.order.repository.OrdersRepository;
-import com.ecommerce.backend.modules.product.entity.Product;
-import com.ecommerce.backend.modules.product.repository.ProductRepository;
+import com.ecommerce.backend.modules.order.repository.UserOrderStatsJdbcRepository;
 import com.ecommerce.backend.modules.user.entity.User;
 import com.ecommerce.backend.modules.user.repository.UserRepository;
+import com.ecommerce.backend.shared.cache.CacheGenerations;
 import com.ecommerce.backend.shared.dto.AddressDto;
 import com.ecommerce.backend.shared.dto.PageInfo;
 import com.ecommerce.backend.shared.events.OrderCreatedEvent;
@@ -23,21 +26,36 @@ import com.ecommerce.backend.shared.events.OrderStatusChangedEvent;
 import com.ecommerce.backend.shared.exception.BusinessException;
 import com.ecommerce.backend.shared.exception.ResourceNotFoundException;
 import com.ecommerce.backend.shared.outbox.EventPublisher;
+import com.ecommerce.backend.shared.pagination.ApproximateCounter;
+import com.ecommerce.backend.shared.pagination.CursorPage;
+import com.ecommerce.backend.shared.pagination.CursorPageRequest;
+import com.ecommerce.backend.shared.pagination.PageCursor;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -45,15 +63,40 @@ import java.util.stream.Collectors;
 @Slf4j
 public class OrderService {
 
+    /**
+     * Statuses each status may move to; the table form of {@link #validateStatusTransition}, which checks single
+     * updates with a specific error per rule.
+     */
+    private static final Map<OrderStatus, Set<OrderStatus>> ALLOWED_TRANSITIONS = new EnumMap<>(Map.of(
+            OrderStatus.PENDING, EnumSet.of(OrderStatus.PENDING, OrderStatus.CONFIRMED, OrderStatus.CANCELLED),
+            OrderStatus.CONFIRMED, EnumSet.complementOf(EnumSet.of(OrderStatus.DELIVERED)),
+            OrderStatus.SHIPPED, EnumSet.allOf(OrderStatus.class),
+            OrderStatus.DELIVERED, EnumSet.complementOf(EnumSet.of(OrderStatus.DELIVERED)),
+            OrderStatus.CANCELLED, EnumSet.noneOf(OrderStatus.class)));
+
     private final OrdersRepository ordersRepository;
+    private final OrderJdbcRepository orderJdbcRepository;
+    private final OrderViewJdbcRepository orderViewJdbcRepository;
+    private final UserOrderStatsJdbcRepository userOrderStatsJdbcRepository;
     private final UserRepository userRepository;
-    private final ProductRepository productRepository;
+    private final CheckoutPricingService checkoutPricingService;
+    private final InventoryService inventoryService;
     private final CartService cartService;
     private final CartRepository cartRepository;
     private final EventPublisher eventPublisher;
+    private final ApproximateCounter approximateCounter;
+    private final OrderProps orderProps;
+    private final CacheGenerations cacheGenerations;
+    private final PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
 
     @Transactional
-    @CacheEvict(value = CacheConfig.CACHE_ORDERS, allEntries = true)
     public OrderDto createOrder(String userEmail, CreateOrderRequest request) {
         log.info("Creating order for user: {}. Request: {}", userEmail, request);
         User user = userRepository.findByEmail(userEmail)
@@ -62,6 +105,7 @@ public class OrderService {
                     return new ResourceNotFoundException("User not found with email: " + userEmail);
                 });
 
+        cartService.syncCart(user.getId());
         Cart cart = cartRepository.findByUserIdWithItems(user.getId())
                 .orElseThrow(() -> {
                     log.error("Cart not found for user with id: {} during order creation", user.getId());
@@ -73,35 +117,24 @@ public class OrderService {
             throw new BusinessException("Cannot create order with empty cart", "CREATE_CART_ERROR");
         }
 
-        cart.getItems().forEach(cartItem -> {
-            Product product = productRepository.findById(cartItem.getProduct().getId())
-                    .orElseThrow(() -> new ResourceNotFoundException(
-                            "Product not found with id: " + cartItem.getProduct().getId())
-                    );
-            if (!product.getAvailable()) {
-                throw new BusinessException("Product unavailable " + product.getName(), "PRODUCT_UNAVAILABLE");
-            }
-        });
+        CheckoutPricingService.Quote quote = checkoutPricingService.price(cart);
 
         Order order = Order.builder()
                 .user(user)
                 .status(OrderStatus.PENDING)
-                .totalAmount(calculateTotal(cart))
+                .totalAmount(quote.total())
                 .shippingStreet(request.getAddress().getShippingStreet())
                 .shippingCity(request.getAddress().getShippingCity())
                 .shippingPostalCode(request.getAddress().getShippingPostalCode())
                 .comment(request.getComment())
                 .build();
 
-        Map<Long, Integer> productQuantities = cart.getItems().stream()
-                .collect(Collectors.toMap(item -> item.getProduct().getId(), item -> item.getQuantity()));
-
-        cart.getItems().forEach(cartItem -> {
+        quote.lines().forEach(line -> {
             OrderItem orderItem = OrderItem.builder()
-                    .productId(cartItem.getProduct().getId())
-                    .productName(cartItem.getProduct().getName())
-                    .quantity(cartItem.getQuantity())
-                    .priceAtTime(cartItem.getProduct().getPrice())
+                    .productId(line.product().getId())
+                    .productName(line.product().getName())
+                    .quantity(line.quantity())
+                    .priceAtTime(line.unitPrice())
                     .build();
             order.addItem(orderItem);
         });
@@ -109,60 +142,55 @@ public class OrderService {
         Order savedOrder = ordersRepository.save(order);
         log.info("Successfully saved order with id: {}", savedOrder.getId());
 
+        if (orderProps.getCheckout().getReservationMode() == OrderProps.ReservationMode.SYNC) {
+            // Fails with the short lines and rolls the order back; the listener then finds the reservation and skips it
+            inventoryService.reserveProduct(savedOrder.getId(), quote.lines().stream()
+                    .collect(Collectors.toMap(line -> line.product().getId(), CheckoutPricingService.Line::quantity, Integer::sum)),
+                    userEmail);
+        }
+
         OrderCreatedEvent event = new OrderCreatedEvent(savedOrder);
         eventPublisher.publish(event, RabbitConfig.ORDER_EVENTS_EXCHANGE, "order.created");
 
         cartService.clearCart(user.getId());
+        userOrderStatsJdbcRepository.recordOrder(user.getId(), savedOrder.getTotalAmount());
 
-        return mapOrderToDto(savedOrder);
+        OrderDto orderDto = mapOrderToDto(savedOrder);
+        saveViews(List.of(orderDto));
+        return orderDto;
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.CACHE_ORDERS, key = "#userEmail + '_' + #pageable.pageNumber", condition = "#pageable.pageNumber == 0")
+    @Cacheable(value = CacheConfig.CACHE_ORDERS,
+            key = "#userEmail + ':' + @cacheGenerations.current('orders:' + #userEmail) + '_' + #pageable.pageNumber",
+            condition = "#pageable.pageNumber == 0")
     public OrdersPage getUserOrders(String userEmail, Pageable pageable) {
         log.info("Fetching orders for user: {}. Pageable: {}", userEmail, pageable);
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + userEmail));
-        Page<Order> ordersPage = ordersRepository.findByUser(user, pageable);
+        List<OrderDto> orders = orderViewJdbcRepository.findByUserEmail(
+                userEmail, Long.MAX_VALUE, pageable.getPageSize(), pageable.getOffset());
+        long total = orderViewJdbcRepository.countByUserEmail(userEmail);
 
-        log.info("Successfully fetched {} orders for user: {}", ordersPage.getTotalElements(), userEmail);
-        return OrdersPage.builder()
-                .content(ordersPage.getContent().stream()
-                        .map(this::mapOrderToDto)
-                        .collect(Collectors.toList())
-                )
-                .page(PageInfo.builder()
-                        .page(pageable.getPageNumber())
-                        .size(pageable.getPageSize())
-                        .totalElements(ordersPage.getTotalElements())
-                        .totalPages(ordersPage.getTotalPages())
-                        .build()
-                )
-                .build();
+        log.info("Successfully fetched {} orders for user: {}", total, userEmail);
+        return toOrdersPage(orders, pageable, total);
     }
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.CACHE_ORDERS, key = "'user:' + #userEmail + '_order:' + #orderId")
+    @Cacheable(value = CacheConfig.CACHE_ORDERS,
+            key = "'user:' + #userEmail + ':' + @cacheGenerations.current('orders:' + #userEmail) + '_order:' + #orderId")
     public OrderDto getOrderById(String userEmail, Long orderId) {
         log.info("Fetching order with id: {} for user: {}", orderId, userEmail);
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + userEmail));
-
-        Order order = ordersRepository.findByIdAndUser(orderId, user)
+        OrderDto order = orderViewJdbcRepository.findByIdAndUserEmail(orderId, userEmail)
+                .or(() -> orderViewJdbcRepository.findArchivedByIdAndUserEmail(orderId, userEmail))
                 .orElseThrow(() -> {
                     log.error("Order with id: {} not found for user: {}", orderId, userEmail);
                     return new ResourceNotFoundException("Order not found with id: " + orderId);
                 });
 
         log.info("Successfully fetched order with id: {} for user: {}", orderId, userEmail);
-        return mapOrderToDto(order);
+        return order;
     }
 
     @Transactional
-    @Caching(evict = {
-            @CacheEvict(value = CacheConfig.CACHE_ORDERS, allEntries = true),
-            @CacheEvict(value = CacheConfig.CACHE_ORDERS, key = "'user:' + #result.userEmail + '_order' + #orderId")
-    })
     public OrderDto closeOrder(String userEmail, Long orderId) {
         log.info("Closing order with id: {} for user: {}", orderId, userEmail);
         User user = userRepository.findByEmail(userEmail)
@@ -183,69 +211,132 @@ public class OrderService {
         OrderStatusChangedEvent event = new OrderStatusChangedEvent(mapOrderToEventDto(savedOrder), oldStatus);
         eventPublisher.publish(event, RabbitConfig.ORDER_EVENTS_EXCHANGE, "order.status.changed");
 
+        recordCancellations(List.of(savedOrder));
+        OrderDto orderDto = mapOrderToDto(savedOrder);
+        saveViews(List.of(orderDto));
         log.info("Successfully closed order with id: {}", orderId);
-        return mapOrderToDto(savedOrder);
+        return orderDto;
+    }
+
+    /**
+     * Cancels the given orders that are still PENDING because their stock reservation expired. Orders that have
+     * moved on in the meantime are left alone. The caller releases the reservations of the cancelled orders.
+     *
+     * @return ids of the cancelled orders
+     */
+    @Transactional
+    public List<Long> expirePendingOrders(Collection<Long> orderIds) {
+        log.info("Expiring pending orders: {}", orderIds);
+        List<Long> cancelledOrderIds = orderJdbcRepository.cancelPending(orderIds);
+        if (cancelledOrderIds.isEmpty()) {
+            return cancelledOrderIds;
+        }
+
+        List<Order> cancelledOrders = ordersRepository.findAllWithItemsByIdIn(cancelledOrderIds);
+        cancelledOrders.forEach(order -> {
+            OrderStatusChangedEvent event = new OrderStatusChangedEvent(mapOrderToEventDto(order), OrderStatus.PENDING);
+            eventPublisher.publish(event, RabbitConfig.ORDER_EVENTS_EXCHANGE, "order.status.changed");
+        });
+        recordCancellations(cancelledOrders);
+        saveViews(cancelledOrders.stream().map(this::mapOrderToDto).toList());
+
+        log.info("Successfully expired {} pending orders", cancelledOrderIds.size());
+        return cancelledOrderIds;
     }
 
     @Transactional(readOnly = true)
     @PreAuthorize("hasRole('ADMIN')")
     public OrdersPage getAllOrders(Pageable pageable) {
         log.info("Admin fetching all orders. Pageable: {}", pageable);
-        Page<Order> ordersPage = ordersRepository.findAll(pageable);
+        List<OrderDto> orders = orderViewJdbcRepository.findAll(
+                null, Long.MAX_VALUE, pageable.getPageSize(), pageable.getOffset());
+        long total = orderViewJdbcRepository.count(null);
 
-        log.info("Admin successfully fetched {} orders", ordersPage.getTotalElements());
-        return OrdersPage.builder()
-                .content(ordersPage.getContent().stream()
-                        .map(this::mapOrderToDto)
-                        .collect(Collectors.toList())
-                )
-                .page(PageInfo.builder()
-                        .page(pageable.getPageNumber())
-                        .size(pageable.getPageSize())
-                        .totalElements(ordersPage.getTotalElements())
-                        .totalPages(ordersPage.getTotalPages())
-                        .build())
-                .build();
+        log.info("Admin successfully fetched {} orders", total);
+        return toOrdersPage(orders, pageable, total);
     }
 
     @Transactional(readOnly = true)
     @PreAuthorize("hasRole('ADMIN')")
     public OrdersPage getOrderByStatus(OrderStatus orderStatus, Pageable pageable) {
         log.info("Admin fetching orders with status: {}. Pageable: {}", orderStatus, pageable);
-        Page<Order> ordersPage = ordersRepository.findByStatus(orderStatus, pageable);
+        List<OrderDto> orders = orderViewJdbcRepository.findAll(
+                orderStatus, Long.MAX_VALUE, pageable.getPageSize(), pageable.getOffset());
+        long total = orderViewJdbcRepository.count(orderStatus);
 
-        log.info("Admin successfully fetched {} orders with status: {}", ordersPage.getTotalElements(), orderStatus);
-        return OrdersPage.builder()
-                .content(ordersPage.getContent().stream()
-                        .map(this::mapOrderToDto)
-                        .collect(Collectors.toList()))
-                .page(PageInfo.builder()
-                        .page(pageable.getPageNumber())
-                        .size(pageable.getPageSize())
-                        .totalElements(ordersPage.getTotalElements())
-                        .totalPages(ordersPage.getTotalPages())
-                        .build())
-                .build();
+        log.info("Admin successfully fetched {} orders with status: {}", total, orderStatus);
+        return toOrdersPage(orders, pageable, total);
+    }
+
+    @Transactional(readOnly = true)
+    public OrdersPage getUserOrders(String userEmail, CursorPageRequest request) {
+        log.info("Fetching orders for user: {} after cursor: {}", userEmail, request.getCursor());
+        List<OrderDto> orders = orderViewJdbcRepository.findByUserEmail(
+                userEmail, afterOrderId(request), request.getSize() + 1, 0);
+        Long total = request.isApproximateTotal()
+                ? approximateCounter.estimate("""
+                        SELECT 1 FROM order_views WHERE user_email = ?
+                        UNION ALL SELECT 1 FROM orders_archive WHERE user_email = ?
+                        """, userEmail, userEmail)
+                : null;
+
+        log.info("Successfully fetched {} orders for user: {}", Math.min(orders.size(), request.getSize()), userEmail);
+        return toOrdersPage(CursorPage.of(orders, request, order -> PageCursor.encode(order.getId()), total));
+    }
+
+    /**
+     * @return order stats per user; users without orders are missing from the map
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, UserOrderStatsJdbcRepository.UserOrderStats> getUserOrderStats(Collection<Long> userIds) {
+        return userOrderStatsJdbcRepository.findByUserIds(userIds);
+    }
+
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public OrdersPage getAllOrders(CursorPageRequest request) {
+        log.info("Admin fetching all orders after cursor: {}", request.getCursor());
+        List<OrderDto> orders = orderViewJdbcRepository.findAll(null, afterOrderId(request), request.getSize() + 1, 0);
+        Long total = request.isApproximateTotal()
+                ? approximateCounter.estimate("SELECT 1 FROM order_views UNION ALL SELECT 1 FROM orders_archive")
+                : null;
+
+        log.info("Admin successfully fetched {} orders", Math.min(orders.size(), request.getSize()));
+        return toOrdersPage(CursorPage.of(orders, request, order -> PageCursor.encode(order.getId()), total));
+    }
+
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public OrdersPage getOrderByStatus(OrderStatus orderStatus, CursorPageRequest request) {
+        log.info("Admin fetching orders with status: {} after cursor: {}", orderStatus, request.getCursor());
+        List<OrderDto> orders = orderViewJdbcRepository.findAll(
+                orderStatus, afterOrderId(request), request.getSize() + 1, 0);
+        Long total = request.isApproximateTotal()
+                ? approximateCounter.estimate("""
+                        SELECT 1 FROM order_views WHERE status = ?
+                        UNION ALL SELECT 1 FROM orders_archive WHERE status = ?
+                        """, orderStatus.name(), orderStatus.name())
+                : null;
+
+        log.info("Admin successfully fetched {} orders with status: {}", Math.min(orders.size(), request.getSize()), orderStatus);
+        return toOrdersPage(CursorPage.of(orders, request, order -> PageCursor.encode(order.getId()), total));
     }
 
     @Transactional(readOnly = true)
     public OrderDto getOrderByIdAdmin(Long orderId) {
         log.info("Admin fetching order by id: {}", orderId);
-        Order order = ordersRepository.findById(orderId)
+        OrderDto order = orderViewJdbcRepository.findById(orderId)
+                .or(() -> orderViewJdbcRepository.findArchivedById(orderId))
                 .orElseThrow(() -> {
                     log.error("Admin failed to fetch order. Order not found with id: {}", orderId);
                     return new ResourceNotFoundException("Order not found with id: " + orderId);
                 });
         log.info("Admin successfully fetched order with id: {}", orderId);
-        return mapOrderToDto(order);
+        return order;
     }
 
     @Transactional
     @PreAuthorize("hasRole('ADMIN')")
-    @Caching(evict = {
-            @CacheEvict(value = CacheConfig.CACHE_ORDERS, allEntries = true),
-            @CacheEvict(value = CacheConfig.CACHE_ORDERS, key = "'user:' + #result.userEmail + '_order' + #orderId")
-    })
     public OrderDto updateOrderStatus(Long orderId, OrderStatusUpdateRequest request, String adminEmail) {
         log.info("Admin {} updating status for order with id: {}. Request: {}", adminEmail, orderId, request);
         Order order = ordersRepository.findById(orderId)
@@ -265,8 +356,112 @@ public class OrderService {
         OrderStatusChangedEvent event = new OrderStatusChangedEvent(mapOrderToEventDto(savedOrder), oldStatus);
         eventPublisher.publish(event, RabbitConfig.ORDER_EVENTS_EXCHANGE, "order.status.changed");
 
+        if (newStatus == OrderStatus.CANCELLED) {
+            recordCancellations(List.of(savedOrder));
+        }
+        OrderDto orderDto = mapOrderToDto(savedOrder);
+        saveViews(List.of(orderDto));
         log.info("Admin {} successfully updated status for order with id: {} to {}", adminEmail, orderId, newStatus);
-        return mapOrderToDto(savedOrder);
+        return orderDto;
+    }
+
+    /**
+     * Moves many orders to one status, a chunk per transaction: each chunk is checked against the transition
+     * table, updated with one statement per current status, and published with one batched outbox insert. A
+     * failing chunk rolls back alone and fails the request after the earlier chunks committed; repeating the
+     * request is safe because orders already in the status are reported as unchanged.
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    public BulkOrderStatusUpdateResult bulkUpdateStatus(BulkOrderStatusUpdateRequest request, String adminEmail) {
+        OrderStatus newStatus = request.getStatus();
+        List<Long> orderIds = request.getOrderIds().stream().distinct().toList();
+        log.info("Admin {} updating status of {} orders to {}", adminEmail, orderIds.size(), newStatus);
+
+        int chunkSize = orderProps.getBulk().getChunkSize();
+        List<BulkOrderStatusUpdateResult.Item> items = new ArrayList<>(orderIds.size());
+        for (int from = 0; from < orderIds.size(); from += chunkSize) {
+            List<Long> chunk = orderIds.subList(from, Math.min(from + chunkSize, orderIds.size()));
+            items.addAll(transactionTemplate.execute(transactionStatus -> updateStatusChunk(chunk, newStatus)));
+        }
+
+        int updated = (int) items.stream()
+                .filter(item -> item.getOutcome() == BulkOrderStatusUpdateResult.Outcome.UPDATED)
+                .count();
+        int failed = (int) items.stream()
+                .filter(item -> item.getOutcome() != BulkOrderStatusUpdateResult.Outcome.UPDATED
+                        && item.getOutcome() != BulkOrderStatusUpdateResult.Outcome.UNCHANGED)
+                .count();
+        log.info("Admin {} updated status of {} orders to {}. Failed: {}", adminEmail, updated, newStatus, failed);
+        return BulkOrderStatusUpdateResult.builder()
+                .status(newStatus)
+                .updated(updated)
+                .failed(failed)
+                .items(items)
+                .build();
+    }
+
+    private List<BulkOrderStatusUpdateResult.Item> updateStatusChunk(List<Long> orderIds, OrderStatus newStatus) {
+        Map<Long, Order> orders = ordersRepository.findAllWithItemsByIdIn(orderIds).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+
+        Map<OrderStatus, List<Long>> candidates = new EnumMap<>(OrderStatus.class);
+        orders.values().stream()
+                .filter(order -> order.getStatus() != newStatus)
+                .filter(order -> ALLOWED_TRANSITIONS.get(order.getStatus()).contains(newStatus))
+                .forEach(order -> candidates.computeIfAbsent(order.getStatus(), status -> new ArrayList<>()).add(order.getId()));
+
+        // Guarded by the status that was validated, so an order changed concurrently is left alone
+        Set<Long> updatedIds = new HashSet<>();
+        candidates.forEach((oldStatus, ids) -> updatedIds.addAll(orderJdbcRepository.transition(ids, oldStatus, newStatus)));
+
+        List<Order> updatedOrders = orderIds.stream()
+                .filter(updatedIds::contains)
+                .map(orders::get)
+                .toList();
+        if (!updatedOrders.isEmpty()) {
+            // The entities keep their old status so that Hibernate does not update them again at flush
+            LocalDateTime updatedAt = LocalDateTime.now();
+            eventPublisher.publishAll(updatedOrders.stream()
+                    .map(order -> {
+                        OrderEventDto eventDto = mapOrderToEventDto(order);
+                        eventDto.setStatus(newStatus);
+                        eventDto.setUpdatedAt(updatedAt);
+                        return new OrderStatusChangedEvent(eventDto, order.getStatus());
+                    })
+                    .toList(), RabbitConfig.ORDER_EVENTS_EXCHANGE, "order.status.changed");
+
+            if (newStatus == OrderStatus.CANCELLED) {
+                recordCancellations(updatedOrders);
+            }
+            saveViews(updatedOrders.stream()
+                    .map(order -> {
+                        OrderDto orderDto = mapOrderToDto(order);
+                        orderDto.setOrderStatus(newStatus);
+                        orderDto.setUpdatedAt(updatedAt);
+                        return orderDto;
+                    })
+                    .toList());
+        }
+
+        return orderIds.stream()
+                .map(orderId -> {
+                    Order order = orders.get(orderId);
+                    if (order == null) {
+                        return new BulkOrderStatusUpdateResult.Item(orderId, BulkOrderStatusUpdateResult.Outcome.NOT_FOUND, null);
+                    }
+                    BulkOrderStatusUpdateResult.Outcome outcome;
+                    if (updatedIds.contains(orderId)) {
+                        outcome = BulkOrderStatusUpdateResult.Outcome.UPDATED;
+                    } else if (order.getStatus() == newStatus) {
+                        outcome = BulkOrderStatusUpdateResult.Outcome.UNCHANGED;
+                    } else if (!ALLOWED_TRANSITIONS.get(order.getStatus()).contains(newStatus)) {
+                        outcome = BulkOrderStatusUpdateResult.Outcome.INVALID_TRANSITION;
+                    } else {
+                        outcome = BulkOrderStatusUpdateResult.Outcome.CONFLICT;
+                    }
+                    return new BulkOrderStatusUpdateResult.Item(orderId, outcome, order.getStatus());
+                })
+                .toList();
     }
 
     private void validateStatusTransition(OrderStatus oldStatus, OrderStatus newStatus) {
@@ -293,15 +488,46 @@ public class OrderService {
         }
     }
 
-    private BigDecimal calculateTotal(Cart cart) {
-        return cart.getItems().stream()
-                .map(item -> {
-                    Product product = productRepository.findById(item.getProduct().getId())
-                            .orElseThrow(() ->
-                                    new ResourceNotFoundException("Item not found with id: " + item.getProduct().getId()));
-                    return product.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
-                })
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    /**
+     * Writes the read model of changed orders and starts a new cache generation of their owners' orders.
+     */
+    private void saveViews(List<OrderDto> orders) {
+        orderViewJdbcRepository.upsert(orders);
+        orders.stream()
+                .map(OrderDto::getUserEmail)
+                .distinct()
+                .forEach(userEmail -> cacheGenerations.bump(CacheConfig.CACHE_ORDERS + ":" + userEmail));
+    }
+
+    private void recordCancellations(List<Order> cancelledOrders) {
+        userOrderStatsJdbcRepository.recordCancellations(cancelledOrders.stream()
+                .collect(Collectors.toMap(order -> order.getUser().getId(), Order::getTotalAmount, BigDecimal::add,
+                        TreeMap::new)));
+    }
+
+    private Long afterOrderId(CursorPageRequest request) {
+        PageCursor cursor = request.after();
+        return cursor != null ? cursor.getLong(0) : Long.MAX_VALUE;
+    }
+
+    private OrdersPage toOrdersPage(CursorPage<OrderDto> orders) {
+        return OrdersPage.builder()
+                .content(orders.getContent())
+                .page(orders.getPage())
+                .build();
+    }
+
+    private OrdersPage toOrdersPage(List<OrderDto> orders, Pageable pageable, long total) {
+        Page<OrderDto> page = new PageImpl<>(orders, pageable, total);
+        return OrdersPage.builder()
+                .content(orders)
+                .page(PageInfo.builder()
+                        .page(pageable.getPageNumber())
+                        .size(pageable.getPageSize())
+                        .totalElements(page.getTotalElements())
+                        .totalPages(page.getTotalPages())
+                        .build())
+                .build();
     }
 
     private OrderDto mapOrderToDto(Order order) {
@@ -3,6 +3,8 @@ package com.ecommerce.backend.modules.product.controller;
 import com.ecommerce.backend.modules.product.dto.ProductResponse;
 import com.ecommerce.backend.modules.product.dto.ProductSearchRequest;
 import com.ecommerce.backend.modules.product.service.ProductService;
+import com.ecommerce.backend.shared.pagination.CursorPage;
+import com.ecommerce.backend.shared.pagination.CursorPageRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,6 +31,19 @@ public class ProductController {
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<ProductResponse>> getProductsAfter(
+            @Valid @ModelAttribute ProductSearchRequest request,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean approximateTotal) {
+        log.info("Request to search products with request: {}. Cursor: {}, Size: {}", request, cursor, size);
+        CursorPage<ProductResponse> products = productService.searchProducts(
+                request, new CursorPageRequest(cursor, size, approximateTotal));
+        log.info("Successfully searched products. Found {} products.", products.getContent().size());
+        return ResponseEntity.ok(products);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<ProductResponse> getProduct(@PathVariable Long id) {
         log.info("Request to get product by id: {}", id);
@@ -0,0 +1,27 @@
+package com.ecommerce.backend.modules.product.repository;
+
+import com.ecommerce.backend.modules.product.entity.Product;
+import com.ecommerce.backend.shared.pagination.KeysetOrder;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public interface ProductSeekRepository {
+
+    /**
+     * Same filters as {@link ProductRepository#findWithFilters}, returning the rows after the given sort key.
+     *
+     * @param seekKey sort key of the last row of the previous page, or {@code null} for the first page
+     */
+    List<Product> findWithFiltersAfter(
+            String search,
+            Long categoryId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Boolean available,
+            KeysetOrder order,
+            Object seekKey,
+            Long seekId,
+            int limit
+    );
+}
@@ -0,0 +1,64 @@
+package com.ecommerce.backend.modules.product.repository;
+
+import com.ecommerce.backend.modules.product.entity.Product;
+import com.ecommerce.backend.shared.pagination.KeysetOrder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ProductSeekRepositoryImpl implements ProductSeekRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Product> findWithFiltersAfter(
+            String search,
+            Long categoryId,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Boolean available,
+            KeysetOrder order,
+            Object seekKey,
+            Long seekId,
+            int limit
+    ) {
+        StringBuilder jpql = new StringBuilder("SELECT p FROM Product p WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+        if (search != null && !search.isEmpty()) {
+            jpql.append(" AND (LOWER(p.name) LIKE :search OR LOWER(p.description) LIKE :search)");
+            params.put("search", "%" + search.toLowerCase() + "%");
+        }
+        if (categoryId != null) {
+            jpql.append(" AND p.categoryId = :categoryId");
+            params.put("categoryId", categoryId);
+        }
+        if (minPrice != null) {
+            jpql.append(" AND p.price >= :minPrice");
+            params.put("minPrice", minPrice);
+        }
+        if (maxPrice != null) {
+            jpql.append(" AND p.price <= :maxPrice");
+            params.put("maxPrice", maxPrice);
+        }
+        if (available != null) {
+            jpql.append(" AND p.available = :available");
+            params.put("available", available);
+        }
+        if (seekKey != null) {
+            jpql.append(" AND ").append(order.seekPredicate());
+            params.put("seekKey", seekKey);
+            params.put("seekId", seekId);
+        }
+        jpql.append(" ORDER BY ").append(order.orderBy());
+
+        TypedQuery<Product> query = entityManager.createQuery(jpql.toString(), Product.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -8,14 +8,19 @@ import com.ecommerce.backend.modules.product.dto.ProductSearchRequest;
 import com.ecommerce.backend.modules.product.dto.UpdateProductRequest;
 import com.ecommerce.backend.modules.product.entity.Product;
 import com.ecommerce.backend.modules.product.repository.ProductRepository;
+import com.ecommerce.backend.shared.cache.CacheGenerations;
 import com.ecommerce.backend.shared.exception.ResourceNotFoundException;
 import com.ecommerce.backend.shared.exception.ValidationException;
+import com.ecommerce.backend.shared.pagination.ApproximateCounter;
+import com.ecommerce.backend.shared.pagination.CursorPage;
+import com.ecommerce.backend.shared.pagination.CursorPageRequest;
+import com.ecommerce.backend.shared.pagination.KeysetOrder;
+import com.ecommerce.backend.shared.pagination.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
-import org.springframework.cache.annotation.Caching;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -25,6 +30,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @Transactional(readOnly = true)
@@ -34,8 +41,11 @@ public class ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final ApproximateCounter approximateCounter;
+    private final CacheGenerations cacheGenerations;
 
-    @Cacheable(value = CacheConfig.CACHE_PRODUCTS, key = "#request.toString() + #pageable.toString()",
+    @Cacheable(value = CacheConfig.CACHE_PRODUCTS,
+            key = "@cacheGenerations.current('products') + ':' + #request.toString() + #pageable.toString()",
             condition = "#request.search == null && #request.categoryId == null && #pageable.getPageNumber() < 3")
     public Page<ProductResponse> searchProducts(ProductSearchRequest request, Pageable pageable) {
         log.info("Searching products with request: {} and pageable: {}", request, pageable);
@@ -60,6 +70,89 @@ public class ProductService {
         return products.map(this::mapToResponse);
     }
 
+    public CursorPage<ProductResponse> searchProducts(ProductSearchRequest request, CursorPageRequest pageRequest) {
+        log.info("Searching products with request: {} after cursor: {}", request, pageRequest.getCursor());
+        String sortBy = request.getSortBy() != null && !request.getSortBy().isEmpty() ? request.getSortBy() : "id";
+        boolean ascending = request.getSortOrder() == null || !request.getSortOrder().equalsIgnoreCase("desc");
+        KeysetOrder order = new KeysetOrder(sortExpression(sortBy), "p.id", ascending);
+
+        PageCursor after = pageRequest.after();
+        List<Product> products = productRepository.findWithFiltersAfter(
+                request.getSearch(),
+                request.getCategoryId(),
+                request.getMinPrice(),
+                request.getMaxPrice(),
+                request.getAvailable(),
+                order,
+                after != null ? seekKey(after, sortBy) : null,
+                after != null ? after.getLong(1) : null,
+                pageRequest.getSize() + 1
+        );
+        Long total = pageRequest.isApproximateTotal() ? estimateProducts(request) : null;
+
+        return CursorPage.of(products, pageRequest,
+                product -> PageCursor.encode(sortKey(product, sortBy), product.getId()), total)
+                .map(this::mapToResponse);
+    }
+
+    private String sortExpression(String sortBy) {
+        return switch (sortBy) {
+            case "id" -> "p.id";
+            case "name" -> "p.name";
+            case "price" -> "p.price";
+            case "createdAt" -> "p.createdAt";
+            case "rating" -> "COALESCE(p.rating, 0)";
+            default -> throw new ValidationException("Sorting by " + sortBy + " is not supported with cursor pagination");
+        };
+    }
+
+    private Object sortKey(Product product, String sortBy) {
+        return switch (sortBy) {
+            case "name" -> product.getName();
+            case "price" -> product.getPrice();
+            case "createdAt" -> product.getCreatedAt();
+            case "rating" -> product.getRating() != null ? product.getRating() : BigDecimal.ZERO;
+            default -> product.getId();
+        };
+    }
+
+    private Object seekKey(PageCursor cursor, String sortBy) {
+        return switch (sortBy) {
+            case "name" -> cursor.getString(0);
+            case "price", "rating" -> cursor.getDecimal(0);
+            case "createdAt" -> cursor.getDateTime(0);
+            default -> cursor.getLong(0);
+        };
+    }
+
+    private Long estimateProducts(ProductSearchRequest request) {
+        StringBuilder sql = new StringBuilder("SELECT 1 FROM products p WHERE TRUE");
+        List<Object> args = new ArrayList<>();
+        if (request.hasSearch()) {
+            sql.append(" AND (LOWER(p.name) LIKE ? OR LOWER(p.description) LIKE ?)");
+            String pattern = "%" + request.getSearch().toLowerCase() + "%";
+            args.add(pattern);
+            args.add(pattern);
+        }
+        if (request.getCategoryId() != null) {
+            sql.append(" AND p.category_id = ?");
+            args.add(request.getCategoryId());
+        }
+        if (request.getMinPrice() != null) {
+            sql.append(" AND p.price >= ?");
+            args.add(request.getMinPrice());
+        }
+        if (request.getMaxPrice() != null) {
+            sql.append(" AND p.price <= ?");
+            args.add(request.getMaxPrice());
+        }
+        if (request.getAvailable() != null) {
+            sql.append(" AND p.available = ?");
+            args.add(request.getAvailable());
+        }
+        return approximateCounter.estimate(sql.toString(), args.toArray());
+    }
+
     private Sort determineSortOrder(ProductSearchRequest request, Pageable pageable) {
         if (request.getSortBy() != null && !request.getSortBy().isEmpty()) {
             Sort.Direction direction = Sort.Direction.ASC;
@@ -89,7 +182,6 @@ public class ProductService {
 
     @Transactional
     @PreAuthorize("hasRole('ADMIN')")
-    @CacheEvict(value = CacheConfig.CACHE_PRODUCTS, allEntries = true)
     public ProductResponse createProduct(CreateProductRequest request) {
         log.info("Creating new product: {}", request.getName());
 
@@ -107,16 +199,14 @@ public class ProductService {
 
         Product savedProduct = productRepository.save(product);
         log.info("Product created: {}", savedProduct.getId());
+        cacheGenerations.bump(CacheConfig.CACHE_PRODUCTS);
 
         return mapToResponse(savedProduct);
     }
 
     @Transactional
     @PreAuthorize("hasRole('ADMIN')")
-    @Caching(
-            put = { @CachePut(value = CacheConfig.CACHE_PRODUCT_DETAILS, key = "#id") },
-            evict = { @CacheEvict(value = CacheConfig.CACHE_PRODUCTS, allEntries = true) }
-    )
+    @CachePut(value = CacheConfig.CACHE_PRODUCT_DETAILS, key = "#id")
     public ProductResponse updateProduct(Long id, UpdateProductRequest request) {
         log.info("Updating product with id: {}", id);
 
@@ -126,6 +216,7 @@ public class ProductService {
         updateProductFields(product, request);
 
         Product updatedProduct = productRepository.save(product);
+        cacheGenerations.bump(CacheConfig.CACHE_PRODUCTS);
 
         log.info("Product updated: {}", updatedProduct.getId());
         return mapToResponse(updatedProduct);
@@ -133,10 +224,7 @@ public class ProductService {
 
     @Transactional
     @PreAuthorize("hasRole('ADMIN')")
-    @Caching(evict = {
-            @CacheEvict(value = CacheConfig.CACHE_PRODUCTS, allEntries = true),
-            @CacheEvict(value = CacheConfig.CACHE_PRODUCT_DETAILS, key = "#id")
-    })
+    @CacheEvict(value = CacheConfig.CACHE_PRODUCT_DETAILS, key = "#id")
     public void deleteProduct(Long id) {
         log.info("Deleting product with id: {}", id);
 
@@ -145,6 +233,7 @@ public class ProductService {
         }
 
         productRepository.deleteById(id);
+        cacheGenerations.bump(CacheConfig.CACHE_PRODUCTS);
         log.info("Product deleted: {}", id);
     }
 
@@ -4,6 +4,8 @@ import com.ecommerce.backend.modules.auth.jwt.CustomUserDetails;
 import com.ecommerce.backend.modules.reviews.dto.CreateReviewRequest;
 import com.ecommerce.backend.modules.reviews.dto.ReviewResponse;
 import com.ecommerce.backend.modules.reviews.service.ReviewService;
+import com.ecommerce.backend.shared.pagination.CursorPage;
+import com.ecommerce.backend.shared.pagination.CursorPageRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -48,4 +50,18 @@ public class ReviewController {
         log.info("Successfully fetched {} reviews for product {}", reviews.getTotalElements(), productId);
         return ResponseEntity.ok(reviews);
     }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<ReviewResponse>> getReviewsByProductIdAfter(
+            @PathVariable Long productId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean approximateTotal
+    ) {
+        log.info("Fetching reviews for product {}. Cursor: {}, Size: {}", productId, cursor, size);
+        CursorPage<ReviewResponse> reviews = reviewService.getReviewsByProductId(
+                productId, new CursorPageRequest(cursor, size, approximateTotal));
+        log.info("Successfully fetched {} reviews for product {}", reviews.getContent().size(), productId);
+        return ResponseEntity.ok(reviews);
+    }
 }
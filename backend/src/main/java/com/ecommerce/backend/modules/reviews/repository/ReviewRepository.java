@@ -5,7 +5,9 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -13,6 +15,18 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
 
     Page<Review> findByProductId(Long productId, Pageable pageable);
 
+    List<Review> findByProductIdOrderByCreatedAtDescIdDesc(Long productId, Pageable pageable);
+
+    @Query("SELECT r FROM Review r WHERE r.product.id = :productId " +
+            "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findByProductIdAfter(
+            @Param("productId") Long productId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
     @Query("SELECT AVG(r.rating) FROM Review r WHERE r.product.id = :productId")
     Optional<Double> findAverageRatingByProductId(Long productId);
 
@@ -10,11 +10,15 @@ import com.ecommerce.backend.modules.reviews.entity.Review;
 import com.ecommerce.backend.modules.reviews.repository.ReviewRepository;
 import com.ecommerce.backend.modules.user.entity.User;
 import com.ecommerce.backend.modules.user.repository.UserRepository;
+import com.ecommerce.backend.shared.cache.CacheGenerations;
 import com.ecommerce.backend.shared.exception.BusinessException;
 import com.ecommerce.backend.shared.exception.ResourceNotFoundException;
+import com.ecommerce.backend.shared.pagination.ApproximateCounter;
+import com.ecommerce.backend.shared.pagination.CursorPage;
+import com.ecommerce.backend.shared.pagination.CursorPageRequest;
+import com.ecommerce.backend.shared.pagination.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -34,9 +38,10 @@ public class ReviewService {
     private final ReviewRepository reviewRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
+    private final ApproximateCounter approximateCounter;
+    private final CacheGenerations cacheGenerations;
 
     @Transactional
-    @CacheEvict(value = CacheConfig.CACHE_REVIEWS, allEntries = true)
     public ReviewResponse createReview(Long productId, CreateReviewRequest request, CustomUserDetails currentUser) {
         log.info("Creating review for product {} by user {}", productId, currentUser.getUsername());
         Product product = productRepository.findById(productId)
@@ -66,6 +71,7 @@ public class ReviewService {
         Review savedReview = reviewRepository.save(review);
         log.info("Successfully created review with id: {}", savedReview.getId());
         updateProductRating(product);
+        cacheGenerations.bump(CacheConfig.CACHE_REVIEWS + ":" + productId);
 
         return ReviewResponse.fromEntity(savedReview);
     }
@@ -83,7 +89,8 @@ public class ReviewService {
     }
 
     @Transactional
-    @Cacheable(value = CacheConfig.CACHE_REVIEWS, key = "#productId + '_' + #pageable.getPageNumber() + '_' + #pageable.getPageSize()")
+    @Cacheable(value = CacheConfig.CACHE_REVIEWS,
+            key = "#productId + ':' + @cacheGenerations.current('reviews:' + #productId) + '_' + #pageable.getPageNumber() + '_' + #pageable.getPageSize()")
     public Page<ReviewResponse> getReviewsByProductId(Long productId, Pageable pageable) {
         log.info("Fetching reviews for product {}. Pageable: {}", productId, pageable);
         if (!productRepository.existsById(productId)) {
@@ -96,4 +103,25 @@ public class ReviewService {
         log.info("Successfully fetched {} reviews for product {}", reviews.getTotalElements(), productId);
         return reviews.map(ReviewResponse::fromEntity);
     }
+
+    @Transactional(readOnly = true)
+    public CursorPage<ReviewResponse> getReviewsByProductId(Long productId, CursorPageRequest request) {
+        log.info("Fetching reviews for product {} after cursor: {}", productId, request.getCursor());
+        if (!productRepository.existsById(productId)) {
+            log.error("Product not found with id: {} when fetching reviews", productId);
+            throw ResourceNotFoundException.product(productId);
+        }
+
+        PageCursor after = request.after();
+        List<Review> reviews = after != null
+                ? reviewRepository.findByProductIdAfter(productId, after.getDateTime(0), after.getLong(1), request.fetchLimit())
+                : reviewRepository.findByProductIdOrderByCreatedAtDescIdDesc(productId, request.fetchLimit());
+        Long total = request.isApproximateTotal()
+                ? approximateCounter.estimate("SELECT 1 FROM reviews WHERE product_id = ?", productId)
+                : null;
+
+        log.info("Successfully fetched {} reviews for product {}", Math.min(reviews.size(), request.getSize()), productId);
+        return CursorPage.of(reviews, request, review -> PageCursor.encode(review.getCreatedAt(), review.getId()), total)
+                .map(ReviewResponse::fromEntity);
+    }
 }
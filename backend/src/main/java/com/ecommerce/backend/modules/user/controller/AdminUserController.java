@@ -3,6 +3,8 @@ package com.ecommerce.backend.modules.user.controller;
 import com.ecommerce.backend.modules.user.dto.AdminUserDto;
 import com.ecommerce.backend.modules.user.dto.UserListResponse;
 import com.ecommerce.backend.modules.user.service.UserService;
+import com.ecommerce.backend.shared.pagination.CursorPage;
+import com.ecommerce.backend.shared.pagination.CursorPageRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -49,4 +51,19 @@ public class AdminUserController {
         log.info("Admin successfully fetched all users. Total elements: {}", users.getTotalElements());
         return ResponseEntity.ok(userListResponse);
     }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<CursorPage<AdminUserDto>> getAllUsersAfter(
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String orderBy,
+            @RequestParam(defaultValue = "false") boolean approximateTotal
+    ) {
+        log.info("Admin request to get all users. Cursor: {}, Size: {}, SortBy: {}, OrderBy: {}", cursor, size, sortBy, orderBy);
+        CursorPage<AdminUserDto> users = userService.getAllUsers(
+                sortBy, orderBy, new CursorPageRequest(cursor, size, approximateTotal));
+        log.info("Admin successfully fetched all users. Has next: {}", users.getPage().getHasNext());
+        return ResponseEntity.ok(users);
+    }
 }
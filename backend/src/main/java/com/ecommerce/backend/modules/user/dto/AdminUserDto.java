@@ -7,6 +7,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Data
@@ -25,5 +26,7 @@ public class AdminUserDto implements Serializable {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private int totalOrders;
+    private BigDecimal totalSpent;
+    private LocalDateTime lastOrderAt;
 
 }
@@ -0,0 +1,14 @@
+package com.ecommerce.backend.modules.user.repository;
+
+import com.ecommerce.backend.modules.user.entity.User;
+import com.ecommerce.backend.shared.pagination.KeysetOrder;
+
+import java.util.List;
+
+public interface UserSeekRepository {
+
+    /**
+     * @param seekKey sort key of the last row of the previous page, or {@code null} for the first page
+     */
+    List<User> findAfter(KeysetOrder order, Object seekKey, Long seekId, int limit);
+}
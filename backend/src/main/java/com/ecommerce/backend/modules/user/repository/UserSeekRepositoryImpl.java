@@ -0,0 +1,28 @@
+package com.ecommerce.backend.modules.user.repository;
+
+import com.ecommerce.backend.modules.user.entity.User;
+import com.ecommerce.backend.shared.pagination.KeysetOrder;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+public class UserSeekRepositoryImpl implements UserSeekRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<User> findAfter(KeysetOrder order, Object seekKey, Long seekId, int limit) {
+        String jpql = "SELECT u FROM User u"
+                + (seekKey != null ? " WHERE " + order.seekPredicate() : "")
+                + " ORDER BY " + order.orderBy();
+        TypedQuery<User> query = entityManager.createQuery(jpql, User.class);
+        if (seekKey != null) {
+            query.setParameter("seekKey", seekKey);
+            query.setParameter("seekId", seekId);
+        }
+        return query.setMaxResults(limit).getResultList();
+    }
+}
@@ -1,6 +1,7 @@
 package com.ecommerce.backend.modules.user.service;
 
 import com.ecommerce.backend.config.CacheConfig;
+import com.ecommerce.backend.modules.order.repository.UserOrderStatsJdbcRepository;
 import com.ecommerce.backend.modules.order.service.OrderService;
 import com.ecommerce.backend.modules.user.dto.AdminUserDto;
 import com.ecommerce.backend.modules.user.dto.ChangePasswordRequest;
@@ -11,6 +12,11 @@ import com.ecommerce.backend.modules.user.repository.UserRepository;
 import com.ecommerce.backend.shared.exception.InvalidCredentialsException;
 import com.ecommerce.backend.shared.exception.UserNotFoundException;
 import com.ecommerce.backend.shared.exception.ValidationException;
+import com.ecommerce.backend.shared.pagination.ApproximateCounter;
+import com.ecommerce.backend.shared.pagination.CursorPage;
+import com.ecommerce.backend.shared.pagination.CursorPageRequest;
+import com.ecommerce.backend.shared.pagination.KeysetOrder;
+import com.ecommerce.backend.shared.pagination.PageCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -23,7 +29,10 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
@@ -34,6 +43,7 @@ public class UserService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final OrderService orderService;
+    private final ApproximateCounter approximateCounter;
 
     @Transactional(readOnly = true)
     @Cacheable(value = CacheConfig.CACHE_USER_PROFILE, key = "#userId")
@@ -112,19 +122,49 @@ public class UserService {
     public Page<AdminUserDto> getAllUsers(Pageable pageable) {
         log.info("Admin fetching all users. Pageable: {}", pageable);
         Page<User> users = userRepository.findAll(pageable);
+        Map<Long, UserOrderStatsJdbcRepository.UserOrderStats> stats = orderService.getUserOrderStats(
+                users.getContent().stream().map(User::getId).toList());
 
         log.info("Admin successfully fetched {} users", users.getTotalElements());
-        return users.map(user -> AdminUserDto.builder()
-                .id(user.getId())
-                .email(user.getEmail())
-                .firstName(user.getFirstName())
-                .lastName(user.getLastName())
-                .role(user.getRole())
-                .createdAt(user.getCreatedAt())
-                .updatedAt(user.getUpdatedAt())
-                .totalOrders(orderService.getUserOrders(user.getEmail(), pageable).getContent().size())
-                .build()
-        );
+        return users.map(user -> mapToAdminDto(user, stats.get(user.getId())));
+    }
+
+    @Transactional(readOnly = true)
+    @PreAuthorize("hasRole('ADMIN')")
+    public CursorPage<AdminUserDto> getAllUsers(String sortBy, String orderBy, CursorPageRequest request) {
+        log.info("Admin fetching all users sorted by {} {} after cursor: {}", sortBy, orderBy, request.getCursor());
+        String expression = switch (sortBy) {
+            case "id" -> "u.id";
+            case "email" -> "u.email";
+            case "createdAt" -> "u.createdAt";
+            default -> throw new ValidationException("Sorting by " + sortBy + " is not supported with cursor pagination");
+        };
+        KeysetOrder order = new KeysetOrder(expression, "u.id", !orderBy.equalsIgnoreCase("desc"));
+
+        PageCursor after = request.after();
+        Object seekKey = null;
+        if (after != null) {
+            seekKey = switch (sortBy) {
+                case "email" -> after.getString(0);
+                case "createdAt" -> after.getDateTime(0);
+                default -> after.getLong(0);
+            };
+        }
+        List<User> users = userRepository.findAfter(order, seekKey, after != null ? after.getLong(1) : null, request.getSize() + 1);
+        Long total = request.isApproximateTotal()
+                ? approximateCounter.estimate("SELECT 1 FROM users")
+                : null;
+
+        CursorPage<User> page = CursorPage.of(users, request, user -> PageCursor.encode(switch (sortBy) {
+            case "email" -> user.getEmail();
+            case "createdAt" -> user.getCreatedAt();
+            default -> user.getId();
+        }, user.getId()), total);
+        Map<Long, UserOrderStatsJdbcRepository.UserOrderStats> stats = orderService.getUserOrderStats(
+                page.getContent().stream().map(User::getId).toList());
+
+        log.info("Admin successfully fetched {} users", page.getContent().size());
+        return page.map(user -> mapToAdminDto(user, stats.get(user.getId())));
     }
 
     /**
@@ -135,9 +175,13 @@ public class UserService {
         log.info("Admin fetching user by id: {}", userId);
         User user = findUserById(userId);
 
-        int totalUserOrders = orderService.getUserOrders(user.getEmail(), Pageable.unpaged()).getContent().size();
+        UserOrderStatsJdbcRepository.UserOrderStats stats = orderService.getUserOrderStats(List.of(userId)).get(userId);
 
         log.info("Admin successfully fetched user by id: {}", userId);
+        return mapToAdminDto(user, stats);
+    }
+
+    private AdminUserDto mapToAdminDto(User user, UserOrderStatsJdbcRepository.UserOrderStats stats) {
         return AdminUserDto.builder()
                 .id(user.getId())
                 .email(user.getEmail())
@@ -146,7 +190,9 @@ public class UserService {
                 .role(user.getRole())
                 .createdAt(user.getCreatedAt())
                 .updatedAt(user.getUpdatedAt())
-                .totalOrders(totalUserOrders)
+                .totalOrders(stats != null ? stats.orderCount() : 0)
+                .totalSpent(stats != null ? stats.totalSpent() : BigDecimal.ZERO)
+                .lastOrderAt(stats != null ? stats.lastOrderAt() : null)
                 .build();
     }
 
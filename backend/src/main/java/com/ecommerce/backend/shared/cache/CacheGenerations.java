@@ -0,0 +1,66 @@
+package com.ecommerce.backend.shared.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Generation counters of cache namespaces such as one user's orders or one product's reviews. Cache keys
+ * include the current generation of their namespace, so a write invalidates the namespace by bumping its
+ * counter instead of deleting entries; the orphaned entries expire by TTL.
+ * <p>
+ * Used from {@code @Cacheable} keys as {@code @cacheGenerations.current('orders:' + #userEmail)}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheGenerations {
+
+    private static final String KEY_PREFIX = "cache:generation:";
+
+    /**
+     * Must exceed the longest cache TTL: a counter that expired restarts at 0, which is only safe once the
+     * entries of its earlier generation 0 are gone.
+     */
+    private static final Duration GENERATION_TTL = Duration.ofDays(1);
+
+    private final RedisTemplate<String, String> redisTemplate;
+
+    public long current(String namespace) {
+        String generation = redisTemplate.opsForValue().get(KEY_PREFIX + namespace);
+        return generation != null ? Long.parseLong(generation) : 0;
+    }
+
+    /**
+     * Starts a new generation of the namespace once the surrounding transaction commits, so that a read
+     * racing with the write cannot cache the old data under the new generation.
+     */
+    public void bump(String namespace) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    increment(namespace);
+                }
+            });
+        } else {
+            increment(namespace);
+        }
+    }
+
+    private void increment(String namespace) {
+        String key = KEY_PREFIX + namespace;
+        try {
+            redisTemplate.opsForValue().increment(key);
+            redisTemplate.expire(key, GENERATION_TTL);
+        } catch (Exception e) {
+            log.error("Failed to bump cache generation of {}, entries stay until their TTL. Error: {}",
+                    namespace, e.getMessage());
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.backend.shared.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -7,15 +8,24 @@ import lombok.NoArgsConstructor;
 
 import java.io.Serializable;
 
+/**
+ * Offset pages fill {@code page}, {@code totalElements} and {@code totalPages}. Keyset pages fill
+ * {@code hasNext} and {@code nextCursor} instead, and {@code totalElements} only when an approximate total was
+ * requested.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class PageInfo implements Serializable {
 
     private static final long serialVersionUID = 1L;
-    private int page;
+    private Integer page;
     private int size;
-    private long totalElements;
-    private int totalPages;
+    private Long totalElements;
+    private Integer totalPages;
+    private Boolean hasNext;
+    private String nextCursor;
+    private Boolean approximate;
 }
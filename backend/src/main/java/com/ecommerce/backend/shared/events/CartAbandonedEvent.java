@@ -1,19 +1,28 @@
 package com.ecommerce.backend.shared.events;
 
-import com.ecommerce.backend.modules.cart.entity.Cart;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.time.LocalDateTime;
+
 @Getter
 @Setter
 @NoArgsConstructor
 public class CartAbandonedEvent extends BaseEvent {
 
-    private Cart cart;
+    private Long cartId;
+    private Long userId;
+    private String userEmail;
+    private int itemCount;
+    private LocalDateTime lastActivityAt;
 
-    public CartAbandonedEvent(Cart cart) {
-        super(cart.getId().toString());
-        this.cart = cart;
+    public CartAbandonedEvent(Long cartId, Long userId, String userEmail, int itemCount, LocalDateTime lastActivityAt) {
+        super(cartId.toString());
+        this.cartId = cartId;
+        this.userId = userId;
+        this.userEmail = userEmail;
+        this.itemCount = itemCount;
+        this.lastActivityAt = lastActivityAt;
     }
 }
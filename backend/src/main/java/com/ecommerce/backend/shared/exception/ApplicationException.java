@@ -2,6 +2,8 @@ package com.ecommerce.backend.shared.exception;
 
 import org.springframework.http.HttpStatus;
 
+import java.util.Map;
+
 public abstract class ApplicationException extends RuntimeException {
 
     private final String errorCode;
@@ -27,6 +29,13 @@ public abstract class ApplicationException extends RuntimeException {
         return httpStatus;
     }
 
+    /**
+     * @return extra data for the error response, or {@code null} if there is none
+     */
+    public Map<String, Object> getDetails() {
+        return null;
+    }
+
     public boolean shouldLogStackTrace() {
         return httpStatus.is5xxServerError();
     }
@@ -0,0 +1,9 @@
+package com.ecommerce.backend.shared.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ConflictException extends ApplicationException {
+    public ConflictException(String message, String errorCode) {
+        super(message, errorCode, HttpStatus.CONFLICT);
+    }
+}
@@ -38,6 +38,7 @@ public class GlobalExceptionHandler {
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .code(ex.getErrorCode())
                 .message(ex.getMessage())
+                .details(ex.getDetails())
                 .timestamp(LocalDateTime.now())
                 .path(request.getRequestURI())
                 .method(request.getMethod())
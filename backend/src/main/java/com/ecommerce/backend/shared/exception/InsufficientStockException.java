@@ -0,0 +1,40 @@
+package com.ecommerce.backend.shared.exception;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reservation failure that lists every short line, so the client can fix the whole cart at once.
+ */
+public class InsufficientStockException extends BusinessException {
+
+    private final List<Map<String, Object>> items;
+
+    /**
+     * @param requested requested quantity per short product
+     * @param available stock left per product; products missing from the map are reported with 0
+     */
+    public InsufficientStockException(Map<Long, Integer> requested, Map<Long, Integer> available) {
+        super("Out of stock", "INSUFFICIENT_STOCK");
+        this.items = new TreeMap<>(requested).entrySet().stream()
+                .map(entry -> {
+                    Map<String, Object> item = new LinkedHashMap<>();
+                    item.put("productId", entry.getKey());
+                    item.put("requested", entry.getValue());
+                    item.put("available", available.getOrDefault(entry.getKey(), 0));
+                    return item;
+                })
+                .toList();
+    }
+
+    public List<Map<String, Object>> getItems() {
+        return items;
+    }
+
+    @Override
+    public Map<String, Object> getDetails() {
+        return Map.of("items", items);
+    }
+}
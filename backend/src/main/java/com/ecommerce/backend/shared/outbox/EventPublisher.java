@@ -5,18 +5,30 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class EventPublisher {
 
+    private static final String INSERT_SQL = """
+            INSERT INTO outbox_events (id, aggregate_id, event_type, payload, exchange_name, routing_key, created_at,
+                                       processed, retry_count, max_retries)
+            VALUES (?, ?, ?, ?, ?, ?, ?, FALSE, 0, 3)
+            """;
+
     private final OutboxEventRepository outboxEventRepository;
+    private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper;
 
     @Transactional(propagation = Propagation.MANDATORY)
@@ -44,4 +56,35 @@ public class EventPublisher {
             throw new RuntimeException("Failed to serialize event" ,e);
         }
     }
+
+    /**
+     * Writes the events to the outbox with one batched insert. Bypasses JPA, whose {@code saveAll} would select
+     * every event first because the ids are assigned.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publishAll(Collection<? extends BaseEvent> events, String exchangeName, String routingKey) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> batchArgs = new ArrayList<>(events.size());
+        for (BaseEvent event : events) {
+            try {
+                batchArgs.add(new Object[]{
+                        event.getEventId(),
+                        event.getAggregateId(),
+                        event.getEventType(),
+                        objectMapper.writeValueAsString(event),
+                        exchangeName,
+                        routingKey,
+                        createdAt
+                });
+            } catch (JsonProcessingException e) {
+                log.error("Failed to serialize event payload for event {}", event.getEventId(), e);
+                throw new RuntimeException("Failed to serialize event", e);
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+        log.info("{} events published to outbox with routing key {}", events.size(), routingKey);
+    }
 }
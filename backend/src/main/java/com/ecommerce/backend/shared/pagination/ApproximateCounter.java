@@ -0,0 +1,33 @@
+package com.ecommerce.backend.shared.pagination;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Row counts taken from the planner estimate of a query instead of running it, so the cost does not grow with
+ * the table. Accuracy depends on how fresh the statistics are.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ApproximateCounter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @return estimated number of rows the query returns, or {@code null} if it could not be estimated
+     */
+    public Long estimate(String sql, Object... args) {
+        try {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + sql, String.class, args);
+            return objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows").asLong();
+        } catch (Exception e) {
+            log.warn("Failed to estimate row count of query: {}. Error: {}", sql, e.getMessage());
+            return null;
+        }
+    }
+}
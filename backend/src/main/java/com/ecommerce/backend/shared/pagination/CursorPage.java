@@ -0,0 +1,52 @@
+package com.ecommerce.backend.shared.pagination;
+
+import com.ecommerce.backend.shared.dto.PageInfo;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPage<T> implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<T> content;
+    private PageInfo page;
+
+    /**
+     * Cuts a page out of rows fetched with {@link CursorPageRequest#fetchLimit()}.
+     *
+     * @param cursorOf        encodes the sort key of a row into the cursor of the page after it
+     * @param approximateTotal estimated total, or {@code null} if not requested
+     */
+    public static <T> CursorPage<T> of(List<T> fetched, CursorPageRequest request, Function<T, String> cursorOf,
+                                       Long approximateTotal) {
+        boolean hasNext = fetched.size() > request.getSize();
+        List<T> content = hasNext ? fetched.subList(0, request.getSize()) : fetched;
+        return CursorPage.<T>builder()
+                .content(List.copyOf(content))
+                .page(PageInfo.builder()
+                        .size(request.getSize())
+                        .totalElements(approximateTotal)
+                        .hasNext(hasNext)
+                        .nextCursor(hasNext ? cursorOf.apply(content.get(content.size() - 1)) : null)
+                        .approximate(approximateTotal != null ? Boolean.TRUE : null)
+                        .build())
+                .build();
+    }
+
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return CursorPage.<R>builder()
+                .content(content.stream().map(mapper).toList())
+                .page(page)
+                .build();
+    }
+}
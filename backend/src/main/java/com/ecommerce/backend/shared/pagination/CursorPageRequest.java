@@ -0,0 +1,33 @@
+package com.ecommerce.backend.shared.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Keyset page request: an empty cursor asks for the first page, otherwise the page after the row the cursor
+ * was taken from.
+ */
+@Data
+@AllArgsConstructor
+public class CursorPageRequest {
+
+    private String cursor;
+    private int size;
+    /**
+     * Whether to attach a total estimated from planner statistics; an exact count is never computed.
+     */
+    private boolean approximateTotal;
+
+    public PageCursor after() {
+        return PageCursor.decode(cursor);
+    }
+
+    /**
+     * @return a limit of one row more than the page size, so that the extra row tells whether a next page exists
+     */
+    public Pageable fetchLimit() {
+        return PageRequest.of(0, size + 1);
+    }
+}
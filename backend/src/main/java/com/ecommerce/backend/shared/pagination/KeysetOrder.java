@@ -0,0 +1,19 @@
+package com.ecommerce.backend.shared.pagination;
+
+/**
+ * JPQL fragments for a keyset page sorted by one key with the entity id as tie-breaker. The seek predicate
+ * binds the parameters {@code seekKey} and {@code seekId}.
+ */
+public record KeysetOrder(String keyExpression, String idExpression, boolean ascending) {
+
+    public String seekPredicate() {
+        String comparison = ascending ? ">" : "<";
+        return "(" + keyExpression + " " + comparison + " :seekKey OR (" + keyExpression + " = :seekKey AND "
+                + idExpression + " " + comparison + " :seekId))";
+    }
+
+    public String orderBy() {
+        String direction = ascending ? "ASC" : "DESC";
+        return keyExpression + " " + direction + ", " + idExpression + " " + direction;
+    }
+}
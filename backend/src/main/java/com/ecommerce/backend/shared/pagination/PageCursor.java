@@ -0,0 +1,87 @@
+package com.ecommerce.backend.shared.pagination;
+
+import com.ecommerce.backend.shared.exception.ValidationException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Opaque continuation token of a keyset page: the sort key values of the last row returned, in sort order.
+ * Values are kept as strings and read back with the typed getters.
+ */
+public final class PageCursor {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final TypeReference<List<String>> KEYS_TYPE = new TypeReference<>() {
+    };
+
+    private final List<String> keys;
+
+    private PageCursor(List<String> keys) {
+        this.keys = keys;
+    }
+
+    public static String encode(Object... keys) {
+        List<String> values = Arrays.stream(keys).map(String::valueOf).toList();
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(values));
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to encode page cursor", e);
+        }
+    }
+
+    /**
+     * @return the decoded cursor, or {@code null} for an empty token, which requests the first page
+     */
+    public static PageCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            return new PageCursor(MAPPER.readValue(Base64.getUrlDecoder().decode(token), KEYS_TYPE));
+        } catch (Exception e) {
+            throw new ValidationException("Invalid page cursor", "INVALID_CURSOR");
+        }
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    public String getString(int index) {
+        return key(index);
+    }
+
+    public Long getLong(int index) {
+        return parse(index, Long::valueOf);
+    }
+
+    public BigDecimal getDecimal(int index) {
+        return parse(index, BigDecimal::new);
+    }
+
+    public LocalDateTime getDateTime(int index) {
+        return parse(index, LocalDateTime::parse);
+    }
+
+    private String key(int index) {
+        if (index >= keys.size()) {
+            throw new ValidationException("Invalid page cursor", "INVALID_CURSOR");
+        }
+        return keys.get(index);
+    }
+
+    private <T> T parse(int index, Function<String, T> parser) {
+        try {
+            return parser.apply(key(index));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid page cursor", "INVALID_CURSOR");
+        }
+    }
+}
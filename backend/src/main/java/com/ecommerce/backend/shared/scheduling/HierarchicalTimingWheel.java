@@ -0,0 +1,106 @@
+package com.ecommerce.backend.shared.scheduling;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hashed timing wheel with overflow levels. Level {@code n} has {@code wheelSize} buckets of
+ * {@code tickMs * wheelSize^n} milliseconds; a bucket of an upper level is handed down when the level below
+ * reaches it, so scheduling and expiring cost O(1) per entry however many entries are pending.
+ * Deadlines past {@link #horizon()} are rejected and have to be kept elsewhere until they come into range.
+ * Not thread-safe.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMs;
+    private final int wheelSize;
+    private final long interval;
+    private final List<List<Entry<T>>> buckets;
+    private final HierarchicalTimingWheel<T> overflow;
+    private long currentTime;
+    private int size;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, int levels, long startMs) {
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.interval = tickMs * wheelSize;
+        this.currentTime = startMs - (startMs % tickMs);
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.overflow = levels > 1 ? new HierarchicalTimingWheel<>(interval, wheelSize, levels - 1, startMs) : null;
+    }
+
+    /**
+     * @return {@code false} if the deadline is beyond {@link #horizon()}; a deadline that has already passed
+     * is returned once the current tick elapses
+     */
+    public boolean schedule(T value, long deadlineMs) {
+        if (deadlineMs >= horizon()) {
+            return false;
+        }
+        add(new Entry<>(value, Math.max(deadlineMs, currentTime)));
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMs} and hands every entry whose tick has fully elapsed to
+     * {@code expired}. Entries are never returned early and at most one tick late.
+     */
+    public void advance(long nowMs, Consumer<T> expired) {
+        while (currentTime + tickMs <= nowMs) {
+            drain(expired);
+            moveTo(currentTime + tickMs);
+        }
+    }
+
+    /**
+     * @return the first deadline that no longer fits into the wheel
+     */
+    public long horizon() {
+        return overflow != null ? overflow.horizon() : currentTime + interval;
+    }
+
+    public int size() {
+        return size + (overflow != null ? overflow.size() : 0);
+    }
+
+    private void add(Entry<T> entry) {
+        if (overflow != null && entry.deadlineMs() >= currentTime + interval) {
+            overflow.add(entry);
+            return;
+        }
+        buckets.get(bucketIndex(entry.deadlineMs())).add(entry);
+        size++;
+    }
+
+    private void moveTo(long time) {
+        currentTime = time;
+        if (overflow != null && time % overflow.tickMs == 0) {
+            overflow.moveTo(time);
+            List<Entry<T>> bucket = overflow.buckets.get(overflow.bucketIndex(time));
+            overflow.size -= bucket.size();
+            bucket.forEach(this::add);
+            bucket.clear();
+        }
+    }
+
+    private void drain(Consumer<T> expired) {
+        List<Entry<T>> bucket = buckets.get(bucketIndex(currentTime));
+        if (bucket.isEmpty()) {
+            return;
+        }
+        size -= bucket.size();
+        bucket.forEach(entry -> expired.accept(entry.value()));
+        bucket.clear();
+    }
+
+    private int bucketIndex(long time) {
+        return (int) ((time / tickMs) % wheelSize);
+    }
+
+    private record Entry<T>(T value, long deadlineMs) {
+    }
+}
@@ -0,0 +1,59 @@
+package com.ecommerce.backend.shared.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+
+/**
+ * Row-based lock in {@code scheduled_job_locks} so that a scheduled job runs on one instance at a time.
+ * A lock expires after {@code lockAtMostFor}, which protects against instances that die while holding it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduledJobLock {
+
+    private static final String ACQUIRE_SQL = """
+            INSERT INTO scheduled_job_locks (job_name, locked_until, locked_at, locked_by)
+            VALUES (?, CURRENT_TIMESTAMP + ? * INTERVAL '1 millisecond', CURRENT_TIMESTAMP, ?)
+            ON CONFLICT (job_name) DO UPDATE
+            SET locked_until = EXCLUDED.locked_until,
+                locked_at = EXCLUDED.locked_at,
+                locked_by = EXCLUDED.locked_by
+            WHERE scheduled_job_locks.locked_until <= CURRENT_TIMESTAMP
+            """;
+
+    private static final String RELEASE_SQL = """
+            UPDATE scheduled_job_locks
+            SET locked_until = CURRENT_TIMESTAMP
+            WHERE job_name = ? AND locked_by = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String instanceId = ManagementFactory.getRuntimeMXBean().getName();
+
+    public boolean tryAcquire(String jobName, Duration lockAtMostFor) {
+        return jdbcTemplate.update(ACQUIRE_SQL, jobName, lockAtMostFor.toMillis(), instanceId) > 0;
+    }
+
+    public void release(String jobName) {
+        jdbcTemplate.update(RELEASE_SQL, jobName, instanceId);
+    }
+
+    public boolean runLocked(String jobName, Duration lockAtMostFor, Runnable task) {
+        if (!tryAcquire(jobName, lockAtMostFor)) {
+            log.debug("Job {} is locked by another instance, skipping", jobName);
+            return false;
+        }
+        try {
+            task.run();
+            return true;
+        } finally {
+            release(jobName);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+CREATE TABLE order_reservations (
+    order_id BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_order_reservations PRIMARY KEY (order_id, product_id),
+    CONSTRAINT chk_order_reservations_status CHECK (status IN ('RESERVED', 'CONFIRMED', 'RELEASED'))
+);
+
+INSERT INTO order_reservations (order_id, product_id, quantity, status, created_at, updated_at)
+SELECT r.order_id,
+       r.product_id,
+       r.quantity,
+       CASE
+           WHEN EXISTS (SELECT 1 FROM inventory_history h
+                        WHERE h.order_id = r.order_id AND h.product_id = r.product_id
+                          AND h.change_type = 'CONFIRM_RESERVE') THEN 'CONFIRMED'
+           WHEN EXISTS (SELECT 1 FROM inventory_history h
+                        WHERE h.order_id = r.order_id AND h.product_id = r.product_id
+                          AND h.change_type = 'RELEASE_RESERVE') THEN 'RELEASED'
+           ELSE 'RESERVED'
+       END,
+       r.created_at,
+       r.created_at
+FROM (SELECT DISTINCT ON (order_id, product_id) order_id, product_id, quantity, created_at
+      FROM inventory_history
+      WHERE change_type = 'RESERVE' AND order_id IS NOT NULL
+      ORDER BY order_id, product_id, created_at DESC) r;
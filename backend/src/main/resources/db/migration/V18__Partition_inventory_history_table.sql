@@ -0,0 +1,51 @@
+ALTER TABLE inventory_history RENAME TO inventory_history_legacy;
+ALTER TABLE inventory_history_legacy RENAME CONSTRAINT fk_inventory_history_product_id TO fk_inventory_history_legacy_product_id;
+ALTER SEQUENCE inventory_history_id_seq OWNED BY NONE;
+
+CREATE TABLE inventory_history (
+    id BIGINT NOT NULL DEFAULT nextval('inventory_history_id_seq'),
+    product_id BIGINT NOT NULL,
+    change_type VARCHAR(50) NOT NULL,
+    quantity INTEGER NOT NULL,
+    available_before INTEGER NOT NULL,
+    available_after INTEGER NOT NULL,
+    reserved_before INTEGER,
+    reserved_after INTEGER,
+    order_id BIGINT,
+    created_by VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_inventory_history PRIMARY KEY (id, created_at),
+    CONSTRAINT fk_inventory_history_product_id FOREIGN KEY (product_id)
+        REFERENCES products(id) ON DELETE CASCADE
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE inventory_history_id_seq OWNED BY inventory_history.id;
+
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', COALESCE((SELECT MIN(created_at) FROM inventory_history_legacy), CURRENT_DATE))::DATE;
+    last_month DATE := (date_trunc('month', CURRENT_DATE) + INTERVAL '3 months')::DATE;
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF inventory_history FOR VALUES FROM (%L) TO (%L)',
+                       'inventory_history_' || to_char(month_start, 'YYYY_MM'),
+                       month_start,
+                       (month_start + INTERVAL '1 month')::DATE);
+        month_start := (month_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+END $$;
+
+CREATE TABLE inventory_history_default PARTITION OF inventory_history DEFAULT;
+
+CREATE INDEX idx_inventory_history_product_created ON inventory_history (product_id, created_at DESC);
+CREATE INDEX idx_inventory_history_order_id ON inventory_history (order_id);
+CREATE INDEX idx_inventory_history_created_brin ON inventory_history USING BRIN (created_at);
+
+INSERT INTO inventory_history (id, product_id, change_type, quantity, available_before, available_after,
+                               reserved_before, reserved_after, order_id, created_by, created_at)
+SELECT id, product_id, change_type, quantity, available_before, available_after,
+       reserved_before, reserved_after, order_id, created_by, created_at
+FROM inventory_history_legacy;
+
+DROP TABLE inventory_history_legacy;
@@ -0,0 +1,5 @@
+ALTER TABLE inventory ADD COLUMN flash_sale BOOLEAN NOT NULL DEFAULT FALSE;
+
+ALTER TABLE order_reservations ADD COLUMN reconciled BOOLEAN NOT NULL DEFAULT TRUE;
+
+CREATE INDEX idx_order_reservations_unreconciled ON order_reservations (created_at) WHERE reconciled = FALSE;
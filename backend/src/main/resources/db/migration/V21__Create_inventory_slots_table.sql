@@ -0,0 +1,16 @@
+ALTER TABLE inventory ADD COLUMN slot_count INTEGER NOT NULL DEFAULT 1;
+ALTER TABLE inventory ADD CONSTRAINT chk_inventory_slot_count CHECK (slot_count BETWEEN 1 AND 64);
+
+CREATE TABLE inventory_slots (
+    product_id BIGINT NOT NULL,
+    slot INTEGER NOT NULL,
+    available_quantity INTEGER NOT NULL DEFAULT 0,
+    reserved_quantity INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_inventory_slots PRIMARY KEY (product_id, slot),
+    CONSTRAINT fk_inventory_slots_product_id FOREIGN KEY (product_id)
+        REFERENCES inventory(product_id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_inventory_sharded ON inventory (product_id) WHERE slot_count > 1;
@@ -0,0 +1,17 @@
+CREATE TABLE reservation_deadlines (
+    order_id BIGINT NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_reservation_deadlines PRIMARY KEY (order_id),
+    CONSTRAINT fk_reservation_deadlines_order_id FOREIGN KEY (order_id)
+        REFERENCES orders(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_reservation_deadlines_expires_at ON reservation_deadlines (expires_at, order_id);
+
+INSERT INTO reservation_deadlines (order_id, expires_at)
+SELECT o.id, o.created_at + INTERVAL '30 minutes'
+FROM orders o
+WHERE o.status = 'PENDING'
+  AND EXISTS (SELECT 1 FROM order_reservations r WHERE r.order_id = o.id AND r.status = 'RESERVED');
@@ -0,0 +1,13 @@
+-- Every keyset page is a range scan starting at the cursor, so each sort order needs an index ending in the id tie-breaker.
+CREATE INDEX idx_orders_user_id_id ON orders (user_id, id DESC);
+CREATE INDEX idx_orders_status_id ON orders (status, id DESC);
+
+CREATE INDEX idx_reviews_product_created_id ON reviews (product_id, created_at DESC, id DESC);
+
+CREATE INDEX idx_users_created_at_id ON users (created_at, id);
+
+CREATE INDEX idx_products_price_id ON products (price, id);
+CREATE INDEX idx_products_created_at_id ON products (created_at, id);
+
+DROP INDEX idx_inventory_history_product_created;
+CREATE INDEX idx_inventory_history_product_created ON inventory_history (product_id, created_at DESC, id DESC);
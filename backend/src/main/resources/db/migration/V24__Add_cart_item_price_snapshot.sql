@@ -0,0 +1,6 @@
+ALTER TABLE cart_items ADD COLUMN price_snapshot DECIMAL(10, 2);
+
+UPDATE cart_items ci
+SET price_snapshot = p.price
+FROM products p
+WHERE p.id = ci.product_id;
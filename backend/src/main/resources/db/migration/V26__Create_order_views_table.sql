@@ -0,0 +1,37 @@
+-- Read model of orders: everything the order endpoints return in one row, items embedded as JSON.
+-- Written by OrderService in the same transaction as every order change.
+CREATE TABLE order_views (
+    order_id BIGINT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    user_email VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    total_amount DECIMAL(10, 2) NOT NULL,
+    shipping_street VARCHAR(255) NOT NULL,
+    shipping_city VARCHAR(100) NOT NULL,
+    shipping_postal_code VARCHAR(6) NOT NULL,
+    comment VARCHAR(500),
+    items JSONB NOT NULL DEFAULT '[]',
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_order_views_order FOREIGN KEY (order_id)
+        REFERENCES orders(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_order_views_user_email_order_id ON order_views (user_email, order_id DESC);
+CREATE INDEX idx_order_views_status_order_id ON order_views (status, order_id DESC);
+
+INSERT INTO order_views (order_id, user_id, user_email, status, total_amount, shipping_street, shipping_city,
+                         shipping_postal_code, comment, items, created_at, updated_at)
+SELECT o.id, o.user_id, u.email, o.status, o.total_amount, o.shipping_street, o.shipping_city,
+       o.shipping_postal_code, o.comment,
+       COALESCE((SELECT jsonb_agg(jsonb_build_object(
+                        'productId', oi.product_id,
+                        'productName', oi.product_name,
+                        'quantity', oi.quantity,
+                        'priceAtTime', oi.price_at_time) ORDER BY oi.id)
+                 FROM order_items oi
+                 WHERE oi.order_id = o.id), '[]'),
+       o.created_at, o.updated_at
+FROM orders o
+JOIN users u ON u.id = o.user_id;
@@ -0,0 +1,20 @@
+-- Per-user order aggregate for the admin user list, kept up to date by OrderService on every order change.
+-- total_spent leaves out cancelled orders.
+CREATE TABLE user_order_stats (
+    user_id BIGINT PRIMARY KEY,
+    order_count INTEGER NOT NULL DEFAULT 0,
+    total_spent DECIMAL(12, 2) NOT NULL DEFAULT 0,
+    last_order_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_user_order_stats_user FOREIGN KEY (user_id)
+        REFERENCES users(id) ON DELETE CASCADE
+);
+
+INSERT INTO user_order_stats (user_id, order_count, total_spent, last_order_at)
+SELECT user_id,
+       COUNT(*),
+       COALESCE(SUM(total_amount) FILTER (WHERE status <> 'CANCELLED'), 0),
+       MAX(created_at)
+FROM orders
+GROUP BY user_id;
@@ -0,0 +1,2 @@
+-- Date range filter of the admin order export.
+CREATE INDEX idx_order_views_created_at ON order_views (created_at);
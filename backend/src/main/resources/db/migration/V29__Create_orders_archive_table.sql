@@ -0,0 +1,22 @@
+-- Finished orders older than order.archive.after-days move out of orders into orders_archive, so that the hot
+-- tables and their indexes only hold orders that still change. The archive is never updated and is split into
+-- monthly partitions by creation time, which OrderArchiveService creates as it archives into them.
+CREATE INDEX idx_orders_status_created_at ON orders (status, created_at);
+
+CREATE TABLE orders_archive (
+    order_id BIGINT NOT NULL,
+    user_id BIGINT NOT NULL,
+    user_email VARCHAR(255) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    total_amount DECIMAL(10, 2) NOT NULL,
+    shipping_street VARCHAR(255) NOT NULL,
+    shipping_city VARCHAR(100) NOT NULL,
+    shipping_postal_code VARCHAR(6) NOT NULL,
+    comment VARCHAR(500),
+    items JSONB NOT NULL DEFAULT '[]',
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_orders_archive PRIMARY KEY (order_id, created_at)
+) PARTITION BY RANGE (created_at);
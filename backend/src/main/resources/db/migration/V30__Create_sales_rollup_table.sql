@@ -0,0 +1,16 @@
+-- Sales per minute, hour and day, per product, per category and in total (dimension_id 0). Rows only grow by
+-- the deltas SalesAggregator flushes; cancellations are negative deltas in the bucket the order was placed in.
+CREATE TABLE sales_rollup (
+    granularity VARCHAR(10) NOT NULL,
+    dimension VARCHAR(10) NOT NULL,
+    dimension_id BIGINT NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    quantity BIGINT NOT NULL DEFAULT 0,
+    revenue DECIMAL(14, 2) NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_sales_rollup PRIMARY KEY (granularity, dimension, dimension_id, bucket_start)
+);
+
+-- Top-N scans all ids of a dimension within a range of buckets
+CREATE INDEX idx_sales_rollup_bucket ON sales_rollup (granularity, dimension, bucket_start);
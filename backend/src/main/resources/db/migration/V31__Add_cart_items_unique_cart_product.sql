@@ -0,0 +1,15 @@
+-- Concurrent adds of the same product could insert two lines. Merge existing duplicates into the oldest line
+-- before the constraint makes them impossible and lets adds upsert.
+UPDATE cart_items ci
+SET quantity = duplicates.total_quantity
+FROM (SELECT MIN(id) AS kept_id, SUM(quantity) AS total_quantity
+      FROM cart_items
+      GROUP BY cart_id, product_id
+      HAVING COUNT(*) > 1) duplicates
+WHERE ci.id = duplicates.kept_id;
+
+DELETE FROM cart_items ci
+USING cart_items kept
+WHERE kept.cart_id = ci.cart_id AND kept.product_id = ci.product_id AND kept.id < ci.id;
+
+ALTER TABLE cart_items ADD CONSTRAINT uq_cart_items_cart_product UNIQUE (cart_id, product_id);
@@ -0,0 +1,12 @@
+UPDATE carts SET updated_at = COALESCE(created_at, CURRENT_TIMESTAMP) WHERE updated_at IS NULL;
+ALTER TABLE carts ALTER COLUMN updated_at SET NOT NULL;
+
+-- Keyset order of the abandoned cart scan and the empty cart purge
+CREATE INDEX idx_carts_updated_at_id ON carts (updated_at, id);
+
+CREATE TABLE scheduled_job_watermarks (
+    job_name VARCHAR(100) PRIMARY KEY,
+    watermark_at TIMESTAMP NOT NULL,
+    watermark_id BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
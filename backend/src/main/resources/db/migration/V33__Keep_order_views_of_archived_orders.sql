@@ -0,0 +1,20 @@
+-- Archived orders keep their order_views row, so the order endpoints and the export still return them once the
+-- orders row is gone. Views are removed together with their user instead of their order.
+ALTER TABLE order_views DROP CONSTRAINT fk_order_views_order;
+
+ALTER TABLE order_views ADD CONSTRAINT fk_order_views_user FOREIGN KEY (user_id)
+    REFERENCES users(id) ON DELETE CASCADE;
+
+-- Orders archived before this lost their views
+INSERT INTO order_views (order_id, user_id, user_email, status, total_amount, shipping_street, shipping_city,
+                         shipping_postal_code, comment, items, created_at, updated_at)
+SELECT a.order_id, a.user_id, a.user_email, a.status, a.total_amount, a.shipping_street, a.shipping_city,
+       a.shipping_postal_code, a.comment, a.items, a.created_at, a.updated_at
+FROM orders_archive a
+WHERE EXISTS (SELECT 1 FROM users u WHERE u.id = a.user_id)
+ON CONFLICT (order_id) DO NOTHING;
+
+-- and left their finished reservations behind
+DELETE FROM order_reservations r
+WHERE r.reconciled
+  AND EXISTS (SELECT 1 FROM orders_archive a WHERE a.order_id = r.order_id);
@@ -0,0 +1,19 @@
+-- Concurrent first writes of a user could create two carts. Merge the items of existing duplicates into the
+-- oldest cart and drop the others before the constraint makes them impossible and lets carts be upserted.
+INSERT INTO cart_items (cart_id, product_id, quantity, price_snapshot)
+SELECT kept.id, ci.product_id, SUM(ci.quantity), (ARRAY_AGG(ci.price_snapshot ORDER BY ci.id DESC))[1]
+FROM cart_items ci
+JOIN carts c ON c.id = ci.cart_id
+JOIN (SELECT user_id, MIN(id) AS id
+      FROM carts
+      GROUP BY user_id
+      HAVING COUNT(*) > 1) kept ON kept.user_id = c.user_id AND kept.id <> c.id
+GROUP BY kept.id, ci.product_id
+ON CONFLICT (cart_id, product_id) DO UPDATE
+SET quantity = cart_items.quantity + EXCLUDED.quantity;
+
+DELETE FROM carts c
+USING carts kept
+WHERE kept.user_id = c.user_id AND kept.id < c.id;
+
+ALTER TABLE carts ADD CONSTRAINT uq_carts_user UNIQUE (user_id);
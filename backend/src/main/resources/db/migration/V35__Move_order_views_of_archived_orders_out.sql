@@ -0,0 +1,12 @@
+-- order_views serves every order read, so it only keeps the views of orders that are still in orders. Reads of
+-- archived orders fall back to orders_archive, which gets the indexes of the per-user and per-status pages.
+DELETE FROM order_views v
+WHERE NOT EXISTS (SELECT 1 FROM orders o WHERE o.id = v.order_id);
+
+ALTER TABLE order_views DROP CONSTRAINT fk_order_views_user;
+
+ALTER TABLE order_views ADD CONSTRAINT fk_order_views_order FOREIGN KEY (order_id)
+    REFERENCES orders(id) ON DELETE CASCADE;
+
+CREATE INDEX idx_orders_archive_user_email_order_id ON orders_archive (user_email, order_id DESC);
+CREATE INDEX idx_orders_archive_status_order_id ON orders_archive (status, order_id DESC);
@@ -0,0 +1,178 @@
+package com.ecommerce.backend.integration;
+
+import com.ecommerce.backend.modules.category.entity.Category;
+import com.ecommerce.backend.modules.category.repository.CategoryRepository;
+import com.ecommerce.backend.modules.inventory.entity.Inventory;
+import com.ecommerce.backend.modules.inventory.repository.InventoryRepository;
+import com.ecommerce.backend.modules.inventory.service.InventoryService;
+import com.ecommerce.backend.modules.inventory.service.InventorySlotService;
+import com.ecommerce.backend.modules.order.entity.Order;
+import com.ecommerce.backend.modules.order.entity.OrderStatus;
+import com.ecommerce.backend.modules.order.repository.OrdersRepository;
+import com.ecommerce.backend.modules.product.entity.Product;
+import com.ecommerce.backend.modules.product.repository.ProductRepository;
+import com.ecommerce.backend.modules.user.entity.User;
+import com.ecommerce.backend.modules.user.entity.UserRole;
+import com.ecommerce.backend.modules.user.repository.UserRepository;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares single-product reservation throughput for different slot counts. Opt-in because it is slow:
+ * run with {@code -Dbenchmark=true}.
+ */
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class InventorySlotThroughputTest {
+
+    private static final int THREADS = 32;
+    private static final int RESERVATIONS_PER_THREAD = 200;
+
+    @Container
+    private static final PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>("postgres:15-alpine");
+
+    @Container
+    private static final GenericContainer<?> redisContainer = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("spring.datasource.hikari.maximum-pool-size", () -> THREADS + 4);
+        registry.add("spring.data.redis.host", redisContainer::getHost);
+        registry.add("spring.data.redis.port", () -> redisContainer.getMappedPort(6379));
+    }
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventorySlotService inventorySlotService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private OrdersRepository ordersRepository;
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 4, 16})
+    @WithMockUser(roles = "ADMIN")
+    void reservationThroughput(int slotCount, TestReporter reporter) throws Exception {
+        int totalReservations = THREADS * RESERVATIONS_PER_THREAD;
+        Long productId = createProduct(totalReservations);
+        inventorySlotService.updateSlotCount(productId, slotCount, "benchmark");
+        inventorySlotService.refreshSlotCounts();
+        // Reservation deadlines reference their order, so every reservation needs a real pending order
+        List<Long> orderIds = createOrders(totalReservations);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        long startedAt = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            List<Long> threadOrderIds = orderIds.subList(i * RESERVATIONS_PER_THREAD, (i + 1) * RESERVATIONS_PER_THREAD);
+            futures.add(executor.submit(() -> {
+                for (Long orderId : threadOrderIds) {
+                    inventoryService.reserveProduct(orderId, Map.of(productId, 1), "benchmark");
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        executor.shutdown();
+
+        double perSecond = totalReservations / (elapsedNanos / 1_000_000_000.0);
+        reporter.publishEntry(Map.of(
+                "slots", String.valueOf(slotCount),
+                "reservations", String.valueOf(totalReservations),
+                "elapsedMs", String.valueOf(elapsedNanos / 1_000_000),
+                "throughputPerSecond", String.format("%.0f", perSecond)));
+
+        Inventory inventory = inventoryRepository.findById(productId).orElseThrow();
+        assertThat(inventory.getTotalAvailableQuantity()).isZero();
+        assertThat(inventory.getTotalReservedQuantity()).isEqualTo(totalReservations);
+    }
+
+    private Long createProduct(int stock) {
+        Category category = new Category();
+        category.setName("Benchmark " + System.nanoTime());
+        category = categoryRepository.save(category);
+
+        Product product = new Product();
+        product.setName("benchmark product");
+        product.setCategoryId(category.getId());
+        product.setAvailable(true);
+        product.setImageUrl("benchmark img");
+        product.setPrice(BigDecimal.TEN);
+        product.setCreatedAt(LocalDateTime.now());
+        product = productRepository.save(product);
+
+        Inventory inventory = new Inventory();
+        inventory.setProductId(product.getId());
+        inventory.setAvailableQuantity(stock);
+        inventory.setReservedQuantity(0);
+        inventory.setCreatedAt(LocalDateTime.now());
+        inventory.setUpdatedAt(LocalDateTime.now());
+        inventoryRepository.save(inventory);
+        return product.getId();
+    }
+
+    private List<Long> createOrders(int count) {
+        User user = new User();
+        user.setEmail("benchmark-" + System.nanoTime() + "@example.com");
+        user.setPasswordHash("pass");
+        user.setRole(UserRole.USER);
+        user.setFirstName("Benchmark");
+        user.setLastName("User");
+        user.setCreatedAt(LocalDateTime.now());
+        User savedUser = userRepository.save(user);
+
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            orders.add(Order.builder()
+                    .user(savedUser)
+                    .status(OrderStatus.PENDING)
+                    .totalAmount(BigDecimal.TEN)
+                    .shippingStreet("Benchmark street")
+                    .shippingCity("Benchmark")
+                    .shippingPostalCode("123456")
+                    .build());
+        }
+        return ordersRepository.saveAll(orders).stream().map(Order::getId).toList();
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.backend.modules.analytics.service;
+
+import com.ecommerce.backend.modules.analytics.entity.SalesDimension;
+import com.ecommerce.backend.modules.analytics.entity.SalesGranularity;
+import com.ecommerce.backend.modules.analytics.repository.SalesRollupJdbcRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesAggregatorTest {
+
+    @Mock
+    private SalesRollupJdbcRepository salesRollupJdbcRepository;
+
+    @InjectMocks
+    private SalesAggregator salesAggregator;
+
+    private final LocalDateTime placedAt = LocalDateTime.of(2026, 3, 14, 10, 25, 40);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_shouldAddNetSalesToEveryGranularity() {
+        when(salesRollupJdbcRepository.findProductCategories(Set.of(10L, 20L))).thenReturn(Map.of(10L, 1L, 20L, 1L));
+        salesAggregator.record(placedAt, List.of(
+                new SalesAggregator.Line(10L, 2, new BigDecimal("9.99")),
+                new SalesAggregator.Line(20L, 1, new BigDecimal("5.00"))), 1);
+        salesAggregator.record(placedAt.plusSeconds(10), List.of(new SalesAggregator.Line(10L, 1, new BigDecimal("9.99"))), -1);
+
+        salesAggregator.flush();
+
+        ArgumentCaptor<List<SalesRollupJdbcRepository.Rollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(salesRollupJdbcRepository).add(captor.capture());
+        List<SalesRollupJdbcRepository.Rollup> rollups = captor.getValue();
+        assertThat(rollups).hasSize(12);
+        assertThat(rollups)
+                .filteredOn(rollup -> rollup.dimension() == SalesDimension.TOTAL)
+                .extracting(SalesRollupJdbcRepository.Rollup::granularity, SalesRollupJdbcRepository.Rollup::bucketStart,
+                        SalesRollupJdbcRepository.Rollup::quantity, SalesRollupJdbcRepository.Rollup::revenue)
+                .containsExactlyInAnyOrder(
+                        tuple(SalesGranularity.MINUTE, LocalDateTime.of(2026, 3, 14, 10, 25), 2L, new BigDecimal("14.99")),
+                        tuple(SalesGranularity.HOUR, LocalDateTime.of(2026, 3, 14, 10, 0), 2L, new BigDecimal("14.99")),
+                        tuple(SalesGranularity.DAY, LocalDateTime.of(2026, 3, 14, 0, 0), 2L, new BigDecimal("14.99")));
+        assertThat(rollups)
+                .filteredOn(rollup -> rollup.dimension() == SalesDimension.PRODUCT && rollup.dimensionId() == 10L)
+                .extracting(SalesRollupJdbcRepository.Rollup::quantity)
+                .containsOnly(1L);
+        verify(salesRollupJdbcRepository, times(1)).findProductCategories(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_shouldKeepSalesWhenWriteFails() {
+        when(salesRollupJdbcRepository.findProductCategories(Set.of(10L))).thenReturn(Map.of(10L, 1L));
+        salesAggregator.record(placedAt, List.of(new SalesAggregator.Line(10L, 1, BigDecimal.TEN)), 1);
+        doThrow(new RuntimeException("connection refused")).doNothing().when(salesRollupJdbcRepository).add(anyList());
+
+        salesAggregator.flush();
+        salesAggregator.flush();
+
+        ArgumentCaptor<List<SalesRollupJdbcRepository.Rollup>> captor = ArgumentCaptor.forClass(List.class);
+        verify(salesRollupJdbcRepository, times(2)).add(captor.capture());
+        assertThat(captor.getAllValues().get(1)).hasSize(9);
+    }
+}
@@ -0,0 +1,83 @@
+package com.ecommerce.backend.modules.cart.service;
+
+import com.ecommerce.backend.config.RabbitConfig;
+import com.ecommerce.backend.modules.cart.config.CartProps;
+import com.ecommerce.backend.modules.cart.repository.AbandonedCartJdbcRepository;
+import com.ecommerce.backend.shared.events.CartAbandonedEvent;
+import com.ecommerce.backend.shared.outbox.EventPublisher;
+import com.ecommerce.backend.shared.scheduling.ScheduledJobLock;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AbandonedCartServiceTest {
+
+    private static final LocalDateTime IDLE_SINCE = LocalDateTime.of(2026, 10, 17, 12, 0);
+
+    @Mock
+    private AbandonedCartJdbcRepository abandonedCartJdbcRepository;
+    @Mock
+    private EventPublisher eventPublisher;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ScheduledJobLock scheduledJobLock;
+    @Spy
+    private CartProps cartProps = new CartProps();
+    @Captor
+    private ArgumentCaptor<List<CartAbandonedEvent>> eventsCaptor;
+
+    @InjectMocks
+    private AbandonedCartService abandonedCartService;
+
+    @Test
+    void notifyChunk_whenChunkIsFull_shouldPublishNonEmptyCartsAndMoveWatermarkToLastCart() {
+        AbandonedCartJdbcRepository.Watermark watermark =
+                new AbandonedCartJdbcRepository.Watermark(IDLE_SINCE.minusHours(3), 5L);
+        when(abandonedCartJdbcRepository.findWatermark("abandoned-carts")).thenReturn(Optional.of(watermark));
+        when(abandonedCartJdbcRepository.findIdleCarts(watermark, IDLE_SINCE, 2)).thenReturn(List.of(
+                new AbandonedCartJdbcRepository.IdleCart(7L, 1L, "a@example.com", IDLE_SINCE.minusHours(2), 3),
+                new AbandonedCartJdbcRepository.IdleCart(9L, 2L, "b@example.com", IDLE_SINCE.minusHours(1), 0)));
+
+        AbandonedCartService.Chunk chunk = abandonedCartService.notifyChunk(IDLE_SINCE, 2);
+
+        assertThat(chunk).isEqualTo(new AbandonedCartService.Chunk(2, 1));
+        verify(eventPublisher).publishAll(eventsCaptor.capture(), eq(RabbitConfig.CART_EVENTS_EXCHANGE), eq("cart.abandoned"));
+        assertThat(eventsCaptor.getValue()).singleElement().satisfies(event -> {
+            assertThat(event.getCartId()).isEqualTo(7L);
+            assertThat(event.getUserEmail()).isEqualTo("a@example.com");
+            assertThat(event.getItemCount()).isEqualTo(3);
+        });
+        verify(abandonedCartJdbcRepository).saveWatermark("abandoned-carts",
+                new AbandonedCartJdbcRepository.Watermark(IDLE_SINCE.minusHours(1), 9L));
+    }
+
+    @Test
+    void notifyChunk_whenScanCaughtUp_shouldMoveWatermarkToIdleSince() {
+        when(abandonedCartJdbcRepository.findWatermark("abandoned-carts")).thenReturn(Optional.empty());
+        when(abandonedCartJdbcRepository.findIdleCarts(
+                new AbandonedCartJdbcRepository.Watermark(IDLE_SINCE.minusHours(1), 0), IDLE_SINCE, 2))
+                .thenReturn(List.of());
+
+        AbandonedCartService.Chunk chunk = abandonedCartService.notifyChunk(IDLE_SINCE, 2);
+
+        assertThat(chunk.scanned()).isZero();
+        verify(abandonedCartJdbcRepository).saveWatermark("abandoned-carts",
+                new AbandonedCartJdbcRepository.Watermark(IDLE_SINCE, Long.MAX_VALUE));
+    }
+}
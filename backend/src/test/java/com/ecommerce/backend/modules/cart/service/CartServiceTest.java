@@ -1,27 +1,37 @@
 package com.ecommerce.backend.modules.cart.service;
 
+import com.ecommerce.backend.modules.cart.config.CartProps;
+import com.ecommerce.backend.modules.cart.dto.CartBatchRequest;
+import com.ecommerce.backend.modules.cart.dto.CartDeltaDto;
 import com.ecommerce.backend.modules.cart.dto.CartItemDto;
 import com.ecommerce.backend.modules.cart.dto.CartResponseDto;
 import com.ecommerce.backend.modules.cart.dto.UpdateCartItemDto;
 import com.ecommerce.backend.modules.cart.entity.Cart;
 import com.ecommerce.backend.modules.cart.entity.CartItem;
-import com.ecommerce.backend.modules.cart.repository.CartItemsRepository;
+import com.ecommerce.backend.modules.cart.repository.CartJdbcRepository;
 import com.ecommerce.backend.modules.cart.repository.CartRepository;
+import com.ecommerce.backend.modules.product.dto.ProductResponse;
 import com.ecommerce.backend.modules.product.entity.Product;
 import com.ecommerce.backend.modules.product.repository.ProductRepository;
+import com.ecommerce.backend.modules.product.service.ProductService;
 import com.ecommerce.backend.modules.user.entity.User;
-import com.ecommerce.backend.modules.user.repository.UserRepository;
+import com.ecommerce.backend.shared.exception.BusinessException;
+import com.ecommerce.backend.shared.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -33,9 +43,17 @@ class CartServiceTest {
     @Mock
     private ProductRepository productRepository;
     @Mock
-    private UserRepository userRepository;
+    private ProductService productService;
     @Mock
-    private CartItemsRepository cartItemsRepository;
+    private CartJdbcRepository cartJdbcRepository;
+    @Mock
+    private RedisCartStore redisCartStore;
+    @Mock
+    private GuestCartStore guestCartStore;
+    @Mock
+    private CartWriteBehindService cartWriteBehindService;
+    @Spy
+    private CartProps cartProps = new CartProps();
 
     @InjectMocks
     private CartService cartService;
@@ -60,50 +78,99 @@ class CartServiceTest {
     }
 
     @Test
-    void addItemToCart_whenCartIsEmpty_shouldAddNewItem() {
-        // Given
+    void addItemToCart_shouldUpsertLineAndReturnCart() {
+        CartItem cartItem = new CartItem();
+        cartItem.setId(100L);
+        cartItem.setProduct(product);
+        cartItem.setQuantity(3);
+        cart.getItems().add(cartItem);
+
         CartItemDto cartItemDto = new CartItemDto();
         cartItemDto.setCartId(cart.getId());
         cartItemDto.setProductId(product.getId());
         cartItemDto.setQuantity(2);
 
-        when(cartRepository.findByUserId(user.getId())).thenReturn(Optional.of(cart));
         when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
-        when(cartItemsRepository.findByCartIdAndProductId(cart.getId(), product.getId())).thenReturn(Optional.empty());
+        when(cartJdbcRepository.upsertItem(user.getId(), product.getId(), 2, product.getPrice()))
+                .thenReturn(Optional.of(line(100L, 3, BigDecimal.ZERO)));
+        when(cartRepository.findByUserIdWithItems(user.getId())).thenReturn(Optional.of(cart));
 
         CartResponseDto result = cartService.addItemToCart(user.getId(), cartItemDto);
 
         assertThat(result).isNotNull();
         assertThat(result.getItems()).hasSize(1);
-        assertThat(result.getItems().get(0).getProductId()).isEqualTo(product.getId());
-        assertThat(result.getItems().get(0).getQuantity()).isEqualTo(2);
-        assertThat(result.getTotalAmount()).isEqualByComparingTo("200");
-        verify(cartRepository, times(1)).save(any(Cart.class));
+        assertThat(result.getItems().get(0).getQuantity()).isEqualTo(3);
+        assertThat(result.getTotalAmount()).isEqualByComparingTo("300");
+        verify(cartRepository, never()).save(any(Cart.class));
     }
 
     @Test
-    void addItemToCart_whenItemExists_shouldIncreaseQuantity() {
-        CartItem existingItem = new CartItem();
-        existingItem.setProduct(product);
-        existingItem.setQuantity(1);
-        cart.getItems().add(existingItem);
+    void addItemToCart_whenUserHasNoCart_shouldCreateCartThroughJdbcAndReturnNewLine() {
+        CartItem cartItem = new CartItem();
+        cartItem.setId(100L);
+        cartItem.setProduct(product);
+        cartItem.setQuantity(2);
+        cart.getItems().add(cartItem);
 
         CartItemDto cartItemDto = new CartItemDto();
-        cartItemDto.setCartId(cart.getId());
         cartItemDto.setProductId(product.getId());
         cartItemDto.setQuantity(2);
 
-        when(cartRepository.findByUserId(user.getId())).thenReturn(Optional.of(cart));
         when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
-        when(cartItemsRepository.findByCartIdAndProductId(cart.getId(), product.getId())).thenReturn(Optional.of(existingItem));
+        when(cartJdbcRepository.upsertItem(user.getId(), product.getId(), 2, product.getPrice()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(line(100L, 2, BigDecimal.ZERO)));
+        when(cartJdbcRepository.lockCarts(List.of(user.getId()))).thenReturn(Map.of(user.getId(), cart.getId()));
+        when(cartRepository.findByUserIdWithItems(user.getId())).thenReturn(Optional.of(cart));
 
         CartResponseDto result = cartService.addItemToCart(user.getId(), cartItemDto);
 
-        assertThat(result).isNotNull();
-        assertThat(result.getItems()).hasSize(1);
-        assertThat(result.getItems().get(0).getQuantity()).isEqualTo(3);
-        assertThat(result.getTotalAmount()).isEqualByComparingTo("300");
-        verify(cartRepository, times(1)).save(any(Cart.class));
+        assertThat(result.getItems()).singleElement().satisfies(item -> {
+            assertThat(item.getId()).isEqualTo(100L);
+            assertThat(item.getQuantity()).isEqualTo(2);
+        });
+        assertThat(result.getTotalAmount()).isEqualByComparingTo("200");
+        verify(cartRepository, never()).save(any(Cart.class));
+    }
+
+    @Test
+    void addItemToCartDelta_whenUserHasNoCart_shouldCreateCartAndRetry() {
+        CartItemDto cartItemDto = new CartItemDto();
+        cartItemDto.setProductId(product.getId());
+        cartItemDto.setQuantity(2);
+
+        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        when(cartJdbcRepository.upsertItem(user.getId(), product.getId(), 2, product.getPrice()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(line(100L, 2, BigDecimal.ZERO)));
+        when(cartJdbcRepository.lockCarts(List.of(user.getId()))).thenReturn(Map.of(user.getId(), cart.getId()));
+
+        CartDeltaDto result = cartService.addItemToCartDelta(user.getId(), cartItemDto);
+
+        assertThat(result.getItem().getId()).isEqualTo(100L);
+        assertThat(result.getItem().getQuantity()).isEqualTo(2);
+        assertThat(result.getTotalAmount()).isEqualByComparingTo("200");
+        verify(cartJdbcRepository, times(2)).upsertItem(user.getId(), product.getId(), 2, product.getPrice());
+        verifyNoInteractions(cartRepository);
+    }
+
+    @Test
+    void addItemToCartDelta_shouldAddChangedLineToRestOfCart() {
+        CartItemDto cartItemDto = new CartItemDto();
+        cartItemDto.setProductId(product.getId());
+        cartItemDto.setQuantity(2);
+
+        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        when(cartJdbcRepository.upsertItem(user.getId(), product.getId(), 2, product.getPrice()))
+                .thenReturn(Optional.of(line(100L, 3, BigDecimal.valueOf(50))));
+
+        CartDeltaDto result = cartService.addItemToCartDelta(user.getId(), cartItemDto);
+
+        assertThat(result.getItem().getProductId()).isEqualTo(product.getId());
+        assertThat(result.getItem().getQuantity()).isEqualTo(3);
+        assertThat(result.getRemovedItemId()).isNull();
+        assertThat(result.getTotalAmount()).isEqualByComparingTo("350");
+        verify(cartRepository, never()).findByUserIdWithItems(any());
     }
 
     @Test
@@ -111,42 +178,55 @@ class CartServiceTest {
         CartItem cartItem = new CartItem();
         cartItem.setId(100L);
         cartItem.setProduct(product);
-        cartItem.setQuantity(5);
+        cartItem.setQuantity(3);
         cart.getItems().add(cartItem);
 
         UpdateCartItemDto updateDto = new UpdateCartItemDto();
         updateDto.setQuantity(3);
 
-        when(cartItemsRepository.findByIdAndCartUserId(cartItem.getId(), user.getId())).thenReturn(Optional.of(cartItem));
+        when(cartJdbcRepository.updateQuantity(user.getId(), cartItem.getId(), 3))
+                .thenReturn(Optional.of(line(cartItem.getId(), 3, BigDecimal.ZERO)));
         when(cartRepository.findByUserIdWithItems(user.getId())).thenReturn(Optional.of(cart));
 
         CartResponseDto result = cartService.updateCartItem(user.getId(), cartItem.getId(), updateDto);
 
         assertThat(result.getItems().get(0).getQuantity()).isEqualTo(3);
         assertThat(result.getTotalAmount()).isEqualByComparingTo("300");
-        verify(cartItemsRepository, times(1)).save(any(CartItem.class));
+        verify(cartJdbcRepository, times(1)).updateQuantity(user.getId(), cartItem.getId(), 3);
     }
 
     @Test
     void removeItemFromCart_shouldRemoveItem() {
-        CartItem cartItem = new CartItem();
-        cartItem.setId(100L);
-        cartItem.setProduct(product);
-        cartItem.setQuantity(1);
-
-        Cart cartWithItem = new Cart();
-        cartWithItem.setUser(user);
-        cartWithItem.getItems().add(cartItem);
-
-        when(cartItemsRepository.findByIdAndCartUserId(cartItem.getId(), user.getId())).thenReturn(Optional.of(cartItem));
+        when(cartJdbcRepository.deleteItem(user.getId(), 100L))
+                .thenReturn(Optional.of(line(100L, 1, BigDecimal.ZERO)));
         when(cartRepository.findByUserIdWithItems(user.getId())).thenReturn(Optional.of(new Cart()));
 
-
-        CartResponseDto result = cartService.removeItemFromCart(user.getId(), cartItem.getId());
+        CartResponseDto result = cartService.removeItemFromCart(user.getId(), 100L);
 
         assertThat(result.getItems()).isEmpty();
         assertThat(result.getTotalAmount()).isEqualByComparingTo("0");
-        verify(cartItemsRepository, times(1)).delete(cartItem);
+        verify(cartJdbcRepository, times(1)).deleteItem(user.getId(), 100L);
+    }
+
+    @Test
+    void removeItemFromCartDelta_shouldReturnRemovedIdAndRestTotal() {
+        when(cartJdbcRepository.deleteItem(user.getId(), 100L))
+                .thenReturn(Optional.of(line(100L, 1, BigDecimal.valueOf(70))));
+
+        CartDeltaDto result = cartService.removeItemFromCartDelta(user.getId(), 100L);
+
+        assertThat(result.getItem()).isNull();
+        assertThat(result.getRemovedItemId()).isEqualTo(100L);
+        assertThat(result.getTotalAmount()).isEqualByComparingTo("70");
+    }
+
+    @Test
+    void removeItemFromCart_whenLineIsMissing_shouldThrow() {
+        when(cartJdbcRepository.deleteItem(user.getId(), 100L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> cartService.removeItemFromCart(user.getId(), 100L))
+                .isInstanceOf(ResourceNotFoundException.class);
+        verify(cartRepository, never()).findByUserIdWithItems(any());
     }
 
     @Test
@@ -158,4 +238,131 @@ class CartServiceTest {
         verify(cartRepository, times(1)).save(any(Cart.class));
         assertThat(cart.getItems()).isEmpty();
     }
+
+    @Test
+    void addItemToCart_withRedisStorage_shouldNotTouchCartTables() {
+        cartProps.setStorage(CartProps.Storage.REDIS);
+        CartItemDto cartItemDto = new CartItemDto();
+        cartItemDto.setProductId(product.getId());
+        cartItemDto.setQuantity(2);
+
+        when(productService.getProductById(product.getId())).thenReturn(cachedProduct());
+        when(redisCartStore.add(user.getId(), product.getId(), 2, product.getPrice())).thenReturn(2);
+        when(redisCartStore.get(user.getId())).thenReturn(new RedisCartStore.Snapshot(
+                Map.of(product.getId(), 2), Map.of(product.getId(), product.getPrice())));
+
+        CartResponseDto result = cartService.addItemToCart(user.getId(), cartItemDto);
+
+        assertThat(result.getItems()).singleElement().satisfies(item -> {
+            assertThat(item.getId()).isEqualTo(product.getId());
+            assertThat(item.getQuantity()).isEqualTo(2);
+        });
+        assertThat(result.getTotalAmount()).isEqualByComparingTo("200");
+        verifyNoInteractions(cartRepository, cartJdbcRepository, productRepository);
+    }
+
+    @Test
+    void updateCartItem_withRedisStorage_shouldSkipProductsThatNoLongerExist() {
+        cartProps.setStorage(CartProps.Storage.REDIS);
+        UpdateCartItemDto dto = new UpdateCartItemDto();
+        dto.setQuantity(3);
+
+        when(redisCartStore.setQuantity(user.getId(), product.getId(), 3)).thenReturn(true);
+        when(redisCartStore.get(user.getId())).thenReturn(new RedisCartStore.Snapshot(
+                Map.of(product.getId(), 3, 11L, 1), Map.of()));
+        when(productService.getProductById(product.getId())).thenReturn(cachedProduct());
+        when(productService.getProductById(11L)).thenThrow(new ResourceNotFoundException("Product is not found"));
+
+        CartResponseDto result = cartService.updateCartItem(user.getId(), product.getId(), dto);
+
+        assertThat(result.getItems()).singleElement().satisfies(item -> assertThat(item.getQuantity()).isEqualTo(3));
+        assertThat(result.getTotalAmount()).isEqualByComparingTo("300");
+        verifyNoInteractions(cartRepository, cartJdbcRepository, productRepository);
+    }
+
+    @Test
+    void applyBatch_shouldWriteFinalLinesInOneBatch() {
+        Product other = new Product();
+        other.setId(11L);
+        other.setPrice(BigDecimal.valueOf(30));
+        other.setAvailable(true);
+
+        CartBatchRequest request = new CartBatchRequest();
+        request.setOperations(List.of(
+                operation(CartBatchRequest.Type.ADD, product.getId(), null, 2),
+                operation(CartBatchRequest.Type.UPDATE, null, 100L, 5),
+                operation(CartBatchRequest.Type.ADD, other.getId(), null, 1),
+                operation(CartBatchRequest.Type.REMOVE, null, 101L, null)));
+
+        when(productRepository.findAllById(any())).thenReturn(List.of(product, other));
+        when(cartJdbcRepository.lockCarts(List.of(user.getId()))).thenReturn(Map.of(user.getId(), cart.getId()));
+        when(cartJdbcRepository.findItems(cart.getId())).thenReturn(List.of(
+                new CartJdbcRepository.Item(100L, product.getId(), 1),
+                new CartJdbcRepository.Item(101L, 12L, 4)));
+        when(cartRepository.findByUserIdWithItems(user.getId())).thenReturn(Optional.of(cart));
+
+        cartService.applyBatch(user.getId(), request);
+
+        verify(productRepository, times(1)).findAllById(any());
+        verify(cartJdbcRepository).saveItems(cart.getId(),
+                List.of(new CartJdbcRepository.Line(product.getId(), 5, product.getPrice()),
+                        new CartJdbcRepository.Line(other.getId(), 1, other.getPrice())),
+                List.of(12L));
+    }
+
+    @Test
+    void applyBatch_whenProductIsUnavailable_shouldRejectWholeBatch() {
+        product.setAvailable(false);
+        CartBatchRequest request = new CartBatchRequest();
+        request.setOperations(List.of(operation(CartBatchRequest.Type.ADD, product.getId(), null, 1)));
+
+        when(productRepository.findAllById(any())).thenReturn(List.of(product));
+
+        assertThatThrownBy(() -> cartService.applyBatch(user.getId(), request))
+                .isInstanceOf(BusinessException.class);
+        verifyNoInteractions(cartJdbcRepository, redisCartStore);
+    }
+
+    @Test
+    void mergeGuestCart_shouldAddAvailableProductsInOneBatchAndDropGuestCart() {
+        Product unavailable = new Product();
+        unavailable.setId(11L);
+        unavailable.setPrice(BigDecimal.valueOf(30));
+        unavailable.setAvailable(false);
+        String token = "guest-token";
+
+        when(guestCartStore.isValidToken(token)).thenReturn(true);
+        when(guestCartStore.get(token)).thenReturn(Map.of(product.getId(), 2, unavailable.getId(), 1));
+        when(productRepository.findAllById(any())).thenReturn(List.of(product, unavailable));
+        when(cartJdbcRepository.lockCarts(List.of(user.getId()))).thenReturn(Map.of(user.getId(), cart.getId()));
+
+        cartService.mergeGuestCart(user.getId(), token);
+
+        verify(cartJdbcRepository).addItems(cart.getId(),
+                List.of(new CartJdbcRepository.Line(product.getId(), 2, product.getPrice())));
+        verify(guestCartStore).delete(token);
+        verifyNoInteractions(cartRepository);
+    }
+
+    private ProductResponse cachedProduct() {
+        return ProductResponse.builder()
+                .id(product.getId())
+                .price(product.getPrice())
+                .available(product.getAvailable())
+                .build();
+    }
+
+    private CartBatchRequest.Operation operation(CartBatchRequest.Type type, Long productId, Long itemId, Integer quantity) {
+        CartBatchRequest.Operation operation = new CartBatchRequest.Operation();
+        operation.setType(type);
+        operation.setProductId(productId);
+        operation.setItemId(itemId);
+        operation.setQuantity(quantity);
+        return operation;
+    }
+
+    private CartJdbcRepository.LineChange line(Long id, int quantity, BigDecimal restTotal) {
+        return new CartJdbcRepository.LineChange(id, product.getId(), quantity, product.getName(),
+                product.getImageUrl(), product.getPrice(), restTotal);
+    }
 }
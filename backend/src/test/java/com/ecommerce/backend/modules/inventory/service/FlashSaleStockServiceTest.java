@@ -0,0 +1,93 @@
+package com.ecommerce.backend.modules.inventory.service;
+
+import com.ecommerce.backend.modules.inventory.repository.InventoryJdbcRepository;
+import com.ecommerce.backend.shared.exception.InsufficientStockException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlashSaleStockServiceTest {
+
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    @Mock
+    private InventoryJdbcRepository inventoryJdbcRepository;
+
+    @InjectMocks
+    private FlashSaleStockService flashSaleStockService;
+
+    @Test
+    void reserve_whenNoProductIsInFlashSale_shouldNotCallRedis() {
+        when(inventoryJdbcRepository.findFlashSaleProducts()).thenReturn(List.of(7L));
+        flashSaleStockService.refreshFlashSaleProducts();
+
+        Map<Long, Integer> admitted = flashSaleStockService.reserve(Map.of(1L, 2));
+
+        assertThat(admitted).isEmpty();
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void reserve_shouldSendOnlyFlashSaleLinesToRedis() {
+        when(inventoryJdbcRepository.findFlashSaleProducts()).thenReturn(List.of(7L));
+        flashSaleStockService.refreshFlashSaleProducts();
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<String>>any(), eq(List.of("{flash_sale}:stock:7")), eq("3")))
+                .thenReturn("");
+
+        Map<Long, Integer> admitted = flashSaleStockService.reserve(Map.of(1L, 2, 7L, 3));
+
+        assertThat(admitted).isEmpty();
+        verify(redisTemplate).execute(ArgumentMatchers.<RedisScript<String>>any(), eq(List.of("{flash_sale}:stock:7")), eq("3"));
+    }
+
+    @Test
+    void reserve_whenFlashSaleStockIsShort_shouldReportProduct() {
+        when(inventoryJdbcRepository.findFlashSaleProducts()).thenReturn(List.of(7L));
+        flashSaleStockService.refreshFlashSaleProducts();
+        when(redisTemplate.execute(ArgumentMatchers.<RedisScript<String>>any(), eq(List.of("{flash_sale}:stock:7")), eq("3")))
+                .thenReturn("-1");
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get("{flash_sale}:stock:7")).thenReturn("2");
+
+        assertThatThrownBy(() -> flashSaleStockService.reserve(Map.of(7L, 3)))
+                .isInstanceOfSatisfying(InsufficientStockException.class, e -> assertThat(e.getItems())
+                        .containsExactly(Map.of("productId", 7L, "requested", 3, "available", 2)));
+    }
+
+    @Test
+    void release_whenNoProductIsInFlashSale_shouldNotCallRedis() {
+        when(inventoryJdbcRepository.findFlashSaleProducts()).thenReturn(List.of(7L));
+        flashSaleStockService.refreshFlashSaleProducts();
+
+        flashSaleStockService.release(Map.of(1L, 2));
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void release_shouldReturnOnlyFlashSaleLinesToRedis() {
+        when(inventoryJdbcRepository.findFlashSaleProducts()).thenReturn(List.of(7L));
+        flashSaleStockService.refreshFlashSaleProducts();
+
+        flashSaleStockService.release(Map.of(1L, 2, 7L, 3));
+
+        verify(redisTemplate).execute(ArgumentMatchers.<RedisScript<Long>>any(), eq(List.of("{flash_sale}:stock:7")), eq("3"));
+    }
+}
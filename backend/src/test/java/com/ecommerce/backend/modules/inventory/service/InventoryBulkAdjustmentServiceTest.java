@@ -0,0 +1,153 @@
+package com.ecommerce.backend.modules.inventory.service;
+
+import com.ecommerce.backend.modules.inventory.config.InventoryProps;
+import com.ecommerce.backend.modules.inventory.dto.InventoryAdjustmentResult;
+import com.ecommerce.backend.modules.inventory.repository.InventoryBulkJdbcRepository;
+import com.ecommerce.backend.modules.inventory.repository.InventorySlotJdbcRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryBulkAdjustmentServiceTest {
+
+    @Mock
+    private InventoryBulkJdbcRepository inventoryBulkJdbcRepository;
+    @Mock
+    private InventorySlotJdbcRepository inventorySlotJdbcRepository;
+    @Mock
+    private InventoryHistoryWriter inventoryHistoryWriter;
+    @Mock
+    private StockAvailabilityCache stockAvailabilityCache;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final InventoryProps inventoryProps = new InventoryProps();
+    private InventoryBulkAdjustmentService inventoryBulkAdjustmentService;
+
+    @BeforeEach
+    void setUp() {
+        inventoryBulkAdjustmentService = new InventoryBulkAdjustmentService(inventoryBulkJdbcRepository,
+                inventorySlotJdbcRepository, inventoryHistoryWriter, stockAvailabilityCache, transactionManager,
+                inventoryProps, objectMapper);
+        inventoryBulkAdjustmentService.init();
+    }
+
+    @Test
+    void applyAdjustments_shouldReportInvalidLineAndApplyRestOfChunk() throws Exception {
+        when(inventoryBulkJdbcRepository.merge(Map.of(1L, new InventoryBulkJdbcRepository.NetAdjustment(null, 5))))
+                .thenReturn(Map.of(1L, merged(10, true)));
+
+        List<InventoryAdjustmentResult> results = apply("""
+                product_id,mode,quantity
+                1,DELTA,5
+                x,DELTA,1
+                2,ABSOLUTE,-3
+                """);
+
+        assertThat(results).extracting(InventoryAdjustmentResult::getLine, InventoryAdjustmentResult::getStatus)
+                .containsExactly(
+                        tuple(2L, InventoryAdjustmentResult.Status.APPLIED),
+                        tuple(3L, InventoryAdjustmentResult.Status.INVALID),
+                        tuple(4L, InventoryAdjustmentResult.Status.INVALID));
+        assertThat(results.get(0).getAvailableBefore()).isEqualTo(10);
+        assertThat(results.get(0).getAvailableAfter()).isEqualTo(15);
+        verify(stockAvailabilityCache).publish(Map.of(1L, 15));
+    }
+
+    @Test
+    void applyAdjustments_whenStockWouldTurnNegative_shouldRejectAllLinesOfProduct() throws Exception {
+        when(inventoryBulkJdbcRepository.merge(any())).thenReturn(Map.of(1L, merged(3, false)));
+
+        List<InventoryAdjustmentResult> results = apply("""
+                1,DELTA,-2
+                1,DELTA,-2
+                """);
+
+        assertThat(results).allSatisfy(result -> {
+            assertThat(result.getStatus()).isEqualTo(InventoryAdjustmentResult.Status.REJECTED);
+            assertThat(result.getCode()).isEqualTo("INSUFFICIENT_STOCK");
+        });
+        assertThat(results).hasSize(2);
+        verify(inventoryHistoryWriter).write(List.of());
+        verify(stockAvailabilityCache).publish(Map.of());
+    }
+
+    @Test
+    void applyAdjustments_whenProductHasNoInventory_shouldRejectItsLinesOnly() throws Exception {
+        when(inventoryBulkJdbcRepository.merge(any())).thenReturn(Map.of(
+                1L, merged(10, true),
+                9L, new InventoryBulkJdbcRepository.MergeResult(null, 0, false, false, false, 1)));
+
+        List<InventoryAdjustmentResult> results = apply("""
+                9,ABSOLUTE,4
+                1,ABSOLUTE,4
+                """);
+
+        assertThat(results).extracting(InventoryAdjustmentResult::getProductId, InventoryAdjustmentResult::getCode)
+                .containsExactly(tuple(9L, "INVENTORY_NOT_FOUND"), tuple(1L, null));
+        verifyNoInteractions(inventorySlotJdbcRepository);
+    }
+
+    @Test
+    void applyAdjustments_shouldApplyEachChunkSeparatelyAndReportInLineOrder() throws Exception {
+        inventoryProps.getBulk().setChunkSize(2);
+        when(inventoryBulkJdbcRepository.merge(Map.of(1L, new InventoryBulkJdbcRepository.NetAdjustment(7, 1))))
+                .thenReturn(Map.of(1L, merged(10, true)));
+        when(inventoryBulkJdbcRepository.merge(Map.of(1L, new InventoryBulkJdbcRepository.NetAdjustment(null, -3))))
+                .thenReturn(Map.of(1L, merged(8, true)));
+
+        List<InventoryAdjustmentResult> results = apply("""
+                {"productId":1,"mode":"ABSOLUTE","quantity":7}
+                {"productId":1,"mode":"DELTA","quantity":1}
+                {"productId":1,"mode":"DELTA","quantity":-3}
+                """, InventoryBulkAdjustmentService.Format.NDJSON);
+
+        assertThat(results).extracting(InventoryAdjustmentResult::getLine,
+                        InventoryAdjustmentResult::getAvailableBefore, InventoryAdjustmentResult::getAvailableAfter)
+                .containsExactly(tuple(1L, 10, 7), tuple(2L, 7, 8), tuple(3L, 8, 5));
+        verify(inventoryBulkJdbcRepository, times(2)).merge(any());
+        verify(transactionManager, times(2)).commit(any());
+        verify(inventoryHistoryWriter).write(argThat(records -> records.size() == 2));
+        verify(inventoryHistoryWriter).write(argThat(records -> records.size() == 1));
+    }
+
+    private List<InventoryAdjustmentResult> apply(String input) throws Exception {
+        return apply(input, InventoryBulkAdjustmentService.Format.CSV);
+    }
+
+    private List<InventoryAdjustmentResult> apply(String input, InventoryBulkAdjustmentService.Format format)
+            throws Exception {
+        ByteArrayOutputStream report = new ByteArrayOutputStream();
+        inventoryBulkAdjustmentService.applyAdjustments(
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), format, "admin", report);
+
+        List<InventoryAdjustmentResult> results = new ArrayList<>();
+        for (String line : report.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readValue(line, InventoryAdjustmentResult.class));
+        }
+        return results;
+    }
+
+    private InventoryBulkJdbcRepository.MergeResult merged(int availableBefore, boolean applied) {
+        return new InventoryBulkJdbcRepository.MergeResult(availableBefore, 0, applied, true, false, 1);
+    }
+}
@@ -0,0 +1,149 @@
+package com.ecommerce.backend.modules.inventory.service;
+
+import com.ecommerce.backend.modules.inventory.config.InventoryProps;
+import com.ecommerce.backend.shared.scheduling.ScheduledJobLock;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryHistoryPartitionManagerTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ScheduledJobLock scheduledJobLock;
+    @Mock
+    private ResultSet partitionRows;
+    @Mock
+    private DataSource dataSource;
+    @Mock
+    private Connection connection;
+    @Mock
+    private Statement statement;
+    @Mock
+    private ResultSet historyRows;
+
+    @TempDir
+    private Path archiveDir;
+
+    private final InventoryProps inventoryProps = new InventoryProps();
+    private InventoryHistoryPartitionManager partitionManager;
+
+    @BeforeEach
+    void setUp() {
+        inventoryProps.getHistory().setArchiveDir(archiveDir.toString());
+        partitionManager = new InventoryHistoryPartitionManager(jdbcTemplate, transactionManager, inventoryProps,
+                scheduledJobLock);
+    }
+
+    @Test
+    void createUpcomingPartitions_shouldCreateCurrentAndPremadeMonths() {
+        inventoryProps.getHistory().setPremakeMonths(2);
+        YearMonth current = YearMonth.now();
+
+        partitionManager.createUpcomingPartitions();
+
+        for (int i = 0; i <= 2; i++) {
+            YearMonth month = current.plusMonths(i);
+            verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS " + partitionName(month)
+                    + " PARTITION OF inventory_history FOR VALUES FROM ('" + month.atDay(1) + "') TO ('"
+                    + month.plusMonths(1).atDay(1) + "')");
+        }
+        verify(jdbcTemplate, times(3)).execute(anyString());
+    }
+
+    @Test
+    void archiveExpiredPartitions_shouldArchiveOnlyMonthsPastRetention() throws Exception {
+        inventoryProps.getHistory().setRetentionMonths(24);
+        YearMonth current = YearMonth.now();
+        String expiredAttached = partitionName(current.minusMonths(25));
+        String expiredDetached = partitionName(current.minusMonths(30));
+        String oldestKept = partitionName(current.minusMonths(24));
+        listPartitions(List.of(expiredDetached, expiredAttached, oldestKept, partitionName(current)),
+                List.of(false, true, true, true));
+        when(jdbcTemplate.getDataSource()).thenReturn(dataSource);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(historyRows);
+
+        partitionManager.archiveExpiredPartitions();
+
+        verify(jdbcTemplate).execute("ALTER TABLE inventory_history DETACH PARTITION " + expiredAttached);
+        verify(jdbcTemplate).execute("DROP TABLE " + expiredAttached);
+        verify(jdbcTemplate).execute("DROP TABLE " + expiredDetached);
+        verify(jdbcTemplate, times(3)).execute(anyString());
+        verify(statement).executeQuery("SELECT id, product_id, change_type, quantity, available_before, "
+                + "available_after, reserved_before, reserved_after, order_id, created_by, created_at FROM "
+                + expiredAttached + " ORDER BY id");
+        assertThat(readArchive(expiredAttached)).startsWith("id,product_id,change_type");
+        assertThat(archiveDir.resolve(expiredDetached + ".csv.gz")).exists();
+        assertThat(archiveDir.resolve(oldestKept + ".csv.gz")).doesNotExist();
+    }
+
+    @Test
+    void archiveExpiredPartitions_whenExportFails_shouldKeepPartition() throws Exception {
+        String expired = partitionName(YearMonth.now().minusMonths(30));
+        listPartitions(List.of(expired), List.of(false));
+        when(jdbcTemplate.getDataSource()).thenReturn(dataSource);
+        when(dataSource.getConnection()).thenThrow(new SQLException("Connection refused"));
+
+        partitionManager.archiveExpiredPartitions();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+        assertThat(archiveDir.resolve(expired + ".csv.gz")).doesNotExist();
+    }
+
+    private void listPartitions(List<String> names, List<Boolean> attached) throws SQLException {
+        when(partitionRows.getString("relname"))
+                .thenReturn(names.get(0), names.subList(1, names.size()).toArray(String[]::new));
+        when(partitionRows.getBoolean("relispartition"))
+                .thenReturn(attached.get(0), attached.subList(1, attached.size()).toArray(Boolean[]::new));
+        when(jdbcTemplate.query(anyString(), ArgumentMatchers.<RowMapper<Object>>any())).thenAnswer(invocation -> {
+            RowMapper<Object> rowMapper = invocation.getArgument(1);
+            List<Object> partitions = new ArrayList<>();
+            for (int i = 0; i < names.size(); i++) {
+                partitions.add(rowMapper.mapRow(partitionRows, i));
+            }
+            return partitions;
+        });
+    }
+
+    private String readArchive(String partition) throws Exception {
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(archiveDir.resolve(partition + ".csv.gz")))) {
+            return new String(input.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private String partitionName(YearMonth month) {
+        return "inventory_history_" + month.format(DateTimeFormatter.ofPattern("yyyy_MM"));
+    }
+}
@@ -1,21 +1,28 @@
 package com.ecommerce.backend.modules.inventory.service;
 
+import com.ecommerce.backend.modules.inventory.dto.CartItemAvailabilityCheck;
+import com.ecommerce.backend.modules.inventory.dto.ItemAvailabilityDto;
 import com.ecommerce.backend.modules.inventory.entity.Inventory;
 import com.ecommerce.backend.modules.inventory.entity.InventoryHistory;
+import com.ecommerce.backend.modules.inventory.entity.OrderReservation;
 import com.ecommerce.backend.modules.inventory.repository.InventoryHistoryRepository;
+import com.ecommerce.backend.modules.inventory.repository.InventoryJdbcRepository;
 import com.ecommerce.backend.modules.inventory.repository.InventoryRepository;
+import com.ecommerce.backend.modules.inventory.repository.InventorySlotJdbcRepository;
+import com.ecommerce.backend.modules.inventory.repository.OrderReservationRepository;
 import com.ecommerce.backend.shared.exception.BusinessException;
+import com.ecommerce.backend.shared.exception.InsufficientStockException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -29,6 +36,25 @@ public class InventoryServiceTest {
     private InventoryRepository  inventoryRepository;
     @Mock
     private InventoryHistoryRepository inventoryHistoryRepository;
+    @Mock
+    private InventoryJdbcRepository inventoryJdbcRepository;
+    @Mock
+    private OrderReservationRepository orderReservationRepository;
+    @Mock
+    private InventoryHistoryWriter inventoryHistoryWriter;
+    @Mock
+    private FlashSaleStockService flashSaleStockService;
+    @Mock
+    private InventorySlotService inventorySlotService;
+    @Mock
+    private InventorySlotJdbcRepository inventorySlotJdbcRepository;
+    @Mock
+    private ReservationDeadlineTracker reservationDeadlineTracker;
+    @Mock
+    private StockAvailabilityCache stockAvailabilityCache;
+
+    @Captor
+    private ArgumentCaptor<List<InventoryHistory>> historyCaptor;
 
     @InjectMocks
     private InventoryService inventoryService;
@@ -49,74 +75,224 @@ public class InventoryServiceTest {
     @Test
     void reserveProduct_shouldSucceedWhenStockIsSufficient() {
         Map<Long, Integer> productQuantities = Map.of(productId, 3);
-        when(inventoryRepository.findByProductId(productId)).thenReturn(Optional.of(inventory));
+        inventory.setAvailableQuantity(7);
+        inventory.setReservedQuantity(8);
+        when(inventoryJdbcRepository.reserve(productQuantities)).thenReturn(List.of());
+        when(inventoryRepository.findAllByProductIds(List.of(productId))).thenReturn(List.of(inventory));
 
         inventoryService.reserveProduct(orderId, productQuantities, username);
 
-        ArgumentCaptor<Inventory> captor = ArgumentCaptor.forClass(Inventory.class);
-        verify(inventoryRepository).save(captor.capture());
-        Inventory savedInventory = captor.getValue();
+        verify(inventoryHistoryWriter).write(historyCaptor.capture());
+        InventoryHistory history = historyCaptor.getValue().get(0);
 
-        assertThat(savedInventory.getAvailableQuantity()).isEqualTo(7);
-        assertThat(savedInventory.getReservedQuantity()).isEqualTo(8);
+        assertThat(history.getChangeType()).isEqualTo(InventoryHistory.ChangeType.RESERVE);
+        assertThat(history.getAvailableBefore()).isEqualTo(10);
+        assertThat(history.getAvailableAfter()).isEqualTo(7);
+        assertThat(history.getReservedBefore()).isEqualTo(5);
+        assertThat(history.getReservedAfter()).isEqualTo(8);
+        assertThat(history.getOrderId()).isEqualTo(orderId);
+        verify(inventoryRepository, never()).save(any());
+        verify(reservationDeadlineTracker).register(orderId);
+        verify(stockAvailabilityCache).publish(Map.of(productId, 7));
+    }
+
+    @Test
+    void getItemsAvailability_shouldReportEachItemFromCache() {
+        Long otherProductId = 2L;
+        when(stockAvailabilityCache.getAvailable(List.of(productId, otherProductId)))
+                .thenReturn(Map.of(productId, 5, otherProductId, 1));
+
+        List<ItemAvailabilityDto> availability = inventoryService.getItemsAvailability(List.of(
+                new CartItemAvailabilityCheck(productId, 5),
+                new CartItemAvailabilityCheck(otherProductId, 2)));
 
-        verify(inventoryHistoryRepository).save(any(InventoryHistory.class));
+        assertThat(availability).extracting(ItemAvailabilityDto::getAvailable).containsExactly(true, false);
+        verifyNoInteractions(inventoryRepository);
     }
 
     @Test
     void reserveProduct_shouldFailWhenStockIsNotSufficient() {
         Map<Long, Integer> productQuantities = Map.of(productId, 11);
-        when(inventoryRepository.findByProductId(productId)).thenReturn(Optional.of(inventory));
+        when(inventoryJdbcRepository.reserve(productQuantities)).thenReturn(List.of(productId));
+        when(inventoryRepository.findAllByProductIds(List.of(productId))).thenReturn(List.of(inventory));
 
         assertThatThrownBy(() -> inventoryService.reserveProduct(orderId, productQuantities, username))
                 .isInstanceOf(BusinessException.class)
                 .hasMessageContaining("Out of stock");
 
         verify(inventoryRepository, never()).save(any());
-        verify(inventoryHistoryRepository, never()).save(any());
+        verify(inventoryHistoryWriter, never()).write(any());
+        verify(reservationDeadlineTracker, never()).register(any());
     }
 
     @Test
-    void cancelReservation_shouldReturnItemsToStock() {
-        InventoryHistory history = new InventoryHistory();
-        history.setProductId(productId);
-        history.setQuantity(3);
-        history.setChangeType(InventoryHistory.ChangeType.RESERVE);
+    void reserveProduct_shouldReserveShardedProductFromSlots() {
+        Map<Long, Integer> productQuantities = Map.of(productId, 3);
+        Map<Long, Integer> slotCounts = Map.of(productId, 4);
+        inventory.setAvailableQuantity(0);
+        inventory.setSlotAvailableQuantity(7);
+        inventory.setReservedQuantity(8);
+        when(inventorySlotService.slotCounts(any())).thenReturn(slotCounts);
+        when(inventorySlotJdbcRepository.reserve(productQuantities, slotCounts)).thenReturn(List.of());
+        when(inventoryRepository.findAllByProductIds(List.of(productId))).thenReturn(List.of(inventory));
+
+        inventoryService.reserveProduct(orderId, productQuantities, username);
 
-        when(inventoryHistoryRepository.findByOrderId(orderId)).thenReturn(List.of(history));
-        when(inventoryRepository.findByProductId(productId)).thenReturn(Optional.of(inventory));
+        verify(inventoryJdbcRepository, never()).reserve(any());
+        verify(inventoryHistoryWriter).write(historyCaptor.capture());
+        InventoryHistory history = historyCaptor.getValue().get(0);
+
+        assertThat(history.getAvailableBefore()).isEqualTo(10);
+        assertThat(history.getAvailableAfter()).isEqualTo(7);
+    }
+
+    @Test
+    void reserveProduct_shouldRetryOnSlotsWhenProductWasShardedSinceRefresh() {
+        Map<Long, Integer> productQuantities = Map.of(productId, 3);
+        Map<Long, Integer> slotCounts = Map.of(productId, 4);
+        when(inventoryJdbcRepository.reserve(productQuantities)).thenReturn(List.of(productId));
+        when(inventorySlotJdbcRepository.findSlotCounts(List.of(productId))).thenReturn(slotCounts);
+        when(inventorySlotJdbcRepository.reserve(productQuantities, slotCounts)).thenReturn(List.of());
+        when(inventoryRepository.findAllByProductIds(List.of(productId))).thenReturn(List.of(inventory));
+
+        inventoryService.reserveProduct(orderId, productQuantities, username);
+
+        verify(inventoryJdbcRepository).insertReservations(orderId, productQuantities, true);
+    }
+
+    @Test
+    void reserveProduct_shouldFailWhenShardedProductLacksStockInTotal() {
+        Map<Long, Integer> productQuantities = Map.of(productId, 11);
+        Map<Long, Integer> slotCounts = Map.of(productId, 4);
+        when(inventorySlotService.slotCounts(any())).thenReturn(slotCounts);
+        when(inventorySlotJdbcRepository.reserve(productQuantities, slotCounts)).thenReturn(List.of(productId));
+        when(inventoryRepository.findAllByProductIds(List.of(productId))).thenReturn(List.of(inventory));
+
+        assertThatThrownBy(() -> inventoryService.reserveProduct(orderId, productQuantities, username))
+                .isInstanceOf(InsufficientStockException.class);
+
+        verify(inventoryJdbcRepository, never()).reserve(any());
+        verify(reservationDeadlineTracker, never()).register(any());
+    }
+
+    @Test
+    void reserveProduct_shouldFailWhenInventoryIsMissing() {
+        Map<Long, Integer> productQuantities = Map.of(productId, 1);
+        when(inventoryJdbcRepository.reserve(productQuantities)).thenReturn(List.of(productId));
+        when(inventoryRepository.findAllByProductIds(List.of(productId))).thenReturn(List.of());
+
+        assertThatThrownBy(() -> inventoryService.reserveProduct(orderId, productQuantities, username))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("No data for products");
+
+        verify(inventoryHistoryWriter, never()).write(any());
+    }
+
+    @Test
+    void reserveProduct_shouldSkipWhenOrderIsAlreadyReserved() {
+        when(orderReservationRepository.existsByOrderId(orderId)).thenReturn(true);
+
+        inventoryService.reserveProduct(orderId, Map.of(productId, 3), username);
+
+        verify(inventoryJdbcRepository, never()).reserve(any());
+        verify(inventoryHistoryWriter, never()).write(any());
+    }
+
+    @Test
+    void reserveProduct_shouldNotLockRowsForFlashSaleLines() {
+        Map<Long, Integer> productQuantities = Map.of(productId, 3);
+        when(flashSaleStockService.reserve(productQuantities)).thenReturn(productQuantities);
+
+        inventoryService.reserveProduct(orderId, productQuantities, username);
+
+        verify(inventoryJdbcRepository, never()).reserve(any());
+        verify(inventoryJdbcRepository).insertReservations(orderId, productQuantities, false);
+        verify(inventoryHistoryWriter, never()).write(any());
+    }
+
+    @Test
+    void cancelReservation_shouldReturnItemsToStock() {
+        Map<Long, Integer> reserved = Map.of(productId, 3);
+        inventory.setAvailableQuantity(13);
+        inventory.setReservedQuantity(2);
+        when(inventoryJdbcRepository.transitionReservations(
+                orderId, OrderReservation.Status.RESERVED, OrderReservation.Status.RELEASED)).thenReturn(reserved);
+        when(inventoryRepository.findAllByProductIds(List.of(productId))).thenReturn(List.of(inventory));
 
         inventoryService.cancelReservation(orderId, username);
 
-        ArgumentCaptor<Inventory> inventoryCaptor = ArgumentCaptor.forClass(Inventory.class);
-        verify(inventoryRepository).save(inventoryCaptor.capture());
-        Inventory savedInventory = inventoryCaptor.getValue();
+        verify(inventoryJdbcRepository).release(reserved);
+        verify(flashSaleStockService).release(reserved);
 
-        assertThat(savedInventory.getAvailableQuantity()).isEqualTo(13);
-        assertThat(savedInventory.getReservedQuantity()).isEqualTo(2);
+        verify(inventoryHistoryWriter).write(historyCaptor.capture());
+        InventoryHistory history = historyCaptor.getValue().get(0);
 
-        verify(inventoryHistoryRepository).save(any(InventoryHistory.class));
+        assertThat(history.getChangeType()).isEqualTo(InventoryHistory.ChangeType.RELEASE_RESERVE);
+        assertThat(history.getAvailableBefore()).isEqualTo(10);
+        assertThat(history.getAvailableAfter()).isEqualTo(13);
+        assertThat(history.getReservedBefore()).isEqualTo(5);
+        assertThat(history.getReservedAfter()).isEqualTo(2);
     }
 
     @Test
-    void confirmReservation_shouldDecreaseReservedQuantity() {
-        InventoryHistory history = new InventoryHistory();
-        history.setProductId(productId);
-        history.setQuantity(3);
-        history.setChangeType(InventoryHistory.ChangeType.RESERVE);
+    void cancelReservations_shouldReleaseAllOrdersInOneBatch() {
+        Long otherOrderId = 101L;
+        inventory.setAvailableQuantity(15);
+        inventory.setReservedQuantity(0);
+        when(inventoryJdbcRepository.transitionReservations(
+                List.of(orderId, otherOrderId), OrderReservation.Status.RESERVED, OrderReservation.Status.RELEASED))
+                .thenReturn(List.of(
+                        OrderReservation.builder().orderId(orderId).productId(productId).quantity(2).build(),
+                        OrderReservation.builder().orderId(otherOrderId).productId(productId).quantity(3).build()));
+        when(inventoryRepository.findAllByProductIds(List.of(productId))).thenReturn(List.of(inventory));
 
-        when(inventoryHistoryRepository.findByOrderId(orderId)).thenReturn(List.of(history));
-        when(inventoryRepository.findByProductId(productId)).thenReturn(Optional.of(inventory));
+        inventoryService.cancelReservations(List.of(orderId, otherOrderId), username);
+
+        verify(inventoryJdbcRepository).release(Map.of(productId, 5));
+        verify(reservationDeadlineTracker).remove(List.of(orderId, otherOrderId));
+
+        verify(inventoryHistoryWriter).write(historyCaptor.capture());
+        List<InventoryHistory> history = historyCaptor.getValue();
+        assertThat(history).hasSize(2);
+        assertThat(history.get(0).getOrderId()).isEqualTo(orderId);
+        assertThat(history.get(0).getAvailableBefore()).isEqualTo(10);
+        assertThat(history.get(0).getAvailableAfter()).isEqualTo(12);
+        assertThat(history.get(1).getOrderId()).isEqualTo(otherOrderId);
+        assertThat(history.get(1).getAvailableBefore()).isEqualTo(12);
+        assertThat(history.get(1).getAvailableAfter()).isEqualTo(15);
+        assertThat(history.get(1).getReservedAfter()).isEqualTo(0);
+    }
+
+    @Test
+    void confirmReservation_shouldDecreaseReservedQuantity() {
+        Map<Long, Integer> reserved = Map.of(productId, 3);
+        inventory.setReservedQuantity(2);
+        when(inventoryJdbcRepository.transitionReservations(
+                orderId, OrderReservation.Status.RESERVED, OrderReservation.Status.CONFIRMED)).thenReturn(reserved);
+        when(inventoryRepository.findAllByProductIds(List.of(productId))).thenReturn(List.of(inventory));
 
         inventoryService.confirmReservation(orderId, username);
 
-        ArgumentCaptor<Inventory> inventoryCaptor = ArgumentCaptor.forClass(Inventory.class);
-        verify(inventoryRepository).save(inventoryCaptor.capture());
-        Inventory savedInventory = inventoryCaptor.getValue();
+        verify(inventoryJdbcRepository).confirm(reserved);
+
+        verify(inventoryHistoryWriter).write(historyCaptor.capture());
+        InventoryHistory history = historyCaptor.getValue().get(0);
+
+        assertThat(history.getChangeType()).isEqualTo(InventoryHistory.ChangeType.CONFIRM_RESERVE);
+        assertThat(history.getAvailableBefore()).isEqualTo(10);
+        assertThat(history.getAvailableAfter()).isEqualTo(10);
+        assertThat(history.getReservedBefore()).isEqualTo(5);
+        assertThat(history.getReservedAfter()).isEqualTo(2);
+    }
+
+    @Test
+    void confirmReservation_shouldDoNothingWhenNoActiveReservation() {
+        when(inventoryJdbcRepository.transitionReservations(
+                orderId, OrderReservation.Status.RESERVED, OrderReservation.Status.CONFIRMED)).thenReturn(Map.of());
 
-        assertThat(savedInventory.getAvailableQuantity()).isEqualTo(10);
-        assertThat(savedInventory.getReservedQuantity()).isEqualTo(2);
+        inventoryService.confirmReservation(orderId, username);
 
-        verify(inventoryHistoryRepository).save(any(InventoryHistory.class));
+        verify(inventoryJdbcRepository, never()).confirm(any());
+        verify(inventoryHistoryWriter, never()).write(any());
     }
 }
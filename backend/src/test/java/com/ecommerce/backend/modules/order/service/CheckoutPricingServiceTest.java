@@ -0,0 +1,78 @@
+package com.ecommerce.backend.modules.order.service;
+
+import com.ecommerce.backend.modules.cart.entity.Cart;
+import com.ecommerce.backend.modules.cart.entity.CartItem;
+import com.ecommerce.backend.modules.product.entity.Product;
+import com.ecommerce.backend.modules.product.repository.ProductRepository;
+import com.ecommerce.backend.shared.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class CheckoutPricingServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private CheckoutPricingService checkoutPricingService;
+
+    @BeforeEach
+    void setUp() {
+        checkoutPricingService = new CheckoutPricingService(productRepository, new SimpleMeterRegistry());
+        checkoutPricingService.init();
+    }
+
+    @Test
+    void price_shouldTotalLinesAndReportPriceDriftWithoutReloadingProducts() {
+        Cart cart = new Cart();
+        cart.getItems().add(item(product(1L, "10.00", true), 2, "10.00"));
+        cart.getItems().add(item(product(2L, "7.50", true), 1, "5.00"));
+
+        CheckoutPricingService.Quote quote = checkoutPricingService.price(cart);
+
+        assertThat(quote.total()).isEqualByComparingTo("27.50");
+        assertThat(quote.lines()).extracting(CheckoutPricingService.Line::lineTotal)
+                .usingElementComparator(BigDecimal::compareTo)
+                .containsExactly(new BigDecimal("20.00"), new BigDecimal("7.50"));
+        assertThat(quote.priceDrifts()).containsExactly(
+                new CheckoutPricingService.PriceDrift(2L, new BigDecimal("5.00"), new BigDecimal("7.50")));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void price_shouldRejectUnavailableProduct() {
+        Cart cart = new Cart();
+        cart.getItems().add(item(product(1L, "10.00", false), 1, "10.00"));
+
+        assertThatThrownBy(() -> checkoutPricingService.price(cart))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("Product unavailable");
+    }
+
+    private Product product(Long id, String price, boolean available) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName("product-" + id);
+        product.setPrice(new BigDecimal(price));
+        product.setAvailable(available);
+        return product;
+    }
+
+    private CartItem item(Product product, int quantity, String priceSnapshot) {
+        CartItem item = new CartItem();
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        item.setPriceSnapshot(new BigDecimal(priceSnapshot));
+        return item;
+    }
+}
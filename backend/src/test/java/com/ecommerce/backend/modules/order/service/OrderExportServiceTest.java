@@ -0,0 +1,136 @@
+package com.ecommerce.backend.modules.order.service;
+
+import com.ecommerce.backend.modules.order.config.OrderProps;
+import com.ecommerce.backend.modules.order.dto.OrderDto;
+import com.ecommerce.backend.modules.order.dto.OrderItemDto;
+import com.ecommerce.backend.modules.order.entity.OrderStatus;
+import com.ecommerce.backend.modules.order.repository.OrderViewJdbcRepository;
+import com.ecommerce.backend.shared.dto.AddressDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExportServiceTest {
+
+    private static final String CSV_HEADER = "order_id,created_at,status,user_email,total_amount,shipping_street,"
+            + "shipping_city,shipping_postal_code,product_id,product_name,quantity,price_at_time\n";
+
+    @Mock
+    private OrderViewJdbcRepository orderViewJdbcRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OrderExportService orderExportService;
+
+    @BeforeEach
+    void setUp() {
+        orderExportService = new OrderExportService(orderViewJdbcRepository, transactionManager, new OrderProps(),
+                new ObjectMapper().findAndRegisterModules());
+        orderExportService.init();
+    }
+
+    @Test
+    void export_shouldQuoteCsvValuesWithCommasQuotesAndLineBreaks() throws Exception {
+        streamOrders(order("Main St, 5", "The \"Old\" Town", "Line\nbreak"));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        orderExportService.export(null, null, null, OrderExportService.Format.CSV, false, output);
+
+        assertThat(output.toString(StandardCharsets.UTF_8)).isEqualTo(CSV_HEADER
+                + "7,2024-01-15T10:30,DELIVERED,test@example.com,20.00,\"Main St, 5\",\"The \"\"Old\"\" Town\",123456,"
+                + "3,\"Line\nbreak\",2,10.00\n");
+    }
+
+    @Test
+    void export_shouldTreatLastDayAsInclusive() throws Exception {
+        orderExportService.export(OrderStatus.DELIVERED, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31),
+                OrderExportService.Format.NDJSON, false, new ByteArrayOutputStream());
+
+        verify(orderViewJdbcRepository).stream(eq(OrderStatus.DELIVERED), eq(LocalDateTime.of(2024, 1, 1, 0, 0)),
+                eq(LocalDateTime.of(2024, 2, 1, 0, 0)), eq(500), any());
+    }
+
+    @Test
+    void export_withGzip_shouldFinishValidArchive() throws Exception {
+        streamOrders(order("Main St", "Town", "Product"));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        orderExportService.export(null, null, null, OrderExportService.Format.CSV, true, output);
+
+        try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+            assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(CSV_HEADER
+                    + "7,2024-01-15T10:30,DELIVERED,test@example.com,20.00,Main St,Town,123456,3,Product,2,10.00\n");
+        }
+    }
+
+    @Test
+    void export_whenOutputFails_shouldRethrowIOException() {
+        IOException failure = new IOException("Connection reset");
+        OutputStream output = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw failure;
+            }
+        };
+        // Longer than the writer buffer, so the first order already reaches the output
+        streamOrders(order("x".repeat(10_000), "Town", "Product"));
+
+        assertThatThrownBy(() -> orderExportService.export(null, null, null, OrderExportService.Format.CSV, false, output))
+                .isSameAs(failure);
+        verify(transactionManager).rollback(any());
+    }
+
+    private void streamOrders(OrderDto... orders) {
+        doAnswer(invocation -> {
+            Consumer<OrderDto> consumer = invocation.getArgument(4);
+            for (OrderDto order : orders) {
+                consumer.accept(order);
+            }
+            return null;
+        }).when(orderViewJdbcRepository).stream(any(), any(), any(), anyInt(), any());
+    }
+
+    private OrderDto order(String street, String city, String productName) {
+        return OrderDto.builder()
+                .id(7L)
+                .userEmail("test@example.com")
+                .orderStatus(OrderStatus.DELIVERED)
+                .totalAmount(new BigDecimal("20.00"))
+                .address(AddressDto.builder()
+                        .shippingStreet(street)
+                        .shippingCity(city)
+                        .shippingPostalCode("123456")
+                        .build())
+                .items(List.of(OrderItemDto.builder()
+                        .productId(3L)
+                        .productName(productName)
+                        .quantity(2)
+                        .priceAtTime(new BigDecimal("10.00"))
+                        .build()))
+                .createdAt(LocalDateTime.of(2024, 1, 15, 10, 30))
+                .build();
+    }
+}
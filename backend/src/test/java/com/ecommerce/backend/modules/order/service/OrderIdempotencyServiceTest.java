@@ -0,0 +1,138 @@
+package com.ecommerce.backend.modules.order.service;
+
+import com.ecommerce.backend.modules.order.config.OrderProps;
+import com.ecommerce.backend.modules.order.dto.CreateOrderRequest;
+import com.ecommerce.backend.modules.order.dto.OrderDto;
+import com.ecommerce.backend.modules.order.repository.IdempotencyKeyJdbcRepository;
+import com.ecommerce.backend.shared.dto.AddressDto;
+import com.ecommerce.backend.shared.exception.BusinessException;
+import com.ecommerce.backend.shared.exception.ConflictException;
+import com.ecommerce.backend.shared.scheduling.ScheduledJobLock;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderIdempotencyServiceTest {
+
+    @Mock
+    private OrderService orderService;
+    @Mock
+    private IdempotencyKeyJdbcRepository idempotencyKeyJdbcRepository;
+    @Mock
+    private RedisTemplate<String, String> redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    @Mock
+    private ScheduledJobLock scheduledJobLock;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final OrderProps orderProps = new OrderProps();
+    private OrderIdempotencyService orderIdempotencyService;
+    private CreateOrderRequest request;
+    private final String userEmail = "test@example.com";
+
+    @BeforeEach
+    void setUp() {
+        orderIdempotencyService = new OrderIdempotencyService(orderService, idempotencyKeyJdbcRepository, redisTemplate,
+                transactionManager, scheduledJobLock, orderProps, objectMapper, new SimpleMeterRegistry());
+        orderIdempotencyService.init();
+        request = new CreateOrderRequest(new AddressDto(), "comment");
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @Test
+    void createOrder_shouldReplayStoredResponseWithoutCreatingOrder() throws Exception {
+        OrderDto stored = OrderDto.builder().id(7L).userEmail(userEmail).build();
+        when(valueOperations.get(anyString())).thenReturn(null);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        when(idempotencyKeyJdbcRepository.find(userEmail, "key-1")).thenReturn(Optional.of(
+                new IdempotencyKeyJdbcRepository.StoredResponse(hash(request), objectMapper.writeValueAsString(stored))));
+
+        OrderDto result = orderIdempotencyService.createOrder(userEmail, "key-1", request);
+
+        assertThat(result.getId()).isEqualTo(7L);
+        verify(orderService, never()).createOrder(anyString(), any());
+        verify(valueOperations).set(eq("idempotency:order:" + userEmail + ":key-1"), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void createOrder_shouldRejectKeyReusedForDifferentRequest() throws Exception {
+        IdempotencyKeyJdbcRepository.StoredResponse stored = new IdempotencyKeyJdbcRepository.StoredResponse(
+                "other-hash", objectMapper.writeValueAsString(OrderDto.builder().id(7L).build()));
+        when(valueOperations.get("idempotency:order:" + userEmail + ":key-1"))
+                .thenReturn(objectMapper.writeValueAsString(stored));
+
+        assertThatThrownBy(() -> orderIdempotencyService.createOrder(userEmail, "key-1", request))
+                .isInstanceOf(BusinessException.class)
+                .hasMessageContaining("different request");
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    void createOrder_whenDuplicateHoldsLockPastWaitTimeout_shouldRejectAsInProgress() {
+        orderProps.getIdempotency().setWaitTimeoutMs(50);
+        orderProps.getIdempotency().setPollIntervalMs(10);
+        when(valueOperations.get(anyString())).thenReturn(null);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(false);
+
+        assertThatThrownBy(() -> orderIdempotencyService.createOrder(userEmail, "key-1", request))
+                .isInstanceOfSatisfying(ConflictException.class,
+                        e -> assertThat(e.getErrorCode()).isEqualTo("IDEMPOTENCY_KEY_IN_PROGRESS"));
+        verify(valueOperations, atLeast(2)).setIfAbsent(anyString(), anyString(), any(Duration.class));
+        verifyNoInteractions(orderService, idempotencyKeyJdbcRepository);
+    }
+
+    @Test
+    void createOrder_whenKeyIsStoredConcurrently_shouldRollBackOrderAndReplayWinner() throws Exception {
+        OrderDto duplicate = OrderDto.builder().id(8L).userEmail(userEmail).build();
+        OrderDto winner = OrderDto.builder().id(7L).userEmail(userEmail).build();
+        IdempotencyKeyJdbcRepository.StoredResponse stored =
+                new IdempotencyKeyJdbcRepository.StoredResponse(hash(request), objectMapper.writeValueAsString(winner));
+        SimpleTransactionStatus transaction = new SimpleTransactionStatus();
+        when(valueOperations.get(anyString())).thenReturn(null);
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).thenReturn(true);
+        when(transactionManager.getTransaction(any())).thenReturn(transaction);
+        when(idempotencyKeyJdbcRepository.find(userEmail, "key-1")).thenReturn(Optional.empty(), Optional.of(stored));
+        when(orderService.createOrder(userEmail, request)).thenReturn(duplicate);
+        when(idempotencyKeyJdbcRepository.insert(eq(userEmail), eq("key-1"), eq(hash(request)), eq(8L), anyString()))
+                .thenReturn(false);
+
+        OrderDto result = orderIdempotencyService.createOrder(userEmail, "key-1", request);
+
+        assertThat(result.getId()).isEqualTo(7L);
+        // Committing a rollback-only transaction rolls it back, together with the duplicate order
+        assertThat(transaction.isRollbackOnly()).isTrue();
+        verify(valueOperations).set("idempotency:order:" + userEmail + ":key-1",
+                objectMapper.writeValueAsString(stored), Duration.ofMillis(orderProps.getIdempotency().getRetentionMs()));
+    }
+
+    private String hash(CreateOrderRequest request) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256")
+                .digest(objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest);
+    }
+}
@@ -5,32 +5,50 @@ import com.ecommerce.backend.modules.cart.entity.Cart;
 import com.ecommerce.backend.modules.cart.entity.CartItem;
 import com.ecommerce.backend.modules.cart.repository.CartRepository;
 import com.ecommerce.backend.modules.cart.service.CartService;
+import com.ecommerce.backend.modules.inventory.service.InventoryService;
+import com.ecommerce.backend.modules.order.config.OrderProps;
+import com.ecommerce.backend.modules.order.dto.BulkOrderStatusUpdateRequest;
+import com.ecommerce.backend.modules.order.dto.BulkOrderStatusUpdateResult;
 import com.ecommerce.backend.modules.order.dto.CreateOrderRequest;
+import com.ecommerce.backend.modules.order.dto.OrderDto;
 import com.ecommerce.backend.modules.order.dto.OrderStatusUpdateRequest;
+import com.ecommerce.backend.modules.order.dto.OrdersPage;
 import com.ecommerce.backend.modules.order.entity.Order;
 import com.ecommerce.backend.modules.order.entity.OrderStatus;
+import com.ecommerce.backend.modules.order.repository.OrderJdbcRepository;
+import com.ecommerce.backend.modules.order.repository.OrderViewJdbcRepository;
 import com.ecommerce.backend.modules.order.repository.OrdersRepository;
+import com.ecommerce.backend.modules.order.repository.UserOrderStatsJdbcRepository;
 import com.ecommerce.backend.modules.product.entity.Product;
-import com.ecommerce.backend.modules.product.repository.ProductRepository;
 import com.ecommerce.backend.modules.user.entity.User;
 import com.ecommerce.backend.modules.user.repository.UserRepository;
+import com.ecommerce.backend.shared.cache.CacheGenerations;
 import com.ecommerce.backend.shared.dto.AddressDto;
 import com.ecommerce.backend.shared.events.BaseEvent;
 import com.ecommerce.backend.shared.events.OrderCreatedEvent;
 import com.ecommerce.backend.shared.events.OrderStatusChangedEvent;
+import com.ecommerce.backend.shared.exception.InsufficientStockException;
 import com.ecommerce.backend.shared.outbox.EventPublisher;
+import com.ecommerce.backend.shared.pagination.CursorPageRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -40,15 +58,29 @@ class OrderServiceTest {
     @Mock
     private OrdersRepository ordersRepository;
     @Mock
+    private OrderJdbcRepository orderJdbcRepository;
+    @Mock
+    private OrderViewJdbcRepository orderViewJdbcRepository;
+    @Mock
+    private UserOrderStatsJdbcRepository userOrderStatsJdbcRepository;
+    @Mock
     private UserRepository userRepository;
     @Mock
-    private ProductRepository productRepository;
+    private CheckoutPricingService checkoutPricingService;
     @Mock
     private EventPublisher eventPublisher;
     @Mock
     private CartService cartService;
     @Mock
     private CartRepository cartRepository;
+    @Mock
+    private InventoryService inventoryService;
+    @Spy
+    private OrderProps orderProps = new OrderProps();
+    @Mock
+    private CacheGenerations cacheGenerations;
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
     @InjectMocks
     private OrderService orderService;
@@ -83,7 +115,10 @@ class OrderServiceTest {
         CreateOrderRequest request = new CreateOrderRequest(new AddressDto(), "comment");
         when(userRepository.findByEmail(userEmail)).thenReturn(Optional.of(user));
         when(cartRepository.findByUserIdWithItems(user.getId())).thenReturn(Optional.of(cart));
-        when(productRepository.findById(product.getId())).thenReturn(Optional.of(product));
+        when(checkoutPricingService.price(cart)).thenReturn(new CheckoutPricingService.Quote(
+                List.of(new CheckoutPricingService.Line(product, 2, BigDecimal.TEN, BigDecimal.valueOf(20))),
+                BigDecimal.valueOf(20),
+                List.of()));
         when(ordersRepository.save(any(Order.class))).thenAnswer(invocation -> {
             Order orderToSave = invocation.getArgument(0);
             orderToSave.setId(1L);
@@ -96,6 +131,33 @@ class OrderServiceTest {
         verify(eventPublisher).publish(eventCaptor.capture(), eq(RabbitConfig.ORDER_EVENTS_EXCHANGE), eq("order.created"));
         assertThat(eventCaptor.getValue()).isInstanceOf(OrderCreatedEvent.class);
         verify(cartService).clearCart(user.getId());
+        verify(cacheGenerations).bump("orders:" + userEmail);
+        verify(userOrderStatsJdbcRepository).recordOrder(user.getId(), BigDecimal.valueOf(20));
+    }
+
+    @Test
+    void createOrder_shouldFailFastWhenSyncReservationIsShort() {
+        orderProps.getCheckout().setReservationMode(OrderProps.ReservationMode.SYNC);
+        CreateOrderRequest request = new CreateOrderRequest(new AddressDto(), "comment");
+        when(userRepository.findByEmail(userEmail)).thenReturn(Optional.of(user));
+        when(cartRepository.findByUserIdWithItems(user.getId())).thenReturn(Optional.of(cart));
+        when(checkoutPricingService.price(cart)).thenReturn(new CheckoutPricingService.Quote(
+                List.of(new CheckoutPricingService.Line(product, 2, BigDecimal.TEN, BigDecimal.valueOf(20))),
+                BigDecimal.valueOf(20),
+                List.of()));
+        when(ordersRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order orderToSave = invocation.getArgument(0);
+            orderToSave.setId(1L);
+            return orderToSave;
+        });
+        doThrow(new InsufficientStockException(Map.of(10L, 2), Map.of(10L, 1)))
+                .when(inventoryService).reserveProduct(1L, Map.of(10L, 2), userEmail);
+
+        assertThatThrownBy(() -> orderService.createOrder(userEmail, request))
+                .isInstanceOf(InsufficientStockException.class)
+                .satisfies(e -> assertThat(((InsufficientStockException) e).getItems())
+                        .containsExactly(Map.of("productId", 10L, "requested", 2, "available", 1)));
+        verifyNoInteractions(eventPublisher, cartService);
     }
 
     @Test
@@ -104,6 +166,7 @@ class OrderServiceTest {
         order.setId(1L);
         order.setUser(user);
         order.setStatus(OrderStatus.PENDING);
+        order.setTotalAmount(BigDecimal.TEN);
         when(userRepository.findByEmail(userEmail)).thenReturn(Optional.of(user));
         when(ordersRepository.findByIdAndUser(order.getId(), user)).thenReturn(Optional.of(order));
         when(ordersRepository.save(any(Order.class))).thenReturn(order);
@@ -116,6 +179,7 @@ class OrderServiceTest {
         OrderStatusChangedEvent capturedEvent = (OrderStatusChangedEvent) eventCaptor.getValue();
         assertThat(capturedEvent.getOrder().getStatus()).isEqualTo(OrderStatus.CANCELLED);
         assertThat(capturedEvent.getOldStatus()).isEqualTo(OrderStatus.PENDING);
+        verify(userOrderStatsJdbcRepository).recordCancellations(Map.of(user.getId(), BigDecimal.TEN));
     }
 
     @Test
@@ -140,4 +204,136 @@ class OrderServiceTest {
         assertThat(capturedEvent.getOrder().getStatus()).isEqualTo(OrderStatus.SHIPPED);
         assertThat(capturedEvent.getOldStatus()).isEqualTo(OrderStatus.CONFIRMED);
     }
+
+    @Test
+    void expirePendingOrders_shouldPublishEventsForCancelledOrdersOnly() {
+        Order order = new Order();
+        order.setId(1L);
+        order.setUser(user);
+        order.setStatus(OrderStatus.CANCELLED);
+        order.setTotalAmount(BigDecimal.TEN);
+        when(orderJdbcRepository.cancelPending(List.of(1L, 2L))).thenReturn(List.of(1L));
+        when(ordersRepository.findAllWithItemsByIdIn(List.of(1L))).thenReturn(List.of(order));
+
+        List<Long> cancelled = orderService.expirePendingOrders(List.of(1L, 2L));
+
+        assertThat(cancelled).containsExactly(1L);
+        ArgumentCaptor<BaseEvent> eventCaptor = ArgumentCaptor.forClass(BaseEvent.class);
+        verify(eventPublisher).publish(eventCaptor.capture(), eq(RabbitConfig.ORDER_EVENTS_EXCHANGE), eq("order.status.changed"));
+
+        OrderStatusChangedEvent capturedEvent = (OrderStatusChangedEvent) eventCaptor.getValue();
+        assertThat(capturedEvent.getOrder().getStatus()).isEqualTo(OrderStatus.CANCELLED);
+        assertThat(capturedEvent.getOldStatus()).isEqualTo(OrderStatus.PENDING);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void bulkUpdateStatus_shouldUpdateValidOrdersInChunksAndReportTheRest() {
+        orderService.init();
+        orderProps.getBulk().setChunkSize(2);
+        Order confirmed = order(1L, OrderStatus.CONFIRMED);
+        Order pending = order(2L, OrderStatus.PENDING);
+        Order shipped = order(4L, OrderStatus.SHIPPED);
+        when(ordersRepository.findAllWithItemsByIdIn(List.of(1L, 2L))).thenReturn(List.of(confirmed, pending));
+        when(ordersRepository.findAllWithItemsByIdIn(List.of(3L, 4L))).thenReturn(List.of(shipped));
+        when(orderJdbcRepository.transition(List.of(1L), OrderStatus.CONFIRMED, OrderStatus.SHIPPED)).thenReturn(List.of(1L));
+
+        BulkOrderStatusUpdateRequest request = new BulkOrderStatusUpdateRequest();
+        request.setOrderIds(List.of(1L, 2L, 3L, 4L));
+        request.setStatus(OrderStatus.SHIPPED);
+        BulkOrderStatusUpdateResult result = orderService.bulkUpdateStatus(request, userEmail);
+
+        assertThat(result.getUpdated()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getItems()).extracting(BulkOrderStatusUpdateResult.Item::getOutcome).containsExactly(
+                BulkOrderStatusUpdateResult.Outcome.UPDATED,
+                BulkOrderStatusUpdateResult.Outcome.INVALID_TRANSITION,
+                BulkOrderStatusUpdateResult.Outcome.NOT_FOUND,
+                BulkOrderStatusUpdateResult.Outcome.UNCHANGED);
+
+        ArgumentCaptor<Collection<OrderStatusChangedEvent>> eventsCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(eventPublisher).publishAll(eventsCaptor.capture(), eq(RabbitConfig.ORDER_EVENTS_EXCHANGE), eq("order.status.changed"));
+        assertThat(eventsCaptor.getValue()).singleElement().satisfies(event -> {
+            assertThat(event.getOrder().getStatus()).isEqualTo(OrderStatus.SHIPPED);
+            assertThat(event.getOldStatus()).isEqualTo(OrderStatus.CONFIRMED);
+        });
+        verify(orderJdbcRepository, never()).transition(any(), eq(OrderStatus.PENDING), any());
+        verify(ordersRepository, never()).save(any());
+        verify(cacheGenerations, times(1)).bump("orders:" + userEmail);
+    }
+
+    @Test
+    void getAllOrders_shouldReturnNextCursorWithoutCounting() {
+        List<OrderDto> fetched = List.of(orderView(5L), orderView(4L), orderView(3L));
+        when(orderViewJdbcRepository.findAll(null, Long.MAX_VALUE, 3, 0)).thenReturn(fetched);
+
+        OrdersPage firstPage = orderService.getAllOrders(new CursorPageRequest("", 2, false));
+
+        assertThat(firstPage.getContent()).extracting(OrderDto::getId).containsExactly(5L, 4L);
+        assertThat(firstPage.getPage().getHasNext()).isTrue();
+        assertThat(firstPage.getPage().getTotalElements()).isNull();
+
+        when(orderViewJdbcRepository.findAll(null, 4L, 3, 0)).thenReturn(List.of(orderView(3L)));
+
+        OrdersPage secondPage = orderService.getAllOrders(new CursorPageRequest(firstPage.getPage().getNextCursor(), 2, false));
+
+        assertThat(secondPage.getContent()).extracting(OrderDto::getId).containsExactly(3L);
+        assertThat(secondPage.getPage().getHasNext()).isFalse();
+        assertThat(secondPage.getPage().getNextCursor()).isNull();
+        verify(orderViewJdbcRepository, never()).count(any());
+        verifyNoInteractions(ordersRepository);
+    }
+
+    @Test
+    void getOrderByIdAdmin_shouldFallBackToArchive() {
+        when(orderViewJdbcRepository.findById(3L)).thenReturn(Optional.empty());
+        when(orderViewJdbcRepository.findArchivedById(3L)).thenReturn(Optional.of(orderView(3L)));
+
+        OrderDto order = orderService.getOrderByIdAdmin(3L);
+
+        assertThat(order.getId()).isEqualTo(3L);
+        verifyNoInteractions(ordersRepository);
+    }
+
+    @Test
+    void getOrderById_shouldFallBackToArchive() {
+        when(orderViewJdbcRepository.findByIdAndUserEmail(3L, userEmail)).thenReturn(Optional.empty());
+        when(orderViewJdbcRepository.findArchivedByIdAndUserEmail(3L, userEmail)).thenReturn(Optional.of(orderView(3L)));
+
+        OrderDto order = orderService.getOrderById(userEmail, 3L);
+
+        assertThat(order.getId()).isEqualTo(3L);
+        verifyNoInteractions(ordersRepository);
+    }
+
+    @Test
+    void getUserOrders_shouldServePageFromReadModel() {
+        when(orderViewJdbcRepository.findByUserEmail(userEmail, Long.MAX_VALUE, 2, 2)).thenReturn(List.of(orderView(3L)));
+        when(orderViewJdbcRepository.countByUserEmail(userEmail)).thenReturn(3L);
+
+        OrdersPage page = orderService.getUserOrders(userEmail, PageRequest.of(1, 2));
+
+        assertThat(page.getContent()).extracting(OrderDto::getId).containsExactly(3L);
+        assertThat(page.getPage().getTotalElements()).isEqualTo(3L);
+        assertThat(page.getPage().getTotalPages()).isEqualTo(2);
+        verifyNoInteractions(ordersRepository, userRepository);
+    }
+
+    private Order order(Long id, OrderStatus status) {
+        Order order = new Order();
+        order.setId(id);
+        order.setUser(user);
+        order.setStatus(status);
+        order.setTotalAmount(BigDecimal.TEN);
+        return order;
+    }
+
+    private OrderDto orderView(Long id) {
+        return OrderDto.builder()
+                .id(id)
+                .userId(user.getId())
+                .userEmail(userEmail)
+                .orderStatus(OrderStatus.PENDING)
+                .build();
+    }
 }
@@ -6,6 +6,7 @@ import com.ecommerce.backend.modules.product.dto.ProductResponse;
 import com.ecommerce.backend.modules.product.dto.UpdateProductRequest;
 import com.ecommerce.backend.modules.product.entity.Product;
 import com.ecommerce.backend.modules.product.repository.ProductRepository;
+import com.ecommerce.backend.shared.cache.CacheGenerations;
 import com.ecommerce.backend.shared.exception.ResourceNotFoundException;
 import com.ecommerce.backend.shared.exception.ValidationException;
 import org.junit.jupiter.api.BeforeEach;
@@ -32,6 +33,9 @@ public class ProductServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CacheGenerations cacheGenerations;
+
     @InjectMocks
     private ProductService productService;
 
@@ -126,6 +130,7 @@ public class ProductServiceTest {
         productService.deleteProduct(1L);
 
         verify(productRepository).deleteById(1L);
+        verify(cacheGenerations).bump("products");
     }
 
     @Test
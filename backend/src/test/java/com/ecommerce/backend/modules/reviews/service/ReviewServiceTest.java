@@ -9,6 +9,7 @@ import com.ecommerce.backend.modules.reviews.entity.Review;
 import com.ecommerce.backend.modules.reviews.repository.ReviewRepository;
 import com.ecommerce.backend.modules.user.entity.User;
 import com.ecommerce.backend.modules.user.repository.UserRepository;
+import com.ecommerce.backend.shared.cache.CacheGenerations;
 import com.ecommerce.backend.shared.exception.BusinessException;
 import com.ecommerce.backend.shared.exception.ResourceNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -40,6 +41,8 @@ public class ReviewServiceTest {
     private ProductRepository productRepository;
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private CacheGenerations cacheGenerations;
 
     @InjectMocks
     private ReviewService reviewService;
@@ -87,6 +90,7 @@ public class ReviewServiceTest {
         assertThat(response.getRating()).isEqualTo(5);
         verify(productRepository).save(product);
         assertThat(product.getRating()).isEqualByComparingTo("4.5");
+        verify(cacheGenerations).bump("reviews:1");
     }
 
     @Test